@@ -0,0 +1,74 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.benchmarks;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Prefixes;
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+/**
+ * Loads the benchmark ontologies, which are packaged with the benchmarks.
+ */
+public class BenchmarkOntologies {
+    public static final String PIZZA="pizza.xml";
+    public static final String WINE="wine.xml";
+    public static final String PROPREO="propreo.xml";
+    public static final String DOLCE="dolce_all.xml";
+    public static final String GALEN="galen-ians-full-undoctored.xml";
+
+    public static OWLOntology load(String ontologyName) throws OWLOntologyCreationException {
+        OWLOntologyManager ontologyManager=OWLManager.createOWLOntologyManager();
+        URL resource=BenchmarkOntologies.class.getResource("res/"+ontologyName);
+        if (resource==null)
+            throw new IllegalArgumentException("Unknown benchmark ontology '"+ontologyName+"'.");
+        return ontologyManager.loadOntologyFromOntologyDocument(IRI.create(resource.toString()));
+    }
+    public static Reasoner createReasoner(OWLOntology ontology) {
+        Configuration configuration=new Configuration();
+        configuration.throwInconsistentOntologyException=false;
+        return new Reasoner(configuration,ontology);
+    }
+    /**
+     * Returns the atomic concepts of the reasoner's DL-ontology without the internal ones, sorted by IRI so that each
+     * run processes them in the same order.
+     */
+    public static List<AtomicConcept> getAtomicConcepts(Reasoner reasoner) {
+        List<AtomicConcept> atomicConcepts=new ArrayList<AtomicConcept>();
+        for (AtomicConcept atomicConcept : reasoner.getDLOntology().getAllAtomicConcepts())
+            if (!Prefixes.isInternalIRI(atomicConcept.getIRI()))
+                atomicConcepts.add(atomicConcept);
+        Collections.sort(atomicConcepts,new Comparator<AtomicConcept>() {
+            public int compare(AtomicConcept atomicConcept1,AtomicConcept atomicConcept2) {
+                return atomicConcept1.getIRI().compareTo(atomicConcept2.getIRI());
+            }
+        });
+        return atomicConcepts;
+    }
+}
@@ -0,0 +1,71 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks selected by the given JMH command line options. Unless the result format or the result file
+ * are given explicitly, the results are written in JSON format to jmh-result-VERSION.json, where VERSION is the
+ * version of the benchmarked HermiT build.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException,IOException {
+        CommandLineOptions commandLineOptions;
+        try {
+            commandLineOptions=new CommandLineOptions(args);
+        }
+        catch (CommandLineOptionException error) {
+            System.err.println("Error parsing command line: "+error.getMessage());
+            System.exit(1);
+            return;
+        }
+        OptionsBuilder optionsBuilder=new OptionsBuilder();
+        optionsBuilder.parent(commandLineOptions);
+        if (!commandLineOptions.getResultFormat().hasValue())
+            optionsBuilder.resultFormat(ResultFormatType.JSON);
+        if (!commandLineOptions.getResult().hasValue())
+            optionsBuilder.result("jmh-result-"+getVersion()+".json");
+        Options options=optionsBuilder.build();
+        new Runner(options).run();
+    }
+    protected static String getVersion() throws IOException {
+        Properties properties=new Properties();
+        InputStream input=BenchmarkRunner.class.getResourceAsStream("benchmarks.properties");
+        if (input!=null) {
+            try {
+                properties.load(input);
+            }
+            finally {
+                input.close();
+            }
+        }
+        return properties.getProperty("version","unknown");
+    }
+}
@@ -0,0 +1,62 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.structural.OWLClausification;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+/**
+ * Measures the time needed to normalize and clausify an ontology into a DL-ontology.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=5)
+@Measurement(iterations=10)
+@Fork(1)
+public class ClausificationBenchmark {
+    @Param({ BenchmarkOntologies.PIZZA,BenchmarkOntologies.WINE,BenchmarkOntologies.PROPREO,BenchmarkOntologies.DOLCE,BenchmarkOntologies.GALEN })
+    public String ontology;
+
+    protected OWLOntology m_ontology;
+    protected Configuration m_configuration;
+
+    @Setup
+    public void setUp() throws Exception {
+        m_ontology=BenchmarkOntologies.load(ontology);
+        m_configuration=new Configuration();
+    }
+    @Benchmark
+    public Object[] preprocessAndClausify() {
+        return new OWLClausification(m_configuration).preprocessAndClausify(m_ontology,null);
+    }
+}
@@ -0,0 +1,117 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.HermiT.model.AtomicConcept;
+
+/**
+ * Measures the throughput of concurrent interning of model objects. Each thread repeatedly creates atomic concepts
+ * from a fixed pool of IRIs; a pool IRI is interned already (the common case during clausification) unless the
+ * benchmark is run with freshIRIs set to true, in which case every call interns a new object. The benchmark methods
+ * differ only in the number of threads, so the scores show how interning scales with the number of threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=5,time=1)
+@Measurement(iterations=10,time=1)
+@Fork(1)
+public class InterningBenchmark {
+    protected static final int NUMBER_OF_IRIS=4096;
+
+    @State(Scope.Benchmark)
+    public static class SharedIRIs {
+        @Param({ "false","true" })
+        public boolean freshIRIs;
+
+        public String[] m_iris;
+        // Keeps the pool objects reachable so that they stay interned.
+        public AtomicConcept[] m_atomicConcepts;
+
+        @Setup
+        public void setUp() {
+            m_iris=new String[NUMBER_OF_IRIS];
+            m_atomicConcepts=new AtomicConcept[NUMBER_OF_IRIS];
+            for (int index=0;index<NUMBER_OF_IRIS;index++) {
+                m_iris[index]="http://benchmark.hermit-reasoner.com/interning#C"+index;
+                m_atomicConcepts[index]=AtomicConcept.create(m_iris[index]);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadPosition {
+        public int m_nextIndex;
+        public long m_nextFreshIRI;
+        public String m_threadPrefix;
+
+        @Setup
+        public void setUp() {
+            m_nextIndex=System.identityHashCode(this) & (NUMBER_OF_IRIS-1);
+            m_threadPrefix="http://benchmark.hermit-reasoner.com/interning/"+Thread.currentThread().getId()+"#C";
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public AtomicConcept intern1Thread(SharedIRIs sharedIRIs,ThreadPosition threadPosition) {
+        return intern(sharedIRIs,threadPosition);
+    }
+    @Benchmark
+    @Threads(2)
+    public AtomicConcept intern2Threads(SharedIRIs sharedIRIs,ThreadPosition threadPosition) {
+        return intern(sharedIRIs,threadPosition);
+    }
+    @Benchmark
+    @Threads(4)
+    public AtomicConcept intern4Threads(SharedIRIs sharedIRIs,ThreadPosition threadPosition) {
+        return intern(sharedIRIs,threadPosition);
+    }
+    @Benchmark
+    @Threads(8)
+    public AtomicConcept intern8Threads(SharedIRIs sharedIRIs,ThreadPosition threadPosition) {
+        return intern(sharedIRIs,threadPosition);
+    }
+    @Benchmark
+    @Threads(Threads.MAX)
+    public AtomicConcept internMaxThreads(SharedIRIs sharedIRIs,ThreadPosition threadPosition) {
+        return intern(sharedIRIs,threadPosition);
+    }
+    protected static AtomicConcept intern(SharedIRIs sharedIRIs,ThreadPosition threadPosition) {
+        if (sharedIRIs.freshIRIs)
+            return AtomicConcept.create(threadPosition.m_threadPrefix+(threadPosition.m_nextFreshIRI++));
+        else {
+            int index=threadPosition.m_nextIndex;
+            threadPosition.m_nextIndex=(index+1) & (NUMBER_OF_IRIS-1);
+            return AtomicConcept.create(sharedIRIs.m_iris[index]);
+        }
+    }
+}
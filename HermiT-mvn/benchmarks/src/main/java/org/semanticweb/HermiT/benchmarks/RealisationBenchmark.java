@@ -0,0 +1,77 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+/**
+ * Measures the time needed to realise the individuals of an ontology, that is, to compute the types of all
+ * individuals using the instance manager. A fresh reasoner with an already classified class hierarchy is created
+ * before each realisation, so only the work of the instance manager is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3)
+@Measurement(iterations=10)
+@Fork(1)
+public class RealisationBenchmark {
+    @Param({ BenchmarkOntologies.WINE,BenchmarkOntologies.PIZZA })
+    public String ontology;
+
+    protected OWLOntology m_ontology;
+    protected Reasoner m_reasoner;
+
+    @Setup
+    public void loadOntology() throws Exception {
+        m_ontology=BenchmarkOntologies.load(ontology);
+    }
+    @Setup(Level.Invocation)
+    public void createReasoner() {
+        m_reasoner=BenchmarkOntologies.createReasoner(m_ontology);
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+    }
+    @TearDown(Level.Invocation)
+    public void disposeReasoner() {
+        m_reasoner.dispose();
+        m_reasoner=null;
+    }
+    @Benchmark
+    public Reasoner realize() {
+        // Computes the class assertions by calling InstanceManager.realize().
+        m_reasoner.precomputeInferences(InferenceType.CLASS_ASSERTIONS);
+        return m_reasoner;
+    }
+}
@@ -0,0 +1,80 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.Individual;
+import org.semanticweb.HermiT.tableau.ReasoningTaskDescription;
+import org.semanticweb.HermiT.tableau.Tableau;
+
+/**
+ * Measures the time needed by the tableau to test the satisfiability of all atomic concepts of an ontology. One
+ * operation consists of one satisfiability test per atomic concept, so the score reflects the cost of the tableau
+ * hot paths (DL-clause evaluation, extension tables, and blocking) rather than the cost of classification.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3)
+@Measurement(iterations=5)
+@Fork(1)
+public class TableauSatisfiabilityBenchmark {
+    @Param({ BenchmarkOntologies.PIZZA,BenchmarkOntologies.WINE,BenchmarkOntologies.PROPREO,BenchmarkOntologies.DOLCE })
+    public String ontology;
+
+    protected Reasoner m_reasoner;
+    protected Tableau m_tableau;
+    protected List<AtomicConcept> m_atomicConcepts;
+    protected Individual m_freshIndividual;
+
+    @Setup
+    public void setUp() throws Exception {
+        m_reasoner=BenchmarkOntologies.createReasoner(BenchmarkOntologies.load(ontology));
+        m_tableau=m_reasoner.getTableau();
+        m_atomicConcepts=BenchmarkOntologies.getAtomicConcepts(m_reasoner);
+        m_freshIndividual=Individual.createAnonymous("fresh-individual");
+    }
+    @TearDown
+    public void tearDown() {
+        m_reasoner.dispose();
+    }
+    @Benchmark
+    public void isSatisfiable(Blackhole blackhole) {
+        for (AtomicConcept atomicConcept : m_atomicConcepts)
+            blackhole.consume(m_tableau.isSatisfiable(true,Collections.singleton(Atom.create(atomicConcept,m_freshIndividual)),null,null,null,null,ReasoningTaskDescription.isConceptSatisfiable(atomicConcept)));
+    }
+}
@@ -29,6 +29,7 @@ import java.util.Set;
 
 import org.semanticweb.HermiT.model.AtomicConcept;
 import org.semanticweb.HermiT.monitor.TableauMonitor;
+import org.semanticweb.HermiT.tableau.ExtensionManager;
 import org.semanticweb.owlapi.reasoner.FreshEntityPolicy;
 import org.semanticweb.owlapi.reasoner.IndividualNodeSetPolicy;
 import org.semanticweb.owlapi.reasoner.OWLReasonerConfiguration;
@@ -81,6 +82,22 @@ public class Configuration implements Serializable,Cloneable,OWLReasonerConfigur
          * Forces HermiT to use pairwise blocking even if the ontology does not require that (contains no inverses).
          */
         PAIR_WISE,
+        /**
+         * Uses subset blocking, where a node is blocked by any node whose label contains the label of the blocked node.
+         * Subset blocking creates fewer nodes on ontologies with long existential chains, but it is sound only for
+         * ontologies without inverse roles, at-most restrictions, and nominals; on other ontologies HermiT falls back to
+         * single or pairwise blocking as for OPTIMAL.
+         */
+        SUBSET,
+        /**
+         * Uses single blocking as for SINGLE, but stores the labels of nodes as bit sets over dense numbers of atomic
+         * concepts. Unlike the labels of SINGLE, the bit sets are not interned: after a node's label changes, its bit set
+         * is rebuilt from the extension table, and two labels are compared a word at a time instead of by reference.
+         * This avoids the lookups in the shared set table, which pays off on ontologies with large labels that change
+         * often, but nodes with equal labels do not share their bit sets, so blocking can use more memory than with
+         * SINGLE. On ontologies with inverse roles HermiT falls back to pairwise blocking as for OPTIMAL.
+         */
+        BITSET,
         /**
          * Chooses the optimal blocking. If the ontology contains nominals HermiT will use single simple core blocking
          * (works even with inverses) and otherwise HermiT uses single blocking if the ontology contains no inverses and
@@ -192,7 +209,8 @@ public class Configuration implements Serializable,Cloneable,OWLReasonerConfigur
      */
     public TableauMonitor monitor;
     /**
-     * The parameters are passed to the Tableau class instance, but currently no parameters are used.
+     * The parameters are passed to the Tableau class instance together with the tableau options of this configuration;
+     * see getTableauParameters().
      */
     public Map<String,Object> parameters;
     /**
@@ -231,6 +249,114 @@ public class Configuration implements Serializable,Cloneable,OWLReasonerConfigur
      * If the value is set to true, then HermiT will use the Quasi Ordering Classification method even for deterministic ontologies.
      */
     public boolean forceQuasiOrderClassification;
+    /**
+     * The number of threads that HermiT uses for classifying classes and properties with the Quasi Ordering Classification
+     * method. The default value is 1, which means that all tests are performed sequentially in the reasoner's tableau. For
+     * larger values, HermiT creates one additional tableau per thread and distributes the satisfiability and subsumption
+     * tests over these tableaux; the computed hierarchies are the same as for sequential classification. Since tableau
+     * monitors are not thread-safe, classification is always sequential if a tableau monitor is used.
+     */
+    public int numberOfClassificationThreads;
+    /**
+     * The number of threads that HermiT uses for realisation, i.e., for testing the possible instances of classes and
+     * object properties. The default value is 1, which means that all tests are performed sequentially in the reasoner's
+     * tableau. For larger values, HermiT creates one additional tableau per thread and distributes the tests over these
+     * tableaux. As for classification, realisation is always sequential if a tableau monitor is used.
+     */
+    public int numberOfRealisationThreads;
+    /**
+     * The directory in which HermiT caches the computed class and object property hierarchies. The default value is null,
+     * which means that hierarchies are not cached. If a directory is given, the hierarchies are stored under a fingerprint
+     * of the clausified ontology, and a reasoner for an ontology with the same fingerprint loads the hierarchies from the
+     * cache instead of classifying the ontology again.
+     */
+    public File hierarchyCacheDirectory;
+    /**
+     * The directory in which HermiT stores the blocking signature cache of the reasoner's tableau, i.e., the labels of
+     * nodes that occurred unblocked in models of satisfiable tests. The default value is null, which means that the
+     * cache lives only as long as the tableau. If a directory is given, the cache is stored under a fingerprint of the
+     * clausified ontology after classification, and a new reasoner for an ontology with the same fingerprint starts with
+     * the stored signatures. Signatures found by tests after classification are not stored. The option has no effect if the blocking signature cache
+     * is not used or if the direct blocking checker does not implement PersistentBlockingSignatures.
+     */
+    public File blockingSignatureCacheDirectory;
+    /**
+     * If set to true, a class hierarchy that has been computed before changes to the ontology are flushed is reused
+     * when the ontology is classified again: only the classes whose locality-based modules contain a changed axiom are
+     * classified again. The default value is false, which means that the ontology is classified from scratch after each
+     * change that cannot be processed incrementally by the reasoner.
+     */
+    public boolean useIncrementalClassification;
+    /**
+     * The maximal number of tableaux in the reasoner's tableau pool. The default value is 0, which means that no pool is
+     * used and that all satisfiability and entailment tests for complex class expressions and axioms are performed in
+     * the reasoner's tableau. For positive values, these tests are performed in tableaux taken from the pool, so once
+     * the consistency of the ontology has been checked, isSatisfiable(), isEntailed() and hasType() can be called for
+     * complex class expressions from several threads at the same time. If all tableaux are in use, a test waits until
+     * one is returned to the pool. As for classification, no pool is used if a tableau monitor is used.
+     */
+    public int tableauPoolSize;
+    /**
+     * The number of tableaux that are created when the reasoner's tableau pool is created. These tableaux are never
+     * discarded. The default value is 0, which means that all tableaux of the pool are created on demand.
+     */
+    public int tableauPoolWarmUpSize;
+    /**
+     * The time in milliseconds after which an idle tableau in the reasoner's tableau pool is discarded. The default value
+     * is -1, which means that idle tableaux are kept until the reasoner is disposed.
+     */
+    public long tableauPoolIdleTimeout;
+    /**
+     * The maximal number of subsumption test results that the reasoner keeps between queries, such as the tests performed
+     * when getSuperClasses() or getSubClasses() places a complex class expression into the class hierarchy, or when
+     * isEntailed() checks a subclass axiom. The least recently used results are discarded first, and all results are
+     * discarded whenever changes to the ontology are flushed. The default value is 10000; a value of 0 disables the cache.
+     */
+    public int subsumptionCacheSize;
+    /**
+     * Determines how the extension tables of the tableau store their tuples. With INT_ARRAYS, tuples are stored as int[] pages
+     * of object IDs, which reduces the work of the garbage collector on large ABoxes. With DIRECT_BUFFERS, the tuple pages
+     * and the trie nodes of the tuple indexes are stored as object IDs off-heap in direct buffers, while the registry that
+     * maps the IDs back to nodes, predicates and dependency sets, as well as the hash buckets of the indexes, stay on the
+     * Java heap; the direct buffers count against -XX:MaxDirectMemorySize rather than the heap size. The default value is
+     * OBJECT_ARRAYS.
+     */
+    public ExtensionManager.TupleStorageType tupleStorageType;
+    /**
+     * If set to true, the ABox is partitioned into its connected components whenever the ontology allows for this, i.e.,
+     * if it contains no nominals and no universal role. Consistency is then checked one component at a time, and tests
+     * for possible instances load only the components of the individuals involved in the test. The default value is false.
+     */
+    public boolean useABoxModularisation;
+    /**
+     * If set to true, the first test that loads the whole permanent ABox saturates it up to the first nondeterministic
+     * choice and records the resulting state. Subsequent tests that load the permanent ABox, such as instance checks,
+     * start from the recorded state instead of loading and saturating the ABox again. The state is discarded whenever a
+     * test does not load the permanent ABox or uses an additional ontology. If ABox modularisation is used as well, the
+     * recorded state is that of the components loaded by the last test, so it is reused by the next test only if that
+     * test loads the same components. The default value is false.
+     */
+    public boolean cacheSaturatedPermanentABox;
+    /**
+     * If set to true, the DL-clauses are evaluated by nested join loops instead of interpreting the compiled workers
+     * one at a time, which allows the JIT compiler to inline the retrievals in the innermost loop of hyperresolution.
+     * DL-clauses whose compiled workers do not have the expected structure are still interpreted. The default value is
+     * false.
+     */
+    public boolean useJoinLoops;
+    /**
+     * If set to true, the body atoms of the DL-clauses are ordered by the estimated number of matches, which is computed
+     * from the number of tuples per predicate and per argument in the models of previous tests. The DL-clauses are
+     * compiled again whenever the models have grown enough for the statistics to be collected again. The default value
+     * is false.
+     */
+    public boolean useCostBasedJoinOrdering;
+    /**
+     * If set to true, the new tuples of each derivation round are grouped by predicate before they are dispatched to the
+     * DL-clauses, so the DL-clauses of one predicate are looked up once per round and are applied to all new tuples of
+     * that predicate in one go. The sizes of the groups are reported to the tableau monitor. The default value is false.
+     */
+    public boolean batchDeltaTuples;
 
     public Configuration() {
         warningMonitor=null;
@@ -251,6 +377,35 @@ public class Configuration implements Serializable,Cloneable,OWLReasonerConfigur
         throwInconsistentOntologyException=true;
         prepareReasonerInferences=null;
         forceQuasiOrderClassification=false;
+        numberOfClassificationThreads=1;
+        numberOfRealisationThreads=1;
+        hierarchyCacheDirectory=null;
+        blockingSignatureCacheDirectory=null;
+        useIncrementalClassification=false;
+        tableauPoolSize=0;
+        tableauPoolWarmUpSize=0;
+        tableauPoolIdleTimeout=-1;
+        subsumptionCacheSize=10000;
+        tupleStorageType=ExtensionManager.TupleStorageType.OBJECT_ARRAYS;
+        useABoxModularisation=false;
+        cacheSaturatedPermanentABox=false;
+        useJoinLoops=false;
+        useCostBasedJoinOrdering=false;
+        batchDeltaTuples=false;
+    }
+    /**
+     * Returns the parameters that are passed to the Tableau class instance, i.e., the entries of the parameters map
+     * together with the tableau options of this configuration.
+     */
+    public Map<String,Object> getTableauParameters() {
+        Map<String,Object> result=new HashMap<String,Object>(parameters);
+        result.put("ExtensionManager.tupleStorageType",tupleStorageType);
+        result.put("Tableau.useABoxModularisation",Boolean.valueOf(useABoxModularisation));
+        result.put("Tableau.cacheSaturatedPermanentABox",Boolean.valueOf(cacheSaturatedPermanentABox));
+        result.put("DLClauseEvaluator.useJoinLoops",Boolean.valueOf(useJoinLoops));
+        result.put("HyperresolutionManager.useCostBasedJoinOrdering",Boolean.valueOf(useCostBasedJoinOrdering));
+        result.put("HyperresolutionManager.batchDeltaTuples",Boolean.valueOf(batchDeltaTuples));
+        return result;
     }
     protected void setIndividualReuseStrategyReuseAlways(Set<? extends AtomicConcept> concepts) {
         parameters.put("IndividualReuseStrategy.reuseAlways",concepts);
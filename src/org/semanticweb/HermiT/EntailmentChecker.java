@@ -28,7 +28,6 @@ import java.util.Set;
 import org.semanticweb.HermiT.model.AtomicRole;
 import org.semanticweb.HermiT.model.InternalDatatype;
 import org.semanticweb.HermiT.tableau.ReasoningTaskDescription;
-import org.semanticweb.HermiT.tableau.Tableau;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
@@ -145,8 +144,7 @@ public class EntailmentChecker implements OWLAxiomVisitorEx<Boolean> {
             if (!ax.accept(this))
                 return false;
         for (OWLAxiom ax : anonIndChecker.getAnonNoNamedIndAxioms()) {
-            Tableau t=reasoner.getTableau(ax);
-            if (t.isSatisfiable(true,true,null,null,null,null,null,new ReasoningTaskDescription(false,"Anonymous individual check: "+ax.toString())))
+            if (reasoner.isSatisfiable(true,new ReasoningTaskDescription(false,"Anonymous individual check: "+ax.toString()),ax))
                 return false;
         }
         return true;
@@ -440,8 +438,7 @@ public class EntailmentChecker implements OWLAxiomVisitorEx<Boolean> {
             OWLDataUnionOf union=factory.getOWLDataUnionOf(dr1,dr2);
             OWLClassExpression c=factory.getOWLDataSomeValuesFrom(freshDataProperty,union);
             OWLClassAssertionAxiom ax=factory.getOWLClassAssertionAxiom(c,freshIndividual);
-            Tableau tableau=reasoner.getTableau(ax);
-            return !tableau.isSatisfiable(true,true,null,null,null,null,null,ReasoningTaskDescription.isAxiomEntailed(axiom));
+            return !reasoner.isSatisfiable(true,ReasoningTaskDescription.isAxiomEntailed(axiom),ax);
         }
         else
             return false;
@@ -482,8 +479,7 @@ public class EntailmentChecker implements OWLAxiomVisitorEx<Boolean> {
             i++;
         }
         axioms.add(factory.getOWLDifferentIndividualsAxiom(individualA,individualB));
-        Tableau tableau=reasoner.getTableau(axioms.toArray(new OWLAxiom[axioms.size()]));
-        return !tableau.isSatisfiable(true,true,null,null,null,null,null,ReasoningTaskDescription.isAxiomEntailed(axiom));
+        return !reasoner.isSatisfiable(true,ReasoningTaskDescription.isAxiomEntailed(axiom),axioms.toArray(new OWLAxiom[axioms.size()]));
     }
 
     protected class AnonymousIndividualForestBuilder implements OWLAxiomVisitor {
@@ -0,0 +1,537 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.HermiT.hierarchy.Hierarchy;
+import org.semanticweb.HermiT.hierarchy.HierarchyNode;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.AtomicRole;
+import org.semanticweb.HermiT.model.Individual;
+import org.semanticweb.HermiT.model.Role;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLDataProperty;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
+import org.semanticweb.owlapi.reasoner.InconsistentOntologyException;
+import org.semanticweb.owlapi.reasoner.IndividualNodeSetPolicy;
+import org.semanticweb.owlapi.reasoner.Node;
+import org.semanticweb.owlapi.reasoner.NodeSet;
+import org.semanticweb.owlapi.reasoner.impl.OWLClassNode;
+import org.semanticweb.owlapi.reasoner.impl.OWLClassNodeSet;
+import org.semanticweb.owlapi.reasoner.impl.OWLDataPropertyNode;
+import org.semanticweb.owlapi.reasoner.impl.OWLDataPropertyNodeSet;
+import org.semanticweb.owlapi.reasoner.impl.OWLNamedIndividualNode;
+import org.semanticweb.owlapi.reasoner.impl.OWLNamedIndividualNodeSet;
+import org.semanticweb.owlapi.reasoner.impl.OWLObjectPropertyNode;
+import org.semanticweb.owlapi.reasoner.impl.OWLObjectPropertyNodeSet;
+
+/**
+ * An immutable view of the class and property hierarchies and of the realisation of a consistent ontology. The
+ * snapshot is created by Reasoner.createQuerySnapshot(), which first precomputes the required inferences; after that,
+ * the hierarchies and the direct types of all individuals are stored in arrays indexed by node and individual numbers,
+ * so queries for named classes, properties and individuals do not touch the reasoner and can be answered concurrently
+ * from any number of threads. Queries that the snapshot cannot answer, such as queries for complex class expressions
+ * or for entities that did not occur in the ontology, are delegated to the reasoner while holding the reasoner's lock.
+ * The snapshot reflects the ontology at the time it was created; delegated queries, however, are answered by the
+ * reasoner in its current state.
+ * <p>
+ * The reasoner's lock only serializes the queries that the snapshots of one reasoner delegate to it; the methods of
+ * the reasoner itself do not synchronize on it. Hence, while snapshots of a reasoner may still be queried from other
+ * threads, the reasoner must not be used directly, for example to answer queries or to process changes, unless the
+ * caller holds the reasoner's lock as well.
+ */
+public final class QuerySnapshot {
+    protected final Reasoner m_reasoner;
+    protected final FrozenHierarchy<AtomicConcept,OWLClass> m_classHierarchy;
+    protected final FrozenHierarchy<Role,OWLObjectPropertyExpression> m_objectPropertyHierarchy;
+    protected final FrozenHierarchy<AtomicRole,OWLDataProperty> m_dataPropertyHierarchy;
+    protected final boolean m_groupBySameAs;
+    protected final Map<Individual,Integer> m_indexesByIndividual;
+    protected final OWLNamedIndividual[] m_individuals;
+    protected final int[][] m_sameIndividuals;
+    protected final int[][] m_directTypes;
+    protected final int[][] m_directInstances;
+
+    QuerySnapshot(Reasoner reasoner) {
+        m_reasoner=reasoner;
+        reasoner.checkPreConditions();
+        if (!reasoner.isConsistent())
+            throw new InconsistentOntologyException();
+        boolean hasIndividuals=!reasoner.getDLOntology().getAllIndividuals().isEmpty();
+        reasoner.classifyClasses();
+        reasoner.classifyObjectProperties();
+        reasoner.classifyDataProperties();
+        if (hasIndividuals) {
+            reasoner.realise();
+            reasoner.precomputeSameAsEquivalenceClasses();
+        }
+        m_classHierarchy=new FrozenHierarchy<AtomicConcept,OWLClass>(reasoner.m_atomicConceptHierarchy) {
+            protected Node<OWLClass> toNode(HierarchyNode<AtomicConcept> hierarchyNode) {
+                return m_reasoner.atomicConceptHierarchyNodeToNode(hierarchyNode);
+            }
+            protected Node<OWLClass> createNode(Set<OWLClass> entities) {
+                return new OWLClassNode(entities);
+            }
+            protected NodeSet<OWLClass> createNodeSet(Set<Node<OWLClass>> nodes) {
+                return new OWLClassNodeSet(nodes);
+            }
+        };
+        m_objectPropertyHierarchy=new FrozenHierarchy<Role,OWLObjectPropertyExpression>(reasoner.m_objectRoleHierarchy) {
+            protected Node<OWLObjectPropertyExpression> toNode(HierarchyNode<Role> hierarchyNode) {
+                return m_reasoner.objectPropertyHierarchyNodeToNode(hierarchyNode);
+            }
+            protected Node<OWLObjectPropertyExpression> createNode(Set<OWLObjectPropertyExpression> entities) {
+                return new OWLObjectPropertyNode(entities);
+            }
+            protected NodeSet<OWLObjectPropertyExpression> createNodeSet(Set<Node<OWLObjectPropertyExpression>> nodes) {
+                return new OWLObjectPropertyNodeSet(nodes);
+            }
+        };
+        m_dataPropertyHierarchy=new FrozenHierarchy<AtomicRole,OWLDataProperty>(reasoner.m_dataRoleHierarchy) {
+            protected Node<OWLDataProperty> toNode(HierarchyNode<AtomicRole> hierarchyNode) {
+                return m_reasoner.dataPropertyHierarchyNodeToNode(hierarchyNode);
+            }
+            protected Node<OWLDataProperty> createNode(Set<OWLDataProperty> entities) {
+                return new OWLDataPropertyNode(entities);
+            }
+            protected NodeSet<OWLDataProperty> createNodeSet(Set<Node<OWLDataProperty>> nodes) {
+                return new OWLDataPropertyNodeSet(nodes);
+            }
+        };
+        m_groupBySameAs=reasoner.m_configuration.individualNodeSetPolicy==IndividualNodeSetPolicy.BY_SAME_AS;
+        List<Individual> individuals=new ArrayList<Individual>();
+        for (Individual individual : reasoner.getDLOntology().getAllIndividuals())
+            if (Reasoner.isResultRelevantIndividual(individual))
+                individuals.add(individual);
+        OWLDataFactory factory=reasoner.getDataFactory();
+        m_indexesByIndividual=new HashMap<Individual,Integer>();
+        m_individuals=new OWLNamedIndividual[individuals.size()];
+        for (int index=0;index<m_individuals.length;index++) {
+            m_indexesByIndividual.put(individuals.get(index),index);
+            m_individuals[index]=factory.getOWLNamedIndividual(IRI.create(individuals.get(index).getIRI()));
+        }
+        m_sameIndividuals=new int[m_individuals.length][];
+        m_directTypes=new int[m_individuals.length][];
+        List<List<Integer>> directInstances=new ArrayList<List<Integer>>();
+        for (int nodeIndex=0;nodeIndex<m_classHierarchy.m_nodes.length;nodeIndex++)
+            directInstances.add(new ArrayList<Integer>());
+        if (hasIndividuals) {
+            for (int index=0;index<m_individuals.length;index++) {
+                Individual individual=individuals.get(index);
+                Set<Integer> sameIndividuals=new HashSet<Integer>();
+                for (Individual sameIndividual : reasoner.m_instanceManager.getSameAsIndividuals(individual)) {
+                    Integer sameIndex=m_indexesByIndividual.get(sameIndividual);
+                    if (sameIndex!=null)
+                        sameIndividuals.add(sameIndex);
+                }
+                sameIndividuals.add(index);
+                m_sameIndividuals[index]=toArray(sameIndividuals);
+                Set<Integer> directTypes=new HashSet<Integer>();
+                for (HierarchyNode<AtomicConcept> typeNode : reasoner.m_instanceManager.getTypes(individual,true))
+                    directTypes.add(m_classHierarchy.m_indexesByElement.get(typeNode.getRepresentative()));
+                m_directTypes[index]=toArray(directTypes);
+                for (int typeIndex : m_directTypes[index])
+                    directInstances.get(typeIndex).add(index);
+            }
+        }
+        m_directInstances=new int[directInstances.size()][];
+        for (int nodeIndex=0;nodeIndex<m_directInstances.length;nodeIndex++)
+            m_directInstances[nodeIndex]=toArray(directInstances.get(nodeIndex));
+    }
+    public Reasoner getReasoner() {
+        return m_reasoner;
+    }
+
+    // Class queries
+
+    public Node<OWLClass> getEquivalentClasses(OWLClassExpression classExpression) {
+        int index=getClassIndex(classExpression);
+        if (index==-1) {
+            synchronized (m_reasoner) {
+                return m_reasoner.getEquivalentClasses(classExpression);
+            }
+        }
+        return m_classHierarchy.getNode(index);
+    }
+    public NodeSet<OWLClass> getSuperClasses(OWLClassExpression classExpression,boolean direct) {
+        int index=getClassIndex(classExpression);
+        if (index==-1) {
+            synchronized (m_reasoner) {
+                return m_reasoner.getSuperClasses(classExpression,direct);
+            }
+        }
+        return m_classHierarchy.getSuperNodes(index,direct);
+    }
+    public NodeSet<OWLClass> getSubClasses(OWLClassExpression classExpression,boolean direct) {
+        int index=getClassIndex(classExpression);
+        if (index==-1) {
+            synchronized (m_reasoner) {
+                return m_reasoner.getSubClasses(classExpression,direct);
+            }
+        }
+        return m_classHierarchy.getSubNodes(index,direct);
+    }
+    public Node<OWLClass> getUnsatisfiableClasses() {
+        return m_classHierarchy.getNode(m_classHierarchy.m_bottomIndex);
+    }
+    public boolean isSatisfiable(OWLClassExpression classExpression) {
+        int index=getClassIndex(classExpression);
+        if (index==-1) {
+            synchronized (m_reasoner) {
+                return m_reasoner.isSatisfiable(classExpression);
+            }
+        }
+        return index!=m_classHierarchy.m_bottomIndex;
+    }
+    public boolean isSubClassOf(OWLClassExpression subClassExpression,OWLClassExpression superClassExpression) {
+        int subIndex=getClassIndex(subClassExpression);
+        int superIndex=getClassIndex(superClassExpression);
+        if (subIndex==-1 || superIndex==-1) {
+            synchronized (m_reasoner) {
+                return m_reasoner.isSubClassOf(subClassExpression,superClassExpression);
+            }
+        }
+        return subIndex==m_classHierarchy.m_bottomIndex || m_classHierarchy.isAncestor(subIndex,superIndex);
+    }
+    protected int getClassIndex(OWLClassExpression classExpression) {
+        if (classExpression instanceof OWLClass)
+            return m_classHierarchy.getIndex(Reasoner.H((OWLClass)classExpression));
+        else
+            return -1;
+    }
+
+    // Property queries
+
+    public Node<OWLObjectPropertyExpression> getEquivalentObjectProperties(OWLObjectPropertyExpression propertyExpression) {
+        int index=m_objectPropertyHierarchy.getIndex(Reasoner.H(propertyExpression));
+        if (index==-1) {
+            synchronized (m_reasoner) {
+                return m_reasoner.getEquivalentObjectProperties(propertyExpression);
+            }
+        }
+        return m_objectPropertyHierarchy.getNode(index);
+    }
+    public NodeSet<OWLObjectPropertyExpression> getSuperObjectProperties(OWLObjectPropertyExpression propertyExpression,boolean direct) {
+        int index=m_objectPropertyHierarchy.getIndex(Reasoner.H(propertyExpression));
+        if (index==-1) {
+            synchronized (m_reasoner) {
+                return m_reasoner.getSuperObjectProperties(propertyExpression,direct);
+            }
+        }
+        return m_objectPropertyHierarchy.getSuperNodes(index,direct);
+    }
+    public NodeSet<OWLObjectPropertyExpression> getSubObjectProperties(OWLObjectPropertyExpression propertyExpression,boolean direct) {
+        int index=m_objectPropertyHierarchy.getIndex(Reasoner.H(propertyExpression));
+        if (index==-1) {
+            synchronized (m_reasoner) {
+                return m_reasoner.getSubObjectProperties(propertyExpression,direct);
+            }
+        }
+        return m_objectPropertyHierarchy.getSubNodes(index,direct);
+    }
+    public Node<OWLDataProperty> getEquivalentDataProperties(OWLDataProperty property) {
+        int index=m_dataPropertyHierarchy.getIndex(Reasoner.H(property));
+        if (index==-1) {
+            synchronized (m_reasoner) {
+                return m_reasoner.getEquivalentDataProperties(property);
+            }
+        }
+        return m_dataPropertyHierarchy.getNode(index);
+    }
+    public NodeSet<OWLDataProperty> getSuperDataProperties(OWLDataProperty property,boolean direct) {
+        int index=m_dataPropertyHierarchy.getIndex(Reasoner.H(property));
+        if (index==-1) {
+            synchronized (m_reasoner) {
+                return m_reasoner.getSuperDataProperties(property,direct);
+            }
+        }
+        return m_dataPropertyHierarchy.getSuperNodes(index,direct);
+    }
+    public NodeSet<OWLDataProperty> getSubDataProperties(OWLDataProperty property,boolean direct) {
+        int index=m_dataPropertyHierarchy.getIndex(Reasoner.H(property));
+        if (index==-1) {
+            synchronized (m_reasoner) {
+                return m_reasoner.getSubDataProperties(property,direct);
+            }
+        }
+        return m_dataPropertyHierarchy.getSubNodes(index,direct);
+    }
+
+    // Individual queries
+
+    public NodeSet<OWLClass> getTypes(OWLNamedIndividual namedIndividual,boolean direct) {
+        Integer individualIndex=m_indexesByIndividual.get(Reasoner.H(namedIndividual));
+        if (individualIndex==null) {
+            synchronized (m_reasoner) {
+                return m_reasoner.getTypes(namedIndividual,direct);
+            }
+        }
+        int[] directTypes=m_directTypes[individualIndex.intValue()];
+        Set<Node<OWLClass>> result=new HashSet<Node<OWLClass>>();
+        if (direct)
+            for (int typeIndex : directTypes)
+                m_classHierarchy.addNode(typeIndex,result);
+        else
+            for (int typeIndex : directTypes)
+                for (int ancestorIndex : m_classHierarchy.m_ancestors[typeIndex])
+                    m_classHierarchy.addNode(ancestorIndex,result);
+        return new OWLClassNodeSet(result);
+    }
+    public boolean hasType(OWLNamedIndividual namedIndividual,OWLClassExpression type,boolean direct) {
+        Integer individualIndex=m_indexesByIndividual.get(Reasoner.H(namedIndividual));
+        int typeIndex=getClassIndex(type);
+        if (individualIndex==null || typeIndex==-1) {
+            synchronized (m_reasoner) {
+                return m_reasoner.hasType(namedIndividual,type,direct);
+            }
+        }
+        for (int directTypeIndex : m_directTypes[individualIndex.intValue()])
+            if (directTypeIndex==typeIndex || (!direct && m_classHierarchy.isAncestor(directTypeIndex,typeIndex)))
+                return true;
+        return false;
+    }
+    public NodeSet<OWLNamedIndividual> getInstances(OWLClassExpression classExpression,boolean direct) {
+        int index=getClassIndex(classExpression);
+        if (index==-1) {
+            synchronized (m_reasoner) {
+                return m_reasoner.getInstances(classExpression,direct);
+            }
+        }
+        Set<Node<OWLNamedIndividual>> result=new HashSet<Node<OWLNamedIndividual>>();
+        if (direct)
+            addInstances(m_directInstances[index],result);
+        else
+            for (int nodeIndex : m_classHierarchy.getDescendants(index))
+                addInstances(m_directInstances[nodeIndex],result);
+        return new OWLNamedIndividualNodeSet(result);
+    }
+    /**
+     * Adds the nodes of the given individuals to the given set. Individuals that are the same are grouped into equal
+     * nodes, so the set contains each such node only once.
+     */
+    protected void addInstances(int[] individualIndexes,Set<Node<OWLNamedIndividual>> result) {
+        for (int individualIndex : individualIndexes)
+            if (m_groupBySameAs) {
+                Set<OWLNamedIndividual> sameIndividuals=new HashSet<OWLNamedIndividual>();
+                for (int sameIndex : m_sameIndividuals[individualIndex])
+                    sameIndividuals.add(m_individuals[sameIndex]);
+                result.add(new OWLNamedIndividualNode(sameIndividuals));
+            }
+            else
+                result.add(new OWLNamedIndividualNode(m_individuals[individualIndex]));
+    }
+    public Node<OWLNamedIndividual> getSameIndividuals(OWLNamedIndividual namedIndividual) {
+        Integer individualIndex=m_indexesByIndividual.get(Reasoner.H(namedIndividual));
+        if (individualIndex==null) {
+            synchronized (m_reasoner) {
+                return m_reasoner.getSameIndividuals(namedIndividual);
+            }
+        }
+        Set<OWLNamedIndividual> result=new HashSet<OWLNamedIndividual>();
+        for (int sameIndex : m_sameIndividuals[individualIndex.intValue()])
+            result.add(m_individuals[sameIndex]);
+        return new OWLNamedIndividualNode(result);
+    }
+    public boolean isSameIndividual(OWLNamedIndividual namedIndividual1,OWLNamedIndividual namedIndividual2) {
+        Integer individualIndex1=m_indexesByIndividual.get(Reasoner.H(namedIndividual1));
+        Integer individualIndex2=m_indexesByIndividual.get(Reasoner.H(namedIndividual2));
+        if (individualIndex1==null || individualIndex2==null) {
+            synchronized (m_reasoner) {
+                return m_reasoner.isSameIndividual(namedIndividual1,namedIndividual2);
+            }
+        }
+        for (int sameIndex : m_sameIndividuals[individualIndex1.intValue()])
+            if (sameIndex==individualIndex2.intValue())
+                return true;
+        return false;
+    }
+    protected static int[] toArray(Set<Integer> integers) {
+        return toArray(new ArrayList<Integer>(integers));
+    }
+    protected static int[] toArray(List<Integer> integers) {
+        int[] result=new int[integers.size()];
+        for (int index=0;index<result.length;index++)
+            result[index]=integers.get(index).intValue();
+        return result;
+    }
+
+    /**
+     * A hierarchy whose nodes are numbered and whose edges are stored as arrays of node numbers. The ancestors of each
+     * node are precomputed as a sorted array, so subsumption tests do not traverse the hierarchy. The OWL API nodes are
+     * mutable, so a fresh copy of the stored entities is returned for each query.
+     */
+    protected static abstract class FrozenHierarchy<E,T extends OWLObject> {
+        protected final Map<E,Integer> m_indexesByElement;
+        protected final Set<T>[] m_nodes;
+        protected final int[][] m_parents;
+        protected final int[][] m_children;
+        protected final int[][] m_ancestors;
+        protected final int m_topIndex;
+        protected final int m_bottomIndex;
+
+        @SuppressWarnings("unchecked")
+        public FrozenHierarchy(Hierarchy<E> hierarchy) {
+            List<HierarchyNode<E>> hierarchyNodes=new ArrayList<HierarchyNode<E>>(hierarchy.getAllNodesSet());
+            Map<HierarchyNode<E>,Integer> indexesByNode=new HashMap<HierarchyNode<E>,Integer>();
+            for (int index=0;index<hierarchyNodes.size();index++)
+                indexesByNode.put(hierarchyNodes.get(index),index);
+            m_indexesByElement=new HashMap<E,Integer>();
+            m_nodes=new Set[hierarchyNodes.size()];
+            m_parents=new int[hierarchyNodes.size()][];
+            m_children=new int[hierarchyNodes.size()][];
+            for (int index=0;index<hierarchyNodes.size();index++) {
+                HierarchyNode<E> hierarchyNode=hierarchyNodes.get(index);
+                for (E element : hierarchyNode.getEquivalentElements())
+                    m_indexesByElement.put(element,index);
+                m_nodes[index]=Collections.unmodifiableSet(new HashSet<T>(toNode(hierarchyNode).getEntities()));
+                m_parents[index]=toArray(hierarchyNode.getParentNodes(),indexesByNode);
+                m_children[index]=toArray(hierarchyNode.getChildNodes(),indexesByNode);
+            }
+            m_topIndex=indexesByNode.get(hierarchy.getTopNode());
+            m_bottomIndex=indexesByNode.get(hierarchy.getBottomNode());
+            m_ancestors=computeAncestors();
+        }
+        /**
+         * Computes the sorted array of the ancestors of each node, including the node itself. The nodes are processed
+         * in topological order, so the ancestors of a node are the union of the ancestors of its parents.
+         */
+        protected int[][] computeAncestors() {
+            int[][] ancestors=new int[m_nodes.length][];
+            int[] numberOfUnprocessedParents=new int[m_nodes.length];
+            int[] queue=new int[m_nodes.length];
+            int queueEnd=0;
+            for (int index=0;index<m_nodes.length;index++) {
+                numberOfUnprocessedParents[index]=m_parents[index].length;
+                if (numberOfUnprocessedParents[index]==0)
+                    queue[queueEnd++]=index;
+            }
+            int[] lastMarkedBy=new int[m_nodes.length];
+            Arrays.fill(lastMarkedBy,-1);
+            int[] buffer=new int[m_nodes.length];
+            for (int queueStart=0;queueStart<queueEnd;queueStart++) {
+                int index=queue[queueStart];
+                int numberOfAncestors=0;
+                buffer[numberOfAncestors++]=index;
+                lastMarkedBy[index]=index;
+                for (int parentIndex : m_parents[index])
+                    for (int ancestorIndex : ancestors[parentIndex])
+                        if (lastMarkedBy[ancestorIndex]!=index) {
+                            lastMarkedBy[ancestorIndex]=index;
+                            buffer[numberOfAncestors++]=ancestorIndex;
+                        }
+                ancestors[index]=new int[numberOfAncestors];
+                System.arraycopy(buffer,0,ancestors[index],0,numberOfAncestors);
+                Arrays.sort(ancestors[index]);
+                for (int childIndex : m_children[index])
+                    if (--numberOfUnprocessedParents[childIndex]==0)
+                        queue[queueEnd++]=childIndex;
+            }
+            return ancestors;
+        }
+        protected abstract Node<T> toNode(HierarchyNode<E> hierarchyNode);
+        protected abstract Node<T> createNode(Set<T> entities);
+        protected abstract NodeSet<T> createNodeSet(Set<Node<T>> nodes);
+        public int getIndex(E element) {
+            Integer index=m_indexesByElement.get(element);
+            return index==null ? -1 : index.intValue();
+        }
+        public Node<T> getNode(int index) {
+            return createNode(m_nodes[index]);
+        }
+        public NodeSet<T> getSuperNodes(int index,boolean direct) {
+            return getRelatedNodes(index,m_parents,direct);
+        }
+        public NodeSet<T> getSubNodes(int index,boolean direct) {
+            return getRelatedNodes(index,m_children,direct);
+        }
+        /**
+         * Returns true if the node with the second index is the node with the first index or one of its ancestors.
+         */
+        public boolean isAncestor(int index,int ancestorIndex) {
+            return Arrays.binarySearch(m_ancestors[index],ancestorIndex)>=0;
+        }
+        /**
+         * Returns the indexes of the given node and of all its descendants. A node can be reached through several of its
+         * parents, so it is added only when its first parent below the given node is visited; thus, each descendant is
+         * added once without marking the visited nodes in an array as large as the hierarchy.
+         */
+        public int[] getDescendants(int index) {
+            int[] descendants=new int[16];
+            int numberOfDescendants=0;
+            descendants[numberOfDescendants++]=index;
+            for (int position=0;position<numberOfDescendants;position++) {
+                int currentIndex=descendants[position];
+                for (int childIndex : m_children[currentIndex])
+                    if (getFirstParentBelow(childIndex,index)==currentIndex) {
+                        if (numberOfDescendants==descendants.length) {
+                            int[] newDescendants=new int[descendants.length*2];
+                            System.arraycopy(descendants,0,newDescendants,0,numberOfDescendants);
+                            descendants=newDescendants;
+                        }
+                        descendants[numberOfDescendants++]=childIndex;
+                    }
+            }
+            int[] result=new int[numberOfDescendants];
+            System.arraycopy(descendants,0,result,0,numberOfDescendants);
+            return result;
+        }
+        protected int getFirstParentBelow(int index,int ancestorIndex) {
+            for (int parentIndex : m_parents[index])
+                if (isAncestor(parentIndex,ancestorIndex))
+                    return parentIndex;
+            return -1;
+        }
+        protected NodeSet<T> getRelatedNodes(int index,int[][] edges,boolean direct) {
+            Set<Node<T>> result=new HashSet<Node<T>>();
+            if (direct)
+                for (int relatedIndex : edges[index])
+                    addNode(relatedIndex,result);
+            else {
+                int[] related=(edges==m_parents ? m_ancestors[index] : getDescendants(index));
+                for (int relatedIndex : related)
+                    if (relatedIndex!=index)
+                        addNode(relatedIndex,result);
+            }
+            return createNodeSet(result);
+        }
+        protected void addNode(int index,Set<Node<T>> result) {
+            if (!m_nodes[index].isEmpty())
+                result.add(createNode(m_nodes[index]));
+        }
+        protected static <E> int[] toArray(Set<HierarchyNode<E>> nodes,Map<HierarchyNode<E>,Integer> indexesByNode) {
+            int[] result=new int[nodes.size()];
+            int index=0;
+            for (HierarchyNode<E> node : nodes)
+                result[index++]=indexesByNode.get(node).intValue();
+            return result;
+        }
+    }
+}
@@ -18,6 +18,18 @@
 
 package org.semanticweb.HermiT;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -33,11 +45,13 @@ import org.semanticweb.HermiT.Configuration.BlockingStrategyType;
 import org.semanticweb.HermiT.blocking.AncestorBlocking;
 import org.semanticweb.HermiT.blocking.AnywhereBlocking;
 import org.semanticweb.HermiT.blocking.AnywhereValidatedBlocking;
+import org.semanticweb.HermiT.blocking.BitSetDirectBlockingChecker;
 import org.semanticweb.HermiT.blocking.BlockingSignatureCache;
 import org.semanticweb.HermiT.blocking.BlockingStrategy;
 import org.semanticweb.HermiT.blocking.DirectBlockingChecker;
 import org.semanticweb.HermiT.blocking.PairWiseDirectBlockingChecker;
 import org.semanticweb.HermiT.blocking.SingleDirectBlockingChecker;
+import org.semanticweb.HermiT.blocking.SubsetDirectBlockingChecker;
 import org.semanticweb.HermiT.blocking.ValidatedPairwiseDirectBlockingChecker;
 import org.semanticweb.HermiT.blocking.ValidatedSingleDirectBlockingChecker;
 import org.semanticweb.HermiT.debugger.Debugger;
@@ -47,13 +61,18 @@ import org.semanticweb.HermiT.existentials.IndividualReuseStrategy;
 import org.semanticweb.HermiT.hierarchy.ClassificationProgressMonitor;
 import org.semanticweb.HermiT.hierarchy.DeterministicClassification;
 import org.semanticweb.HermiT.hierarchy.Hierarchy;
+import org.semanticweb.HermiT.hierarchy.HierarchyCache;
 import org.semanticweb.HermiT.hierarchy.HierarchyDumperFSS;
 import org.semanticweb.HermiT.hierarchy.HierarchyNode;
 import org.semanticweb.HermiT.hierarchy.HierarchyPrinterFSS;
 import org.semanticweb.HermiT.hierarchy.HierarchySearch;
+import org.semanticweb.HermiT.hierarchy.IncrementalClassification;
 import org.semanticweb.HermiT.hierarchy.InstanceManager;
+import org.semanticweb.HermiT.hierarchy.InstanceVisitor;
 import org.semanticweb.HermiT.hierarchy.QuasiOrderClassification;
+import org.semanticweb.HermiT.hierarchy.SubsumptionCache;
 import org.semanticweb.HermiT.hierarchy.QuasiOrderClassificationForRoles;
+import org.semanticweb.HermiT.hierarchy.TableauWorkQueue;
 import org.semanticweb.HermiT.model.Atom;
 import org.semanticweb.HermiT.model.AtomicConcept;
 import org.semanticweb.HermiT.model.AtomicRole;
@@ -76,9 +95,11 @@ import org.semanticweb.HermiT.structural.OWLClausification;
 import org.semanticweb.HermiT.structural.OWLNormalization;
 import org.semanticweb.HermiT.structural.ObjectPropertyInclusionManager;
 import org.semanticweb.HermiT.structural.ReducedABoxOnlyClausification;
+import org.semanticweb.HermiT.tableau.ABoxComponents;
 import org.semanticweb.HermiT.tableau.InterruptFlag;
 import org.semanticweb.HermiT.tableau.ReasoningTaskDescription;
 import org.semanticweb.HermiT.tableau.Tableau;
+import org.semanticweb.HermiT.tableau.TableauPool;
 import org.semanticweb.owlapi.model.AddAxiom;
 import org.semanticweb.owlapi.model.AddOntologyAnnotation;
 import org.semanticweb.owlapi.model.AxiomType;
@@ -145,18 +166,25 @@ import org.semanticweb.owlapi.vocab.PrefixOWLOntologyFormat;
  * Answers queries about the logical implications of a particular knowledge base. A Reasoner is associated with a single knowledge base, which is "loaded" when the reasoner is constructed. By default a full classification of all atomic terms in the knowledge base is also performed at this time (which can take quite a while for large or complex ontologies), but this behavior can be disabled as a part of the Reasoner configuration. Internal details of the loading and reasoning algorithms can be configured in the Reasoner constructor and do not change over the lifetime of the Reasoner object---internal data structures and caches are optimized for a particular configuration. By default, HermiT will use the set of options which provide optimal performance.
  */
 public class Reasoner implements OWLReasoner {
+    protected static final int SNAPSHOT_MAGIC_NUMBER=0x48535331;
+    protected static final int SNAPSHOT_FORMAT_VERSION=2;
+
     protected final OntologyChangeListener m_ontologyChangeListener;
     protected final Configuration m_configuration;
     protected final OWLOntology m_rootOntology;
     protected final List<OWLOntologyChange> m_pendingChanges;
     protected final Collection<DescriptionGraph> m_descriptionGraphs;
     protected final InterruptFlag m_interruptFlag;
+    protected final Object m_clausificationLock;
     protected ObjectPropertyInclusionManager m_objectPropertyInclusionManager;
     protected DLOntology m_dlOntology;
     protected Prefixes m_prefixes;
     protected Tableau m_tableau;
+    protected TableauPool m_tableauPool;
+    protected final SubsumptionCache m_subsumptionCache;
     protected Boolean m_isConsistent;
     protected Hierarchy<AtomicConcept> m_atomicConceptHierarchy;
+    protected IncrementalClassification m_incrementalClassification;
     protected Hierarchy<Role> m_objectRoleHierarchy;
     protected Hierarchy<AtomicRole> m_dataRoleHierarchy;
     protected Map<Role,Set<HierarchyNode<AtomicConcept>>> m_directObjectRoleDomains;
@@ -208,10 +236,37 @@ public class Reasoner implements OWLReasoner {
         else
             m_descriptionGraphs=descriptionGraphs;
         m_interruptFlag=new InterruptFlag(configuration.individualTaskTimeout);
+        m_clausificationLock=new Object();
+        m_subsumptionCache=(configuration.subsumptionCacheSize>0 ? new SubsumptionCache(configuration.subsumptionCacheSize) : null);
         m_directDisjointClasses=new HashMap<HierarchyNode<AtomicConcept>,Set<HierarchyNode<AtomicConcept>>>();
         loadOntology();
     }
 
+    /**
+     * Creates a new reasoner object for the given ontology from an already clausified DL-ontology, its prefixes and the
+     * object property inclusion manager that has been created while clausifying the ontology.
+     */
+    protected Reasoner(Configuration configuration,OWLOntology rootOntology,ObjectPropertyInclusionManager objectPropertyInclusionManager,DLOntology dlOntology,Prefixes prefixes) {
+        m_ontologyChangeListener=new OntologyChangeListener();
+        m_configuration=configuration;
+        m_rootOntology=rootOntology;
+        m_pendingChanges=new ArrayList<OWLOntologyChange>();
+        m_rootOntology.getOWLOntologyManager().addOntologyChangeListener(m_ontologyChangeListener);
+        m_descriptionGraphs=dlOntology.getAllDescriptionGraphs();
+        m_interruptFlag=new InterruptFlag(configuration.individualTaskTimeout);
+        m_clausificationLock=new Object();
+        m_subsumptionCache=(configuration.subsumptionCacheSize>0 ? new SubsumptionCache(configuration.subsumptionCacheSize) : null);
+        m_directDisjointClasses=new HashMap<HierarchyNode<AtomicConcept>,Set<HierarchyNode<AtomicConcept>>>();
+        clearState();
+        m_objectPropertyInclusionManager=objectPropertyInclusionManager;
+        m_dlOntology=dlOntology;
+        m_prefixes=prefixes;
+        m_tableau=createTableau(m_interruptFlag,m_configuration,m_dlOntology,null,m_prefixes);
+        loadBlockingSignatureCache();
+        createTableauPool();
+        m_instanceManager=null;
+    }
+
     // Life-cycle management methods
 
     protected void loadOntology() {
@@ -224,8 +279,131 @@ public class Reasoner implements OWLReasoner {
         // Load the DLOntology
         createPrefixes();
         m_tableau=createTableau(m_interruptFlag,m_configuration,m_dlOntology,null,m_prefixes);
+        loadBlockingSignatureCache();
+        createTableauPool();
         m_instanceManager=null;
     }
+    /**
+     * Writes a snapshot of the preprocessed ontology of this reasoner to the given file. The snapshot contains the
+     * DL-ontology, the prefixes and the automata of the object property inclusions, so that loadSnapshot() can create a
+     * reasoner for the same ontology without preprocessing and clausifying it again. The reasoner must not have pending
+     * changes.
+     * <p>
+     * A snapshot starts with a header that is written using a DataOutputStream and that consists of a magic number, the
+     * version of the snapshot format, the version of HermiT, a fingerprint of the axioms of the ontology and its imports,
+     * a fingerprint of the DL-ontology, and the configuration options that affect clausification. The header is followed
+     * by the automata of the object property inclusions in the format of ObjectPropertyInclusionManager.save(), and then
+     * by the DL-ontology and the prefixes, which are written using Java serialization.
+     */
+    public void saveSnapshot(File file) throws IOException {
+        OutputStream outputStream=new BufferedOutputStream(new FileOutputStream(file),65536);
+        try {
+            saveSnapshot(outputStream);
+        }
+        finally {
+            outputStream.close();
+        }
+    }
+    public void saveSnapshot(OutputStream outputStream) throws IOException {
+        if (!m_pendingChanges.isEmpty())
+            throw new IllegalStateException("The reasoner has pending changes; call flush() before writing a snapshot.");
+        DataOutputStream dataOutputStream=new DataOutputStream(outputStream);
+        dataOutputStream.writeInt(SNAPSHOT_MAGIC_NUMBER);
+        dataOutputStream.writeInt(SNAPSHOT_FORMAT_VERSION);
+        dataOutputStream.writeUTF(getSnapshotHermiTVersion());
+        dataOutputStream.writeLong(getOntologyFingerprint(m_rootOntology));
+        dataOutputStream.writeLong(getDLOntologyFingerprint(m_dlOntology));
+        dataOutputStream.writeBoolean(m_configuration.ignoreUnsupportedDatatypes);
+        m_objectPropertyInclusionManager.save(dataOutputStream);
+        ObjectOutputStream objectOutputStream=new ObjectOutputStream(dataOutputStream);
+        objectOutputStream.writeObject(m_dlOntology);
+        objectOutputStream.writeObject(m_prefixes);
+        objectOutputStream.flush();
+    }
+    /**
+     * Creates a new reasoner for the given ontology from a snapshot written by saveSnapshot(). The ontology must be the
+     * one for which the snapshot has been written, which is checked using the fingerprint of its axioms; it is not
+     * preprocessed or clausified, but it is used to answer queries that refer to the OWL API objects and to process
+     * later changes. Snapshots written by a different version of HermiT or using a different snapshot format are
+     * rejected with an IOException.
+     */
+    public static Reasoner loadSnapshot(Configuration configuration,OWLOntology rootOntology,File file) throws IOException {
+        InputStream inputStream=new BufferedInputStream(new FileInputStream(file),65536);
+        try {
+            return loadSnapshot(configuration,rootOntology,inputStream);
+        }
+        finally {
+            inputStream.close();
+        }
+    }
+    public static Reasoner loadSnapshot(Configuration configuration,OWLOntology rootOntology,InputStream inputStream) throws IOException {
+        DataInputStream dataInputStream=new DataInputStream(inputStream);
+        if (dataInputStream.readInt()!=SNAPSHOT_MAGIC_NUMBER)
+            throw new IOException("The input does not contain a HermiT reasoner snapshot.");
+        int formatVersion=dataInputStream.readInt();
+        if (formatVersion!=SNAPSHOT_FORMAT_VERSION)
+            throw new IOException("The reasoner snapshot uses format version "+formatVersion+", but this version of HermiT supports only version "+SNAPSHOT_FORMAT_VERSION+".");
+        String hermiTVersion=dataInputStream.readUTF();
+        if (!getSnapshotHermiTVersion().equals(hermiTVersion))
+            throw new IOException("The reasoner snapshot has been written by HermiT version "+hermiTVersion+" and not by version "+getSnapshotHermiTVersion()+".");
+        if (dataInputStream.readLong()!=getOntologyFingerprint(rootOntology))
+            throw new IllegalArgumentException("The reasoner snapshot has not been written for the given ontology.");
+        long dlOntologyFingerprint=dataInputStream.readLong();
+        if (dataInputStream.readBoolean()!=configuration.ignoreUnsupportedDatatypes)
+            throw new IllegalArgumentException("The reasoner snapshot has been written with a different setting for ignoring unsupported datatypes.");
+        ObjectPropertyInclusionManager objectPropertyInclusionManager=ObjectPropertyInclusionManager.load(dataInputStream,rootOntology.getOWLOntologyManager().getOWLDataFactory());
+        ObjectInputStream objectInputStream=new ObjectInputStream(dataInputStream);
+        DLOntology dlOntology;
+        Prefixes prefixes;
+        try {
+            dlOntology=(DLOntology)objectInputStream.readObject();
+            prefixes=(Prefixes)objectInputStream.readObject();
+        }
+        catch (ClassNotFoundException e) {
+            IOException error=new IOException();
+            error.initCause(e);
+            throw error;
+        }
+        if (getDLOntologyFingerprint(dlOntology)!=dlOntologyFingerprint)
+            throw new IOException("The DL-ontology in the reasoner snapshot does not match the fingerprint in its header.");
+        String ontologyIRI=rootOntology.getOntologyID().getDefaultDocumentIRI()==null ? "urn:hermit:kb" : rootOntology.getOntologyID().getDefaultDocumentIRI().toString();
+        if (!ontologyIRI.equals(dlOntology.getOntologyIRI()))
+            throw new IllegalArgumentException("The reasoner snapshot has been written for the ontology '"+dlOntology.getOntologyIRI()+"' and not for '"+ontologyIRI+"'.");
+        return new Reasoner(configuration,rootOntology,objectPropertyInclusionManager,dlOntology,prefixes);
+    }
+    /**
+     * Returns the version of HermiT that is recorded in snapshots. Classes that are not loaded from the HermiT jar have
+     * no implementation version; snapshots written by such development builds are accepted only by development builds.
+     */
+    protected static String getSnapshotHermiTVersion() {
+        String version=Reasoner.class.getPackage().getImplementationVersion();
+        return version==null ? "development" : version;
+    }
+    protected static long getOntologyFingerprint(OWLOntology rootOntology) {
+        long fingerprint=0;
+        for (OWLOntology ontology : rootOntology.getImportsClosure())
+            fingerprint+=getFingerprint(ontology.getAxioms());
+        return fingerprint;
+    }
+    protected static long getDLOntologyFingerprint(DLOntology dlOntology) {
+        return (getFingerprint(dlOntology.getDLClauses())*31+getFingerprint(dlOntology.getPositiveFacts()))*31+getFingerprint(dlOntology.getNegativeFacts());
+    }
+    /**
+     * Combines the 64-bit FNV-1a hashes of the string representations of the given objects. The hashes are added, so the
+     * result does not depend on the iteration order of the collection, and, unlike hashCode(), it does not depend on
+     * object identities and is thus stable between runs.
+     */
+    protected static long getFingerprint(Collection<?> objects) {
+        long fingerprint=objects.size();
+        for (Object object : objects) {
+            String string=object.toString();
+            long hash=0xcbf29ce484222325L;
+            for (int index=0;index<string.length();index++)
+                hash=(hash^string.charAt(index))*0x100000001b3L;
+            fingerprint+=hash;
+        }
+        return fingerprint;
+    }
     protected void createPrefixes() {
         m_prefixes=new Prefixes();
         m_prefixes.declareSemanticWebPrefixes();
@@ -276,8 +454,15 @@ public class Reasoner implements OWLReasoner {
         m_dlOntology=null;
         m_prefixes=null;
         m_tableau=null;
+        if (m_tableauPool!=null) {
+            m_tableauPool.dispose();
+            m_tableauPool=null;
+        }
+        if (m_subsumptionCache!=null)
+            m_subsumptionCache.clear();
         m_isConsistent=null;
         m_atomicConceptHierarchy=null;
+        m_incrementalClassification=null;
         m_objectRoleHierarchy=null;
         m_dataRoleHierarchy=null;
         m_directObjectRoleDomains=new HashMap<Role,Set<HierarchyNode<AtomicConcept>>>();
@@ -288,6 +473,9 @@ public class Reasoner implements OWLReasoner {
     }
     public void interrupt() {
         m_interruptFlag.interrupt();
+        TableauPool tableauPool=m_tableauPool;
+        if (tableauPool!=null)
+            tableauPool.interrupt();
     }
     public OWLDataFactory getDataFactory() {
         return m_rootOntology.getOWLOntologyManager().getOWLDataFactory();
@@ -373,6 +561,8 @@ public class Reasoner implements OWLReasoner {
     }
     public void flush() {
         if (!m_pendingChanges.isEmpty()) {
+            if (m_subsumptionCache!=null)
+                m_subsumptionCache.clear();
             // check if we can only reload the ABox
             if (canProcessPendingChangesIncrementally()) {
                 Set<OWLOntology> rootOntologyImportsClosure=m_rootOntology.getImportsClosure();
@@ -404,15 +594,53 @@ public class Reasoner implements OWLReasoner {
                 for (Atom atom : negativeFacts)
                     atom.getIndividuals(allIndividuals);
                 m_dlOntology=new DLOntology(m_dlOntology.getOntologyIRI(),m_dlOntology.getDLClauses(),positiveFacts,negativeFacts,allAtomicConcepts,allAtomicObjectRoles,m_dlOntology.getAllComplexObjectRoles(),allAtomicDataRoles,m_dlOntology.getAllUnknownDatatypeRestrictions(),m_dlOntology.getDefinedDatatypeIRIs(),allIndividuals,m_dlOntology.hasInverseRoles(),m_dlOntology.hasAtMostRestrictions(),m_dlOntology.hasNominals(),m_dlOntology.hasDatatypes());
-                m_tableau=new Tableau(m_interruptFlag,m_tableau.getTableauMonitor(),m_tableau.getExistentialsExpansionStrategy(),m_configuration.useDisjunctionLearning,m_dlOntology,null,m_configuration.parameters);
+                m_tableau=new Tableau(m_interruptFlag,m_tableau.getTableauMonitor(),m_tableau.getExistentialsExpansionStrategy(),m_configuration.useDisjunctionLearning,m_dlOntology,null,m_configuration.getTableauParameters());
+                createTableauPool();
                 m_instanceManager=null;
                 m_isConsistent=null;
             }
-            else
+            else {
+                IncrementalClassification incrementalClassification=createIncrementalClassification();
                 loadOntology();
+                m_incrementalClassification=incrementalClassification;
+            }
             m_pendingChanges.clear();
         }
     }
+    /**
+     * If incremental classification is enabled, records the class hierarchy computed before the pending changes
+     * together with the TBox axioms before and after the changes, so that classifyClasses() can reuse the hierarchy
+     * for the classes that are not affected by the changes. Returns null if the hierarchy cannot be reused, e.g., if
+     * the ontology contains nominals or if the changes modify the imports.
+     */
+    protected IncrementalClassification createIncrementalClassification() {
+        if (!m_configuration.useIncrementalClassification || m_dlOntology.hasNominals() || !m_dlOntology.getAllDescriptionGraphs().isEmpty())
+            return null;
+        Set<OWLOntology> rootOntologyImportsClosure=m_rootOntology.getImportsClosure();
+        for (OWLOntologyChange change : m_pendingChanges)
+            if (rootOntologyImportsClosure.contains(change.getOntology()) && !change.isAxiomChange())
+                return null;
+        Set<OWLAxiom> currentAxioms=IncrementalClassification.getTBoxAxioms(rootOntologyImportsClosure);
+        if (m_atomicConceptHierarchy!=null) {
+            if (!Boolean.TRUE.equals(m_isConsistent))
+                return null;
+            Set<OWLAxiom> previousAxioms=new HashSet<OWLAxiom>(currentAxioms);
+            for (int index=m_pendingChanges.size()-1;index>=0;--index) {
+                OWLOntologyChange change=m_pendingChanges.get(index);
+                if (rootOntologyImportsClosure.contains(change.getOntology()) && IncrementalClassification.isTBoxAxiom(change.getAxiom())) {
+                    if (change instanceof AddAxiom)
+                        previousAxioms.remove(change.getAxiom());
+                    else
+                        previousAxioms.add(change.getAxiom());
+                }
+            }
+            return new IncrementalClassification(m_atomicConceptHierarchy,previousAxioms,currentAxioms);
+        }
+        else if (m_incrementalClassification!=null)
+            return new IncrementalClassification(m_incrementalClassification.getPreviousHierarchy(),m_incrementalClassification.getPreviousAxioms(),currentAxioms);
+        else
+            return null;
+    }
     public boolean canProcessPendingChangesIncrementally() {
         Set<OWLOntology> rootOntologyImportsClosure=m_rootOntology.getImportsClosure();
         for (OWLOntologyChange change : m_pendingChanges) {
@@ -588,6 +816,15 @@ public class Reasoner implements OWLReasoner {
         // if (requiredInferences.contains(InferenceType.DISJOINT_CLASSES))
         // precomputeDisjointClasses();
     }
+    /**
+     * Precomputes the class and property hierarchies and the realisation and returns an immutable snapshot of them that
+     * can be queried concurrently from several threads. Queries that the snapshot delegates to this reasoner synchronize
+     * on this object, but the methods of this reasoner do not, so callers that use this reasoner directly while its
+     * snapshots are queried by other threads must synchronize on it themselves.
+     */
+    public QuerySnapshot createQuerySnapshot() throws ReasonerInterruptedException,TimeOutException,InconsistentOntologyException {
+        return new QuerySnapshot(this);
+    }
     protected void initialisePropertiesInstanceManager() {
         if (m_instanceManager==null || !m_instanceManager.arePropertiesInitialised()) {
             if (m_configuration.reasonerProgressMonitor!=null)
@@ -677,10 +914,40 @@ public class Reasoner implements OWLReasoner {
     }
     public boolean isConsistent() {
         flushChangesIfRequired();
-        if (m_isConsistent==null)
+        if (m_isConsistent==null) {
+            checkABoxComponentsInParallel();
             m_isConsistent=getTableau().isSatisfiable(true,true,null,null,null,null,null,ReasoningTaskDescription.isABoxSatisfiable());
+        }
         return m_isConsistent;
     }
+    /**
+     * If the ABox has been partitioned into several components, checks the satisfiability of the components using
+     * worker tableaux. The results are cached in the partition, so the subsequent consistency check in the reasoner's
+     * tableau only combines them.
+     */
+    protected void checkABoxComponentsInParallel() {
+        Tableau tableau=getTableau();
+        final ABoxComponents permanentABoxComponents=tableau.getPermanentABoxComponents();
+        if (permanentABoxComponents!=null && permanentABoxComponents.getNumberOfComponents()>1) {
+            Tableau[] workerTableaux=createWorkerTableaux(tableau,m_configuration.numberOfRealisationThreads);
+            if (workerTableaux.length>0) {
+                try {
+                    TableauWorkQueue<Integer> workQueue=new TableauWorkQueue<Integer>() {
+                        protected void processTask(Tableau workerTableau,Integer componentIndex) {
+                            if (permanentABoxComponents.hasNoUnsatisfiableComponent())
+                                workerTableau.isABoxComponentSatisfiable(componentIndex);
+                        }
+                    };
+                    for (int componentIndex=0;componentIndex<permanentABoxComponents.getNumberOfComponents();componentIndex++)
+                        workQueue.addTask(componentIndex);
+                    workQueue.process(m_interruptFlag,workerTableaux);
+                }
+                finally {
+                    disposeWorkerTableaux(workerTableaux);
+                }
+            }
+        }
+    }
     public boolean isEntailmentCheckingSupported(AxiomType<?> axiomType) {
         return true;
     }
@@ -720,29 +987,61 @@ public class Reasoner implements OWLReasoner {
             if (!m_isConsistent)
                 m_atomicConceptHierarchy=Hierarchy.emptyHierarchy(relevantAtomicConcepts,AtomicConcept.THING,AtomicConcept.NOTHING);
             else {
-                try {
-                    final int numRelevantConcepts=relevantAtomicConcepts.size();
-                    if (m_configuration.reasonerProgressMonitor!=null)
-                        m_configuration.reasonerProgressMonitor.reasonerTaskStarted("Building the class hierarchy...");
-                    ClassificationProgressMonitor progressMonitor=new ClassificationProgressMonitor() {
-                        protected int m_processedConcepts=0;
-                        public void elementClassified(AtomicConcept element) {
-                            m_processedConcepts++;
-                            if (m_configuration.reasonerProgressMonitor!=null)
-                                m_configuration.reasonerProgressMonitor.reasonerTaskProgressChanged(m_processedConcepts,numRelevantConcepts);
+                HierarchyCache hierarchyCache=getHierarchyCache();
+                if (hierarchyCache!=null)
+                    m_atomicConceptHierarchy=hierarchyCache.loadAtomicConceptHierarchy();
+                if (m_atomicConceptHierarchy==null) {
+                    try {
+                        final int numRelevantConcepts=relevantAtomicConcepts.size();
+                        if (m_configuration.reasonerProgressMonitor!=null)
+                            m_configuration.reasonerProgressMonitor.reasonerTaskStarted("Building the class hierarchy...");
+                        ClassificationProgressMonitor progressMonitor=new ClassificationProgressMonitor() {
+                            protected int m_processedConcepts=0;
+                            public void elementClassified(AtomicConcept element) {
+                                m_processedConcepts++;
+                                if (m_configuration.reasonerProgressMonitor!=null)
+                                    m_configuration.reasonerProgressMonitor.reasonerTaskProgressChanged(m_processedConcepts,numRelevantConcepts);
+                            }
+                        };
+                        if (m_incrementalClassification!=null && !m_dlOntology.hasNominals())
+                            m_atomicConceptHierarchy=classifyAtomicConceptsIncrementally(progressMonitor,relevantAtomicConcepts);
+                        if (m_atomicConceptHierarchy==null)
+                            m_atomicConceptHierarchy=classifyAtomicConcepts(getTableau(),progressMonitor,AtomicConcept.THING,AtomicConcept.NOTHING,relevantAtomicConcepts,m_configuration.forceQuasiOrderClassification);
+                    }
+                    finally {
+                        if (m_configuration.reasonerProgressMonitor!=null)
+                            m_configuration.reasonerProgressMonitor.reasonerTaskStopped();
+                    }
+                    if (hierarchyCache!=null) {
+                        try {
+                            hierarchyCache.saveAtomicConceptHierarchy(m_atomicConceptHierarchy);
                         }
-                    };
-                    m_atomicConceptHierarchy=classifyAtomicConcepts(getTableau(),progressMonitor,AtomicConcept.THING,AtomicConcept.NOTHING,relevantAtomicConcepts,m_configuration.forceQuasiOrderClassification);
-                    if (m_instanceManager!=null)
-                        m_instanceManager.setToClassifiedConceptHierarchy(m_atomicConceptHierarchy);
-                }
-                finally {
-                    if (m_configuration.reasonerProgressMonitor!=null)
-                        m_configuration.reasonerProgressMonitor.reasonerTaskStopped();
+                        catch (IOException error) {
+                            // The cache only saves time, so the computed hierarchy is used even if it cannot be stored.
+                        }
+                    }
+                    saveBlockingSignatureCache();
                 }
+                if (m_instanceManager!=null)
+                    m_instanceManager.setToClassifiedConceptHierarchy(m_atomicConceptHierarchy);
             }
+            m_incrementalClassification=null;
         }
     }
+    /**
+     * Classifies only the classes affected by the changes since the previous classification and reuses the previous
+     * hierarchy for all other classes. Returns null if all classes are affected.
+     */
+    protected Hierarchy<AtomicConcept> classifyAtomicConceptsIncrementally(ClassificationProgressMonitor progressMonitor,Set<AtomicConcept> relevantAtomicConcepts) {
+        Set<AtomicConcept> affectedAtomicConcepts=m_incrementalClassification.getAffectedElements(getDataFactory(),AtomicConcept.THING,AtomicConcept.NOTHING,relevantAtomicConcepts);
+        if (affectedAtomicConcepts==null)
+            return null;
+        Set<AtomicConcept> elements=new HashSet<AtomicConcept>(affectedAtomicConcepts);
+        elements.add(AtomicConcept.THING);
+        elements.add(AtomicConcept.NOTHING);
+        Hierarchy<AtomicConcept> affectedHierarchy=classifyAtomicConcepts(getTableau(),progressMonitor,AtomicConcept.THING,AtomicConcept.NOTHING,elements,m_configuration.forceQuasiOrderClassification);
+        return m_incrementalClassification.buildHierarchy(getTableau(),AtomicConcept.THING,AtomicConcept.NOTHING,relevantAtomicConcepts,affectedAtomicConcepts,affectedHierarchy);
+    }
     public Node<OWLClass> getTopClassNode() {
         classifyClasses();
         return atomicConceptHierarchyNodeToNode(m_atomicConceptHierarchy.getTopNode());
@@ -764,8 +1063,7 @@ public class Reasoner implements OWLReasoner {
             OWLDataFactory factory=getDataFactory();
             OWLIndividual freshIndividual=factory.getOWLAnonymousIndividual("fresh-individual");
             OWLClassAssertionAxiom assertClassExpression=factory.getOWLClassAssertionAxiom(classExpression,freshIndividual);
-            Tableau tableau=getTableau(assertClassExpression);
-            return tableau.isSatisfiable(true,null,null,null,null,null,ReasoningTaskDescription.isConceptSatisfiable(classExpression));
+            return isSatisfiable(false,ReasoningTaskDescription.isConceptSatisfiable(classExpression),assertClassExpression);
         }
     }
     protected boolean isSubClassOf(OWLClassExpression subClassExpression,OWLClassExpression superClassExpression) {
@@ -780,24 +1078,58 @@ public class Reasoner implements OWLReasoner {
                 return subconceptNode.isEquivalentElement(superconcept) || subconceptNode.isAncestorElement(superconcept);
             }
             else {
+                Boolean cachedResult=getCachedSubsumptionTestResult(subconcept,superconcept);
+                if (cachedResult!=null)
+                    return cachedResult.booleanValue();
                 Tableau tableau=getTableau();
                 Individual freshIndividual=Individual.createAnonymous("fresh-individual");
                 Atom subconceptAssertion=Atom.create(subconcept,freshIndividual);
                 Atom superconceptAssertion=Atom.create(superconcept,freshIndividual);
-                return !tableau.isSatisfiable(true,Collections.singleton(subconceptAssertion),Collections.singleton(superconceptAssertion),null,null,null,ReasoningTaskDescription.isConceptSubsumedBy(subconcept,superconcept));
+                boolean result=!tableau.isSatisfiable(true,Collections.singleton(subconceptAssertion),Collections.singleton(superconceptAssertion),null,null,null,ReasoningTaskDescription.isConceptSubsumedBy(subconcept,superconcept));
+                cacheSubsumptionTestResult(subconcept,superconcept,result);
+                return result;
             }
         }
         else {
+            Object subsumee=getSubsumptionCacheKey(subClassExpression);
+            Object subsumer=getSubsumptionCacheKey(superClassExpression);
+            Boolean cachedResult=getCachedSubsumptionTestResult(subsumee,subsumer);
+            if (cachedResult!=null)
+                return cachedResult.booleanValue();
             OWLDataFactory factory=getDataFactory();
             OWLIndividual freshIndividual=factory.getOWLAnonymousIndividual("fresh-individual");
             OWLClassAssertionAxiom assertSubClassExpression=factory.getOWLClassAssertionAxiom(subClassExpression,freshIndividual);
             OWLClassAssertionAxiom assertNotSuperClassExpression=factory.getOWLClassAssertionAxiom(superClassExpression.getObjectComplementOf(),freshIndividual);
-            Tableau tableau=getTableau(assertSubClassExpression,assertNotSuperClassExpression);
-            boolean result=tableau.isSatisfiable(true,null,null,null,null,null,ReasoningTaskDescription.isConceptSubsumedBy(subClassExpression,superClassExpression));
-            tableau.clearAdditionalDLOntology();
-            return !result;
+            boolean result=!isSatisfiable(false,ReasoningTaskDescription.isConceptSubsumedBy(subClassExpression,superClassExpression),assertSubClassExpression,assertNotSuperClassExpression);
+            cacheSubsumptionTestResult(subsumee,subsumer,result);
+            return result;
         }
     }
+    /**
+     * Returns the object that identifies the given class expression in the subsumption cache.
+     */
+    protected Object getSubsumptionCacheKey(OWLClassExpression classExpression) {
+        if (classExpression instanceof OWLClass)
+            return H((OWLClass)classExpression);
+        else
+            return classExpression;
+    }
+    protected Boolean getCachedSubsumptionTestResult(Object subsumee,Object subsumer) {
+        if (m_subsumptionCache==null)
+            return null;
+        else
+            return m_subsumptionCache.getResult(subsumee,subsumer,m_tableau.getTableauMonitor());
+    }
+    protected void cacheSubsumptionTestResult(Object subsumee,Object subsumer,boolean result) {
+        if (m_subsumptionCache!=null)
+            m_subsumptionCache.putResult(subsumee,subsumer,result);
+    }
+    /**
+     * Returns the cache of subsumption test results, or null if the configuration disables the cache.
+     */
+    public SubsumptionCache getSubsumptionCache() {
+        return m_subsumptionCache;
+    }
     public Node<OWLClass> getEquivalentClasses(OWLClassExpression classExpression) {
         HierarchyNode<AtomicConcept> node=getHierarchyNode(classExpression);
         return atomicConceptHierarchyNodeToNode(node);
@@ -928,13 +1260,23 @@ public class Reasoner implements OWLReasoner {
             OWLClass queryConcept=factory.getOWLClass(IRI.create("internal:query-concept"));
             OWLAxiom classDefinitionAxiom=factory.getOWLEquivalentClassesAxiom(queryConcept,classExpression);
             final Tableau tableau=getTableau(classDefinitionAxiom);
+            final AtomicConcept queryAtomicConcept=AtomicConcept.create("internal:query-concept");
+            final OWLClassExpression queryClassExpression=classExpression;
             HierarchySearch.Relation<AtomicConcept> hierarchyRelation=new HierarchySearch.Relation<AtomicConcept>() {
                 public boolean doesSubsume(AtomicConcept parent,AtomicConcept child) {
+                    // The query concept is defined differently in each query, so the cache refers to it by its definition.
+                    Object subsumee=(child==queryAtomicConcept ? queryClassExpression : child);
+                    Object subsumer=(parent==queryAtomicConcept ? queryClassExpression : parent);
+                    Boolean cachedResult=getCachedSubsumptionTestResult(subsumee,subsumer);
+                    if (cachedResult!=null)
+                        return cachedResult.booleanValue();
                     Individual freshIndividual=Individual.createAnonymous("fresh-individual");
-                    return !tableau.isSatisfiable(true,Collections.singleton(Atom.create(child,freshIndividual)),null,null,Collections.singleton(Atom.create(parent,freshIndividual)),null,ReasoningTaskDescription.isConceptSubsumedBy(child,parent));
+                    boolean result=!tableau.isSatisfiable(true,Collections.singleton(Atom.create(child,freshIndividual)),null,null,Collections.singleton(Atom.create(parent,freshIndividual)),null,ReasoningTaskDescription.isConceptSubsumedBy(child,parent));
+                    cacheSubsumptionTestResult(subsumee,subsumer,result);
+                    return result;
                 }
             };
-            HierarchyNode<AtomicConcept> extendedHierarchy=HierarchySearch.findPosition(hierarchyRelation,AtomicConcept.create("internal:query-concept"),m_atomicConceptHierarchy.getTopNode(),m_atomicConceptHierarchy.getBottomNode());
+            HierarchyNode<AtomicConcept> extendedHierarchy=HierarchySearch.findPosition(hierarchyRelation,queryAtomicConcept,m_atomicConceptHierarchy.getTopNode(),m_atomicConceptHierarchy.getBottomNode());
             tableau.clearAdditionalDLOntology();
             return extendedHierarchy;
         }
@@ -953,11 +1295,18 @@ public class Reasoner implements OWLReasoner {
                         relevantObjectRoles.add(atomicRole.getInverse());
                 }
             }
+            HierarchyCache hierarchyCache=(m_isConsistent ? getHierarchyCache() : null);
+            Hierarchy<Role> cachedObjectRoleHierarchy=(hierarchyCache==null ? null : hierarchyCache.loadObjectRoleHierarchy());
             if (!m_isConsistent) {
                 relevantObjectRoles.add(AtomicRole.TOP_OBJECT_ROLE);
                 relevantObjectRoles.add(AtomicRole.BOTTOM_OBJECT_ROLE);
                 m_objectRoleHierarchy=Hierarchy.emptyHierarchy(relevantObjectRoles,AtomicRole.TOP_OBJECT_ROLE,AtomicRole.BOTTOM_OBJECT_ROLE);
             }
+            else if (cachedObjectRoleHierarchy!=null) {
+                m_objectRoleHierarchy=cachedObjectRoleHierarchy;
+                if (m_instanceManager!=null)
+                    m_instanceManager.setToClassifiedRoleHierarchy(m_objectRoleHierarchy);
+            }
             else {
                 Map<Role,AtomicConcept> conceptsForRoles=new HashMap<Role,AtomicConcept>();
                 final Map<AtomicConcept,Role> rolesForConcepts=new HashMap<AtomicConcept,Role>();
@@ -1017,6 +1366,14 @@ public class Reasoner implements OWLReasoner {
                         }
                     };
                     m_objectRoleHierarchy=atomicConceptHierarchyForRoles.transform(transformer,null);
+                    if (hierarchyCache!=null) {
+                        try {
+                            hierarchyCache.saveObjectRoleHierarchy(m_objectRoleHierarchy);
+                        }
+                        catch (IOException error) {
+                            // The cache only saves time, so the computed hierarchy is used even if it cannot be stored.
+                        }
+                    }
                     if (m_instanceManager!=null)
                         m_instanceManager.setToClassifiedRoleHierarchy(m_objectRoleHierarchy);
                 }
@@ -1601,7 +1958,13 @@ public class Reasoner implements OWLReasoner {
         if (m_dlOntology.getAllIndividuals().size()>0) {
             classifyClasses();
             initialiseClassInstanceManager();
-            m_instanceManager.realize(m_configuration.reasonerProgressMonitor);
+            Tableau[] workerTableaux=createWorkerTableaux(getTableau(),m_configuration.numberOfRealisationThreads);
+            try {
+                m_instanceManager.realize(m_configuration.reasonerProgressMonitor,workerTableaux);
+            }
+            finally {
+                disposeWorkerTableaux(workerTableaux);
+            }
         }
     }
     public void realiseObjectProperties() {
@@ -1609,7 +1972,13 @@ public class Reasoner implements OWLReasoner {
         if (m_dlOntology.getAllIndividuals().size()>0) {
             classifyObjectProperties();
             initialisePropertiesInstanceManager();
-            m_instanceManager.realizeObjectRoles(m_configuration.reasonerProgressMonitor);
+            Tableau[] workerTableaux=createWorkerTableaux(getTableau(),m_configuration.numberOfRealisationThreads);
+            try {
+                m_instanceManager.realizeObjectRoles(m_configuration.reasonerProgressMonitor,workerTableaux);
+            }
+            finally {
+                disposeWorkerTableaux(workerTableaux);
+            }
         }
     }
     public void precomputeSameAsEquivalenceClasses() {
@@ -1655,10 +2024,7 @@ public class Reasoner implements OWLReasoner {
             else {
                 OWLDataFactory factory=getDataFactory();
                 OWLAxiom negatedAssertionAxiom=factory.getOWLClassAssertionAxiom(type.getObjectComplementOf(),namedIndividual);
-                Tableau tableau=getTableau(negatedAssertionAxiom);
-                boolean result=tableau.isSatisfiable(true,true,null,null,null,null,null,ReasoningTaskDescription.isInstanceOf(namedIndividual,type));
-                tableau.clearAdditionalDLOntology();
-                return !result;
+                return !isSatisfiable(true,ReasoningTaskDescription.isInstanceOf(namedIndividual,type),negatedAssertionAxiom);
             }
         }
     }
@@ -1705,6 +2071,34 @@ public class Reasoner implements OWLReasoner {
         else
             return new OWLNamedIndividualNodeSet(new HashSet<Node<OWLNamedIndividual>>());
     }
+    /**
+     * Reports the instances of the given class to the visitor one at a time, without collecting them in a set first.
+     * Possible instances are verified only when they are reached, so a visitor that returns false after a number of
+     * instances avoids the remaining tests. Unlike getInstances(), each individual is reported on its own regardless of
+     * the individual node set policy. The visitor must not pose further queries to this reasoner. Returns false if the
+     * visitor has stopped the traversal.
+     */
+    public boolean forEachInstance(OWLClass owlClass,boolean direct,final InstanceVisitor<OWLNamedIndividual> visitor) {
+        if (m_dlOntology.getAllIndividuals().size()==0)
+            return true;
+        checkPreConditions(owlClass);
+        final OWLDataFactory factory=getDataFactory();
+        if (!m_isConsistent) {
+            for (Individual individual : m_dlOntology.getAllIndividuals())
+                if (isResultRelevantIndividual(individual))
+                    if (!visitor.visitInstance(factory.getOWLNamedIndividual(IRI.create(individual.getIRI()))))
+                        return false;
+            return true;
+        }
+        if (direct)
+            classifyClasses();
+        initialiseClassInstanceManager();
+        return m_instanceManager.forEachInstance(H(owlClass),direct,new InstanceVisitor<Individual>() {
+            public boolean visitInstance(Individual individual) {
+                return visitor.visitInstance(factory.getOWLNamedIndividual(IRI.create(individual.getIRI())));
+            }
+        });
+    }
     public boolean isSameIndividual(OWLNamedIndividual namedIndividual1,OWLNamedIndividual namedIndividual2) {
         checkPreConditions(namedIndividual1,namedIndividual2);
         if (!m_isConsistent)
@@ -1907,6 +2301,53 @@ public class Reasoner implements OWLReasoner {
 
     // Various creation methods
 
+    /**
+     * Returns the cache for the hierarchies of the current DL-ontology, or null if no hierarchy cache directory has been
+     * configured.
+     */
+    protected HierarchyCache getHierarchyCache() {
+        if (m_configuration.hierarchyCacheDirectory==null)
+            return null;
+        else
+            return new HierarchyCache(m_configuration.hierarchyCacheDirectory,m_dlOntology,m_configuration);
+    }
+    /**
+     * Returns the blocking signature cache of the reasoner's tableau, or null if the tableau does not use one.
+     */
+    public BlockingSignatureCache getBlockingSignatureCache() {
+        BlockingStrategy blockingStrategy=m_tableau.getExistentialsExpansionStrategy().getBlockingStrategy();
+        return blockingStrategy==null ? null : blockingStrategy.getBlockingSignatureCache();
+    }
+    protected File getBlockingSignatureCacheFile(String fingerprint) {
+        return new File(m_configuration.blockingSignatureCacheDirectory,fingerprint+".signatures");
+    }
+    /**
+     * Adds the signatures that have been stored for the current DL-ontology to the blocking signature cache of the
+     * reasoner's tableau if a blocking signature cache directory has been configured.
+     */
+    protected void loadBlockingSignatureCache() {
+        if (m_configuration.blockingSignatureCacheDirectory!=null) {
+            BlockingSignatureCache blockingSignatureCache=getBlockingSignatureCache();
+            if (blockingSignatureCache!=null && blockingSignatureCache.isPersistent()) {
+                String fingerprint=HierarchyCache.computeFingerprint(m_dlOntology,m_configuration);
+                blockingSignatureCache.load(getBlockingSignatureCacheFile(fingerprint),fingerprint);
+            }
+        }
+    }
+    protected void saveBlockingSignatureCache() {
+        if (m_configuration.blockingSignatureCacheDirectory!=null && m_tableau!=null) {
+            BlockingSignatureCache blockingSignatureCache=getBlockingSignatureCache();
+            if (blockingSignatureCache!=null && blockingSignatureCache.isPersistent() && !blockingSignatureCache.isEmpty()) {
+                String fingerprint=HierarchyCache.computeFingerprint(m_dlOntology,m_configuration);
+                try {
+                    blockingSignatureCache.save(getBlockingSignatureCacheFile(fingerprint),fingerprint);
+                }
+                catch (IOException error) {
+                    // The cache only saves time, so reasoning continues even if the signatures cannot be stored.
+                }
+            }
+        }
+    }
     public Tableau getTableau() {
         m_tableau.clearAdditionalDLOntology();
         return m_tableau;
@@ -1934,6 +2375,26 @@ public class Reasoner implements OWLReasoner {
                 return createTableau(m_interruptFlag,m_configuration,m_dlOntology,deltaDLOntology,m_prefixes);
         }
     }
+    /**
+     * A mostly internal method. Works like getTableau(OWLAxiom...), but adds the axioms to the given worker tableau
+     * instead of the reasoner's tableau. If the worker tableau does not support the additional axioms, a new tableau
+     * with the interrupt flag of the worker tableau is returned. Since the additional axioms are clausified with the
+     * reasoner's object property inclusion manager, concurrent calls must be synchronized by the caller.
+     */
+    public Tableau getWorkerTableau(Tableau workerTableau,OWLAxiom... additionalAxioms) throws IllegalArgumentException {
+        workerTableau.clearAdditionalDLOntology();
+        if (additionalAxioms==null || additionalAxioms.length==0)
+            return workerTableau;
+        else {
+            DLOntology deltaDLOntology=createDeltaDLOntology(m_configuration,m_dlOntology,additionalAxioms);
+            if (workerTableau.supportsAdditionalDLOntology(deltaDLOntology)) {
+                workerTableau.setAdditionalDLOntology(deltaDLOntology);
+                return workerTableau;
+            }
+            else
+                return createTableau(workerTableau.getInterruptFlag(),m_configuration,m_dlOntology,deltaDLOntology,m_prefixes);
+        }
+    }
     protected static Tableau createTableau(InterruptFlag interruptFlag,Configuration configuration,DLOntology permanentDLOntology,DLOntology additionalDLOntology,Prefixes prefixes) throws IllegalArgumentException {
         boolean hasInverseRoles=(permanentDLOntology.hasInverseRoles() || (additionalDLOntology!=null && additionalDLOntology.hasInverseRoles()));
         boolean hasNominals=(permanentDLOntology.hasNominals() || (additionalDLOntology!=null && additionalDLOntology.hasNominals()));
@@ -1989,6 +2450,22 @@ public class Reasoner implements OWLReasoner {
             else
                 directBlockingChecker=new PairWiseDirectBlockingChecker();
             break;
+        case SUBSET:
+            if (configuration.blockingStrategyType==BlockingStrategyType.SIMPLE_CORE || configuration.blockingStrategyType==BlockingStrategyType.COMPLEX_CORE)
+                directBlockingChecker=new ValidatedSingleDirectBlockingChecker(hasInverseRoles);
+            else if (hasInverseRoles)
+                directBlockingChecker=new PairWiseDirectBlockingChecker();
+            else
+                directBlockingChecker=new SubsetDirectBlockingChecker();
+            break;
+        case BITSET:
+            if (configuration.blockingStrategyType==BlockingStrategyType.SIMPLE_CORE || configuration.blockingStrategyType==BlockingStrategyType.COMPLEX_CORE)
+                directBlockingChecker=new ValidatedSingleDirectBlockingChecker(hasInverseRoles);
+            else if (hasInverseRoles)
+                directBlockingChecker=new PairWiseDirectBlockingChecker();
+            else
+                directBlockingChecker=new BitSetDirectBlockingChecker();
+            break;
         default:
             throw new IllegalArgumentException("Unknown direct blocking type.");
         }
@@ -2043,19 +2520,121 @@ public class Reasoner implements OWLReasoner {
             throw new IllegalArgumentException("Unknown expansion strategy type.");
         }
 
-        return new Tableau(interruptFlag,tableauMonitor,existentialsExpansionStrategy,configuration.useDisjunctionLearning,permanentDLOntology,additionalDLOntology,configuration.parameters);
+        return new Tableau(interruptFlag,tableauMonitor,existentialsExpansionStrategy,configuration.useDisjunctionLearning,permanentDLOntology,additionalDLOntology,configuration.getTableauParameters());
     }
     protected Hierarchy<AtomicConcept> classifyAtomicConcepts(Tableau tableau,ClassificationProgressMonitor progressMonitor,AtomicConcept topElement,AtomicConcept bottomElement,Set<AtomicConcept> elements,boolean forceQuasiOrder) {
         if (tableau.isDeterministic() && !forceQuasiOrder)
             return new DeterministicClassification(tableau,progressMonitor,topElement,bottomElement,elements).classify();
-        else
-            return new QuasiOrderClassification(tableau,progressMonitor,topElement,bottomElement,elements).classify();
+        else {
+            Tableau[] workerTableaux=createWorkerTableaux(tableau,m_configuration.numberOfClassificationThreads);
+            try {
+                QuasiOrderClassification classification=new QuasiOrderClassification(tableau,workerTableaux,progressMonitor,topElement,bottomElement,elements);
+                // Only the results of tests between classes of the ontology are valid for other queries.
+                if (topElement==AtomicConcept.THING && bottomElement==AtomicConcept.NOTHING)
+                    classification.setSubsumptionCache(m_subsumptionCache);
+                return classification.classify();
+            }
+            finally {
+                disposeWorkerTableaux(workerTableaux);
+            }
+        }
     }
     protected Hierarchy<AtomicConcept> classifyAtomicConceptsForRoles(Tableau tableau,ClassificationProgressMonitor progressMonitor,AtomicConcept topElement,AtomicConcept bottomElement,Set<AtomicConcept> elements,boolean hasInverses,Map<Role,AtomicConcept> conceptsForRoles,Map<AtomicConcept,Role> rolesForConcepts,boolean forceQuasiOrder) {
         if (tableau.isDeterministic() && !forceQuasiOrder)
             return new DeterministicClassification(tableau,progressMonitor,topElement,bottomElement,elements).classify();
+        else {
+            Tableau[] workerTableaux=createWorkerTableaux(tableau,m_configuration.numberOfClassificationThreads);
+            try {
+                return new QuasiOrderClassificationForRoles(tableau,workerTableaux,progressMonitor,topElement,bottomElement,elements,hasInverses,conceptsForRoles,rolesForConcepts).classify();
+            }
+            finally {
+                disposeWorkerTableaux(workerTableaux);
+            }
+        }
+    }
+    /**
+     * Checks whether the ontology extended with the given axioms is satisfiable; if loadPermanentABox is false, the
+     * permanent ABox is loaded only if the ontology contains nominals. If the reasoner has a tableau pool, the test is
+     * performed in a tableau from the pool, so several such tests can run concurrently; otherwise, it is performed in
+     * the reasoner's tableau.
+     */
+    protected boolean isSatisfiable(boolean loadPermanentABox,ReasoningTaskDescription reasoningTaskDescription,OWLAxiom... additionalAxioms) {
+        TableauPool tableauPool=m_tableauPool;
+        if (tableauPool==null) {
+            Tableau tableau=getTableau(additionalAxioms);
+            try {
+                return isSatisfiable(tableau,loadPermanentABox,reasoningTaskDescription);
+            }
+            finally {
+                tableau.clearAdditionalDLOntology();
+            }
+        }
+        else {
+            Tableau pooledTableau=tableauPool.acquire();
+            try {
+                Tableau tableau;
+                synchronized (m_clausificationLock) {
+                    tableau=getWorkerTableau(pooledTableau,additionalAxioms);
+                }
+                return isSatisfiable(tableau,loadPermanentABox,reasoningTaskDescription);
+            }
+            finally {
+                tableauPool.release(pooledTableau);
+            }
+        }
+    }
+    protected static boolean isSatisfiable(Tableau tableau,boolean loadPermanentABox,ReasoningTaskDescription reasoningTaskDescription) {
+        if (loadPermanentABox)
+            return tableau.isSatisfiable(true,true,null,null,null,null,null,reasoningTaskDescription);
         else
-            return new QuasiOrderClassificationForRoles(tableau,progressMonitor,topElement,bottomElement,elements,hasInverses,conceptsForRoles,rolesForConcepts).classify();
+            return tableau.isSatisfiable(true,null,null,null,null,null,reasoningTaskDescription);
+    }
+    /**
+     * Replaces the tableau pool by a new one for the current DL-ontology if the configuration asks for a pool. The
+     * tableaux of the pool share the partition of the permanent ABox with the reasoner's tableau.
+     */
+    protected void createTableauPool() {
+        if (m_tableauPool!=null) {
+            m_tableauPool.dispose();
+            m_tableauPool=null;
+        }
+        if (m_configuration.tableauPoolSize>0 && m_tableau.getTableauMonitor()==null) {
+            final DLOntology dlOntology=m_dlOntology;
+            final ABoxComponents permanentABoxComponents=m_tableau.getPermanentABoxComponents();
+            m_tableauPool=new TableauPool(m_configuration.tableauPoolSize,m_configuration.tableauPoolWarmUpSize,m_configuration.tableauPoolIdleTimeout) {
+                protected Tableau createTableau() {
+                    Tableau tableau=Reasoner.createTableau(new InterruptFlag(m_configuration.individualTaskTimeout),m_configuration,dlOntology,null,m_prefixes);
+                    tableau.setPermanentABoxComponents(permanentABoxComponents);
+                    return tableau;
+                }
+            };
+            m_tableauPool.warmUp();
+        }
+    }
+    /**
+     * Returns the reasoner's tableau pool, or null if the configuration does not ask for a pool.
+     */
+    public TableauPool getTableauPool() {
+        return m_tableauPool;
+    }
+    /**
+     * Creates tableaux for the DL-ontologies of the given tableau that can be used concurrently by worker threads. Each
+     * worker tableau has its own interrupt flag because a flag can time only one task at a time. No worker tableaux are
+     * created if fewer than two threads are requested or if a tableau monitor is used.
+     */
+    protected Tableau[] createWorkerTableaux(Tableau tableau,int numberOfThreads) {
+        if (numberOfThreads<2 || tableau.getTableauMonitor()!=null)
+            return new Tableau[0];
+        Tableau[] workerTableaux=new Tableau[numberOfThreads];
+        for (int index=0;index<numberOfThreads;index++) {
+            workerTableaux[index]=createTableau(new InterruptFlag(m_configuration.individualTaskTimeout),m_configuration,tableau.getPermanentDLOntology(),tableau.getAdditionalDLOntology(),m_prefixes);
+            workerTableaux[index].setPermanentABoxComponents(tableau.getPermanentABoxComponents());
+        }
+        return workerTableaux;
+    }
+    protected void disposeWorkerTableaux(Tableau[] workerTableaux) {
+        for (Tableau workerTableau : workerTableaux)
+            workerTableau.getInterruptFlag().dispose();
     }
     protected DLOntology createDeltaDLOntology(Configuration configuration,DLOntology originalDLOntology,OWLAxiom... additionalAxioms) throws IllegalArgumentException {
         Set<OWLAxiom> additionalAxiomsSet=new HashSet<OWLAxiom>();
@@ -38,6 +38,7 @@ public class AncestorBlocking implements BlockingStrategy,Serializable {
     protected final BlockingSignatureCache m_blockingSignatureCache;
     protected Tableau m_tableau;
     protected boolean m_useBlockingSignatureCache;
+    protected boolean m_extendBlockingSignatureCache;
 
     public AncestorBlocking(DirectBlockingChecker directBlockingChecker,BlockingSignatureCache blockingSignatureCache) {
         m_directBlockingChecker=directBlockingChecker;
@@ -55,7 +56,12 @@ public class AncestorBlocking implements BlockingStrategy,Serializable {
         updateBlockingSignatureCacheUsage();
     }
     protected void updateBlockingSignatureCacheUsage() {
-        m_useBlockingSignatureCache=(m_tableau.getAdditionalHyperresolutionManager()==null);
+        DLOntology additionalDLOntology=m_tableau.getAdditionalDLOntology();
+        m_extendBlockingSignatureCache=(additionalDLOntology==null);
+        m_useBlockingSignatureCache=(m_extendBlockingSignatureCache || (m_blockingSignatureCache!=null && BlockingSignatureCache.isUsableWith(m_tableau.getPermanentDLOntology(),additionalDLOntology)));
+    }
+    public BlockingSignatureCache getBlockingSignatureCache() {
+        return m_blockingSignatureCache;
     }
     public void clear() {
         m_directBlockingChecker.clear();
@@ -136,7 +142,7 @@ public class AncestorBlocking implements BlockingStrategy,Serializable {
         m_directBlockingChecker.nodeDestroyed(node);
     }
     public void modelFound() {
-        if (m_useBlockingSignatureCache && m_blockingSignatureCache!=null) {
+        if (m_extendBlockingSignatureCache && m_blockingSignatureCache!=null) {
             // Since we've found a model, we know what is blocked and what is not, so we don't need to update the blocking status.
             Node node=m_tableau.getFirstTableauNode();
             while (node!=null) {
@@ -18,14 +18,23 @@
 package org.semanticweb.HermiT.blocking;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.semanticweb.HermiT.graph.SparseBitSet;
+import org.semanticweb.HermiT.model.AtomicConcept;
 import org.semanticweb.HermiT.model.AtomicRole;
 import org.semanticweb.HermiT.model.Concept;
 import org.semanticweb.HermiT.model.DLClause;
 import org.semanticweb.HermiT.model.DLOntology;
 import org.semanticweb.HermiT.model.DataRange;
 import org.semanticweb.HermiT.model.Variable;
+import org.semanticweb.HermiT.monitor.TableauMonitor;
 import org.semanticweb.HermiT.tableau.DLClauseEvaluator;
 import org.semanticweb.HermiT.tableau.Node;
 import org.semanticweb.HermiT.tableau.Tableau;
@@ -38,12 +47,19 @@ public class AnywhereBlocking implements BlockingStrategy,Serializable {
     protected final BlockingSignatureCache m_blockingSignatureCache;
     protected Tableau m_tableau;
     protected boolean m_useBlockingSignatureCache;
-    protected Node m_firstChangedNode;
+    protected boolean m_extendBlockingSignatureCache;
+    protected final BlockingDependencies m_blockingDependencies;
+    protected final SparseBitSet m_changedNodeIDs;
 
     public AnywhereBlocking(DirectBlockingChecker directBlockingChecker,BlockingSignatureCache blockingSignatureCache) {
         m_directBlockingChecker=directBlockingChecker;
-        m_currentBlockersCache=new BlockersCache(m_directBlockingChecker);
+        if (m_directBlockingChecker instanceof SubsetDirectBlockingChecker)
+            m_currentBlockersCache=new SubsetBlockersCache((SubsetDirectBlockingChecker)m_directBlockingChecker);
+        else
+            m_currentBlockersCache=new BlockersCache(m_directBlockingChecker);
         m_blockingSignatureCache=blockingSignatureCache;
+        m_blockingDependencies=new BlockingDependencies();
+        m_changedNodeIDs=new SparseBitSet();
     }
     public void initialize(Tableau tableau) {
         m_tableau=tableau;
@@ -57,52 +73,74 @@ public class AnywhereBlocking implements BlockingStrategy,Serializable {
         updateBlockingSignatureCacheUsage();
     }
     protected void updateBlockingSignatureCacheUsage() {
-        m_useBlockingSignatureCache=(m_tableau.getAdditionalHyperresolutionManager()==null);
+        DLOntology additionalDLOntology=m_tableau.getAdditionalDLOntology();
+        m_extendBlockingSignatureCache=(additionalDLOntology==null);
+        m_useBlockingSignatureCache=(m_extendBlockingSignatureCache || (m_blockingSignatureCache!=null && BlockingSignatureCache.isUsableWith(m_tableau.getPermanentDLOntology(),additionalDLOntology)));
+    }
+    public BlockingSignatureCache getBlockingSignatureCache() {
+        return m_blockingSignatureCache;
     }
     public void clear() {
         m_currentBlockersCache.clear();
-        m_firstChangedNode=null;
+        m_blockingDependencies.clear();
+        m_changedNodeIDs.clear();
         m_directBlockingChecker.clear();
     }
+    /**
+     * Recomputes the blocking status of the nodes that have changed since the last call, and of the nodes whose status
+     * depends on them: the children of a node whose blocking info or blocked status has changed, the nodes directly
+     * blocked by a node that has been reexamined while being a blocker, and the later unblocked nodes that a reexamined
+     * blocker can now block. Since all these nodes come after the node that causes them to be reexamined, the nodes are
+     * processed in the order of their IDs, which is the order in which the tableau is traversed by the blockers cache.
+     */
     public void computeBlocking(boolean finalChance) {
-        if (m_firstChangedNode!=null) {
-            Node node=m_firstChangedNode;
-            while (node!=null) {
-                m_currentBlockersCache.removeNode(node);
-                node=node.getNextTableauNode();
-            }
-            node=m_firstChangedNode;
+        if (!m_changedNodeIDs.isEmpty()) {
+            SparseBitSet nodeIDsToReexamine=new SparseBitSet(m_changedNodeIDs);
             boolean checkBlockingSignatureCache=(m_useBlockingSignatureCache && m_blockingSignatureCache!=null && !m_blockingSignatureCache.isEmpty());
-            while (node!=null) {
-                if (node.isActive() && (m_directBlockingChecker.canBeBlocked(node) || m_directBlockingChecker.canBeBlocker(node))) {
-                    if (m_directBlockingChecker.hasBlockingInfoChanged(node) || !node.isDirectlyBlocked() || node.getBlocker().getNodeID()>=m_firstChangedNode.getNodeID()) {
-                        Node parent=node.getParent();
-                        if (parent==null)
-                            node.setBlocked(null,false);
-                        else if (parent.isBlocked())
-                            node.setBlocked(parent,false);
-                        else if (checkBlockingSignatureCache) {
-                            if (m_blockingSignatureCache.containsSignature(node))
-                                node.setBlocked(Node.SIGNATURE_CACHE_BLOCKER,true);
-                            else {
-                                Node blocker=m_currentBlockersCache.getBlocker(node);
-                                node.setBlocked(blocker,blocker!=null);
-                            }
-                        }
-                        else {
-                            Node blocker=m_currentBlockersCache.getBlocker(node);
-                            node.setBlocked(blocker,blocker!=null);
-                        }
-                        if (!node.isBlocked() && m_directBlockingChecker.canBeBlocker(node))
-                            m_currentBlockersCache.addNode(node);
-                    }
-                    m_directBlockingChecker.clearBlockingInfoChanged(node);
+            int numberOfReexaminedNodes=0;
+            for (int nodeID=nodeIDsToReexamine.nextSetBit(0);nodeID>=0;nodeID=nodeIDsToReexamine.nextSetBit(nodeID+1)) {
+                Node node=m_blockingDependencies.getNode(nodeID);
+                if (node!=null) {
+                    reexamineNode(node,m_changedNodeIDs.get(nodeID),checkBlockingSignatureCache,nodeIDsToReexamine);
+                    numberOfReexaminedNodes++;
                 }
-                node=node.getNextTableauNode();
             }
-            m_firstChangedNode=null;
+            m_changedNodeIDs.clear();
+            TableauMonitor tableauMonitor=m_tableau.getTableauMonitor();
+            if (tableauMonitor!=null)
+                tableauMonitor.blockingComputed(numberOfReexaminedNodes);
         }
     }
+    protected void reexamineNode(Node node,boolean hasChanged,boolean checkBlockingSignatureCache,SparseBitSet nodeIDsToReexamine) {
+        boolean wasBlocked=node.isBlocked();
+        boolean wasBlocker=(node.getBlockingCargo()!=null);
+        hasChanged|=m_directBlockingChecker.hasBlockingInfoChanged(node);
+        m_currentBlockersCache.removeNode(node);
+        if (node.isActive() && (m_directBlockingChecker.canBeBlocked(node) || m_directBlockingChecker.canBeBlocker(node))) {
+            Node parent=node.getParent();
+            if (parent==null)
+                m_blockingDependencies.setBlocked(node,null,false);
+            else if (parent.isBlocked())
+                m_blockingDependencies.setBlocked(node,parent,false);
+            else if (checkBlockingSignatureCache && m_blockingSignatureCache.containsSignature(node))
+                m_blockingDependencies.setBlocked(node,Node.SIGNATURE_CACHE_BLOCKER,true);
+            else {
+                Node blocker=m_currentBlockersCache.getBlocker(node);
+                m_blockingDependencies.setBlocked(node,blocker,blocker!=null);
+            }
+            if (!node.isBlocked() && m_directBlockingChecker.canBeBlocker(node)) {
+                m_currentBlockersCache.addNode(node);
+                m_currentBlockersCache.addBlockableNodeIDs(node,nodeIDsToReexamine);
+            }
+            m_directBlockingChecker.clearBlockingInfoChanged(node);
+        }
+        // The children can become blocked or unblocked indirectly, and their blocking info can contain the label of the node (as in pairwise blocking).
+        if (hasChanged || wasBlocked!=node.isBlocked())
+            m_blockingDependencies.addChildIDs(node,nodeIDsToReexamine);
+        // The nodes blocked by the node may no longer be blocked by it.
+        if (wasBlocker)
+            m_blockingDependencies.addDirectlyBlockedNodeIDs(node,nodeIDsToReexamine);
+    }
     public boolean isPermanentAssertion(Concept concept,Node node) {
         return true;
     }
@@ -143,22 +181,23 @@ public class AnywhereBlocking implements BlockingStrategy,Serializable {
         updateNodeChange(node);
     }
     protected final void updateNodeChange(Node node) {
-        if (node!=null && (m_firstChangedNode==null || node.getNodeID()<m_firstChangedNode.getNodeID()))
-            m_firstChangedNode=node;
+        if (node!=null && node.getNodeID()>0)
+            m_changedNodeIDs.set(node.getNodeID());
     }
     public void nodeInitialized(Node node) {
         m_directBlockingChecker.nodeInitialized(node);
+        m_blockingDependencies.nodeInitialized(node);
     }
     public void nodeDestroyed(Node node) {
         m_currentBlockersCache.removeNode(node);
         m_directBlockingChecker.nodeDestroyed(node);
-        if (m_firstChangedNode!=null && m_firstChangedNode.getNodeID()>=node.getNodeID())
-            m_firstChangedNode=null;
+        m_changedNodeIDs.clear(node.getNodeID());
+        m_blockingDependencies.nodeDestroyed(node);
     }
     public void modelFound() {
-        if (m_useBlockingSignatureCache && m_blockingSignatureCache!=null) {
+        if (m_extendBlockingSignatureCache && m_blockingSignatureCache!=null) {
             // Since we've found a model, we know what is blocked and what is not, so we don't need to update the blocking status.
-            assert m_firstChangedNode==null;
+            assert m_changedNodeIDs.isEmpty();
             Node node=m_tableau.getFirstTableauNode();
             while (node!=null) {
                 if (node.isActive() && !node.isBlocked() && m_directBlockingChecker.canBeBlocker(node))
@@ -231,7 +270,7 @@ class BlockersCache implements Serializable {
         int bucketIndex=getIndexFor(hashCode,m_buckets.length);
         CacheEntry entry=m_buckets[bucketIndex];
         while (entry!=null) {
-            if (hashCode==entry.m_hashCode && m_directBlockingChecker.isBlockedBy(entry.m_node,node))
+            if (hashCode==entry.m_hashCode && entry.m_node.getNodeID()<node.getNodeID() && m_directBlockingChecker.isBlockedBy(entry.m_node,node))
                 throw new IllegalStateException("Internal error: node already in the cache!");
             entry=entry.m_nextEntry;
         }
@@ -268,19 +307,36 @@ class BlockersCache implements Serializable {
         m_buckets=newBuckets;
         m_threshold=(int)(newCapacity*0.75);
     }
+    /**
+     * Returns a cached node that blocks the given node. Only nodes that come before the given node are considered.
+     */
     public Node getBlocker(Node node) {
         if (m_directBlockingChecker.canBeBlocked(node)) {
             int hashCode=m_directBlockingChecker.blockingHashCode(node);
             int bucketIndex=getIndexFor(hashCode,m_buckets.length);
             CacheEntry entry=m_buckets[bucketIndex];
             while (entry!=null) {
-                if (hashCode==entry.m_hashCode && m_directBlockingChecker.isBlockedBy(entry.m_node,node))
+                if (hashCode==entry.m_hashCode && entry.m_node.getNodeID()<node.getNodeID() && m_directBlockingChecker.isBlockedBy(entry.m_node,node))
                     return entry.m_node;
                 entry=entry.m_nextEntry;
             }
         }
         return null;
     }
+    /**
+     * Adds to the given set the IDs of the cached nodes that come after the given blocker and that it blocks. The
+     * lookup uses the blocking hash code of the blocker, so only blocks between nodes with equal hash codes are found.
+     */
+    public void addBlockableNodeIDs(Node blocker,SparseBitSet nodeIDs) {
+        int hashCode=m_directBlockingChecker.blockingHashCode(blocker);
+        int bucketIndex=getIndexFor(hashCode,m_buckets.length);
+        CacheEntry entry=m_buckets[bucketIndex];
+        while (entry!=null) {
+            if (hashCode==entry.m_hashCode && entry.m_node.getNodeID()>blocker.getNodeID() && m_directBlockingChecker.canBeBlocked(entry.m_node) && m_directBlockingChecker.isBlockedBy(blocker,entry.m_node))
+                nodeIDs.set(entry.m_node.getNodeID());
+            entry=entry.m_nextEntry;
+        }
+    }
     protected static int getIndexFor(int hashCode,int tableLength) {
         hashCode+=~(hashCode << 9);
         hashCode^=(hashCode >>> 14);
@@ -303,3 +359,194 @@ class BlockersCache implements Serializable {
         }
     }
 }
+/**
+ * A blockers cache that, in addition to the hash-based lookup of nodes with equal labels, indexes the atomic concept
+ * labels of the cached nodes so that a node whose label contains the label of a given node can be found. Each atomic
+ * concept is numbered, the label of each cached node is stored as a SparseBitSet over these numbers, and for each
+ * number the cache stores the nodes whose labels contain the concept. A lookup scans only the shortest of these lists
+ * for the concepts of the blocked node's label. The lookup of the nodes that a new blocker can block, which is used
+ * when blocking is recomputed incrementally, still finds only nodes with equal labels.
+ */
+class SubsetBlockersCache extends BlockersCache {
+    private static final long serialVersionUID=4306183712543802619L;
+
+    protected Map<AtomicConcept,Integer> m_indexesByConcept;
+    protected List<Set<Node>> m_nodesByConceptIndex;
+    protected Map<Node,SparseBitSet> m_labelsByNode;
+
+    public SubsetBlockersCache(SubsetDirectBlockingChecker directBlockingChecker) {
+        super(directBlockingChecker);
+    }
+    public void clear() {
+        super.clear();
+        m_indexesByConcept=new HashMap<AtomicConcept,Integer>();
+        m_nodesByConceptIndex=new ArrayList<Set<Node>>();
+        m_labelsByNode=new LinkedHashMap<Node,SparseBitSet>();
+    }
+    public void removeNode(Node node) {
+        super.removeNode(node);
+        SparseBitSet label=m_labelsByNode.remove(node);
+        if (label!=null)
+            for (int conceptIndex=label.nextSetBit(0);conceptIndex>=0;conceptIndex=label.nextSetBit(conceptIndex+1))
+                m_nodesByConceptIndex.get(conceptIndex).remove(node);
+    }
+    public void addNode(Node node) {
+        super.addNode(node);
+        SparseBitSet label=new SparseBitSet();
+        for (AtomicConcept atomicConcept : ((SubsetDirectBlockingChecker)m_directBlockingChecker).getAtomicConceptsLabel(node)) {
+            Integer conceptIndex=m_indexesByConcept.get(atomicConcept);
+            if (conceptIndex==null) {
+                conceptIndex=m_nodesByConceptIndex.size();
+                m_indexesByConcept.put(atomicConcept,conceptIndex);
+                m_nodesByConceptIndex.add(new LinkedHashSet<Node>());
+            }
+            label.set(conceptIndex.intValue());
+            m_nodesByConceptIndex.get(conceptIndex.intValue()).add(node);
+        }
+        m_labelsByNode.put(node,label);
+    }
+    public Node getBlocker(Node node) {
+        Node blocker=super.getBlocker(node);
+        if (blocker!=null || m_labelsByNode.isEmpty() || !m_directBlockingChecker.canBeBlocked(node))
+            return blocker;
+        SubsetDirectBlockingChecker directBlockingChecker=(SubsetDirectBlockingChecker)m_directBlockingChecker;
+        if (!directBlockingChecker.isSubsetBlockingApplicable())
+            return null;
+        SparseBitSet label=new SparseBitSet();
+        Set<Node> candidates=m_labelsByNode.keySet();
+        for (AtomicConcept atomicConcept : directBlockingChecker.getAtomicConceptsLabel(node)) {
+            Integer conceptIndex=m_indexesByConcept.get(atomicConcept);
+            // If no cached node contains the concept, then no cached node can block the node.
+            if (conceptIndex==null)
+                return null;
+            label.set(conceptIndex.intValue());
+            Set<Node> nodes=m_nodesByConceptIndex.get(conceptIndex.intValue());
+            if (nodes.size()<candidates.size())
+                candidates=nodes;
+        }
+        for (Node candidate : candidates)
+            if (candidate.getNodeID()<node.getNodeID() && !candidate.isBlocked() && m_labelsByNode.get(candidate).containsAll(label))
+                return candidate;
+        return null;
+    }
+}
+/**
+ * Records, for the nodes of a tableau, which nodes the blocking status of each node depends on. Each node depends on its
+ * parent, which can block it indirectly, and on the node that blocks it directly. The children and the directly blocked
+ * nodes of each node are kept in linked lists that are stored in arrays indexed by node IDs; since nodes are destroyed
+ * in the reverse order of their creation, a destroyed node is always the first child in the list of its parent.
+ */
+class BlockingDependencies implements Serializable {
+    private static final long serialVersionUID=-1385014826541093775L;
+    protected static final int INITIAL_CAPACITY=1024;
+
+    protected Node[] m_nodesByID;
+    protected int[] m_firstChildIDs;
+    protected int[] m_nextSiblingIDs;
+    protected int[] m_blockerIDs;
+    protected int[] m_firstBlockedIDs;
+    protected int[] m_nextBlockedIDs;
+    protected int[] m_previousBlockedIDs;
+
+    public BlockingDependencies() {
+        clear();
+    }
+    public void clear() {
+        m_nodesByID=new Node[INITIAL_CAPACITY];
+        m_firstChildIDs=new int[INITIAL_CAPACITY];
+        m_nextSiblingIDs=new int[INITIAL_CAPACITY];
+        m_blockerIDs=new int[INITIAL_CAPACITY];
+        m_firstBlockedIDs=new int[INITIAL_CAPACITY];
+        m_nextBlockedIDs=new int[INITIAL_CAPACITY];
+        m_previousBlockedIDs=new int[INITIAL_CAPACITY];
+    }
+    public Node getNode(int nodeID) {
+        return nodeID<m_nodesByID.length ? m_nodesByID[nodeID] : null;
+    }
+    public void nodeInitialized(Node node) {
+        int nodeID=node.getNodeID();
+        if (nodeID>=m_nodesByID.length)
+            resize(Math.max(nodeID+1,m_nodesByID.length*2));
+        m_nodesByID[nodeID]=node;
+        Node parent=node.getParent();
+        if (parent!=null) {
+            int parentID=parent.getNodeID();
+            m_nextSiblingIDs[nodeID]=m_firstChildIDs[parentID];
+            m_firstChildIDs[parentID]=nodeID;
+        }
+    }
+    public void nodeDestroyed(Node node) {
+        int nodeID=node.getNodeID();
+        unlinkFromBlocker(nodeID);
+        Node parent=node.getParent();
+        if (parent!=null) {
+            int parentID=parent.getNodeID();
+            assert m_firstChildIDs[parentID]==nodeID;
+            m_firstChildIDs[parentID]=m_nextSiblingIDs[nodeID];
+        }
+        assert m_firstChildIDs[nodeID]==0;
+        assert m_firstBlockedIDs[nodeID]==0;
+        m_nodesByID[nodeID]=null;
+        m_nextSiblingIDs[nodeID]=0;
+    }
+    /**
+     * Sets the blocker of the given node and records the dependency of the node on a direct blocker.
+     */
+    public void setBlocked(Node node,Node blocker,boolean directlyBlocked) {
+        node.setBlocked(blocker,directlyBlocked);
+        int nodeID=node.getNodeID();
+        int blockerID=(directlyBlocked && blocker.getNodeID()>0 ? blocker.getNodeID() : 0);
+        if (m_blockerIDs[nodeID]!=blockerID) {
+            unlinkFromBlocker(nodeID);
+            if (blockerID!=0) {
+                int nextBlockedID=m_firstBlockedIDs[blockerID];
+                m_blockerIDs[nodeID]=blockerID;
+                m_nextBlockedIDs[nodeID]=nextBlockedID;
+                m_previousBlockedIDs[nodeID]=0;
+                if (nextBlockedID!=0)
+                    m_previousBlockedIDs[nextBlockedID]=nodeID;
+                m_firstBlockedIDs[blockerID]=nodeID;
+            }
+        }
+    }
+    public void addChildIDs(Node node,SparseBitSet nodeIDs) {
+        for (int childID=m_firstChildIDs[node.getNodeID()];childID!=0;childID=m_nextSiblingIDs[childID])
+            nodeIDs.set(childID);
+    }
+    public void addDirectlyBlockedNodeIDs(Node node,SparseBitSet nodeIDs) {
+        for (int blockedID=m_firstBlockedIDs[node.getNodeID()];blockedID!=0;blockedID=m_nextBlockedIDs[blockedID])
+            nodeIDs.set(blockedID);
+    }
+    protected void unlinkFromBlocker(int nodeID) {
+        int blockerID=m_blockerIDs[nodeID];
+        if (blockerID!=0) {
+            int previousBlockedID=m_previousBlockedIDs[nodeID];
+            int nextBlockedID=m_nextBlockedIDs[nodeID];
+            if (previousBlockedID==0)
+                m_firstBlockedIDs[blockerID]=nextBlockedID;
+            else
+                m_nextBlockedIDs[previousBlockedID]=nextBlockedID;
+            if (nextBlockedID!=0)
+                m_previousBlockedIDs[nextBlockedID]=previousBlockedID;
+            m_blockerIDs[nodeID]=0;
+            m_nextBlockedIDs[nodeID]=0;
+            m_previousBlockedIDs[nodeID]=0;
+        }
+    }
+    protected void resize(int newCapacity) {
+        Node[] newNodesByID=new Node[newCapacity];
+        System.arraycopy(m_nodesByID,0,newNodesByID,0,m_nodesByID.length);
+        m_nodesByID=newNodesByID;
+        m_firstChildIDs=resize(m_firstChildIDs,newCapacity);
+        m_nextSiblingIDs=resize(m_nextSiblingIDs,newCapacity);
+        m_blockerIDs=resize(m_blockerIDs,newCapacity);
+        m_firstBlockedIDs=resize(m_firstBlockedIDs,newCapacity);
+        m_nextBlockedIDs=resize(m_nextBlockedIDs,newCapacity);
+        m_previousBlockedIDs=resize(m_previousBlockedIDs,newCapacity);
+    }
+    protected static int[] resize(int[] array,int newCapacity) {
+        int[] newArray=new int[newCapacity];
+        System.arraycopy(array,0,newArray,0,array.length);
+        return newArray;
+    }
+}
@@ -0,0 +1,255 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.blocking;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.semanticweb.HermiT.graph.SparseBitSet;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.AtomicRole;
+import org.semanticweb.HermiT.model.Concept;
+import org.semanticweb.HermiT.model.DataRange;
+import org.semanticweb.HermiT.tableau.ExtensionTable;
+import org.semanticweb.HermiT.tableau.Node;
+import org.semanticweb.HermiT.tableau.NodeType;
+import org.semanticweb.HermiT.tableau.Tableau;
+
+/**
+ * A single blocking checker that stores the label of each node as a SparseBitSet over dense numbers of atomic concepts
+ * instead of as a set obtained from a SetFactory. The atomic concepts of the permanent DL-ontology are numbered when the
+ * checker is initialized, and any other atomic concepts are numbered when they first occur in a label. Labels are thus
+ * compared a word at a time rather than interned in a hash table, and a label with k concepts needs at most k words.
+ * Since labels are not interned, nodes with equal labels each keep their own bit set, and the bit set of a node is
+ * rebuilt from the extension table whenever it is needed after the node's label has changed.
+ * The numbers are kept for the lifetime of the checker, so that the labels stored in blocking signatures remain valid.
+ */
+public class BitSetDirectBlockingChecker implements DirectBlockingChecker,PersistentBlockingSignatures,Serializable {
+    private static final long serialVersionUID=-1738196205264416233L;
+
+    protected final Map<AtomicConcept,Integer> m_atomicConceptIndexes;
+    protected final List<AtomicConcept> m_atomicConceptsByIndex;
+    protected Tableau m_tableau;
+    protected ExtensionTable.Retrieval m_binaryTableSearch1Bound;
+
+    public BitSetDirectBlockingChecker() {
+        m_atomicConceptIndexes=new HashMap<AtomicConcept,Integer>();
+        m_atomicConceptsByIndex=new ArrayList<AtomicConcept>();
+    }
+    public void initialize(Tableau tableau) {
+        m_tableau=tableau;
+        m_binaryTableSearch1Bound=tableau.getExtensionManager().getBinaryExtensionTable().createRetrieval(new boolean[] { false,true },ExtensionTable.View.TOTAL);
+        for (AtomicConcept atomicConcept : tableau.getPermanentDLOntology().getAllAtomicConcepts())
+            getAtomicConceptIndex(atomicConcept);
+    }
+    public void clear() {
+        m_binaryTableSearch1Bound.clear();
+    }
+    public boolean isBlockedBy(Node blocker,Node blocked) {
+        return
+            !blocker.isBlocked() &&
+            blocker.getNodeType()==NodeType.TREE_NODE &&
+            blocked.getNodeType()==NodeType.TREE_NODE &&
+            getAtomicConceptsLabel(blocker).equals(getAtomicConceptsLabel(blocked));
+    }
+    public int blockingHashCode(Node node) {
+        return ((BitSetBlockingObject)node.getBlockingObject()).m_atomicConceptsLabelHashCode;
+    }
+    public boolean canBeBlocker(Node node) {
+        return node.getNodeType()==NodeType.TREE_NODE;
+    }
+    public boolean canBeBlocked(Node node) {
+        return node.getNodeType()==NodeType.TREE_NODE;
+    }
+    public boolean hasBlockingInfoChanged(Node node) {
+        return ((BitSetBlockingObject)node.getBlockingObject()).m_hasChanged;
+    }
+    public void clearBlockingInfoChanged(Node node) {
+        ((BitSetBlockingObject)node.getBlockingObject()).m_hasChanged=false;
+    }
+    public void nodeInitialized(Node node) {
+        if (node.getBlockingObject()==null)
+            node.setBlockingObject(new BitSetBlockingObject(node));
+        ((BitSetBlockingObject)node.getBlockingObject()).initialize();
+    }
+    public void nodeDestroyed(Node node) {
+        ((BitSetBlockingObject)node.getBlockingObject()).destroy();
+    }
+    public Node assertionAdded(Concept concept,Node node,boolean isCore) {
+        if (concept instanceof AtomicConcept) {
+            ((BitSetBlockingObject)node.getBlockingObject()).addAtomicConcept((AtomicConcept)concept);
+            return node;
+        }
+        else
+            return null;
+    }
+    public Node assertionRemoved(Concept concept,Node node,boolean isCore) {
+        if (concept instanceof AtomicConcept) {
+            ((BitSetBlockingObject)node.getBlockingObject()).removeAtomicConcept((AtomicConcept)concept);
+            return node;
+        }
+        else
+            return null;
+    }
+    public Node assertionAdded(DataRange range,Node node,boolean isCore) {
+        return null;
+    }
+    public Node assertionRemoved(DataRange range,Node node,boolean isCore) {
+        return null;
+    }
+    public Node assertionAdded(AtomicRole atomicRole,Node nodeFrom,Node nodeTo,boolean isCore) {
+        return null;
+    }
+    public Node assertionRemoved(AtomicRole atomicRole,Node nodeFrom,Node nodeTo,boolean isCore) {
+        return null;
+    }
+    public Node nodesMerged(Node mergeFrom,Node mergeInto) {
+        return null;
+    }
+    public Node nodesUnmerged(Node mergeFrom,Node mergeInto) {
+        return null;
+    }
+    public BlockingSignature getBlockingSignatureFor(Node node) {
+        BitSetBlockingObject blockingObject=(BitSetBlockingObject)node.getBlockingObject();
+        return new BitSetBlockingSignature(new SparseBitSet(blockingObject.getAtomicConceptsLabel()),blockingObject.m_atomicConceptsLabelHashCode);
+    }
+    public void writeBlockingSignature(BlockingSignature signature,DataOutput output) throws IOException {
+        SparseBitSet atomicConceptsLabel=((BitSetBlockingSignature)signature).m_atomicConceptsLabel;
+        output.writeInt(atomicConceptsLabel.cardinality());
+        for (int index=atomicConceptsLabel.nextSetBit(0);index>=0;index=atomicConceptsLabel.nextSetBit(index+1))
+            output.writeUTF(m_atomicConceptsByIndex.get(index).getIRI());
+    }
+    public BlockingSignature readBlockingSignature(DataInput input) throws IOException {
+        SparseBitSet atomicConceptsLabel=new SparseBitSet();
+        int hashCode=0;
+        for (AtomicConcept atomicConcept : BlockingSignatureCache.readAtomicConcepts(input)) {
+            if (atomicConceptsLabel.set(getAtomicConceptIndex(atomicConcept)))
+                hashCode+=atomicConcept.hashCode();
+        }
+        return new BitSetBlockingSignature(atomicConceptsLabel,hashCode);
+    }
+    /**
+     * Returns the number of the given atomic concept, numbering the concept if it has not been numbered yet.
+     */
+    public int getAtomicConceptIndex(AtomicConcept atomicConcept) {
+        Integer index=m_atomicConceptIndexes.get(atomicConcept);
+        if (index==null) {
+            index=m_atomicConceptsByIndex.size();
+            m_atomicConceptIndexes.put(atomicConcept,index);
+            m_atomicConceptsByIndex.add(atomicConcept);
+        }
+        return index.intValue();
+    }
+    public AtomicConcept getAtomicConcept(int index) {
+        return m_atomicConceptsByIndex.get(index);
+    }
+    /**
+     * Returns the label of the given node. The result is owned by the checker and must not be modified.
+     */
+    public SparseBitSet getAtomicConceptsLabel(Node node) {
+        return ((BitSetBlockingObject)node.getBlockingObject()).getAtomicConceptsLabel();
+    }
+    protected SparseBitSet fetchAtomicConceptsLabel(Node node) {
+        SparseBitSet result=new SparseBitSet();
+        m_binaryTableSearch1Bound.getBindingsBuffer()[1]=node;
+        m_binaryTableSearch1Bound.open();
+        Object[] tupleBuffer=m_binaryTableSearch1Bound.getTupleBuffer();
+        while (!m_binaryTableSearch1Bound.afterLast()) {
+            Object concept=tupleBuffer[0];
+            if (concept instanceof AtomicConcept)
+                result.set(getAtomicConceptIndex((AtomicConcept)concept));
+            m_binaryTableSearch1Bound.next();
+        }
+        return result;
+    }
+    public boolean hasChangedSinceValidation(Node node) {
+        return false;
+    }
+    public void setHasChangedSinceValidation(Node node,boolean hasChanged) {
+        // do nothing
+    }
+
+    protected final class BitSetBlockingObject implements Serializable {
+        private static final long serialVersionUID=4812374150367316958L;
+
+        protected final Node m_node;
+        protected boolean m_hasChanged;
+        protected SparseBitSet m_atomicConceptsLabel;
+        protected int m_atomicConceptsLabelHashCode;
+
+        public BitSetBlockingObject(Node node) {
+            m_node=node;
+        }
+        public void initialize() {
+            m_atomicConceptsLabel=null;
+            m_atomicConceptsLabelHashCode=0;
+            m_hasChanged=true;
+        }
+        public void destroy() {
+            m_atomicConceptsLabel=null;
+        }
+        public SparseBitSet getAtomicConceptsLabel() {
+            if (m_atomicConceptsLabel==null)
+                m_atomicConceptsLabel=BitSetDirectBlockingChecker.this.fetchAtomicConceptsLabel(m_node);
+            return m_atomicConceptsLabel;
+        }
+        public void addAtomicConcept(AtomicConcept atomicConcept) {
+            // invalidate, recompute real label later if necessary
+            m_atomicConceptsLabel=null;
+            m_atomicConceptsLabelHashCode+=atomicConcept.hashCode();
+            m_hasChanged=true;
+        }
+        public void removeAtomicConcept(AtomicConcept atomicConcept) {
+            // invalidate, recompute real label later if necessary
+            m_atomicConceptsLabel=null;
+            m_atomicConceptsLabelHashCode-=atomicConcept.hashCode();
+            m_hasChanged=true;
+        }
+    }
+
+    protected static class BitSetBlockingSignature extends BlockingSignature implements Serializable {
+        private static final long serialVersionUID=-4061938235540283617L;
+
+        protected final SparseBitSet m_atomicConceptsLabel;
+        protected final int m_hashCode;
+
+        public BitSetBlockingSignature(SparseBitSet atomicConceptsLabel,int hashCode) {
+            m_atomicConceptsLabel=atomicConceptsLabel;
+            m_hashCode=hashCode;
+        }
+        public boolean blocksNode(Node node) {
+            return ((BitSetBlockingObject)node.getBlockingObject()).getAtomicConceptsLabel().equals(m_atomicConceptsLabel);
+        }
+        public int hashCode() {
+            return m_hashCode;
+        }
+        public boolean equals(Object that) {
+            if (this==that)
+                return true;
+            if (!(that instanceof BitSetBlockingSignature))
+                return false;
+            return m_atomicConceptsLabel.equals(((BitSetBlockingSignature)that).m_atomicConceptsLabel);
+        }
+    }
+}
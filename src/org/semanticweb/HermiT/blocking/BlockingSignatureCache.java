@@ -17,12 +17,41 @@
 */
 package org.semanticweb.HermiT.blocking;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtLeast;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.AtomicRole;
+import org.semanticweb.HermiT.model.DLClause;
+import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.HermiT.model.DLPredicate;
+import org.semanticweb.HermiT.model.ExistsDescriptionGraph;
+import org.semanticweb.HermiT.model.Term;
 import org.semanticweb.HermiT.tableau.Node;
 
+/**
+ * Stores the signatures of the nodes that were not blocked in the models of satisfiable tests, so that nodes with the
+ * same signature need not be expanded in later tests. The signatures can be saved to a file and loaded into the cache
+ * of another tableau for the same DL-ontology, possibly in another JVM.
+ */
 public class BlockingSignatureCache implements Serializable {
     private static final long serialVersionUID=-7692825443489644667L;
+    protected static final int MAGIC_NUMBER=0x48425331;
+    protected static final int FORMAT_VERSION=1;
 
     protected final DirectBlockingChecker m_directBlockingChecker;
     protected BlockingSignature[] m_buckets;
@@ -35,9 +64,19 @@ public class BlockingSignatureCache implements Serializable {
         m_threshold=(int)(m_buckets.length*0.75);
         m_numberOfElements=0;
     }
+    /**
+     * Returns true if the signatures of this cache can be saved and loaded, which is the case if the direct blocking
+     * checker implements PersistentBlockingSignatures.
+     */
+    public boolean isPersistent() {
+        return m_directBlockingChecker instanceof PersistentBlockingSignatures;
+    }
     public boolean isEmpty() {
         return m_numberOfElements==0;
     }
+    public int size() {
+        return m_numberOfElements;
+    }
     public boolean addNode(Node node) {
         int hashCode=m_directBlockingChecker.blockingHashCode(node);
         int bucketIndex=getIndexFor(hashCode,m_buckets.length);
@@ -47,13 +86,26 @@ public class BlockingSignatureCache implements Serializable {
                 return false;
             entry=entry.m_nextEntry;
         }
-        entry=m_directBlockingChecker.getBlockingSignatureFor(node);
-        entry.m_nextEntry=m_buckets[bucketIndex];
-        m_buckets[bucketIndex]=entry;
+        addSignature(m_directBlockingChecker.getBlockingSignatureFor(node),bucketIndex);
+        return true;
+    }
+    protected boolean addSignature(BlockingSignature signature) {
+        int bucketIndex=getIndexFor(signature.hashCode(),m_buckets.length);
+        BlockingSignature entry=m_buckets[bucketIndex];
+        while (entry!=null) {
+            if (signature.equals(entry))
+                return false;
+            entry=entry.m_nextEntry;
+        }
+        addSignature(signature,bucketIndex);
+        return true;
+    }
+    protected void addSignature(BlockingSignature signature,int bucketIndex) {
+        signature.m_nextEntry=m_buckets[bucketIndex];
+        m_buckets[bucketIndex]=signature;
         m_numberOfElements++;
         if (m_numberOfElements>=m_threshold)
             resize(m_buckets.length*2);
-        return true;
     }
     protected void resize(int newCapacity) {
         BlockingSignature[] newBuckets=new BlockingSignature[newCapacity];
@@ -83,6 +135,138 @@ public class BlockingSignatureCache implements Serializable {
         }
         return false;
     }
+    /**
+     * Adds the signatures from the given file to this cache. The file is used only if it has been saved for the given
+     * fingerprint of the DL-ontology and by a direct blocking checker of the same type. Returns false if the file does
+     * not exist or cannot be used, or if the signatures of this cache are not persistent.
+     */
+    public boolean load(File file,String fingerprint) {
+        if (!isPersistent() || !file.isFile())
+            return false;
+        PersistentBlockingSignatures persistentBlockingSignatures=(PersistentBlockingSignatures)m_directBlockingChecker;
+        try {
+            DataInputStream input=new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            try {
+                if (input.readInt()!=MAGIC_NUMBER || input.readInt()!=FORMAT_VERSION || !fingerprint.equals(input.readUTF()) || !m_directBlockingChecker.getClass().getName().equals(input.readUTF()))
+                    return false;
+                // The signatures are read completely before they are added, so a damaged file leaves the cache unchanged.
+                int numberOfSignatures=input.readInt();
+                List<BlockingSignature> signatures=new ArrayList<BlockingSignature>();
+                for (int index=0;index<numberOfSignatures;index++)
+                    signatures.add(persistentBlockingSignatures.readBlockingSignature(input));
+                for (BlockingSignature signature : signatures)
+                    addSignature(signature);
+                return true;
+            }
+            finally {
+                input.close();
+            }
+        }
+        catch (IOException error) {
+            // A damaged cache file is treated like a missing one.
+            return false;
+        }
+        catch (IllegalArgumentException error) {
+            return false;
+        }
+    }
+    /**
+     * Writes the signatures of this cache to the given file under the given fingerprint of the DL-ontology.
+     *
+     * @throws IOException if the file cannot be written or if the signatures of this cache are not persistent
+     */
+    public void save(File file,String fingerprint) throws IOException {
+        if (!isPersistent())
+            throw new IOException("The blocking signatures of '"+m_directBlockingChecker.getClass().getName()+"' cannot be saved.");
+        PersistentBlockingSignatures persistentBlockingSignatures=(PersistentBlockingSignatures)m_directBlockingChecker;
+        File directory=file.getAbsoluteFile().getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs())
+            throw new IOException("Cannot create the blocking signature cache directory '"+directory+"'.");
+        // The file is written under a temporary name and then renamed, so that concurrent readers never see a partially
+        // written file.
+        File temporaryFile=File.createTempFile(fingerprint,".tmp",directory);
+        try {
+            DataOutputStream output=new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)));
+            try {
+                output.writeInt(MAGIC_NUMBER);
+                output.writeInt(FORMAT_VERSION);
+                output.writeUTF(fingerprint);
+                output.writeUTF(m_directBlockingChecker.getClass().getName());
+                output.writeInt(m_numberOfElements);
+                for (BlockingSignature entry : m_buckets)
+                    while (entry!=null) {
+                        persistentBlockingSignatures.writeBlockingSignature(entry,output);
+                        entry=entry.m_nextEntry;
+                    }
+            }
+            finally {
+                output.close();
+            }
+            file.delete();
+            if (!temporaryFile.renameTo(file))
+                throw new IOException("Cannot write the blocking signature cache file '"+file+"'.");
+        }
+        finally {
+            temporaryFile.delete();
+        }
+    }
+    /**
+     * Checks whether the signatures that have been cached for the permanent DL-ontology can be used in a test with the
+     * given additional DL-ontology. This is the case if the body of each additional DL-clause contains an atomic
+     * concept that does not occur in the permanent DL-ontology and if all existentials in the head of the DL-clause are
+     * expanded for the variable of that concept. Such DL-clauses are applicable only to nodes whose labels contain a
+     * fresh concept, whereas the cached labels do not contain fresh concepts, so the cached signatures do not block any
+     * node that the additional DL-clauses could affect. Signatures are only added to the cache in tests without an
+     * additional DL-ontology.
+     */
+    public static boolean isUsableWith(DLOntology permanentDLOntology,DLOntology additionalDLOntology) {
+        Set<AtomicConcept> permanentAtomicConcepts=permanentDLOntology.getAllAtomicConcepts();
+        for (DLClause dlClause : additionalDLOntology.getDLClauses()) {
+            boolean isGuarded=false;
+            for (int bodyIndex=0;!isGuarded && bodyIndex<dlClause.getBodyLength();bodyIndex++) {
+                Atom bodyAtom=dlClause.getBodyAtom(bodyIndex);
+                DLPredicate dlPredicate=bodyAtom.getDLPredicate();
+                if (dlPredicate instanceof AtomicConcept && !permanentAtomicConcepts.contains(dlPredicate))
+                    isGuarded=expandsExistentialsOnlyFor(dlClause,bodyAtom.getArgument(0));
+            }
+            if (!isGuarded)
+                return false;
+        }
+        return true;
+    }
+    protected static boolean expandsExistentialsOnlyFor(DLClause dlClause,Term term) {
+        for (int headIndex=0;headIndex<dlClause.getHeadLength();headIndex++) {
+            Atom headAtom=dlClause.getHeadAtom(headIndex);
+            DLPredicate dlPredicate=headAtom.getDLPredicate();
+            if ((dlPredicate instanceof AtLeast || dlPredicate instanceof ExistsDescriptionGraph) && !headAtom.getArgument(0).equals(term))
+                return false;
+        }
+        return true;
+    }
+    protected static void writeAtomicConcepts(DataOutput output,Set<AtomicConcept> atomicConcepts) throws IOException {
+        output.writeInt(atomicConcepts.size());
+        for (AtomicConcept atomicConcept : atomicConcepts)
+            output.writeUTF(atomicConcept.getIRI());
+    }
+    protected static List<AtomicConcept> readAtomicConcepts(DataInput input) throws IOException {
+        int numberOfAtomicConcepts=input.readInt();
+        List<AtomicConcept> atomicConcepts=new ArrayList<AtomicConcept>(numberOfAtomicConcepts);
+        for (int index=0;index<numberOfAtomicConcepts;index++)
+            atomicConcepts.add(AtomicConcept.create(input.readUTF()));
+        return atomicConcepts;
+    }
+    protected static void writeAtomicRoles(DataOutput output,Set<AtomicRole> atomicRoles) throws IOException {
+        output.writeInt(atomicRoles.size());
+        for (AtomicRole atomicRole : atomicRoles)
+            output.writeUTF(atomicRole.getIRI());
+    }
+    protected static List<AtomicRole> readAtomicRoles(DataInput input) throws IOException {
+        int numberOfAtomicRoles=input.readInt();
+        List<AtomicRole> atomicRoles=new ArrayList<AtomicRole>(numberOfAtomicRoles);
+        for (int index=0;index<numberOfAtomicRoles;index++)
+            atomicRoles.add(AtomicRole.create(input.readUTF()));
+        return atomicRoles;
+    }
     protected static int getIndexFor(int hashCode,int tableLength) {
         hashCode+=~(hashCode << 9);
         hashCode^=(hashCode >>> 14);
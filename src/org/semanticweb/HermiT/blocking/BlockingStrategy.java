@@ -53,5 +53,9 @@ public interface BlockingStrategy {
     void nodeDestroyed(Node node);
     void modelFound();
     boolean isExact();
+    /**
+     * Returns the cache of blocking signatures used by this strategy, or null if the strategy does not use one.
+     */
+    BlockingSignatureCache getBlockingSignatureCache();
     void dlClauseBodyCompiled(List<DLClauseEvaluator.Worker> workers,DLClause dlClause,List<Variable> variables,Object[] valuesBuffer,boolean[] coreVariables);
 }
@@ -17,6 +17,9 @@
 */
 package org.semanticweb.HermiT.blocking;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -31,7 +34,7 @@ import org.semanticweb.HermiT.tableau.Node;
 import org.semanticweb.HermiT.tableau.NodeType;
 import org.semanticweb.HermiT.tableau.Tableau;
 
-public class PairWiseDirectBlockingChecker implements DirectBlockingChecker,Serializable {
+public class PairWiseDirectBlockingChecker implements DirectBlockingChecker,PersistentBlockingSignatures,Serializable {
     private static final long serialVersionUID=-8296420442452625109L;
 
     protected final SetFactory<AtomicConcept> m_atomicConceptsSetFactory;
@@ -164,6 +167,20 @@ public class PairWiseDirectBlockingChecker implements DirectBlockingChecker,Seri
     public BlockingSignature getBlockingSignatureFor(Node node) {
         return new PairWiseBlockingSignature(this,node);
     }
+    public void writeBlockingSignature(BlockingSignature signature,DataOutput output) throws IOException {
+        PairWiseBlockingSignature pairWiseSignature=(PairWiseBlockingSignature)signature;
+        BlockingSignatureCache.writeAtomicConcepts(output,pairWiseSignature.m_atomicConceptLabel);
+        BlockingSignatureCache.writeAtomicConcepts(output,pairWiseSignature.m_parentAtomicConceptLabel);
+        BlockingSignatureCache.writeAtomicRoles(output,pairWiseSignature.m_fromParentLabel);
+        BlockingSignatureCache.writeAtomicRoles(output,pairWiseSignature.m_toParentLabel);
+    }
+    public BlockingSignature readBlockingSignature(DataInput input) throws IOException {
+        Set<AtomicConcept> atomicConceptLabel=m_atomicConceptsSetFactory.getSet(BlockingSignatureCache.readAtomicConcepts(input));
+        Set<AtomicConcept> parentAtomicConceptLabel=m_atomicConceptsSetFactory.getSet(BlockingSignatureCache.readAtomicConcepts(input));
+        Set<AtomicRole> fromParentLabel=m_atomicRolesSetFactory.getSet(BlockingSignatureCache.readAtomicRoles(input));
+        Set<AtomicRole> toParentLabel=m_atomicRolesSetFactory.getSet(BlockingSignatureCache.readAtomicRoles(input));
+        return new PairWiseBlockingSignature(this,atomicConceptLabel,parentAtomicConceptLabel,fromParentLabel,toParentLabel);
+    }
     protected Set<AtomicConcept> fetchAtomicConceptsLabel(Node node) {
         m_atomicConceptsBuffer.clear();
         m_binaryTableSearch1Bound.getBindingsBuffer()[1]=node;
@@ -322,11 +339,13 @@ public class PairWiseDirectBlockingChecker implements DirectBlockingChecker,Seri
         protected final int m_hashCode;
 
         public PairWiseBlockingSignature(PairWiseDirectBlockingChecker checker,Node node) {
-            PairWiseBlockingObject nodeBlockingObject=(PairWiseBlockingObject)node.getBlockingObject();
-            m_atomicConceptLabel=nodeBlockingObject.getAtomicConceptsLabel();
-            m_parentAtomicConceptLabel=((PairWiseBlockingObject)node.getParent().getBlockingObject()).getAtomicConceptsLabel();
-            m_fromParentLabel=nodeBlockingObject.getFromParentLabel();
-            m_toParentLabel=nodeBlockingObject.getToParentLabel();
+            this(checker,((PairWiseBlockingObject)node.getBlockingObject()).getAtomicConceptsLabel(),((PairWiseBlockingObject)node.getParent().getBlockingObject()).getAtomicConceptsLabel(),((PairWiseBlockingObject)node.getBlockingObject()).getFromParentLabel(),((PairWiseBlockingObject)node.getBlockingObject()).getToParentLabel());
+        }
+        public PairWiseBlockingSignature(PairWiseDirectBlockingChecker checker,Set<AtomicConcept> atomicConceptLabel,Set<AtomicConcept> parentAtomicConceptLabel,Set<AtomicRole> fromParentLabel,Set<AtomicRole> toParentLabel) {
+            m_atomicConceptLabel=atomicConceptLabel;
+            m_parentAtomicConceptLabel=parentAtomicConceptLabel;
+            m_fromParentLabel=fromParentLabel;
+            m_toParentLabel=toParentLabel;
             m_hashCode=
                 m_atomicConceptLabel.hashCode()+
                 m_parentAtomicConceptLabel.hashCode()+
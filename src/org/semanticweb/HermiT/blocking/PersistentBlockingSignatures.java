@@ -0,0 +1,36 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+   
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+   
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+   
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.blocking;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Implemented by direct blocking checkers whose blocking signatures can be saved to a file and loaded into the
+ * BlockingSignatureCache of another tableau. Checkers that do not implement this interface can still use a cache, but
+ * the cache then cannot be saved or loaded.
+ */
+public interface PersistentBlockingSignatures {
+    /**
+     * Writes the labels of the given signature, which must have been created by this checker, so that
+     * readBlockingSignature() can create an equal signature in another tableau, possibly in another JVM.
+     */
+    void writeBlockingSignature(BlockingSignature signature,DataOutput output) throws IOException;
+    BlockingSignature readBlockingSignature(DataInput input) throws IOException;
+}
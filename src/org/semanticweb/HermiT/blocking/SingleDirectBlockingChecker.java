@@ -17,6 +17,9 @@
 */
 package org.semanticweb.HermiT.blocking;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -31,7 +34,7 @@ import org.semanticweb.HermiT.tableau.Node;
 import org.semanticweb.HermiT.tableau.NodeType;
 import org.semanticweb.HermiT.tableau.Tableau;
 
-public class SingleDirectBlockingChecker implements DirectBlockingChecker,Serializable {
+public class SingleDirectBlockingChecker implements DirectBlockingChecker,PersistentBlockingSignatures,Serializable {
     private static final long serialVersionUID=9093753046859877016L;
 
     protected final SetFactory<AtomicConcept> m_atomicConceptsSetFactory;
@@ -118,6 +121,12 @@ public class SingleDirectBlockingChecker implements DirectBlockingChecker,Serial
     public BlockingSignature getBlockingSignatureFor(Node node) {
         return new SingleBlockingSignature(this,node);
     }
+    public void writeBlockingSignature(BlockingSignature signature,DataOutput output) throws IOException {
+        BlockingSignatureCache.writeAtomicConcepts(output,((SingleBlockingSignature)signature).m_atomicConceptsLabel);
+    }
+    public BlockingSignature readBlockingSignature(DataInput input) throws IOException {
+        return new SingleBlockingSignature(this,m_atomicConceptsSetFactory.getSet(BlockingSignatureCache.readAtomicConcepts(input)));
+    }
     protected Set<AtomicConcept> fetchAtomicConceptsLabel(Node node) {
         m_atomicConceptsBuffer.clear();
         m_binaryTableSearch1Bound.getBindingsBuffer()[1]=node;
@@ -195,8 +204,11 @@ public class SingleDirectBlockingChecker implements DirectBlockingChecker,Serial
         protected final Set<AtomicConcept> m_atomicConceptsLabel;
 
         public SingleBlockingSignature(SingleDirectBlockingChecker checker,Node node) {
-            m_atomicConceptsLabel=((SingleBlockingObject)node.getBlockingObject()).getAtomicConceptsLabel();
-            checker.m_atomicConceptsSetFactory.makePermanent(m_atomicConceptsLabel);
+            this(checker,((SingleBlockingObject)node.getBlockingObject()).getAtomicConceptsLabel());
+        }
+        public SingleBlockingSignature(SingleDirectBlockingChecker checker,Set<AtomicConcept> atomicConceptsLabel) {
+            m_atomicConceptsLabel=atomicConceptsLabel;
+            checker.m_atomicConceptsSetFactory.makePermanent(m_atomicConceptsLabel);
         }
         public boolean blocksNode(Node node) {
             return ((SingleBlockingObject)node.getBlockingObject()).getAtomicConceptsLabel()==m_atomicConceptsLabel;
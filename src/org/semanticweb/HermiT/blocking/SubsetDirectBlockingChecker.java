@@ -0,0 +1,112 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.blocking;
+
+import java.io.Serializable;
+import java.util.Set;
+
+import org.semanticweb.HermiT.model.AnnotatedEquality;
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.AtomicRole;
+import org.semanticweb.HermiT.model.DLClause;
+import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.HermiT.model.DLPredicate;
+import org.semanticweb.HermiT.model.Equality;
+import org.semanticweb.HermiT.model.Variable;
+import org.semanticweb.HermiT.tableau.Node;
+import org.semanticweb.HermiT.tableau.NodeType;
+import org.semanticweb.HermiT.tableau.Tableau;
+
+/**
+ * A single blocking checker that allows a node to be blocked by any node whose label contains the label of the blocked
+ * node. Subset blocking is sound only if the label of a node cannot influence the labels of its predecessors, so it is
+ * used only if isSubsetBlockingSound() holds for the permanent and the additional DL-ontology of the tableau; otherwise,
+ * the checker behaves as a SingleDirectBlockingChecker.
+ */
+public class SubsetDirectBlockingChecker extends SingleDirectBlockingChecker implements Serializable {
+    private static final long serialVersionUID=-3192637540186482145L;
+    protected static final Variable X=Variable.create("X");
+
+    protected boolean m_permanentSubsetBlockingSound;
+    protected DLOntology m_lastAdditionalDLOntology;
+    protected boolean m_subsetBlockingApplicable;
+
+    public void initialize(Tableau tableau) {
+        super.initialize(tableau);
+        m_permanentSubsetBlockingSound=isSubsetBlockingSound(tableau.getPermanentDLOntology());
+        m_lastAdditionalDLOntology=null;
+        m_subsetBlockingApplicable=m_permanentSubsetBlockingSound;
+    }
+    /**
+     * Returns true if the current tableau allows subset blocking. The additional DL-ontology is checked only when it
+     * differs from the one checked previously.
+     */
+    public boolean isSubsetBlockingApplicable() {
+        DLOntology additionalDLOntology=m_tableau.getAdditionalDLOntology();
+        if (additionalDLOntology!=m_lastAdditionalDLOntology) {
+            m_lastAdditionalDLOntology=additionalDLOntology;
+            m_subsetBlockingApplicable=m_permanentSubsetBlockingSound && (additionalDLOntology==null || isSubsetBlockingSound(additionalDLOntology));
+        }
+        return m_subsetBlockingApplicable;
+    }
+    public boolean isBlockedBy(Node blocker,Node blocked) {
+        if (blocker.isBlocked() || blocker.getNodeType()!=NodeType.TREE_NODE || blocked.getNodeType()!=NodeType.TREE_NODE)
+            return false;
+        Set<AtomicConcept> blockerLabel=getAtomicConceptsLabel(blocker);
+        Set<AtomicConcept> blockedLabel=getAtomicConceptsLabel(blocked);
+        if (blockerLabel==blockedLabel)
+            return true;
+        return isSubsetBlockingApplicable() && blockerLabel.size()>blockedLabel.size() && blockerLabel.containsAll(blockedLabel);
+    }
+    public Set<AtomicConcept> getAtomicConceptsLabel(Node node) {
+        return ((SingleBlockingObject)node.getBlockingObject()).getAtomicConceptsLabel();
+    }
+    /**
+     * Returns true if the labels of a node's successors cannot influence the node in the given DL-ontology. This is
+     * the case if the ontology contains no inverse roles, at-most restrictions, nominals, or description graphs, if
+     * the DL-clauses do not derive equalities, and if each DL-clause tests concepts only on its central variable X and
+     * roles only from X. Under these conditions, a node with label L can be replaced in a model by any node whose label
+     * contains L.
+     */
+    public static boolean isSubsetBlockingSound(DLOntology dlOntology) {
+        if (dlOntology.hasInverseRoles() || dlOntology.hasAtMostRestrictions() || dlOntology.hasNominals() || !dlOntology.getAllDescriptionGraphs().isEmpty())
+            return false;
+        for (DLClause dlClause : dlOntology.getDLClauses()) {
+            for (int bodyIndex=0;bodyIndex<dlClause.getBodyLength();bodyIndex++) {
+                Atom bodyAtom=dlClause.getBodyAtom(bodyIndex);
+                if (bodyAtom.getArity()==1) {
+                    if (!X.equals(bodyAtom.getArgument(0)))
+                        return false;
+                }
+                else if (bodyAtom.getArity()==2) {
+                    if (!(bodyAtom.getDLPredicate() instanceof AtomicRole) || !X.equals(bodyAtom.getArgument(0)))
+                        return false;
+                }
+                else
+                    return false;
+            }
+            for (int headIndex=0;headIndex<dlClause.getHeadLength();headIndex++) {
+                DLPredicate dlPredicate=dlClause.getHeadAtom(headIndex).getDLPredicate();
+                if (dlPredicate instanceof Equality || dlPredicate instanceof AnnotatedEquality)
+                    return false;
+            }
+        }
+        return true;
+    }
+}
@@ -418,7 +418,7 @@ public class CommandLine {
         new Option(kDefaultPrefix,"prefix",kPrefixes,true,"IRI","use IRI as the default identifier prefix"),
 
         // algorithm tweaks:
-        new Option(kDirectBlock,"block-match",kAlgorithm,true,"TYPE","identify blocked nodes with TYPE blocking; supported values are 'single', 'pairwise', and 'optimal' (default 'optimal')"),
+        new Option(kDirectBlock,"block-match",kAlgorithm,true,"TYPE","identify blocked nodes with TYPE blocking; supported values are 'single', 'pairwise', 'subset', 'bitset', and 'optimal' (default 'optimal')"),
         new Option(kBlockStrategy,"block-strategy",kAlgorithm,true,"TYPE","use TYPE as blocking strategy; supported values are 'ancestor', 'anywhere', 'core', and 'optimal' (default 'optimal')"),
         new Option(kBlockCache,"blockersCache",kAlgorithm,"cache blocking nodes for use in later tests; not possible with nominals or core blocking"),
         new Option(kIgnoreUnsupportedDatatypes,"ignoreUnsupportedDatatypes",kAlgorithm,"ignore unsupported datatypes"),
@@ -653,11 +653,17 @@ public class CommandLine {
                         else if (arg.toLowerCase().equals("single")) {
                             config.directBlockingType=Configuration.DirectBlockingType.SINGLE;
                         }
+                        else if (arg.toLowerCase().equals("subset")) {
+                            config.directBlockingType=Configuration.DirectBlockingType.SUBSET;
+                        }
+                        else if (arg.toLowerCase().equals("bitset")) {
+                            config.directBlockingType=Configuration.DirectBlockingType.BITSET;
+                        }
                         else if (arg.toLowerCase().equals("optimal")) {
                             config.directBlockingType=Configuration.DirectBlockingType.OPTIMAL;
                         }
                         else
-                            throw new UsageException("unknown direct blocking type '"+arg+"'; supported values are 'pairwise', 'single', and 'optimal'");
+                            throw new UsageException("unknown direct blocking type '"+arg+"'; supported values are 'pairwise', 'single', 'subset', 'bitset', and 'optimal'");
                     }
                         break;
                     case kBlockStrategy: {
@@ -19,6 +19,7 @@ package org.semanticweb.HermiT.existentials;
 
 import java.util.List;
 
+import org.semanticweb.HermiT.blocking.BlockingStrategy;
 import org.semanticweb.HermiT.model.AtomicRole;
 import org.semanticweb.HermiT.model.Concept;
 import org.semanticweb.HermiT.model.DLClause;
@@ -61,5 +62,9 @@ public interface ExistentialExpansionStrategy {
     void modelFound();
     boolean isDeterministic();
     boolean isExact();
+    /**
+     * Returns the blocking strategy used by this strategy, or null if nodes are never blocked.
+     */
+    BlockingStrategy getBlockingStrategy();
     void dlClauseBodyCompiled(List<DLClauseEvaluator.Worker> workers,DLClause dlClause,List<Variable> variables,Object[] valuesBuffer,boolean[] coreVariables);
 }
@@ -33,6 +33,7 @@ import org.semanticweb.HermiT.tableau.BranchingPoint;
 import org.semanticweb.HermiT.tableau.DependencySet;
 import org.semanticweb.HermiT.tableau.Node;
 import org.semanticweb.HermiT.tableau.Tableau;
+import org.semanticweb.HermiT.tableau.ObjectTupleTable;
 import org.semanticweb.HermiT.tableau.TupleTable;
 
 public class IndividualReuseStrategy extends AbstractExpansionStrategy implements Serializable {
@@ -54,7 +55,7 @@ public class IndividualReuseStrategy extends AbstractExpansionStrategy implement
         m_doReuseConceptsAlways=new HashSet<AtomicConcept>();
         m_dontReuseConceptsThisRun=new HashSet<AtomicConcept>();
         m_dontReuseConceptsEver=new HashSet<AtomicConcept>();
-        m_reuseBacktrackingTable=new TupleTable(1);
+        m_reuseBacktrackingTable=new ObjectTupleTable(1);
         m_auxiliaryBuffer=new Object[1];
         m_indicesByBranchingPoint=new int[10];
     }
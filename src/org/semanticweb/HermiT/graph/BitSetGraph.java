@@ -0,0 +1,277 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.graph;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A graph whose elements are numbered densely and whose successor sets are stored as SparseBitSet objects over these
+ * numbers. Reachability and transitive closure are thus computed by combining successor sets a word at a time. Two
+ * graphs can share the numbering of elements, which allows the successor sets of one graph to be used to update the
+ * successor sets of another graph.
+ */
+public class BitSetGraph<T> implements Serializable {
+    private static final long serialVersionUID=-3870217451269342785L;
+
+    protected final Map<T,Integer> m_indexesByElement;
+    protected final List<T> m_elementsByIndex;
+    protected final List<SparseBitSet> m_successorsByIndex;
+
+    public BitSetGraph() {
+        m_indexesByElement=new HashMap<T,Integer>();
+        m_elementsByIndex=new ArrayList<T>();
+        m_successorsByIndex=new ArrayList<SparseBitSet>();
+    }
+    /**
+     * Creates an empty graph that numbers its elements in the same way as the given graph. Elements added to either
+     * graph are added to both of them, but without any edges.
+     */
+    public BitSetGraph(BitSetGraph<T> graphWithSharedIndex) {
+        m_indexesByElement=graphWithSharedIndex.m_indexesByElement;
+        m_elementsByIndex=graphWithSharedIndex.m_elementsByIndex;
+        m_successorsByIndex=new ArrayList<SparseBitSet>();
+    }
+    public int addElement(T element) {
+        Integer index=m_indexesByElement.get(element);
+        if (index==null) {
+            index=m_elementsByIndex.size();
+            m_indexesByElement.put(element,index);
+            m_elementsByIndex.add(element);
+        }
+        return index.intValue();
+    }
+    /**
+     * Returns the number of the given element, or -1 if the element does not occur in the graph.
+     */
+    public int getIndex(T element) {
+        Integer index=m_indexesByElement.get(element);
+        return index==null ? -1 : index.intValue();
+    }
+    public T getElement(int index) {
+        return m_elementsByIndex.get(index);
+    }
+    public Set<T> getElements() {
+        return new HashSet<T>(m_elementsByIndex);
+    }
+    public void addEdge(T from,T to) {
+        getOrCreateSuccessors(addElement(from)).set(addElement(to));
+    }
+    public void addEdges(T from,Collection<T> to) {
+        SparseBitSet successors=getOrCreateSuccessors(addElement(from));
+        for (T element : to)
+            successors.set(addElement(element));
+    }
+    public boolean removeEdge(T from,T to) {
+        SparseBitSet successors=getSuccessorIndexes(getIndex(from));
+        int toIndex=getIndex(to);
+        return successors!=null && toIndex!=-1 && successors.clear(toIndex);
+    }
+    /**
+     * Removes the edges from the given element to all elements whose numbers are contained in the given set.
+     */
+    public void removeEdges(T from,SparseBitSet to) {
+        SparseBitSet successors=getSuccessorIndexes(getIndex(from));
+        if (successors!=null)
+            successors.andNot(to);
+    }
+    /**
+     * Removes the edges from the given element to all elements whose numbers are not contained in the given set.
+     */
+    public void retainEdges(T from,SparseBitSet to) {
+        SparseBitSet successors=getSuccessorIndexes(getIndex(from));
+        if (successors!=null)
+            successors.and(to);
+    }
+    public void clearSuccessors(T from) {
+        SparseBitSet successors=getSuccessorIndexes(getIndex(from));
+        if (successors!=null)
+            successors.clear();
+    }
+    public boolean containsEdge(T from,T to) {
+        SparseBitSet successors=getSuccessorIndexes(getIndex(from));
+        int toIndex=getIndex(to);
+        return successors!=null && toIndex!=-1 && successors.get(toIndex);
+    }
+    public boolean hasSuccessors(T from) {
+        SparseBitSet successors=getSuccessorIndexes(getIndex(from));
+        return successors!=null && !successors.isEmpty();
+    }
+    /**
+     * Returns a copy of the successors of the given element.
+     */
+    public Set<T> getSuccessors(T from) {
+        SparseBitSet successors=getSuccessorIndexes(getIndex(from));
+        return successors==null ? new HashSet<T>() : getElements(successors);
+    }
+    /**
+     * Returns the set of numbers of the elements that are reachable from the given element via zero or more edges; the
+     * result thus contains the number of the given element if it occurs in the graph. The result is a fresh object.
+     */
+    public SparseBitSet getReachableSuccessorIndexes(T from) {
+        SparseBitSet result=new SparseBitSet();
+        int fromIndex=getIndex(from);
+        if (fromIndex!=-1) {
+            result.set(fromIndex);
+            SparseBitSet frontier=new SparseBitSet(result);
+            while (!frontier.isEmpty()) {
+                SparseBitSet nextFrontier=new SparseBitSet();
+                for (int index=frontier.nextSetBit(0);index>=0;index=frontier.nextSetBit(index+1)) {
+                    SparseBitSet successors=getSuccessorIndexes(index);
+                    if (successors!=null)
+                        nextFrontier.or(successors);
+                }
+                nextFrontier.andNot(result);
+                result.or(nextFrontier);
+                frontier=nextFrontier;
+            }
+        }
+        return result;
+    }
+    public Set<T> getReachableSuccessors(T from) {
+        Set<T> result=getElements(getReachableSuccessorIndexes(from));
+        result.add(from);
+        return result;
+    }
+    public boolean isReachableSuccessor(T from,T to) {
+        if (from.equals(to))
+            return true;
+        int toIndex=getIndex(to);
+        return toIndex!=-1 && getReachableSuccessorIndexes(from).get(toIndex);
+    }
+    /**
+     * Replaces the successors of each element with the elements reachable from it via one or more edges. The strongly
+     * connected components are computed using Tarjan's algorithm, and the successors of each component are obtained by
+     * combining the successors of the components it points to, which have been closed before.
+     */
+    public void transitivelyClose() {
+        int numberOfElements=m_elementsByIndex.size();
+        int[] dfsIndexes=new int[numberOfElements];
+        int[] lowLinks=new int[numberOfElements];
+        int[] componentIndexes=new int[numberOfElements];
+        int[] componentStack=new int[numberOfElements];
+        int[] callStack=new int[numberOfElements];
+        int[] nextSuccessors=new int[numberOfElements];
+        int componentStackSize=0;
+        int nextDFSIndex=1;
+        int nextComponentIndex=1;
+        for (int root=0;root<numberOfElements;root++) {
+            if (dfsIndexes[root]!=0)
+                continue;
+            int callStackSize=0;
+            dfsIndexes[root]=lowLinks[root]=nextDFSIndex++;
+            componentStack[componentStackSize++]=root;
+            callStack[callStackSize++]=root;
+            while (callStackSize>0) {
+                int current=callStack[callStackSize-1];
+                SparseBitSet successors=getSuccessorIndexes(current);
+                int successor=(successors==null ? -1 : successors.nextSetBit(nextSuccessors[current]));
+                if (successor>=0) {
+                    nextSuccessors[current]=successor+1;
+                    if (dfsIndexes[successor]==0) {
+                        dfsIndexes[successor]=lowLinks[successor]=nextDFSIndex++;
+                        componentStack[componentStackSize++]=successor;
+                        callStack[callStackSize++]=successor;
+                    }
+                    else if (componentIndexes[successor]==0 && dfsIndexes[successor]<lowLinks[current])
+                        lowLinks[current]=dfsIndexes[successor];
+                }
+                else {
+                    callStackSize--;
+                    if (callStackSize>0) {
+                        int parent=callStack[callStackSize-1];
+                        if (lowLinks[current]<lowLinks[parent])
+                            lowLinks[parent]=lowLinks[current];
+                    }
+                    if (lowLinks[current]==dfsIndexes[current]) {
+                        // All components reachable from the new component, apart from the component itself, have already been closed.
+                        int componentIndex=nextComponentIndex++;
+                        int componentStart=componentStackSize;
+                        do {
+                            componentStart--;
+                            componentIndexes[componentStack[componentStart]]=componentIndex;
+                        } while (componentStack[componentStart]!=current);
+                        SparseBitSet directSuccessors=new SparseBitSet();
+                        for (int position=componentStart;position<componentStackSize;position++) {
+                            SparseBitSet memberSuccessors=getSuccessorIndexes(componentStack[position]);
+                            if (memberSuccessors!=null)
+                                directSuccessors.or(memberSuccessors);
+                        }
+                        SparseBitSet reachable=new SparseBitSet(directSuccessors);
+                        for (int index=directSuccessors.nextSetBit(0);index>=0;index=directSuccessors.nextSetBit(index+1))
+                            if (componentIndexes[index]!=componentIndex) {
+                                SparseBitSet closedSuccessors=getSuccessorIndexes(index);
+                                if (closedSuccessors!=null)
+                                    reachable.or(closedSuccessors);
+                            }
+                        if (!reachable.isEmpty())
+                            for (int position=componentStart;position<componentStackSize;position++)
+                                getOrCreateSuccessors(componentStack[position]).or(reachable);
+                        componentStackSize=componentStart;
+                    }
+                }
+            }
+        }
+    }
+    public String toString() {
+        StringBuffer buffer=new StringBuffer();
+        for (int index=0;index<m_elementsByIndex.size();index++) {
+            buffer.append(m_elementsByIndex.get(index).toString());
+            buffer.append(" -> { ");
+            SparseBitSet successors=getSuccessorIndexes(index);
+            if (successors!=null) {
+                boolean firstSuccessor=true;
+                for (int successor=successors.nextSetBit(0);successor>=0;successor=successors.nextSetBit(successor+1)) {
+                    if (firstSuccessor)
+                        firstSuccessor=false;
+                    else
+                        buffer.append(", ");
+                    buffer.append(m_elementsByIndex.get(successor).toString());
+                }
+            }
+            buffer.append(" }");
+            buffer.append(System.getProperty("line.separator"));
+        }
+        return buffer.toString();
+    }
+    protected Set<T> getElements(SparseBitSet indexes) {
+        Set<T> result=new HashSet<T>();
+        for (int index=indexes.nextSetBit(0);index>=0;index=indexes.nextSetBit(index+1))
+            result.add(m_elementsByIndex.get(index));
+        return result;
+    }
+    protected SparseBitSet getSuccessorIndexes(int index) {
+        return index<0 || index>=m_successorsByIndex.size() ? null : m_successorsByIndex.get(index);
+    }
+    protected SparseBitSet getOrCreateSuccessors(int index) {
+        while (m_successorsByIndex.size()<=index)
+            m_successorsByIndex.add(null);
+        SparseBitSet successors=m_successorsByIndex.get(index);
+        if (successors==null) {
+            successors=new SparseBitSet();
+            m_successorsByIndex.set(index,successors);
+        }
+        return successors;
+    }
+}
@@ -0,0 +1,312 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.graph;
+
+import java.io.Serializable;
+
+/**
+ * A set of nonnegative integers that stores only the nonzero 64-bit words of a bit vector, together with their
+ * positions in the vector. A set with k elements thus never needs more than k words, as for a hash set, while dense
+ * sets are combined a word at a time by or() and andNot(), as for a java.util.BitSet.
+ */
+public final class SparseBitSet implements Serializable {
+    private static final long serialVersionUID=-2465873924160832710L;
+    protected static final int[] EMPTY_WORD_INDEXES=new int[0];
+    protected static final long[] EMPTY_WORDS=new long[0];
+
+    protected int[] m_wordIndexes;
+    protected long[] m_words;
+    protected int m_numberOfWords;
+
+    public SparseBitSet() {
+        m_wordIndexes=EMPTY_WORD_INDEXES;
+        m_words=EMPTY_WORDS;
+    }
+    public SparseBitSet(SparseBitSet that) {
+        m_wordIndexes=new int[that.m_numberOfWords];
+        m_words=new long[that.m_numberOfWords];
+        m_numberOfWords=that.m_numberOfWords;
+        System.arraycopy(that.m_wordIndexes,0,m_wordIndexes,0,m_numberOfWords);
+        System.arraycopy(that.m_words,0,m_words,0,m_numberOfWords);
+    }
+    public boolean isEmpty() {
+        return m_numberOfWords==0;
+    }
+    public int cardinality() {
+        int result=0;
+        for (int index=0;index<m_numberOfWords;index++)
+            result+=Long.bitCount(m_words[index]);
+        return result;
+    }
+    public boolean get(int bit) {
+        int position=findWord(bit>>>6);
+        return position>=0 && (m_words[position] & (1L<<bit))!=0;
+    }
+    /**
+     * Sets the given bit and returns true if it was not set before.
+     */
+    public boolean set(int bit) {
+        int wordIndex=bit>>>6;
+        long mask=1L<<bit;
+        int position=findWord(wordIndex);
+        if (position>=0) {
+            if ((m_words[position] & mask)!=0)
+                return false;
+            m_words[position]|=mask;
+            return true;
+        }
+        position=-position-1;
+        if (m_numberOfWords==m_words.length) {
+            int newCapacity=Math.max(2,m_numberOfWords*3/2+1);
+            int[] newWordIndexes=new int[newCapacity];
+            long[] newWords=new long[newCapacity];
+            System.arraycopy(m_wordIndexes,0,newWordIndexes,0,position);
+            System.arraycopy(m_words,0,newWords,0,position);
+            System.arraycopy(m_wordIndexes,position,newWordIndexes,position+1,m_numberOfWords-position);
+            System.arraycopy(m_words,position,newWords,position+1,m_numberOfWords-position);
+            m_wordIndexes=newWordIndexes;
+            m_words=newWords;
+        }
+        else {
+            System.arraycopy(m_wordIndexes,position,m_wordIndexes,position+1,m_numberOfWords-position);
+            System.arraycopy(m_words,position,m_words,position+1,m_numberOfWords-position);
+        }
+        m_wordIndexes[position]=wordIndex;
+        m_words[position]=mask;
+        m_numberOfWords++;
+        return true;
+    }
+    /**
+     * Clears the given bit and returns true if it was set before.
+     */
+    public boolean clear(int bit) {
+        int position=findWord(bit>>>6);
+        long mask=1L<<bit;
+        if (position<0 || (m_words[position] & mask)==0)
+            return false;
+        m_words[position]&=~mask;
+        if (m_words[position]==0)
+            removeWord(position);
+        return true;
+    }
+    public void clear() {
+        m_wordIndexes=EMPTY_WORD_INDEXES;
+        m_words=EMPTY_WORDS;
+        m_numberOfWords=0;
+    }
+    /**
+     * Adds all elements of the given set to this set and returns true if this set has changed.
+     */
+    public boolean or(SparseBitSet that) {
+        if (that.m_numberOfWords==0)
+            return false;
+        int thisPosition=0;
+        int thatPosition=0;
+        int numberOfNewWords=0;
+        boolean changed=false;
+        while (thatPosition<that.m_numberOfWords) {
+            if (thisPosition==m_numberOfWords || that.m_wordIndexes[thatPosition]<m_wordIndexes[thisPosition]) {
+                numberOfNewWords++;
+                thatPosition++;
+            }
+            else if (that.m_wordIndexes[thatPosition]==m_wordIndexes[thisPosition]) {
+                changed|=(that.m_words[thatPosition] & ~m_words[thisPosition])!=0;
+                thisPosition++;
+                thatPosition++;
+            }
+            else
+                thisPosition++;
+        }
+        if (numberOfNewWords==0) {
+            if (changed) {
+                thisPosition=0;
+                for (thatPosition=0;thatPosition<that.m_numberOfWords;thatPosition++) {
+                    while (m_wordIndexes[thisPosition]<that.m_wordIndexes[thatPosition])
+                        thisPosition++;
+                    m_words[thisPosition]|=that.m_words[thatPosition];
+                }
+            }
+            return changed;
+        }
+        int newNumberOfWords=m_numberOfWords+numberOfNewWords;
+        int[] newWordIndexes=new int[newNumberOfWords];
+        long[] newWords=new long[newNumberOfWords];
+        thisPosition=0;
+        thatPosition=0;
+        int newPosition=0;
+        while (thisPosition<m_numberOfWords || thatPosition<that.m_numberOfWords) {
+            if (thatPosition==that.m_numberOfWords || (thisPosition<m_numberOfWords && m_wordIndexes[thisPosition]<that.m_wordIndexes[thatPosition])) {
+                newWordIndexes[newPosition]=m_wordIndexes[thisPosition];
+                newWords[newPosition]=m_words[thisPosition];
+                thisPosition++;
+            }
+            else if (thisPosition==m_numberOfWords || that.m_wordIndexes[thatPosition]<m_wordIndexes[thisPosition]) {
+                newWordIndexes[newPosition]=that.m_wordIndexes[thatPosition];
+                newWords[newPosition]=that.m_words[thatPosition];
+                thatPosition++;
+            }
+            else {
+                newWordIndexes[newPosition]=m_wordIndexes[thisPosition];
+                newWords[newPosition]=m_words[thisPosition] | that.m_words[thatPosition];
+                thisPosition++;
+                thatPosition++;
+            }
+            newPosition++;
+        }
+        m_wordIndexes=newWordIndexes;
+        m_words=newWords;
+        m_numberOfWords=newNumberOfWords;
+        return true;
+    }
+    /**
+     * Removes all elements of the given set from this set.
+     */
+    public void andNot(SparseBitSet that) {
+        int thisPosition=0;
+        int thatPosition=0;
+        int newPosition=0;
+        while (thisPosition<m_numberOfWords) {
+            while (thatPosition<that.m_numberOfWords && that.m_wordIndexes[thatPosition]<m_wordIndexes[thisPosition])
+                thatPosition++;
+            long word=m_words[thisPosition];
+            if (thatPosition<that.m_numberOfWords && that.m_wordIndexes[thatPosition]==m_wordIndexes[thisPosition])
+                word&=~that.m_words[thatPosition];
+            if (word!=0) {
+                m_wordIndexes[newPosition]=m_wordIndexes[thisPosition];
+                m_words[newPosition]=word;
+                newPosition++;
+            }
+            thisPosition++;
+        }
+        m_numberOfWords=newPosition;
+    }
+    /**
+     * Removes all elements from this set that are not elements of the given set and returns true if this set has changed.
+     */
+    public boolean and(SparseBitSet that) {
+        int thisPosition=0;
+        int thatPosition=0;
+        int newPosition=0;
+        boolean changed=false;
+        while (thisPosition<m_numberOfWords) {
+            while (thatPosition<that.m_numberOfWords && that.m_wordIndexes[thatPosition]<m_wordIndexes[thisPosition])
+                thatPosition++;
+            long word=m_words[thisPosition];
+            if (thatPosition<that.m_numberOfWords && that.m_wordIndexes[thatPosition]==m_wordIndexes[thisPosition])
+                word&=that.m_words[thatPosition];
+            else
+                word=0;
+            if (word!=m_words[thisPosition])
+                changed=true;
+            if (word!=0) {
+                m_wordIndexes[newPosition]=m_wordIndexes[thisPosition];
+                m_words[newPosition]=word;
+                newPosition++;
+            }
+            thisPosition++;
+        }
+        m_numberOfWords=newPosition;
+        return changed;
+    }
+    /**
+     * Returns true if every element of the given set is also an element of this set.
+     */
+    public boolean containsAll(SparseBitSet that) {
+        if (that.m_numberOfWords>m_numberOfWords)
+            return false;
+        int thisPosition=0;
+        for (int thatPosition=0;thatPosition<that.m_numberOfWords;thatPosition++) {
+            int wordIndex=that.m_wordIndexes[thatPosition];
+            while (thisPosition<m_numberOfWords && m_wordIndexes[thisPosition]<wordIndex)
+                thisPosition++;
+            if (thisPosition==m_numberOfWords || m_wordIndexes[thisPosition]!=wordIndex || (that.m_words[thatPosition] & ~m_words[thisPosition])!=0)
+                return false;
+            thisPosition++;
+        }
+        return true;
+    }
+    /**
+     * Returns the smallest element of this set that is greater than or equal to the given bit, or -1 if there is none.
+     */
+    public int nextSetBit(int fromBit) {
+        int wordIndex=fromBit>>>6;
+        int position=findWord(wordIndex);
+        if (position>=0) {
+            long word=m_words[position] & (-1L<<fromBit);
+            if (word!=0)
+                return (wordIndex<<6)+Long.numberOfTrailingZeros(word);
+            position++;
+        }
+        else
+            position=-position-1;
+        if (position<m_numberOfWords)
+            return (m_wordIndexes[position]<<6)+Long.numberOfTrailingZeros(m_words[position]);
+        else
+            return -1;
+    }
+    public boolean equals(Object that) {
+        if (this==that)
+            return true;
+        if (!(that instanceof SparseBitSet))
+            return false;
+        SparseBitSet thatSet=(SparseBitSet)that;
+        if (m_numberOfWords!=thatSet.m_numberOfWords)
+            return false;
+        for (int position=0;position<m_numberOfWords;position++)
+            if (m_wordIndexes[position]!=thatSet.m_wordIndexes[position] || m_words[position]!=thatSet.m_words[position])
+                return false;
+        return true;
+    }
+    public int hashCode() {
+        int result=0;
+        for (int position=0;position<m_numberOfWords;position++)
+            result=result*31+m_wordIndexes[position]*17+(int)(m_words[position]^(m_words[position]>>>32));
+        return result;
+    }
+    public String toString() {
+        StringBuffer buffer=new StringBuffer();
+        buffer.append('{');
+        for (int bit=nextSetBit(0);bit>=0;bit=nextSetBit(bit+1)) {
+            if (buffer.length()>1)
+                buffer.append(", ");
+            buffer.append(bit);
+        }
+        buffer.append('}');
+        return buffer.toString();
+    }
+    protected int findWord(int wordIndex) {
+        int low=0;
+        int high=m_numberOfWords-1;
+        while (low<=high) {
+            int middle=(low+high)>>>1;
+            int middleWordIndex=m_wordIndexes[middle];
+            if (middleWordIndex<wordIndex)
+                low=middle+1;
+            else if (middleWordIndex>wordIndex)
+                high=middle-1;
+            else
+                return middle;
+        }
+        return -(low+1);
+    }
+    protected void removeWord(int position) {
+        System.arraycopy(m_wordIndexes,position+1,m_wordIndexes,position,m_numberOfWords-position-1);
+        System.arraycopy(m_words,position+1,m_words,position,m_numberOfWords-position-1);
+        m_numberOfWords--;
+    }
+}
@@ -27,6 +27,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
 
+import org.semanticweb.HermiT.graph.SparseBitSet;
 import org.semanticweb.HermiT.model.Atom;
 import org.semanticweb.HermiT.model.AtomicConcept;
 import org.semanticweb.HermiT.model.Individual;
@@ -87,14 +88,14 @@ public class DeterministicClassification {
         // Compute SCCs (strongly connected components), create hierarchy nodes, and topologically order them
         List<HierarchyNode<T>> topologicalOrder=new ArrayList<HierarchyNode<T>>();
         visit(new Stack<GraphNode<T>>(),new DFSIndex(),graphNodes,graphNodes.get(bottomElement),hierarchy,topologicalOrder);
-        // Process the nodes in the topological order
-        Map<HierarchyNode<T>,Set<HierarchyNode<T>>> reachableFrom=new HashMap<HierarchyNode<T>,Set<HierarchyNode<T>>>();
+        // Process the nodes in the topological order; the nodes reachable from a node are identified by their positions in this order
+        List<SparseBitSet> reachableFrom=new ArrayList<SparseBitSet>(topologicalOrder.size());
         List<GraphNode<T>> allSuccessors=new ArrayList<GraphNode<T>>();
         for (int index=0;index<topologicalOrder.size();index++) {
             HierarchyNode<T> node=topologicalOrder.get(index);
-            Set<HierarchyNode<T>> reachableFromNode=new HashSet<HierarchyNode<T>>();
-            reachableFromNode.add(node);
-            reachableFrom.put(node,reachableFromNode);
+            SparseBitSet reachableFromNode=new SparseBitSet();
+            reachableFromNode.set(index);
+            reachableFrom.add(reachableFromNode);
             allSuccessors.clear();
             for (T element : node.m_equivalentElements) {
                 GraphNode<T> graphNode=graphNodes.get(element);
@@ -107,12 +108,12 @@ public class DeterministicClassification {
             Collections.sort(allSuccessors,TopologicalOrderComparator.INSTANCE);
             for (int successorIndex=allSuccessors.size()-1;successorIndex>=0;--successorIndex) {
                 GraphNode<T> successorGraphNode=allSuccessors.get(successorIndex);
-                HierarchyNode<T> successorNode=hierarchy.m_nodesByElements.get(successorGraphNode.m_element);
-                if (!reachableFromNode.contains(successorNode)) {
+                int successorTopologicalOrderIndex=successorGraphNode.m_topologicalOrderIndex;
+                if (!reachableFromNode.get(successorTopologicalOrderIndex)) {
+                    HierarchyNode<T> successorNode=hierarchy.m_nodesByElements.get(successorGraphNode.m_element);
                     node.m_parentNodes.add(successorNode);
                     successorNode.m_childNodes.add(node);
-                    reachableFromNode.add(successorNode);
-                    reachableFromNode.addAll(reachableFrom.get(successorNode));
+                    reachableFromNode.or(reachableFrom.get(successorTopologicalOrderIndex));
                 }
             }
         }
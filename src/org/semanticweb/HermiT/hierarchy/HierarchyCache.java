@@ -0,0 +1,290 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.hierarchy;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.AtomicRole;
+import org.semanticweb.HermiT.model.Constant;
+import org.semanticweb.HermiT.model.DLClause;
+import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.HermiT.model.Individual;
+import org.semanticweb.HermiT.model.InverseRole;
+import org.semanticweb.HermiT.model.Role;
+
+/**
+ * Stores computed class and object property hierarchies in a directory so that they can be reused by later reasoner
+ * instances, possibly in other JVMs. The hierarchies are stored under a fingerprint of the DL-ontology, so a cached
+ * hierarchy is used only for the DL-ontology that it was computed for. Each hierarchy is stored in a compact binary
+ * file that lists the nodes with their elements and the child nodes of each node; the loaded hierarchies are ordinary
+ * Hierarchy objects and can thus be exported with HierarchyDumperFSS.
+ */
+public class HierarchyCache {
+    protected static final int MAGIC_NUMBER=0x48434831;
+    protected static final int FORMAT_VERSION=1;
+    protected static final String CLASS_HIERARCHY_SUFFIX=".classes";
+    protected static final String OBJECT_PROPERTY_HIERARCHY_SUFFIX=".objectproperties";
+
+    protected final File m_directory;
+    protected final String m_fingerprint;
+
+    public HierarchyCache(File directory,String fingerprint) {
+        m_directory=directory;
+        m_fingerprint=fingerprint;
+    }
+    public HierarchyCache(File directory,DLOntology dlOntology,Configuration configuration) {
+        this(directory,computeFingerprint(dlOntology,configuration));
+    }
+    public String getFingerprint() {
+        return m_fingerprint;
+    }
+    /**
+     * Returns the cached class hierarchy, or null if no class hierarchy has been cached for the fingerprint or if the
+     * cache file cannot be read.
+     */
+    public Hierarchy<AtomicConcept> loadAtomicConceptHierarchy() {
+        return load(getFile(CLASS_HIERARCHY_SUFFIX),AtomicConceptCodec.INSTANCE);
+    }
+    public void saveAtomicConceptHierarchy(Hierarchy<AtomicConcept> atomicConceptHierarchy) throws IOException {
+        save(getFile(CLASS_HIERARCHY_SUFFIX),atomicConceptHierarchy,AtomicConceptCodec.INSTANCE);
+    }
+    /**
+     * Returns the cached object property hierarchy, or null if no object property hierarchy has been cached for the
+     * fingerprint or if the cache file cannot be read.
+     */
+    public Hierarchy<Role> loadObjectRoleHierarchy() {
+        return load(getFile(OBJECT_PROPERTY_HIERARCHY_SUFFIX),RoleCodec.INSTANCE);
+    }
+    public void saveObjectRoleHierarchy(Hierarchy<Role> objectRoleHierarchy) throws IOException {
+        save(getFile(OBJECT_PROPERTY_HIERARCHY_SUFFIX),objectRoleHierarchy,RoleCodec.INSTANCE);
+    }
+    protected File getFile(String suffix) {
+        return new File(m_directory,m_fingerprint+suffix);
+    }
+    protected <E> Hierarchy<E> load(File file,ElementCodec<E> elementCodec) {
+        if (!file.isFile())
+            return null;
+        try {
+            DataInputStream input=new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            try {
+                if (input.readInt()!=MAGIC_NUMBER || input.readInt()!=FORMAT_VERSION || !m_fingerprint.equals(input.readUTF()))
+                    return null;
+                int numberOfNodes=input.readInt();
+                List<HierarchyNode<E>> nodes=new ArrayList<HierarchyNode<E>>(numberOfNodes);
+                for (int nodeIndex=0;nodeIndex<numberOfNodes;nodeIndex++) {
+                    int numberOfElements=input.readInt();
+                    HierarchyNode<E> node=new HierarchyNode<E>(elementCodec.read(input));
+                    for (int elementIndex=1;elementIndex<numberOfElements;elementIndex++)
+                        node.m_equivalentElements.add(elementCodec.read(input));
+                    nodes.add(node);
+                }
+                for (HierarchyNode<E> parentNode : nodes) {
+                    int numberOfChildNodes=input.readInt();
+                    for (int childIndex=0;childIndex<numberOfChildNodes;childIndex++) {
+                        HierarchyNode<E> childNode=nodes.get(input.readInt());
+                        parentNode.m_childNodes.add(childNode);
+                        childNode.m_parentNodes.add(parentNode);
+                    }
+                }
+                Hierarchy<E> hierarchy=new Hierarchy<E>(nodes.get(input.readInt()),nodes.get(input.readInt()));
+                for (HierarchyNode<E> node : nodes)
+                    for (E element : node.m_equivalentElements)
+                        hierarchy.m_nodesByElements.put(element,node);
+                return hierarchy;
+            }
+            finally {
+                input.close();
+            }
+        }
+        catch (IOException error) {
+            // A damaged cache file is treated like a missing one, so the hierarchy is recomputed and the file rewritten.
+            return null;
+        }
+        catch (IndexOutOfBoundsException error) {
+            return null;
+        }
+    }
+    protected <E> void save(File file,Hierarchy<E> hierarchy,ElementCodec<E> elementCodec) throws IOException {
+        if (!m_directory.isDirectory() && !m_directory.mkdirs())
+            throw new IOException("Cannot create the hierarchy cache directory '"+m_directory+"'.");
+        Map<HierarchyNode<E>,Integer> nodeIndexes=new HashMap<HierarchyNode<E>,Integer>();
+        List<HierarchyNode<E>> nodes=new ArrayList<HierarchyNode<E>>(hierarchy.getAllNodesSet());
+        for (HierarchyNode<E> node : nodes)
+            nodeIndexes.put(node,nodeIndexes.size());
+        // The file is written under a temporary name and then renamed, so that concurrent readers never see a partially
+        // written file.
+        File temporaryFile=File.createTempFile(m_fingerprint,".tmp",m_directory);
+        try {
+            DataOutputStream output=new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)));
+            try {
+                output.writeInt(MAGIC_NUMBER);
+                output.writeInt(FORMAT_VERSION);
+                output.writeUTF(m_fingerprint);
+                output.writeInt(nodes.size());
+                for (HierarchyNode<E> node : nodes) {
+                    output.writeInt(node.m_equivalentElements.size());
+                    elementCodec.write(output,node.m_representative);
+                    for (E element : node.m_equivalentElements)
+                        if (!element.equals(node.m_representative))
+                            elementCodec.write(output,element);
+                }
+                for (HierarchyNode<E> node : nodes) {
+                    output.writeInt(node.m_childNodes.size());
+                    for (HierarchyNode<E> childNode : node.m_childNodes)
+                        output.writeInt(nodeIndexes.get(childNode));
+                }
+                output.writeInt(nodeIndexes.get(hierarchy.getTopNode()));
+                output.writeInt(nodeIndexes.get(hierarchy.getBottomNode()));
+            }
+            finally {
+                output.close();
+            }
+            file.delete();
+            if (!temporaryFile.renameTo(file))
+                throw new IOException("Cannot write the hierarchy cache file '"+file+"'.");
+        }
+        finally {
+            temporaryFile.delete();
+        }
+    }
+    /**
+     * Computes a fingerprint of the given DL-ontology and of the configuration options that influence the computed
+     * hierarchies. The fingerprint does not depend on the iteration order of the sets of the DL-ontology.
+     */
+    public static String computeFingerprint(DLOntology dlOntology,Configuration configuration) {
+        try {
+            MessageDigest messageDigest=MessageDigest.getInstance("SHA-256");
+            update(messageDigest,"HermiT hierarchy cache "+FORMAT_VERSION);
+            update(messageDigest,"ignoreUnsupportedDatatypes="+configuration.ignoreUnsupportedDatatypes);
+            List<String> dlClauses=new ArrayList<String>();
+            for (DLClause dlClause : dlOntology.getDLClauses())
+                dlClauses.add(toSortedString(dlClause));
+            update(messageDigest,"DL-clauses",dlClauses);
+            update(messageDigest,"positive facts",dlOntology.getPositiveFacts());
+            update(messageDigest,"negative facts",dlOntology.getNegativeFacts());
+            List<String> dataPropertyAssertions=new ArrayList<String>();
+            for (Map.Entry<AtomicRole,Map<Individual,Set<Constant>>> entry : dlOntology.getDataPropertyAssertions().entrySet())
+                for (Map.Entry<Individual,Set<Constant>> assertions : entry.getValue().entrySet())
+                    for (Constant constant : assertions.getValue())
+                        dataPropertyAssertions.add(entry.getKey()+"("+assertions.getKey()+","+constant+")");
+            update(messageDigest,"data property assertions",dataPropertyAssertions);
+            update(messageDigest,"atomic concepts",dlOntology.getAllAtomicConcepts());
+            update(messageDigest,"atomic object roles",dlOntology.getAllAtomicObjectRoles());
+            update(messageDigest,"complex object roles",dlOntology.getAllComplexObjectRoles());
+            update(messageDigest,"atomic data roles",dlOntology.getAllAtomicDataRoles());
+            update(messageDigest,"unknown datatype restrictions",dlOntology.getAllUnknownDatatypeRestrictions());
+            update(messageDigest,"defined datatypes",dlOntology.getDefinedDatatypeIRIs());
+            update(messageDigest,"individuals",dlOntology.getAllIndividuals());
+            update(messageDigest,"description graphs",dlOntology.getAllDescriptionGraphs());
+            StringBuilder fingerprint=new StringBuilder();
+            for (byte b : messageDigest.digest()) {
+                fingerprint.append(Character.forDigit((b >> 4) & 0xF,16));
+                fingerprint.append(Character.forDigit(b & 0xF,16));
+            }
+            return fingerprint.toString();
+        }
+        catch (NoSuchAlgorithmException error) {
+            throw new IllegalStateException("Internal error: SHA-256 is not supported by the JVM.",error);
+        }
+    }
+    protected static String toSortedString(DLClause dlClause) {
+        List<String> headAtoms=new ArrayList<String>();
+        for (Atom atom : dlClause.getHeadAtoms())
+            headAtoms.add(atom.toString());
+        Collections.sort(headAtoms);
+        List<String> bodyAtoms=new ArrayList<String>();
+        for (Atom atom : dlClause.getBodyAtoms())
+            bodyAtoms.add(atom.toString());
+        Collections.sort(bodyAtoms);
+        return headAtoms+" :- "+bodyAtoms;
+    }
+    protected static void update(MessageDigest messageDigest,String sectionName,Collection<?> objects) {
+        List<String> strings=new ArrayList<String>(objects.size());
+        for (Object object : objects)
+            strings.add(object.toString());
+        Collections.sort(strings);
+        update(messageDigest,sectionName+" "+strings.size());
+        for (String string : strings)
+            update(messageDigest,string);
+    }
+    protected static void update(MessageDigest messageDigest,String string) {
+        try {
+            messageDigest.update(string.getBytes("UTF-8"));
+            messageDigest.update((byte)'\n');
+        }
+        catch (UnsupportedEncodingException error) {
+            throw new IllegalStateException("Internal error: UTF-8 is not supported by the JVM.",error);
+        }
+    }
+
+    protected static interface ElementCodec<E> {
+        void write(DataOutputStream output,E element) throws IOException;
+        E read(DataInputStream input) throws IOException;
+    }
+
+    protected static class AtomicConceptCodec implements ElementCodec<AtomicConcept> {
+        public static final AtomicConceptCodec INSTANCE=new AtomicConceptCodec();
+
+        public void write(DataOutputStream output,AtomicConcept atomicConcept) throws IOException {
+            output.writeUTF(atomicConcept.getIRI());
+        }
+        public AtomicConcept read(DataInputStream input) throws IOException {
+            return AtomicConcept.create(input.readUTF());
+        }
+    }
+
+    protected static class RoleCodec implements ElementCodec<Role> {
+        public static final RoleCodec INSTANCE=new RoleCodec();
+
+        public void write(DataOutputStream output,Role role) throws IOException {
+            if (role instanceof InverseRole) {
+                output.writeBoolean(true);
+                output.writeUTF(((InverseRole)role).getInverseOf().getIRI());
+            }
+            else {
+                output.writeBoolean(false);
+                output.writeUTF(((AtomicRole)role).getIRI());
+            }
+        }
+        public Role read(DataInputStream input) throws IOException {
+            boolean isInverse=input.readBoolean();
+            AtomicRole atomicRole=AtomicRole.create(input.readUTF());
+            return isInverse ? atomicRole.getInverse() : atomicRole;
+        }
+    }
+}
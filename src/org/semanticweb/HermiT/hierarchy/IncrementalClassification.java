@@ -0,0 +1,324 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.hierarchy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+import org.semanticweb.HermiT.hierarchy.DeterministicClassification.GraphNode;
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.Individual;
+import org.semanticweb.HermiT.tableau.ExtensionTable;
+import org.semanticweb.HermiT.tableau.Node;
+import org.semanticweb.HermiT.tableau.ReasoningTaskDescription;
+import org.semanticweb.HermiT.tableau.Tableau;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLIndividualAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+import com.clarkparsia.owlapi.modularity.locality.LocalityClass;
+import com.clarkparsia.owlapi.modularity.locality.SyntacticLocalityEvaluator;
+
+/**
+ * Reuses a class hierarchy after the TBox of the ontology has changed. A class is affected by the change if an added
+ * or a removed axiom belongs to the syntactic bottom-locality-based module of the class in the ontology before or
+ * after the change. Such modules preserve all subsumers of the class, so the subsumers of the unaffected classes are
+ * the same as in the previous hierarchy. Only the affected classes are classified again, and their positions relative
+ * to the unaffected classes are determined by a top-down search in the hierarchy of the unaffected classes.
+ *
+ * ABox axioms are not considered: the class hierarchy of a consistent ontology without nominals does not depend on
+ * the ABox. The reasoner therefore uses this class only if the ontology contains no nominals and is consistent.
+ */
+public class IncrementalClassification {
+    protected final Hierarchy<AtomicConcept> m_previousHierarchy;
+    protected final Set<OWLAxiom> m_previousAxioms;
+    protected final Set<OWLAxiom> m_currentAxioms;
+
+    public IncrementalClassification(Hierarchy<AtomicConcept> previousHierarchy,Set<OWLAxiom> previousAxioms,Set<OWLAxiom> currentAxioms) {
+        m_previousHierarchy=previousHierarchy;
+        m_previousAxioms=previousAxioms;
+        m_currentAxioms=currentAxioms;
+    }
+    public Hierarchy<AtomicConcept> getPreviousHierarchy() {
+        return m_previousHierarchy;
+    }
+    public Set<OWLAxiom> getPreviousAxioms() {
+        return m_previousAxioms;
+    }
+    public Set<OWLAxiom> getCurrentAxioms() {
+        return m_currentAxioms;
+    }
+    /**
+     * Returns the elements that need to be classified again, or null if the whole hierarchy must be recomputed, which
+     * is the case if the change affects the module of the empty signature and thus all classes.
+     */
+    public Set<AtomicConcept> getAffectedElements(OWLDataFactory factory,AtomicConcept topElement,AtomicConcept bottomElement,Set<AtomicConcept> elements) {
+        Set<OWLAxiom> changedAxioms=new HashSet<OWLAxiom>();
+        for (OWLAxiom axiom : m_previousAxioms)
+            if (!m_currentAxioms.contains(axiom))
+                changedAxioms.add(axiom);
+        for (OWLAxiom axiom : m_currentAxioms)
+            if (!m_previousAxioms.contains(axiom))
+                changedAxioms.add(axiom);
+        ModuleChecker previousModuleChecker=new ModuleChecker(m_previousAxioms,changedAxioms);
+        ModuleChecker currentModuleChecker=new ModuleChecker(m_currentAxioms,changedAxioms);
+        if (previousModuleChecker.m_globalModuleContainsChangedAxiom || currentModuleChecker.m_globalModuleContainsChangedAxiom)
+            return null;
+        Set<AtomicConcept> affectedElements=new HashSet<AtomicConcept>();
+        for (AtomicConcept element : elements) {
+            if (!element.equals(topElement) && !element.equals(bottomElement)) {
+                if (m_previousHierarchy.getNodeForElement(element)==null)
+                    affectedElements.add(element);
+                else {
+                    OWLEntity owlClass=factory.getOWLClass(IRI.create(element.getIRI()));
+                    if (previousModuleChecker.moduleContainsChangedAxiom(owlClass) || currentModuleChecker.moduleContainsChangedAxiom(owlClass))
+                        affectedElements.add(element);
+                }
+            }
+        }
+        return affectedElements;
+    }
+    /**
+     * Builds the hierarchy of all elements from the subsumers of the unaffected elements in the previous hierarchy and
+     * from the given hierarchy of the affected elements, which must contain the top and the bottom element as well.
+     */
+    public Hierarchy<AtomicConcept> buildHierarchy(Tableau tableau,AtomicConcept topElement,AtomicConcept bottomElement,Set<AtomicConcept> elements,Set<AtomicConcept> affectedElements,Hierarchy<AtomicConcept> affectedHierarchy) {
+        Map<AtomicConcept,Set<AtomicConcept>> subsumers=new HashMap<AtomicConcept,Set<AtomicConcept>>();
+        Map<AtomicConcept,GraphNode<AtomicConcept>> unaffectedGraphNodes=new HashMap<AtomicConcept,GraphNode<AtomicConcept>>();
+        for (AtomicConcept element : elements)
+            if (!affectedElements.contains(element)) {
+                Set<AtomicConcept> elementSubsumers=getPreviousSubsumers(element,elements);
+                subsumers.put(element,elementSubsumers);
+                unaffectedGraphNodes.put(element,new GraphNode<AtomicConcept>(element,elementSubsumers));
+            }
+        Hierarchy<AtomicConcept> unaffectedHierarchy=DeterministicClassification.buildHierarchy(topElement,bottomElement,unaffectedGraphNodes);
+        // The nodes of the affected hierarchy are processed top-down so that the unaffected subsumers of the parents are known.
+        Map<HierarchyNode<AtomicConcept>,Set<AtomicConcept>> unaffectedSubsumers=new HashMap<HierarchyNode<AtomicConcept>,Set<AtomicConcept>>();
+        unaffectedSubsumers.put(affectedHierarchy.getTopNode(),subsumers.get(topElement));
+        for (HierarchyNode<AtomicConcept> node : getTopologicalOrder(affectedHierarchy)) {
+            Set<AtomicConcept> nodeSubsumers;
+            if (node==affectedHierarchy.getBottomNode())
+                nodeSubsumers=elements;
+            else {
+                if (node!=affectedHierarchy.getTopNode()) {
+                    Set<AtomicConcept> knownSubsumers=new HashSet<AtomicConcept>();
+                    for (HierarchyNode<AtomicConcept> parentNode : node.getParentNodes())
+                        knownSubsumers.addAll(unaffectedSubsumers.get(parentNode));
+                    unaffectedSubsumers.put(node,findUnaffectedSubsumers(tableau,node.getRepresentative(),unaffectedHierarchy,knownSubsumers));
+                }
+                nodeSubsumers=new HashSet<AtomicConcept>(unaffectedSubsumers.get(node));
+                nodeSubsumers.addAll(node.getEquivalentElements());
+                for (HierarchyNode<AtomicConcept> ancestorNode : node.getAncestorNodes())
+                    nodeSubsumers.addAll(ancestorNode.getEquivalentElements());
+            }
+            for (AtomicConcept element : node.getEquivalentElements())
+                if (affectedElements.contains(element))
+                    subsumers.put(element,nodeSubsumers);
+        }
+        Map<AtomicConcept,GraphNode<AtomicConcept>> allGraphNodes=new HashMap<AtomicConcept,GraphNode<AtomicConcept>>();
+        for (Map.Entry<AtomicConcept,Set<AtomicConcept>> entry : subsumers.entrySet())
+            allGraphNodes.put(entry.getKey(),new GraphNode<AtomicConcept>(entry.getKey(),entry.getValue()));
+        return DeterministicClassification.buildHierarchy(topElement,bottomElement,allGraphNodes);
+    }
+    protected Set<AtomicConcept> getPreviousSubsumers(AtomicConcept element,Set<AtomicConcept> elements) {
+        HierarchyNode<AtomicConcept> previousNode=m_previousHierarchy.getNodeForElement(element);
+        if (previousNode==m_previousHierarchy.getBottomNode())
+            return elements;
+        Set<AtomicConcept> result=new HashSet<AtomicConcept>();
+        for (AtomicConcept subsumer : previousNode.getEquivalentElements())
+            if (elements.contains(subsumer))
+                result.add(subsumer);
+        for (HierarchyNode<AtomicConcept> ancestorNode : previousNode.getAncestorNodes())
+            for (AtomicConcept subsumer : ancestorNode.getEquivalentElements())
+                if (elements.contains(subsumer))
+                    result.add(subsumer);
+        return result;
+    }
+    /**
+     * Finds the subsumers of the given element among the unaffected elements. A model of the element is built first:
+     * only the concepts in the label of its root node can be subsumers, and those derived deterministically are.
+     */
+    protected Set<AtomicConcept> findUnaffectedSubsumers(Tableau tableau,AtomicConcept element,Hierarchy<AtomicConcept> unaffectedHierarchy,Set<AtomicConcept> knownSubsumers) {
+        Set<AtomicConcept> possibleSubsumers=new HashSet<AtomicConcept>();
+        Set<AtomicConcept> deterministicSubsumers=new HashSet<AtomicConcept>(knownSubsumers);
+        readSubsumersFromModel(tableau,element,possibleSubsumers,deterministicSubsumers);
+        Set<AtomicConcept> result=new HashSet<AtomicConcept>(unaffectedHierarchy.getTopNode().getEquivalentElements());
+        Set<HierarchyNode<AtomicConcept>> visited=new HashSet<HierarchyNode<AtomicConcept>>();
+        Queue<HierarchyNode<AtomicConcept>> toProcess=new LinkedList<HierarchyNode<AtomicConcept>>();
+        toProcess.add(unaffectedHierarchy.getTopNode());
+        while (!toProcess.isEmpty()) {
+            HierarchyNode<AtomicConcept> current=toProcess.remove();
+            for (HierarchyNode<AtomicConcept> childNode : current.getChildNodes())
+                if (childNode!=unaffectedHierarchy.getBottomNode() && visited.add(childNode)) {
+                    AtomicConcept child=childNode.getRepresentative();
+                    if (deterministicSubsumers.contains(child) || (possibleSubsumers.contains(child) && isSubsumedBy(tableau,element,child))) {
+                        result.addAll(childNode.getEquivalentElements());
+                        toProcess.add(childNode);
+                    }
+                }
+        }
+        return result;
+    }
+    protected void readSubsumersFromModel(Tableau tableau,AtomicConcept element,Set<AtomicConcept> possibleSubsumers,Set<AtomicConcept> deterministicSubsumers) {
+        Individual freshIndividual=Individual.createAnonymous("fresh-individual");
+        Map<Individual,Node> checkedNode=new HashMap<Individual,Node>();
+        checkedNode.put(freshIndividual,null);
+        if (tableau.isSatisfiable(false,Collections.singleton(Atom.create(element,freshIndividual)),null,null,null,checkedNode,ReasoningTaskDescription.isConceptSatisfiable(element))) {
+            Node rootNode=checkedNode.get(freshIndividual);
+            boolean isRootNodeDeterministic=rootNode.getCanonicalNodeDependencySet().isEmpty();
+            ExtensionTable.Retrieval retrieval=tableau.getExtensionManager().getBinaryExtensionTable().createRetrieval(new boolean[] { false,true },ExtensionTable.View.TOTAL);
+            retrieval.getBindingsBuffer()[1]=rootNode.getCanonicalNode();
+            retrieval.open();
+            while (!retrieval.afterLast()) {
+                Object conceptObject=retrieval.getTupleBuffer()[0];
+                if (conceptObject instanceof AtomicConcept) {
+                    possibleSubsumers.add((AtomicConcept)conceptObject);
+                    if (isRootNodeDeterministic && retrieval.getDependencySet().isEmpty())
+                        deterministicSubsumers.add((AtomicConcept)conceptObject);
+                }
+                retrieval.next();
+            }
+        }
+    }
+    protected boolean isSubsumedBy(Tableau tableau,AtomicConcept subconcept,AtomicConcept superconcept) {
+        Individual freshIndividual=Individual.createAnonymous("fresh-individual");
+        return !tableau.isSatisfiable(true,Collections.singleton(Atom.create(subconcept,freshIndividual)),null,null,Collections.singleton(Atom.create(superconcept,freshIndividual)),null,ReasoningTaskDescription.isConceptSubsumedBy(subconcept,superconcept));
+    }
+    protected static List<HierarchyNode<AtomicConcept>> getTopologicalOrder(Hierarchy<AtomicConcept> hierarchy) {
+        List<HierarchyNode<AtomicConcept>> result=new ArrayList<HierarchyNode<AtomicConcept>>();
+        Map<HierarchyNode<AtomicConcept>,Integer> unprocessedParents=new HashMap<HierarchyNode<AtomicConcept>,Integer>();
+        Queue<HierarchyNode<AtomicConcept>> toProcess=new LinkedList<HierarchyNode<AtomicConcept>>();
+        toProcess.add(hierarchy.getTopNode());
+        while (!toProcess.isEmpty()) {
+            HierarchyNode<AtomicConcept> current=toProcess.remove();
+            result.add(current);
+            for (HierarchyNode<AtomicConcept> childNode : current.getChildNodes()) {
+                Integer count=unprocessedParents.get(childNode);
+                int remaining=(count==null ? childNode.getParentNodes().size() : count.intValue())-1;
+                unprocessedParents.put(childNode,remaining);
+                if (remaining==0)
+                    toProcess.add(childNode);
+            }
+        }
+        return result;
+    }
+    /**
+     * Returns the logical axioms of the given ontologies that can influence the class hierarchy, i.e., all logical axioms
+     * apart from the ABox axioms.
+     */
+    public static Set<OWLAxiom> getTBoxAxioms(Collection<OWLOntology> ontologies) {
+        Set<OWLAxiom> result=new HashSet<OWLAxiom>();
+        for (OWLOntology ontology : ontologies)
+            for (OWLAxiom axiom : ontology.getLogicalAxioms())
+                if (isTBoxAxiom(axiom))
+                    result.add(axiom);
+        return result;
+    }
+    public static boolean isTBoxAxiom(OWLAxiom axiom) {
+        return axiom.isLogicalAxiom() && !(axiom instanceof OWLIndividualAxiom);
+    }
+
+    /**
+     * Computes syntactic bottom-locality-based modules. The module of the empty signature is contained in every module,
+     * so it is computed once; the module of a class is then obtained by checking only the axioms that mention an
+     * entity of the growing signature.
+     */
+    protected static class ModuleChecker {
+        protected final SyntacticLocalityEvaluator m_localityEvaluator;
+        protected final Set<OWLAxiom> m_changedAxioms;
+        protected final Map<OWLEntity,List<OWLAxiom>> m_axiomsByEntity;
+        protected final Set<OWLAxiom> m_globalModule;
+        protected final Set<OWLEntity> m_globalSignature;
+        protected final boolean m_globalModuleContainsChangedAxiom;
+
+        public ModuleChecker(Set<OWLAxiom> axioms,Set<OWLAxiom> changedAxioms) {
+            m_localityEvaluator=new SyntacticLocalityEvaluator(LocalityClass.BOTTOM_BOTTOM);
+            m_changedAxioms=changedAxioms;
+            m_axiomsByEntity=new HashMap<OWLEntity,List<OWLAxiom>>();
+            m_globalModule=new HashSet<OWLAxiom>();
+            m_globalSignature=new HashSet<OWLEntity>();
+            List<OWLEntity> newEntities=new ArrayList<OWLEntity>();
+            for (OWLAxiom axiom : axioms) {
+                for (OWLEntity entity : axiom.getSignature()) {
+                    List<OWLAxiom> entityAxioms=m_axiomsByEntity.get(entity);
+                    if (entityAxioms==null) {
+                        entityAxioms=new ArrayList<OWLAxiom>();
+                        m_axiomsByEntity.put(entity,entityAxioms);
+                    }
+                    entityAxioms.add(axiom);
+                }
+                if (!m_localityEvaluator.isLocal(axiom,m_globalSignature)) {
+                    m_globalModule.add(axiom);
+                    for (OWLEntity entity : axiom.getSignature())
+                        if (m_globalSignature.add(entity))
+                            newEntities.add(entity);
+                }
+            }
+            boolean globalModuleContainsChangedAxiom=extendModule(m_globalModule,m_globalSignature,newEntities);
+            for (OWLAxiom axiom : m_globalModule)
+                if (changedAxioms.contains(axiom))
+                    globalModuleContainsChangedAxiom=true;
+            m_globalModuleContainsChangedAxiom=globalModuleContainsChangedAxiom;
+        }
+        public boolean moduleContainsChangedAxiom(OWLEntity entity) {
+            if (m_globalSignature.contains(entity))
+                return m_globalModuleContainsChangedAxiom;
+            Set<OWLAxiom> module=new HashSet<OWLAxiom>(m_globalModule);
+            Set<OWLEntity> signature=new HashSet<OWLEntity>(m_globalSignature);
+            signature.add(entity);
+            return extendModule(module,signature,Collections.singletonList(entity));
+        }
+        /**
+         * Adds to the module all axioms that are not local w.r.t. the signature, where only axioms containing one of the
+         * new entities need to be checked. Returns true as soon as a changed axiom is added.
+         */
+        protected boolean extendModule(Set<OWLAxiom> module,Set<OWLEntity> signature,List<OWLEntity> newEntities) {
+            boolean containsChangedAxiom=false;
+            Queue<OWLEntity> toProcess=new LinkedList<OWLEntity>(newEntities);
+            while (!toProcess.isEmpty()) {
+                List<OWLAxiom> entityAxioms=m_axiomsByEntity.get(toProcess.remove());
+                if (entityAxioms!=null)
+                    for (OWLAxiom axiom : entityAxioms)
+                        if (!module.contains(axiom) && !m_localityEvaluator.isLocal(axiom,signature)) {
+                            module.add(axiom);
+                            if (m_changedAxioms.contains(axiom)) {
+                                containsChangedAxiom=true;
+                                if (module!=m_globalModule)
+                                    return true;
+                            }
+                            for (OWLEntity entity : axiom.getSignature())
+                                if (signature.add(entity))
+                                    toProcess.add(entity);
+                        }
+            }
+            return containsChangedAxiom;
+        }
+    }
+}
@@ -31,7 +31,8 @@ import java.util.Set;
 
 import org.semanticweb.HermiT.Prefixes;
 import org.semanticweb.HermiT.Reasoner;
-import org.semanticweb.HermiT.graph.Graph;
+import org.semanticweb.HermiT.graph.BitSetGraph;
+import org.semanticweb.HermiT.graph.SparseBitSet;
 import org.semanticweb.HermiT.hierarchy.DeterministicClassification.GraphNode;
 import org.semanticweb.HermiT.hierarchy.RoleElementManager.RoleElement;
 import org.semanticweb.HermiT.model.Atom;
@@ -68,6 +69,7 @@ public class InstanceManager {
     protected final Reasoner m_reasoner;
     protected final TableauMonitor m_tableauMonitor;
     protected final Individual[] m_individuals;
+    protected final Map<Individual,Integer> m_indexesForIndividuals;
     protected final HashSet<AtomicRole> m_complexRoles;
     protected final Map<AtomicConcept,AtomicConceptElement> m_conceptToElement;
     protected final AtomicConcept m_topConcept;
@@ -108,6 +110,9 @@ public class InstanceManager {
             m_tableauMonitor=m_reasoner.getTableau().getTableauMonitor();
             DLOntology dlo=m_reasoner.getDLOntology();
             m_individuals=new ArrayList<Individual>(dlo.getAllIndividuals()).toArray(new Individual[0]);
+            m_indexesForIndividuals=new HashMap<Individual,Integer>();
+            for (int index=0;index<m_individuals.length;index++)
+                m_indexesForIndividuals.put(m_individuals[index],Integer.valueOf(index));
             m_complexRoles=new HashSet<AtomicRole>();
             m_individualToEquivalenceClass=new HashMap<Individual, Set<Individual>>();
             m_nodesForIndividuals=new HashMap<Individual,Node>();
@@ -127,12 +132,12 @@ public class InstanceManager {
             m_bottomConcept=AtomicConcept.NOTHING;
             m_conceptToElement=new HashMap<AtomicConcept, AtomicConceptElement>();
             m_conceptToElement.put(m_topConcept, new AtomicConceptElement(null, null));
-            Graph<AtomicConcept> knownConceptSubsumptions=null;
+            BitSetGraph<AtomicConcept> knownConceptSubsumptions=null;
             Set<AtomicConcept> atomicConcepts=null;
             if (atomicConceptHierarchy!=null)
                 setToClassifiedConceptHierarchy(atomicConceptHierarchy);
             else {
-                knownConceptSubsumptions=new Graph<AtomicConcept>();
+                knownConceptSubsumptions=new BitSetGraph<AtomicConcept>();
                 atomicConcepts=new HashSet<AtomicConcept>();
                 atomicConcepts.add(m_topConcept);
                 atomicConcepts.add(m_bottomConcept);
@@ -149,7 +154,7 @@ public class InstanceManager {
             }
 
             m_roleElementManager=new RoleElementManager();
-            Graph<Role> knownRoleSubsumptions=null;
+            BitSetGraph<Role> knownRoleSubsumptions=null;
             m_topRoleElement=m_roleElementManager.getRoleElement(AtomicRole.TOP_OBJECT_ROLE);
             m_bottomRoleElement=m_roleElementManager.getRoleElement(AtomicRole.BOTTOM_OBJECT_ROLE);
             m_usesInverseRoles=dlo.hasInverseRoles();
@@ -162,7 +167,7 @@ public class InstanceManager {
                         m_complexRoles.add((AtomicRole)role);
             }
             else {
-                knownRoleSubsumptions=new Graph<Role>();
+                knownRoleSubsumptions=new BitSetGraph<Role>();
                 roles=new HashSet<Role>();
                 roles.add(AtomicRole.TOP_OBJECT_ROLE);
                 roles.add(AtomicRole.BOTTOM_OBJECT_ROLE);
@@ -195,15 +200,15 @@ public class InstanceManager {
             m_interruptFlag.endTask();
         }
     }
-    protected void addKnownConceptSubsumption(Graph<AtomicConcept> knownSubsumptions,AtomicConcept subConcept,AtomicConcept superConcept) {
+    protected void addKnownConceptSubsumption(BitSetGraph<AtomicConcept> knownSubsumptions,AtomicConcept subConcept,AtomicConcept superConcept) {
         knownSubsumptions.addEdge(subConcept,superConcept);
     }
-    protected void addKnownRoleSubsumption(Graph<Role> knownSubsumptions,Role subRole,Role superRole) {
+    protected void addKnownRoleSubsumption(BitSetGraph<Role> knownSubsumptions,Role subRole,Role superRole) {
         knownSubsumptions.addEdge(subRole,superRole);
         if (m_usesInverseRoles)
             knownSubsumptions.addEdge(subRole.getInverse(),superRole.getInverse());
     }
-    protected void updateKnownSubsumptionsUsingToldSubsumers(Set<DLClause> dlClauses, Graph<AtomicConcept> knownConceptSubsumptions,Set<AtomicConcept> concepts,Graph<Role> knownRoleSubsumptions,Set<Role> roles) {
+    protected void updateKnownSubsumptionsUsingToldSubsumers(Set<DLClause> dlClauses, BitSetGraph<AtomicConcept> knownConceptSubsumptions,Set<AtomicConcept> concepts,BitSetGraph<Role> knownRoleSubsumptions,Set<Role> roles) {
         boolean requiresConceptSubsumers=knownConceptSubsumptions!=null;
         boolean requiresRoleSubsumers=knownRoleSubsumptions!=null;
         if (requiresConceptSubsumers || requiresRoleSubsumers) {
@@ -234,7 +239,7 @@ public class InstanceManager {
             }
         }
     }
-    protected Hierarchy<AtomicConcept> buildTransitivelyReducedConceptHierarchy(Graph<AtomicConcept> knownSubsumptions) {
+    protected Hierarchy<AtomicConcept> buildTransitivelyReducedConceptHierarchy(BitSetGraph<AtomicConcept> knownSubsumptions) {
         final Map<AtomicConcept,GraphNode<AtomicConcept>> allSubsumers=new HashMap<AtomicConcept,GraphNode<AtomicConcept>>();
         for (AtomicConcept element : knownSubsumptions.getElements())
             allSubsumers.put(element,new GraphNode<AtomicConcept>(element,knownSubsumptions.getSuccessors(element)));
@@ -296,7 +301,7 @@ public class InstanceManager {
             m_usesClassifiedConceptHierarchy=true;
         }
     }
-    protected Hierarchy<RoleElement> buildTransitivelyReducedRoleHierarchy(Graph<Role> knownSubsumptions) {
+    protected Hierarchy<RoleElement> buildTransitivelyReducedRoleHierarchy(BitSetGraph<Role> knownSubsumptions) {
         final Map<Role,GraphNode<Role>> allSubsumers=new HashMap<Role,GraphNode<Role>>();
         for (Role role : knownSubsumptions.getElements())
             allSubsumers.put(role,new GraphNode<Role>(role,knownSubsumptions.getSuccessors(role)));
@@ -838,8 +843,23 @@ public class InstanceManager {
         m_currentRoleHierarchy=null;
     }
     public void realize(ReasonerProgressMonitor monitor) {
+        realize(monitor,new Tableau[0]);
+    }
+    /**
+     * Tests all possible instances of the classes. If at least two worker tableaux are given, the tests are distributed
+     * over the worker tableaux, using one thread per worker tableau (see TableauWorkQueue); otherwise, all tests are
+     * performed sequentially in the reasoner's tableau.
+     */
+    public void realize(ReasonerProgressMonitor monitor,Tableau[] workerTableaux) {
         assert m_usesClassifiedConceptHierarchy==true;
-        if (m_readingOffFoundPossibleConceptInstance && !m_realizationCompleted) {
+        if (m_readingOffFoundPossibleConceptInstance && !m_realizationCompleted && workerTableaux.length>1) {
+            if (monitor!=null)
+                monitor.reasonerTaskStarted("Computing instances for all classes");
+            new ParallelConceptRealization(monitor).realize(workerTableaux);
+            if (monitor!=null)
+                monitor.reasonerTaskStopped();
+        }
+        else if (m_readingOffFoundPossibleConceptInstance && !m_realizationCompleted) {
             if (monitor!=null)
                 monitor.reasonerTaskStarted("Computing instances for all classes");
             int numHierarchyNodes=m_currentConceptHierarchy.m_nodesByElements.values().size();
@@ -892,7 +912,21 @@ public class InstanceManager {
         m_realizationCompleted=true;
     }
     public void realizeObjectRoles(ReasonerProgressMonitor monitor) {
-        if (m_readingOffFoundPossiblePropertyInstance && !m_roleRealizationCompleted) {
+        realizeObjectRoles(monitor,new Tableau[0]);
+    }
+    /**
+     * Tests all possible instances of the object properties. If at least two worker tableaux are given, the tests are
+     * distributed over the worker tableaux as in realize(); otherwise, all tests are performed sequentially.
+     */
+    public void realizeObjectRoles(ReasonerProgressMonitor monitor,Tableau[] workerTableaux) {
+        if (m_readingOffFoundPossiblePropertyInstance && !m_roleRealizationCompleted && workerTableaux.length>1) {
+            if (monitor!=null)
+                monitor.reasonerTaskStarted("Computing instances for all object properties...");
+            new ParallelRoleRealization(monitor).realize(workerTableaux);
+            if (monitor!=null)
+                monitor.reasonerTaskStopped();
+        }
+        else if (m_readingOffFoundPossiblePropertyInstance && !m_roleRealizationCompleted) {
             if (monitor!=null)
                 monitor.reasonerTaskStarted("Computing instances for all object properties...");
             int numHierarchyNodes=m_currentRoleHierarchy.m_nodesByElements.values().size();
@@ -919,7 +953,7 @@ public class InstanceManager {
                             if (isRoleInstance(role, individual, successor))
                                 roleElement.addKnown(individual, successor);
                             else {
-                                nonInstances.add(individual);
+                                nonInstances.add(successor);
                             }
                         }
                         for (HierarchyNode<RoleElement> parent : parents) {
@@ -1038,79 +1072,126 @@ public class InstanceManager {
         return false;
     }
     public Set<Individual> getInstances(AtomicConcept atomicConcept, boolean direct) {
-        Set<Individual> result=new HashSet<Individual>();
-        HierarchyNode<AtomicConcept> node=m_currentConceptHierarchy.getNodeForElement(atomicConcept);
-        if (node==null) return result; // unknown concept
-        getInstancesForNode(node,result,direct);
+        final Set<Individual> result=new HashSet<Individual>();
+        forEachInstance(atomicConcept,direct,new InstanceVisitor<Individual>() {
+            public boolean visitInstance(Individual individual) {
+                result.add(individual);
+                return true;
+            }
+        });
         return result;
     }
     public Set<Individual> getInstances(HierarchyNode<AtomicConcept> node,boolean direct) {
-        Set<Individual> result=new HashSet<Individual>();
+        final Set<Individual> result=new HashSet<Individual>();
+        forEachInstance(node,direct,new InstanceVisitor<Individual>() {
+            public boolean visitInstance(Individual individual) {
+                result.add(individual);
+                return true;
+            }
+        });
+        return result;
+    }
+    /**
+     * Reports each instance of the given concept to the visitor exactly once. Possible instances are verified only when
+     * the traversal reaches them, so a visitor that stops early avoids the tests for the remaining possible instances.
+     * Apart from the verified instances, only one bit per individual is used to avoid reporting an individual twice.
+     * The visitor must not pose further queries while the traversal is in progress. Returns false if the visitor has
+     * stopped the traversal.
+     */
+    public boolean forEachInstance(AtomicConcept atomicConcept,boolean direct,InstanceVisitor<Individual> visitor) {
+        HierarchyNode<AtomicConcept> node=m_currentConceptHierarchy.getNodeForElement(atomicConcept);
+        if (node==null) return true; // unknown concept
+        return visitInstancesOfNode(node,direct,visitor,new HashSet<HierarchyNode<AtomicConcept>>(),new SparseBitSet());
+    }
+    public boolean forEachInstance(HierarchyNode<AtomicConcept> node,boolean direct,InstanceVisitor<Individual> visitor) {
         HierarchyNode<AtomicConcept> nodeFromCurrentHierarchy=m_currentConceptHierarchy.getNodeForElement(node.m_representative);
         if (nodeFromCurrentHierarchy==null) {
             // complex concept instances
             if (!direct) {
-                for (HierarchyNode<AtomicConcept> child : node.getChildNodes()) {
-                    getInstancesForNode(child, result, direct);
-                }
+                Set<HierarchyNode<AtomicConcept>> visitedNodes=new HashSet<HierarchyNode<AtomicConcept>>();
+                SparseBitSet reportedIndividuals=new SparseBitSet();
+                for (HierarchyNode<AtomicConcept> child : node.getChildNodes())
+                    if (!visitInstancesOfNode(child,direct,visitor,visitedNodes,reportedIndividuals))
+                        return false;
             }
+            return true;
         }
         else
-            getInstancesForNode(nodeFromCurrentHierarchy, result, direct);
-        return result;
+            return visitInstancesOfNode(nodeFromCurrentHierarchy,direct,visitor,new HashSet<HierarchyNode<AtomicConcept>>(),new SparseBitSet());
     }
-    protected void getInstancesForNode(HierarchyNode<AtomicConcept> node,Set<Individual> result,boolean direct) {
+    protected boolean visitInstancesOfNode(HierarchyNode<AtomicConcept> node,boolean direct,InstanceVisitor<Individual> visitor,Set<HierarchyNode<AtomicConcept>> visitedNodes,SparseBitSet reportedIndividuals) {
         assert !direct || m_usesClassifiedConceptHierarchy;
+        if (!visitedNodes.add(node))
+            return true;
         AtomicConcept representative=node.getRepresentative();
         if (!direct && representative.equals(m_topConcept)) {
-            for (Individual individual : m_individuals)
-                if (isResultRelevantIndividual(individual))
-                    result.add(individual);
-            return;
+            for (int index=0;index<m_individuals.length;index++)
+                if (isResultRelevantIndividual(m_individuals[index]) && reportedIndividuals.set(index))
+                    if (!visitor.visitInstance(m_individuals[index]))
+                        return false;
+            return true;
         }
         AtomicConceptElement representativeElement=m_conceptToElement.get(representative);
         if (representativeElement!=null) {
+            for (Individual individual : representativeElement.getKnownInstances())
+                if (!visitInstanceOfNode(individual,node,direct,visitor,reportedIndividuals))
+                    return false;
             Set<Individual> possibleInstances=representativeElement.getPossibleInstances();
-            if (!possibleInstances.isEmpty()) {
-                for (Individual possibleInstance : new HashSet<Individual>(possibleInstances)) {
-                    if (isInstance(possibleInstance, representative))
-                        representativeElement.setToKnown(possibleInstance);
-                    else {
-                        representativeElement.m_possibleInstances.remove(possibleInstance);
-                        if (representativeElement.m_knownInstances.isEmpty() && representativeElement.m_possibleInstances.isEmpty() && representative!=m_topConcept)
-                            m_conceptToElement.remove(representative);
-                        for (HierarchyNode<AtomicConcept> parent : node.getParentNodes()) {
-                            AtomicConcept parentConcept=parent.getRepresentative();
-                            AtomicConceptElement parentElement=m_conceptToElement.get(parentConcept);
-                            if (parentElement==null) {
-                                parentElement=new AtomicConceptElement(null, null);
-                                m_conceptToElement.put(parentConcept, parentElement);
-                            }
-                            parentElement.addPossible(possibleInstance);
-                        }
-                    }
-                }
-            }
-            for (Individual individual : representativeElement.getKnownInstances()) {
-                if (isResultRelevantIndividual(individual)) {
-                    boolean isDirect=true;
-                    if (direct) {
-                        for (HierarchyNode<AtomicConcept> child : node.getChildNodes()) {
-                            if (hasType(individual, child, false)) {
-                                isDirect=false;
-                                break;
-                            }
-                        }
-                    }
-                    if (!direct || isDirect)
-                        result.add(individual);
-                }
-            }
+            if (!possibleInstances.isEmpty())
+                for (Individual possibleInstance : new ArrayList<Individual>(possibleInstances))
+                    if (representativeElement.isPossible(possibleInstance) && verifyPossibleInstance(possibleInstance,node,representativeElement,visitedNodes))
+                        if (!visitInstanceOfNode(possibleInstance,node,direct,visitor,reportedIndividuals))
+                            return false;
         }
         if (!direct)
             for (HierarchyNode<AtomicConcept> child : node.getChildNodes())
                 if (child!=m_currentConceptHierarchy.m_bottomNode)
-                    getInstancesForNode(child, result, false);
+                    if (!visitInstancesOfNode(child,false,visitor,visitedNodes,reportedIndividuals))
+                        return false;
+        return true;
+    }
+    /**
+     * Tests whether the given possible instance of the node is an instance. If it is not, it becomes a possible instance
+     * of the parent nodes. Parents that the traversal has already visited would not be reached again, so they are
+     * tested right away; the method also returns true if the individual turns out to be an instance of such a parent.
+     */
+    protected boolean verifyPossibleInstance(Individual possibleInstance,HierarchyNode<AtomicConcept> node,AtomicConceptElement element,Set<HierarchyNode<AtomicConcept>> visitedNodes) {
+        AtomicConcept representative=node.getRepresentative();
+        if (isInstance(possibleInstance, representative)) {
+            element.setToKnown(possibleInstance);
+            return true;
+        }
+        element.m_possibleInstances.remove(possibleInstance);
+        if (element.m_knownInstances.isEmpty() && element.m_possibleInstances.isEmpty() && representative!=m_topConcept)
+            m_conceptToElement.remove(representative);
+        boolean isInstanceOfVisitedParent=false;
+        for (HierarchyNode<AtomicConcept> parent : node.getParentNodes()) {
+            AtomicConcept parentConcept=parent.getRepresentative();
+            AtomicConceptElement parentElement=m_conceptToElement.get(parentConcept);
+            if (parentElement==null) {
+                parentElement=new AtomicConceptElement(null, null);
+                m_conceptToElement.put(parentConcept, parentElement);
+            }
+            if (!parentElement.isKnown(possibleInstance)) {
+                parentElement.addPossible(possibleInstance);
+                if (visitedNodes.contains(parent) && verifyPossibleInstance(possibleInstance,parent,parentElement,visitedNodes))
+                    isInstanceOfVisitedParent=true;
+            }
+            else if (visitedNodes.contains(parent))
+                isInstanceOfVisitedParent=true;
+        }
+        return isInstanceOfVisitedParent;
+    }
+    protected boolean visitInstanceOfNode(Individual individual,HierarchyNode<AtomicConcept> node,boolean direct,InstanceVisitor<Individual> visitor,SparseBitSet reportedIndividuals) {
+        if (!isResultRelevantIndividual(individual))
+            return true;
+        if (direct)
+            for (HierarchyNode<AtomicConcept> child : node.getChildNodes())
+                if (hasType(individual, child, false))
+                    return true;
+        if (!reportedIndividuals.set(m_indexesForIndividuals.get(individual).intValue()))
+            return true;
+        return visitor.visitInstance(individual);
     }
 
     public boolean hasObjectRoleRelationship(AtomicRole role, Individual individual1, Individual individual2) {
@@ -1316,7 +1397,12 @@ public class InstanceManager {
         }
     }
     protected boolean isInstance(Individual individual,AtomicConcept atomicConcept) {
-        boolean result = !m_reasoner.getTableau().isSatisfiable(true,false,null,Collections.singleton(Atom.create(atomicConcept,individual)),null,null,null,ReasoningTaskDescription.isInstanceOf(atomicConcept,individual));
+        return isInstance(m_reasoner.getTableau(),individual,atomicConcept);
+    }
+    protected boolean isInstance(Tableau tableau,Individual individual,AtomicConcept atomicConcept) {
+        // The test loads the permanent ABox, so if the saturated permanent ABox is cached, the tableau rolls back to the
+        // checkpoint of the saturated ABox instead of loading the ABox again (see Tableau.restoreSaturatedPermanentABox()).
+        boolean result = !tableau.isSatisfiable(true,false,null,Collections.singleton(Atom.create(atomicConcept,individual)),null,null,null,ReasoningTaskDescription.isInstanceOf(atomicConcept,individual));
         if (m_tableauMonitor!=null) {
             if (result)
                 m_tableauMonitor.possibleInstanceIsInstance();
@@ -1326,7 +1412,14 @@ public class InstanceManager {
         return result;
     }
     protected boolean isRoleInstance(Role role, Individual individual1, Individual individual2) {
-        OWLDataFactory factory=m_reasoner.getDataFactory();
+        return isRoleInstance(null,role,individual1,individual2);
+    }
+    /**
+     * Tests whether the given individuals are connected via the given role. If a worker tableau is given, the test is
+     * performed in it and may thus run concurrently with tests in other worker tableaux; only the clausification of the
+     * additional axioms is synchronized on this object.
+     */
+    protected boolean isRoleInstance(Tableau workerTableau,Role role,Individual individual1,Individual individual2) {
         AtomicRole atomicRole;
         if (role instanceof InverseRole) {
             Individual tmp=individual1;
@@ -1336,14 +1429,14 @@ public class InstanceManager {
         }
         else
             atomicRole=(AtomicRole)role;
-        OWLObjectProperty property=factory.getOWLObjectProperty(IRI.create(atomicRole.getIRI()));
-        OWLNamedIndividual namedIndividual1=factory.getOWLNamedIndividual(IRI.create(individual1.getIRI()));
-        OWLNamedIndividual namedIndividual2=factory.getOWLNamedIndividual(IRI.create(individual2.getIRI()));
-        OWLClass pseudoNominal=factory.getOWLClass(IRI.create("internal:pseudo-nominal"));
-        OWLClassExpression allNotPseudoNominal=factory.getOWLObjectAllValuesFrom(property,pseudoNominal.getObjectComplementOf());
-        OWLAxiom allNotPseudoNominalAssertion=factory.getOWLClassAssertionAxiom(allNotPseudoNominal,namedIndividual1);
-        OWLAxiom pseudoNominalAssertion=factory.getOWLClassAssertionAxiom(pseudoNominal,namedIndividual2);
-        Tableau tableau=m_reasoner.getTableau(allNotPseudoNominalAssertion,pseudoNominalAssertion);
+        Tableau tableau;
+        if (workerTableau==null)
+            tableau=getTableauForRoleInstanceTest(null,atomicRole,individual1,individual2);
+        else {
+            synchronized (this) {
+                tableau=getTableauForRoleInstanceTest(workerTableau,atomicRole,individual1,individual2);
+            }
+        }
         boolean result=!tableau.isSatisfiable(true,true,null,null,null,null,null,new ReasoningTaskDescription(true,"is {0} connected to {1} via {2}",individual1,individual2,atomicRole));
         if (m_tableauMonitor!=null) {
             if (result)
@@ -1353,6 +1446,20 @@ public class InstanceManager {
         }
         return result;
     }
+    protected Tableau getTableauForRoleInstanceTest(Tableau workerTableau,AtomicRole atomicRole,Individual individual1,Individual individual2) {
+        OWLDataFactory factory=m_reasoner.getDataFactory();
+        OWLObjectProperty property=factory.getOWLObjectProperty(IRI.create(atomicRole.getIRI()));
+        OWLNamedIndividual namedIndividual1=factory.getOWLNamedIndividual(IRI.create(individual1.getIRI()));
+        OWLNamedIndividual namedIndividual2=factory.getOWLNamedIndividual(IRI.create(individual2.getIRI()));
+        OWLClass pseudoNominal=factory.getOWLClass(IRI.create("internal:pseudo-nominal"));
+        OWLClassExpression allNotPseudoNominal=factory.getOWLObjectAllValuesFrom(property,pseudoNominal.getObjectComplementOf());
+        OWLAxiom allNotPseudoNominalAssertion=factory.getOWLClassAssertionAxiom(allNotPseudoNominal,namedIndividual1);
+        OWLAxiom pseudoNominalAssertion=factory.getOWLClassAssertionAxiom(pseudoNominal,namedIndividual2);
+        if (workerTableau==null)
+            return m_reasoner.getTableau(allNotPseudoNominalAssertion,pseudoNominalAssertion);
+        else
+            return m_reasoner.getWorkerTableau(workerTableau,allNotPseudoNominalAssertion,pseudoNominalAssertion);
+    }
     protected static boolean isResultRelevantIndividual(Individual individual) {
         return !individual.isAnonymous() && !Prefixes.isInternalIRI(individual.getIRI());
     }
@@ -1377,4 +1484,217 @@ public class InstanceManager {
     public Map<Individual, Node> getNodesForIndividuals() {
         return m_nodesForIndividuals;
     }
+
+    protected static class PossibleInstanceTest<E> {
+        protected final HierarchyNode<E> m_node;
+        protected final Individual m_individual;
+        protected final Individual m_successor;
+
+        public PossibleInstanceTest(HierarchyNode<E> node,Individual individual,Individual successor) {
+            m_node=node;
+            m_individual=individual;
+            m_successor=successor;
+        }
+    }
+
+    /**
+     * Tests the possible instances of the nodes of a hierarchy bottom-up, distributing the tests over worker tableaux.
+     * A node is started only once all its child nodes have been processed, so the non-instances that the child nodes
+     * pass on to the node are tested at the node as well. The tests themselves run concurrently; their results are
+     * merged into the elements of the instance manager while holding the lock on the instance manager.
+     */
+    protected abstract class ParallelRealization<E> extends TableauWorkQueue<PossibleInstanceTest<E>> {
+        protected final ReasonerProgressMonitor m_monitor;
+        protected final Map<HierarchyNode<E>,Integer> m_numberOfUnprocessedChildNodes;
+        protected final Map<HierarchyNode<E>,Integer> m_numberOfOpenTests;
+        protected int m_numberOfNodes;
+        protected int m_numberOfProcessedNodes;
+
+        public ParallelRealization(ReasonerProgressMonitor monitor) {
+            m_monitor=monitor;
+            m_numberOfUnprocessedChildNodes=new HashMap<HierarchyNode<E>,Integer>();
+            m_numberOfOpenTests=new HashMap<HierarchyNode<E>,Integer>();
+        }
+        public void realize(Tableau[] workerTableaux) {
+            Hierarchy<E> hierarchy=getHierarchy();
+            List<HierarchyNode<E>> initialNodes=new ArrayList<HierarchyNode<E>>();
+            synchronized (InstanceManager.this) {
+                for (HierarchyNode<E> node : hierarchy.getAllNodesSet()) {
+                    if (isProcessed(hierarchy,node)) {
+                        int numberOfChildNodes=0;
+                        for (HierarchyNode<E> childNode : node.getChildNodes())
+                            if (isProcessed(hierarchy,childNode))
+                                numberOfChildNodes++;
+                        m_numberOfUnprocessedChildNodes.put(node,numberOfChildNodes);
+                        if (numberOfChildNodes==0)
+                            initialNodes.add(node);
+                    }
+                }
+                m_numberOfNodes=m_numberOfUnprocessedChildNodes.size();
+                for (HierarchyNode<E> node : initialNodes)
+                    startNode(node);
+            }
+            process(m_interruptFlag,workerTableaux);
+        }
+        protected void startNode(HierarchyNode<E> node) {
+            List<PossibleInstanceTest<E>> tests=createTests(node);
+            if (tests.isEmpty())
+                nodeProcessed(node);
+            else {
+                m_numberOfOpenTests.put(node,tests.size());
+                addTasks(tests);
+            }
+        }
+        protected void processTask(Tableau workerTableau,PossibleInstanceTest<E> test) {
+            boolean isInstance=isInstance(workerTableau,test);
+            synchronized (InstanceManager.this) {
+                testPerformed(test,isInstance);
+                int numberOfOpenTests=m_numberOfOpenTests.get(test.m_node)-1;
+                if (numberOfOpenTests==0) {
+                    m_numberOfOpenTests.remove(test.m_node);
+                    nodeProcessed(test.m_node);
+                }
+                else
+                    m_numberOfOpenTests.put(test.m_node,numberOfOpenTests);
+            }
+        }
+        protected void nodeProcessed(HierarchyNode<E> node) {
+            propagateNonInstances(node);
+            m_numberOfProcessedNodes++;
+            if (m_monitor!=null)
+                m_monitor.reasonerTaskProgressChanged(m_numberOfProcessedNodes,m_numberOfNodes);
+            for (HierarchyNode<E> parentNode : node.getParentNodes()) {
+                int numberOfUnprocessedChildNodes=m_numberOfUnprocessedChildNodes.get(parentNode)-1;
+                m_numberOfUnprocessedChildNodes.put(parentNode,numberOfUnprocessedChildNodes);
+                if (numberOfUnprocessedChildNodes==0)
+                    startNode(parentNode);
+            }
+        }
+        protected abstract Hierarchy<E> getHierarchy();
+        protected abstract boolean isProcessed(Hierarchy<E> hierarchy,HierarchyNode<E> node);
+        /**
+         * Creates the tests for the possible instances of the given node and removes the possible instances from the
+         * node. Called while holding the lock on the instance manager.
+         */
+        protected abstract List<PossibleInstanceTest<E>> createTests(HierarchyNode<E> node);
+        /**
+         * Performs the given test in the given worker tableau. Called concurrently without holding any lock.
+         */
+        protected abstract boolean isInstance(Tableau workerTableau,PossibleInstanceTest<E> test);
+        /**
+         * Records the result of a test. Called while holding the lock on the instance manager.
+         */
+        protected abstract void testPerformed(PossibleInstanceTest<E> test,boolean isInstance);
+        /**
+         * Passes the non-instances of a processed node on to its parent nodes. Called while holding the lock on the
+         * instance manager.
+         */
+        protected abstract void propagateNonInstances(HierarchyNode<E> node);
+    }
+
+    protected class ParallelConceptRealization extends ParallelRealization<AtomicConcept> {
+        protected final Map<HierarchyNode<AtomicConcept>,Set<Individual>> m_nonInstances;
+
+        public ParallelConceptRealization(ReasonerProgressMonitor monitor) {
+            super(monitor);
+            m_nonInstances=new HashMap<HierarchyNode<AtomicConcept>,Set<Individual>>();
+        }
+        protected Hierarchy<AtomicConcept> getHierarchy() {
+            return m_currentConceptHierarchy;
+        }
+        protected boolean isProcessed(Hierarchy<AtomicConcept> hierarchy,HierarchyNode<AtomicConcept> node) {
+            return node!=hierarchy.getBottomNode();
+        }
+        protected List<PossibleInstanceTest<AtomicConcept>> createTests(HierarchyNode<AtomicConcept> node) {
+            List<PossibleInstanceTest<AtomicConcept>> tests=new ArrayList<PossibleInstanceTest<AtomicConcept>>();
+            AtomicConceptElement atomicConceptElement=m_conceptToElement.get(node.getRepresentative());
+            if (atomicConceptElement!=null && atomicConceptElement.hasPossibles()) {
+                for (Individual individual : atomicConceptElement.getPossibleInstances())
+                    tests.add(new PossibleInstanceTest<AtomicConcept>(node,individual,null));
+                atomicConceptElement.m_possibleInstances.clear();
+                m_nonInstances.put(node,new HashSet<Individual>());
+            }
+            return tests;
+        }
+        protected boolean isInstance(Tableau workerTableau,PossibleInstanceTest<AtomicConcept> test) {
+            return InstanceManager.this.isInstance(workerTableau,test.m_individual,test.m_node.getRepresentative());
+        }
+        protected void testPerformed(PossibleInstanceTest<AtomicConcept> test,boolean isInstance) {
+            if (isInstance)
+                m_conceptToElement.get(test.m_node.getRepresentative()).m_knownInstances.add(test.m_individual);
+            else
+                m_nonInstances.get(test.m_node).add(test.m_individual);
+        }
+        protected void propagateNonInstances(HierarchyNode<AtomicConcept> node) {
+            Set<Individual> nonInstances=m_nonInstances.remove(node);
+            if (nonInstances!=null) {
+                for (HierarchyNode<AtomicConcept> parent : node.getParentNodes()) {
+                    AtomicConcept parentRepresentative=parent.getRepresentative();
+                    AtomicConceptElement parentElement=m_conceptToElement.get(parentRepresentative);
+                    if (parentElement==null) {
+                        parentElement=new AtomicConceptElement(null,new HashSet<Individual>(nonInstances));
+                        m_conceptToElement.put(parentRepresentative,parentElement);
+                    }
+                    else if (parentRepresentative.equals(m_topConcept))
+                        parentElement.m_knownInstances.addAll(nonInstances);
+                    else
+                        parentElement.addPossibles(nonInstances);
+                }
+            }
+        }
+    }
+
+    protected class ParallelRoleRealization extends ParallelRealization<RoleElement> {
+        protected final Map<HierarchyNode<RoleElement>,Map<Individual,Set<Individual>>> m_nonInstances;
+
+        public ParallelRoleRealization(ReasonerProgressMonitor monitor) {
+            super(monitor);
+            m_nonInstances=new HashMap<HierarchyNode<RoleElement>,Map<Individual,Set<Individual>>>();
+        }
+        protected Hierarchy<RoleElement> getHierarchy() {
+            return m_currentRoleHierarchy;
+        }
+        protected boolean isProcessed(Hierarchy<RoleElement> hierarchy,HierarchyNode<RoleElement> node) {
+            return true;
+        }
+        protected List<PossibleInstanceTest<RoleElement>> createTests(HierarchyNode<RoleElement> node) {
+            List<PossibleInstanceTest<RoleElement>> tests=new ArrayList<PossibleInstanceTest<RoleElement>>();
+            RoleElement roleElement=node.getRepresentative();
+            if (roleElement.hasPossibles()) {
+                for (Map.Entry<Individual,Set<Individual>> entry : roleElement.m_possibleRelations.entrySet())
+                    for (Individual successor : entry.getValue())
+                        tests.add(new PossibleInstanceTest<RoleElement>(node,entry.getKey(),successor));
+                roleElement.m_possibleRelations.clear();
+                m_nonInstances.put(node,new HashMap<Individual,Set<Individual>>());
+            }
+            return tests;
+        }
+        protected boolean isInstance(Tableau workerTableau,PossibleInstanceTest<RoleElement> test) {
+            return isRoleInstance(workerTableau,test.m_node.getRepresentative().getRole(),test.m_individual,test.m_successor);
+        }
+        protected void testPerformed(PossibleInstanceTest<RoleElement> test,boolean isInstance) {
+            if (isInstance)
+                test.m_node.getRepresentative().addKnown(test.m_individual,test.m_successor);
+            else {
+                Map<Individual,Set<Individual>> nonInstances=m_nonInstances.get(test.m_node);
+                Set<Individual> successors=nonInstances.get(test.m_individual);
+                if (successors==null) {
+                    successors=new HashSet<Individual>();
+                    nonInstances.put(test.m_individual,successors);
+                }
+                successors.add(test.m_successor);
+            }
+        }
+        protected void propagateNonInstances(HierarchyNode<RoleElement> node) {
+            Map<Individual,Set<Individual>> nonInstances=m_nonInstances.remove(node);
+            if (nonInstances!=null) {
+                for (HierarchyNode<RoleElement> parent : node.getParentNodes()) {
+                    RoleElement parentRepresentative=parent.getRepresentative();
+                    if (!parentRepresentative.equals(m_topRoleElement))
+                        for (Map.Entry<Individual,Set<Individual>> entry : nonInstances.entrySet())
+                            parentRepresentative.addPossibles(entry.getKey(),entry.getValue());
+                }
+            }
+        }
+    }
 }
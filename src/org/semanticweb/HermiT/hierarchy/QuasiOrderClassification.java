@@ -17,16 +17,19 @@
  */
 package org.semanticweb.HermiT.hierarchy;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.Stack;
 
-import org.semanticweb.HermiT.graph.Graph;
+import org.semanticweb.HermiT.graph.BitSetGraph;
+import org.semanticweb.HermiT.graph.SparseBitSet;
 import org.semanticweb.HermiT.hierarchy.DeterministicClassification.GraphNode;
 import org.semanticweb.HermiT.hierarchy.HierarchySearch.Relation;
 import org.semanticweb.HermiT.model.Atom;
@@ -41,54 +44,104 @@ import org.semanticweb.HermiT.tableau.Tableau;
 
 public class QuasiOrderClassification {
     protected final Tableau m_tableau;
+    protected final Tableau[] m_workerTableaux;
     protected final ClassificationProgressMonitor m_progressMonitor;
     protected final AtomicConcept m_topElement;
     protected final AtomicConcept m_bottomElement;
     protected final Set<AtomicConcept> m_elements;
-    protected final Graph<AtomicConcept> m_knownSubsumptions;
-    protected final Graph<AtomicConcept> m_possibleSubsumptions;
+    protected final BitSetGraph<AtomicConcept> m_knownSubsumptions;
+    protected final BitSetGraph<AtomicConcept> m_possibleSubsumptions;
+    protected SubsumptionCache m_subsumptionCache;
 
     public QuasiOrderClassification(Tableau tableau,ClassificationProgressMonitor progressMonitor,AtomicConcept topElement,AtomicConcept bottomElement,Set<AtomicConcept> elements) {
+        this(tableau,new Tableau[0],progressMonitor,topElement,bottomElement,elements);
+    }
+    /**
+     * Creates a classification that distributes the satisfiability and subsumption tests over the given worker tableaux,
+     * using one thread per worker tableau. The worker tableaux must have been created for the same DL-ontologies as the
+     * main tableau and must not share an interrupt flag with it or with each other. If fewer than two worker tableaux are
+     * given, all tests are performed sequentially in the main tableau.
+     */
+    public QuasiOrderClassification(Tableau tableau,Tableau[] workerTableaux,ClassificationProgressMonitor progressMonitor,AtomicConcept topElement,AtomicConcept bottomElement,Set<AtomicConcept> elements) {
         m_tableau=tableau;
+        m_workerTableaux=workerTableaux;
         m_progressMonitor=progressMonitor;
         m_topElement=topElement;
         m_bottomElement=bottomElement;
         m_elements=elements;
-        m_knownSubsumptions=new Graph<AtomicConcept>();
-        m_possibleSubsumptions=new Graph<AtomicConcept>();
+        m_knownSubsumptions=new BitSetGraph<AtomicConcept>();
+        m_possibleSubsumptions=new BitSetGraph<AtomicConcept>(m_knownSubsumptions);
+        m_knownSubsumptions.addElement(m_topElement);
+        m_knownSubsumptions.addElement(m_bottomElement);
+        for (AtomicConcept element : m_elements)
+            m_knownSubsumptions.addElement(element);
+    }
+    /**
+     * Sets the cache that the subsumption tests consult before and update after performing a test. The cache must only
+     * be set if the elements are the classes of the ontology of the tableau; the default is null, i.e., no cache.
+     */
+    public void setSubsumptionCache(SubsumptionCache subsumptionCache) {
+        m_subsumptionCache=subsumptionCache;
     }
     public Hierarchy<AtomicConcept> classify() {
-        Relation<AtomicConcept> relation=new Relation<AtomicConcept>() {
+        return buildHierarchy();
+    }
+    /**
+     * Creates the relation that decides a subsumption with a tableau test if the subsumption is neither known nor
+     * excluded. No model merging is attempted before the test: a test is performed only if D is still a possible
+     * subsumer of C, so D occurs in the root label of every model of C seen so far, and merging any of these models with
+     * a model of not D would clash. Each counter-model instead prunes the possible subsumers of all elements.
+     */
+    protected Relation<AtomicConcept> createSubsumptionRelation(final Tableau tableau) {
+        return new Relation<AtomicConcept>() {
             public boolean doesSubsume(AtomicConcept parent,AtomicConcept child) {
-                Set<AtomicConcept> allKnownSubsumers=getAllKnownSubsumers(child);
-                if (allKnownSubsumers.contains(parent))
-                    return true;
-                else if (!m_possibleSubsumptions.getSuccessors(child).contains(parent))
-                    return false;
+                synchronized (QuasiOrderClassification.this) {
+                    if (m_knownSubsumptions.isReachableSuccessor(child,parent))
+                        return true;
+                    else if (!m_possibleSubsumptions.containsEdge(child,parent))
+                        return false;
+                }
+                if (m_subsumptionCache!=null) {
+                    Boolean cachedResult=m_subsumptionCache.getResult(child,parent,tableau.getTableauMonitor());
+                    if (cachedResult!=null)
+                        return cachedResult.booleanValue();
+                }
                 Individual freshIndividual=Individual.createAnonymous("fresh-individual");
                 Map<Individual,Node> checkedNode=new HashMap<Individual,Node>();
                 checkedNode.put(freshIndividual,null);
-                boolean isSubsumedBy=!m_tableau.isSatisfiable(true,Collections.singleton(Atom.create(child,freshIndividual)),null,null,Collections.singleton(Atom.create(parent,freshIndividual)),checkedNode,getSubsumptionTestDescription(child,parent));
-                if (!isSubsumedBy)
-                    prunePossibleSubsumers();
-                readKnownSubsumersFromRootNode(child, checkedNode.get(freshIndividual));
-                m_possibleSubsumptions.getSuccessors(child).removeAll(getAllKnownSubsumers(child));
+                // With nominals the test loads the permanent ABox, so if the saturated permanent ABox is cached, the
+                // tableau rolls back to its checkpoint instead of loading the ABox again; without nominals the test
+                // starts from an empty tableau, so there is no state to share.
+                boolean isSubsumedBy=!tableau.isSatisfiable(true,Collections.singleton(Atom.create(child,freshIndividual)),null,null,Collections.singleton(Atom.create(parent,freshIndividual)),checkedNode,getSubsumptionTestDescription(child,parent));
+                if (m_subsumptionCache!=null)
+                    m_subsumptionCache.putResult(child,parent,isSubsumedBy);
+                synchronized (QuasiOrderClassification.this) {
+                    if (!isSubsumedBy)
+                        prunePossibleSubsumers(tableau);
+                    readKnownSubsumersFromRootNode(tableau,child,checkedNode.get(freshIndividual));
+                    removeKnownSubsumersFromPossibleSubsumers(child);
+                }
                 return isSubsumedBy;
             }
         };
-        return buildHierarchy(relation);
     }
-    protected Hierarchy<AtomicConcept> buildHierarchy(Relation<AtomicConcept> hierarchyRelation) {
+    protected Hierarchy<AtomicConcept> buildHierarchy() {
     	double totalNumberOfTasks=m_elements.size();
         makeConceptUnsatisfiable(m_bottomElement);
         initialiseKnownSubsumptionsUsingToldSubsumers();
+        if (isParallel()) {
+            double tasksPerformed=updateSubsumptionsUsingLeafNodeStrategyInParallel(totalNumberOfTasks);
+            checkUnknownSubsumersInParallel(totalNumberOfTasks,tasksPerformed);
+            return buildTransitivelyReducedHierarchy(m_knownSubsumptions,m_elements);
+        }
+        Relation<AtomicConcept> hierarchyRelation=createSubsumptionRelation(m_tableau);
         double tasksPerformed=updateSubsumptionsUsingLeafNodeStrategy(totalNumberOfTasks);
         // Unlike Rob's paper our set of possible subsumptions P would only keep unknown possible subsumptions and not known subsumptions as well.
         Set<AtomicConcept> unclassifiedElements=new HashSet<AtomicConcept>();
         for (AtomicConcept element : m_elements) {
             if (!isUnsatisfiable(element)) {
-                m_possibleSubsumptions.getSuccessors(element).removeAll(getAllKnownSubsumers(element));
-                if (!m_possibleSubsumptions.getSuccessors(element).isEmpty()) {
+                removeKnownSubsumersFromPossibleSubsumers(element);
+                if (m_possibleSubsumptions.hasSuccessors(element)) {
                     unclassifiedElements.add(element);
                     continue;
                 }
@@ -98,8 +151,8 @@ public class QuasiOrderClassification {
         while (!unclassifiedElements.isEmpty()) {
             AtomicConcept unclassifiedElement=null;
             for (AtomicConcept element : unclassifiedElements) {
-                m_possibleSubsumptions.getSuccessors(element).removeAll(getAllKnownSubsumers(element));
-                if (!m_possibleSubsumptions.getSuccessors(element).isEmpty()) {
+                removeKnownSubsumersFromPossibleSubsumers(element);
+                if (m_possibleSubsumptions.hasSuccessors(element)) {
                     unclassifiedElement=element;
                     break;
                 }
@@ -113,22 +166,147 @@ public class QuasiOrderClassification {
             if (unclassifiedElements.isEmpty())
                 break;
             Set<AtomicConcept> unknownPossibleSubsumers=m_possibleSubsumptions.getSuccessors(unclassifiedElement);
-            if (!isEveryPossibleSubsumerNonSubsumer(unknownPossibleSubsumers,unclassifiedElement,2,7) && !unknownPossibleSubsumers.isEmpty()) {
-	            Hierarchy<AtomicConcept> smallHierarchy=buildHierarchyOfUnknownPossible(unknownPossibleSubsumers);
-	            checkUnknownSubsumersUsingEnhancedTraversal(hierarchyRelation,smallHierarchy.getTopNode(),unclassifiedElement);
+            if (!isEveryPossibleSubsumerNonSubsumer(m_tableau,unknownPossibleSubsumers,unclassifiedElement,2,7)) {
+                // The test may have pruned the possible subsumers, and getSuccessors() returns a copy.
+                unknownPossibleSubsumers=m_possibleSubsumptions.getSuccessors(unclassifiedElement);
+                if (!unknownPossibleSubsumers.isEmpty()) {
+                    Hierarchy<AtomicConcept> smallHierarchy=buildHierarchyOfUnknownPossible(unknownPossibleSubsumers);
+                    checkUnknownSubsumersUsingEnhancedTraversal(hierarchyRelation,smallHierarchy.getTopNode(),unclassifiedElement);
+                }
             }
-            unknownPossibleSubsumers.clear();
+            m_possibleSubsumptions.clearSuccessors(unclassifiedElement);
         }
         return buildTransitivelyReducedHierarchy(m_knownSubsumptions,m_elements);
+    }
+    protected boolean isParallel() {
+        return m_workerTableaux.length>1;
+    }
+    /**
+     * The parallel counterpart of updateSubsumptionsUsingLeafNodeStrategy(). Models for the leaves of the told hierarchy
+     * are built concurrently in the worker tableaux; the known and possible subsumers are then read off each model while
+     * holding the lock on this object. Since possible subsumers are only ever intersected, the result does not depend
+     * on the order in which the models are built.
+     */
+    protected double updateSubsumptionsUsingLeafNodeStrategyInParallel(final double totalNumberOfTasks) {
+        Hierarchy<AtomicConcept> hierarchy=buildTransitivelyReducedHierarchy(m_knownSubsumptions,m_elements);
+        final double[] conceptsProcessed=new double[1];
+        final Set<HierarchyNode<AtomicConcept>> scheduledHierarchyNodes=new HashSet<HierarchyNode<AtomicConcept>>(hierarchy.getBottomNode().getParentNodes());
+        TableauWorkQueue<HierarchyNode<AtomicConcept>> workQueue=new TableauWorkQueue<HierarchyNode<AtomicConcept>>() {
+            protected void processTask(Tableau workerTableau,HierarchyNode<AtomicConcept> currentHierarchyElement) {
+                AtomicConcept currentHierarchyConcept=currentHierarchyElement.getRepresentative();
+                synchronized (QuasiOrderClassification.this) {
+                    if (conceptsProcessed[0]<Math.ceil(totalNumberOfTasks*0.85)) {
+                        m_progressMonitor.elementClassified(currentHierarchyConcept);
+                        conceptsProcessed[0]++;
+                    }
+                    if (conceptHasBeenProcessedAlready(currentHierarchyConcept))
+                        return;
+                }
+                Node rootNodeOfModel=buildModelForConcept(workerTableau,currentHierarchyConcept);
+                synchronized (QuasiOrderClassification.this) {
+                    if (rootNodeOfModel==null) {
+                        makeConceptUnsatisfiable(currentHierarchyConcept);
+                        for (HierarchyNode<AtomicConcept> parent : currentHierarchyElement.getParentNodes())
+                            if (scheduledHierarchyNodes.add(parent))
+                                addTask(parent);
+                        Set<HierarchyNode<AtomicConcept>> visited=new HashSet<HierarchyNode<AtomicConcept>>();
+                        Queue<HierarchyNode<AtomicConcept>> toVisit=new LinkedList<HierarchyNode<AtomicConcept>>(currentHierarchyElement.getChildNodes());
+                        while (!toVisit.isEmpty()) {
+                            HierarchyNode<AtomicConcept> current=toVisit.poll();
+                            if (visited.add(current) && !isUnsatisfiable(current.getRepresentative())) {
+                                toVisit.addAll(current.getChildNodes());
+                                makeConceptUnsatisfiable(current.getRepresentative());
+                                for (HierarchyNode<AtomicConcept> parentOfRemovedConcept : current.getParentNodes())
+                                    if (!conceptHasBeenProcessedAlready(parentOfRemovedConcept.getRepresentative()) && scheduledHierarchyNodes.add(parentOfRemovedConcept))
+                                        addTask(parentOfRemovedConcept);
+                            }
+                        }
+                    }
+                    else {
+                        readKnownSubsumersFromRootNode(workerTableau,currentHierarchyConcept,rootNodeOfModel);
+                        updatePossibleSubsumers(workerTableau);
+                    }
+                }
+            }
+        };
+        workQueue.addTasks(scheduledHierarchyNodes);
+        workQueue.process(m_tableau.getInterruptFlag(),m_workerTableaux);
+        return conceptsProcessed[0];
+    }
+    /**
+     * The parallel counterpart of the second phase of buildHierarchy(). Each worker picks an element that still has
+     * unknown possible subsumers and checks them using the enhanced traversal; subsumption tests run without holding
+     * the lock on this object, and their results are merged while holding it. As in the sequential case, only the
+     * tasks that have not been reported in the first phase are reported to the progress monitor.
+     */
+    protected void checkUnknownSubsumersInParallel(final double totalNumberOfTasks,double tasksPerformed) {
+        List<AtomicConcept> unclassifiedElements=new ArrayList<AtomicConcept>();
+        List<AtomicConcept> classifiedElements=new ArrayList<AtomicConcept>();
+        for (AtomicConcept element : m_elements) {
+            if (!isUnsatisfiable(element)) {
+                removeKnownSubsumersFromPossibleSubsumers(element);
+                if (m_possibleSubsumptions.hasSuccessors(element)) {
+                    unclassifiedElements.add(element);
+                    continue;
+                }
+            }
+            classifiedElements.add(element);
+        }
+        final int[] numberOfUnclassifiedElements=new int[] { unclassifiedElements.size() };
+        final double[] tasksReported=new double[] { tasksPerformed };
+        for (AtomicConcept element : classifiedElements)
+            tasksReported[0]=reportElementClassified(element,numberOfUnclassifiedElements[0],totalNumberOfTasks,tasksReported[0]);
+        TableauWorkQueue<AtomicConcept> workQueue=new TableauWorkQueue<AtomicConcept>() {
+            protected void processTask(Tableau workerTableau,AtomicConcept unclassifiedElement) {
+                checkUnknownPossibleSubsumers(workerTableau,unclassifiedElement);
+                synchronized (QuasiOrderClassification.this) {
+                    numberOfUnclassifiedElements[0]--;
+                    tasksReported[0]=reportElementClassified(unclassifiedElement,numberOfUnclassifiedElements[0],totalNumberOfTasks,tasksReported[0]);
+                }
+            }
+        };
+        workQueue.addTasks(unclassifiedElements);
+        workQueue.process(m_tableau.getInterruptFlag(),m_workerTableaux);
+    }
+    protected void checkUnknownPossibleSubsumers(Tableau tableau,AtomicConcept unclassifiedElement) {
+        Set<AtomicConcept> unknownPossibleSubsumers;
+        synchronized (this) {
+            removeKnownSubsumersFromPossibleSubsumers(unclassifiedElement);
+            unknownPossibleSubsumers=m_possibleSubsumptions.getSuccessors(unclassifiedElement);
+        }
+        if (!unknownPossibleSubsumers.isEmpty() && !isEveryPossibleSubsumerNonSubsumer(tableau,unknownPossibleSubsumers,unclassifiedElement,2,7)) {
+            Hierarchy<AtomicConcept> smallHierarchy=null;
+            synchronized (this) {
+                unknownPossibleSubsumers.retainAll(m_possibleSubsumptions.getSuccessors(unclassifiedElement));
+                if (!unknownPossibleSubsumers.isEmpty())
+                    smallHierarchy=buildHierarchyOfUnknownPossible(unknownPossibleSubsumers);
+            }
+            if (smallHierarchy!=null)
+                checkUnknownSubsumersUsingEnhancedTraversal(createSubsumptionRelation(tableau),smallHierarchy.getTopNode(),unclassifiedElement);
+        }
+        synchronized (this) {
+            m_possibleSubsumptions.clearSuccessors(unclassifiedElement);
+        }
+    }
+    /**
+     * Reports the given element as classified as long as fewer elements remain unclassified than tasks remain to be
+     * reported, and returns the updated number of reported tasks.
+     */
+    protected double reportElementClassified(AtomicConcept element,int numberOfUnclassifiedElements,double totalNumberOfTasks,double tasksPerformed) {
+        while (numberOfUnclassifiedElements<(totalNumberOfTasks-tasksPerformed)) {
+            m_progressMonitor.elementClassified(element);
+            tasksPerformed++;
+        }
+        return tasksPerformed;
     }
 	protected Hierarchy<AtomicConcept> buildHierarchyOfUnknownPossible(Set<AtomicConcept> unknownSubsumers) {
-        Graph<AtomicConcept> smallKnownSubsumptions=new Graph<AtomicConcept>();
+        BitSetGraph<AtomicConcept> smallKnownSubsumptions=new BitSetGraph<AtomicConcept>();
         for (AtomicConcept unknownSubsumer0 : unknownSubsumers) {
             smallKnownSubsumptions.addEdge(m_bottomElement,unknownSubsumer0);
             smallKnownSubsumptions.addEdge(unknownSubsumer0,m_topElement);
-            Set<AtomicConcept> knownSubsumersOfElement=getAllKnownSubsumers(unknownSubsumer0);
+            SparseBitSet knownSubsumersOfElement=m_knownSubsumptions.getReachableSuccessorIndexes(unknownSubsumer0);
             for (AtomicConcept unknownSubsumer1 : unknownSubsumers)
-                if (knownSubsumersOfElement.contains(unknownSubsumer1))
+                if (knownSubsumersOfElement.get(m_knownSubsumptions.addElement(unknownSubsumer1)))
                     smallKnownSubsumptions.addEdge(unknownSubsumer0,unknownSubsumer1);
         }
         Set<AtomicConcept> unknownSubsumersWithTopBottom = new HashSet<AtomicConcept>(unknownSubsumers);
@@ -150,7 +328,7 @@ public class QuasiOrderClassification {
 	            conceptsProcessed++;
             }
             if (!conceptHasBeenProcessedAlready(currentHierarchyConcept)) {
-                Node rootNodeOfModel=buildModelForConcept(currentHierarchyConcept);
+                Node rootNodeOfModel=buildModelForConcept(m_tableau,currentHierarchyConcept);
                 // If the leaf was unsatisfable we go up to explore its parents, until a satisfiable parent is discovered. Each time a node is unsat this information is propagated downwards.
                 if (rootNodeOfModel==null) {
                 	makeConceptUnsatisfiable(currentHierarchyConcept);
@@ -175,36 +353,36 @@ public class QuasiOrderClassification {
                     // We cannot do rootNodeOfModel.getCanonicalNode() here. This is done
                     // in readKnownSubsumersFromRootNode(), but only if rootNodeOfModel
                     // has not been merged into another node, or if the merge was deterministic.
-                    readKnownSubsumersFromRootNode(currentHierarchyConcept,rootNodeOfModel);
-                    updatePossibleSubsumers();
+                    readKnownSubsumersFromRootNode(m_tableau,currentHierarchyConcept,rootNodeOfModel);
+                    updatePossibleSubsumers(m_tableau);
                 }
             }
         }
         return conceptsProcessed;
     }
     private boolean conceptHasBeenProcessedAlready(AtomicConcept atConcept) {
-		return !m_possibleSubsumptions.getSuccessors(atConcept).isEmpty() || isUnsatisfiable(atConcept);
+		return m_possibleSubsumptions.hasSuccessors(atConcept) || isUnsatisfiable(atConcept);
 	}
-	protected Node buildModelForConcept(AtomicConcept concept) {
+	protected Node buildModelForConcept(Tableau tableau,AtomicConcept concept) {
         Individual freshIndividual=Individual.createAnonymous("fresh-individual");
         Map<Individual,Node> checkedNode=new HashMap<Individual,Node>();
         checkedNode.put(freshIndividual,null);
-        if (m_tableau.isSatisfiable(false,Collections.singleton(Atom.create(concept,freshIndividual)),null,null,null,checkedNode,getSatTestDescription(concept)))
+        if (tableau.isSatisfiable(false,Collections.singleton(Atom.create(concept,freshIndividual)),null,null,null,checkedNode,getSatTestDescription(concept)))
         	return checkedNode.get(freshIndividual);
         else
         	return null;
     }
     protected void makeConceptUnsatisfiable(AtomicConcept concept) {
         addKnownSubsumption(concept,m_bottomElement);
-        m_possibleSubsumptions.getSuccessors(concept).clear();
+        m_possibleSubsumptions.clearSuccessors(concept);
     }
     protected boolean isUnsatisfiable(AtomicConcept concept) {
-        return m_knownSubsumptions.getSuccessors(concept).contains(m_bottomElement);
+        return m_knownSubsumptions.containsEdge(concept,m_bottomElement);
     }
-    protected void readKnownSubsumersFromRootNode(AtomicConcept subconcept,Node checkedNode) {
+    protected void readKnownSubsumersFromRootNode(Tableau tableau,AtomicConcept subconcept,Node checkedNode) {
         if (checkedNode.getCanonicalNodeDependencySet().isEmpty()) {
             checkedNode=checkedNode.getCanonicalNode();
-            ExtensionTable.Retrieval retrieval=m_tableau.getExtensionManager().getBinaryExtensionTable().createRetrieval(new boolean[] { false,true },ExtensionTable.View.TOTAL);
+            ExtensionTable.Retrieval retrieval=tableau.getExtensionManager().getBinaryExtensionTable().createRetrieval(new boolean[] { false,true },ExtensionTable.View.TOTAL);
             retrieval.getBindingsBuffer()[1]=checkedNode;
             retrieval.open();
             while (!retrieval.afterLast()) {
@@ -215,60 +393,66 @@ public class QuasiOrderClassification {
             }
         }
     }
-    protected void updatePossibleSubsumers() {
-        ExtensionTable.Retrieval retrieval=m_tableau.getExtensionManager().getBinaryExtensionTable().createRetrieval(new boolean[] { false,false },ExtensionTable.View.TOTAL);
-        retrieval.open();
-        Object[] tupleBuffer=retrieval.getTupleBuffer();
-        while (!retrieval.afterLast()) {
-            Object conceptObject=tupleBuffer[0];
-            if (conceptObject instanceof AtomicConcept && m_elements.contains(conceptObject)) {
-                AtomicConcept atomicConcept=(AtomicConcept)conceptObject;
-                Node node=(Node)tupleBuffer[1];
-                if (node.isActive() && !node.isBlocked()) {
-                    if (m_possibleSubsumptions.getSuccessors(atomicConcept).isEmpty())
-                        readPossibleSubsumersFromNodeLabel(atomicConcept,node);
+    /**
+     * Reads the possible subsumers of all elements from the model in the given tableau. The label of each active node
+     * that is not blocked is summarized as a set of indexes of elements; the possible subsumers of an element are
+     * initialized with the first such label that contains the element and are intersected with each further label.
+     */
+    protected void updatePossibleSubsumers(Tableau tableau) {
+        ExtensionTable.Retrieval retrieval=tableau.getExtensionManager().getBinaryExtensionTable().createRetrieval(new boolean[] { false,true },ExtensionTable.View.TOTAL);
+        for (Node node=tableau.getFirstTableauNode();node!=null;node=node.getNextTableauNode()) {
+            if (node.isActive() && !node.isBlocked()) {
+                SparseBitSet label=readElementsInNodeLabel(retrieval,node);
+                for (int index=label.nextSetBit(0);index>=0;index=label.nextSetBit(index+1)) {
+                    AtomicConcept atomicConcept=m_knownSubsumptions.getElement(index);
+                    if (!m_possibleSubsumptions.hasSuccessors(atomicConcept))
+                        readPossibleSubsumersFromNodeLabel(atomicConcept,label);
                     else
-                        prunePossibleSubsumersOfConcept(atomicConcept,node);
+                        m_possibleSubsumptions.retainEdges(atomicConcept,label);
                 }
             }
-            retrieval.next();
         }
     }
-    protected void prunePossibleSubsumers() {
-        ExtensionTable.Retrieval retrieval=m_tableau.getExtensionManager().getBinaryExtensionTable().createRetrieval(new boolean[] { false,false },ExtensionTable.View.TOTAL);
-        retrieval.open();
-        Object[] tupleBuffer=retrieval.getTupleBuffer();
-        while (!retrieval.afterLast()) {
-            Object conceptObject=tupleBuffer[0];
-            if (conceptObject instanceof AtomicConcept && m_elements.contains(conceptObject)) {
-                Node node=(Node)tupleBuffer[1];
-                if (node.isActive() && !node.isBlocked())
-                    prunePossibleSubsumersOfConcept((AtomicConcept)conceptObject,node);
+    /**
+     * Removes from the possible subsumers of each element all elements that do not occur in some label of an active
+     * and not blocked node that contains the element. The tableau must contain a model, e.g., a counter-model of a
+     * failed subsumption test.
+     */
+    protected void prunePossibleSubsumers(Tableau tableau) {
+        ExtensionTable.Retrieval retrieval=tableau.getExtensionManager().getBinaryExtensionTable().createRetrieval(new boolean[] { false,true },ExtensionTable.View.TOTAL);
+        for (Node node=tableau.getFirstTableauNode();node!=null;node=node.getNextTableauNode()) {
+            if (node.isActive() && !node.isBlocked()) {
+                SparseBitSet label=readElementsInNodeLabel(retrieval,node);
+                for (int index=label.nextSetBit(0);index>=0;index=label.nextSetBit(index+1))
+                    m_possibleSubsumptions.retainEdges(m_knownSubsumptions.getElement(index),label);
             }
-            retrieval.next();
         }
     }
-    protected void prunePossibleSubsumersOfConcept(AtomicConcept atomicConcept,Node node) {
-        Set<AtomicConcept> possibleSubsumersOfConcept=new HashSet<AtomicConcept>(m_possibleSubsumptions.getSuccessors(atomicConcept));
-        for (AtomicConcept atomicCon : possibleSubsumersOfConcept)
-            if (!m_tableau.getExtensionManager().containsConceptAssertion(atomicCon,node))
-                m_possibleSubsumptions.getSuccessors(atomicConcept).remove(atomicCon);
-    }
-    protected void readPossibleSubsumersFromNodeLabel(AtomicConcept atomicConcept,Node node) {
-        ExtensionTable.Retrieval retrieval=m_tableau.getExtensionManager().getBinaryExtensionTable().createRetrieval(new boolean[] { false,true },ExtensionTable.View.TOTAL);
+    /**
+     * Returns the indexes in m_knownSubsumptions of the elements that occur in the label of the given node. The
+     * retrieval must be a retrieval of the binary extension table with the second position bound.
+     */
+    protected SparseBitSet readElementsInNodeLabel(ExtensionTable.Retrieval retrieval,Node node) {
+        SparseBitSet label=new SparseBitSet();
         retrieval.getBindingsBuffer()[1]=node;
         retrieval.open();
+        Object[] tupleBuffer=retrieval.getTupleBuffer();
         while (!retrieval.afterLast()) {
-            Object concept=retrieval.getTupleBuffer()[0];
+            Object concept=tupleBuffer[0];
             if (concept instanceof AtomicConcept && m_elements.contains(concept))
-                addPossibleSubsumption(atomicConcept,(AtomicConcept)concept);
+                label.set(m_knownSubsumptions.getIndex((AtomicConcept)concept));
             retrieval.next();
         }
+        return label;
     }
-    protected Hierarchy<AtomicConcept> buildTransitivelyReducedHierarchy(Graph<AtomicConcept> knownSubsumptions,Set<AtomicConcept> elements) {
+    protected void readPossibleSubsumersFromNodeLabel(AtomicConcept atomicConcept,SparseBitSet label) {
+        for (int index=label.nextSetBit(0);index>=0;index=label.nextSetBit(index+1))
+            addPossibleSubsumption(atomicConcept,m_knownSubsumptions.getElement(index));
+    }
+    protected Hierarchy<AtomicConcept> buildTransitivelyReducedHierarchy(BitSetGraph<AtomicConcept> knownSubsumptions,Set<AtomicConcept> elements) {
         final Map<AtomicConcept,GraphNode<AtomicConcept>> allSubsumers=new HashMap<AtomicConcept,GraphNode<AtomicConcept>>();
         for (AtomicConcept element : elements) {
-        	Set<AtomicConcept> extendedSubs = new HashSet<AtomicConcept>(knownSubsumptions.getSuccessors(element));
+        	Set<AtomicConcept> extendedSubs = knownSubsumptions.getSuccessors(element);
         	extendedSubs.add(m_topElement);
         	extendedSubs.add(element);
             allSubsumers.put(element,new GraphNode<AtomicConcept>(element,extendedSubs));
@@ -305,8 +489,10 @@ public class QuasiOrderClassification {
                 if (visited.contains(subordinateElement))
                     continue;
                 if (hierarchyRelation.doesSubsume(element,pickedElement)) {
-                    addKnownSubsumption(pickedElement,element);
-                    addKnownSubsumptions(pickedElement,subordinateElement.getEquivalentElements());
+                    synchronized (this) {
+                        addKnownSubsumption(pickedElement,element);
+                        addKnownSubsumptions(pickedElement,subordinateElement.getEquivalentElements());
+                    }
                     if (visited.add(subordinateElement))
                         toProcess.add(subordinateElement);
                 }
@@ -314,7 +500,7 @@ public class QuasiOrderClassification {
             }
         }
     }
-    protected boolean isEveryPossibleSubsumerNonSubsumer(Set<AtomicConcept> unknownPossibleSubsumers,AtomicConcept pickedElement,int lowerBound,int upperBound) {
+    protected boolean isEveryPossibleSubsumerNonSubsumer(Tableau tableau,Set<AtomicConcept> unknownPossibleSubsumers,AtomicConcept pickedElement,int lowerBound,int upperBound) {
         if (unknownPossibleSubsumers.size()>lowerBound && unknownPossibleSubsumers.size()<upperBound) {
             Individual freshIndividual=Individual.createAnonymous("fresh-individual");
             Atom subconceptAssertion=Atom.create(pickedElement,freshIndividual);
@@ -328,12 +514,14 @@ public class QuasiOrderClassification {
             }
             Map<Individual,Node> checkedNode=new HashMap<Individual,Node>();
             checkedNode.put(freshIndividual,null);
-            boolean isSubsumedBy=!m_tableau.isSatisfiable(false,Collections.singleton(subconceptAssertion),null,null,superconceptAssertions,checkedNode,getSubsumedByListTestDescription(pickedElement,superconcepts));
-            if (!isSubsumedBy)
-                prunePossibleSubsumers();
-            else {
-            	readKnownSubsumersFromRootNode(pickedElement, checkedNode.get(freshIndividual));
-            	m_possibleSubsumptions.getSuccessors(pickedElement).removeAll(getAllKnownSubsumers(pickedElement));
+            boolean isSubsumedBy=!tableau.isSatisfiable(false,Collections.singleton(subconceptAssertion),null,null,superconceptAssertions,checkedNode,getSubsumedByListTestDescription(pickedElement,superconcepts));
+            synchronized (this) {
+                if (!isSubsumedBy)
+                    prunePossibleSubsumers(tableau);
+                else {
+                	readKnownSubsumersFromRootNode(tableau,pickedElement, checkedNode.get(freshIndividual));
+                	removeKnownSubsumersFromPossibleSubsumers(pickedElement);
+                }
             }
             return !isSubsumedBy;
         }
@@ -342,6 +530,9 @@ public class QuasiOrderClassification {
     protected Set<AtomicConcept> getAllKnownSubsumers(AtomicConcept child) {
         return m_knownSubsumptions.getReachableSuccessors(child);
     }
+    protected void removeKnownSubsumersFromPossibleSubsumers(AtomicConcept element) {
+        m_possibleSubsumptions.removeEdges(element,m_knownSubsumptions.getReachableSuccessorIndexes(element));
+    }
     protected void addKnownSubsumption(AtomicConcept subConcept,AtomicConcept superConcept) {
         m_knownSubsumptions.addEdge(subConcept,superConcept);
     }
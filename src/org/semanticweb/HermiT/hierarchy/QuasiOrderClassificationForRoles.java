@@ -34,7 +34,10 @@ public class QuasiOrderClassificationForRoles extends QuasiOrderClassification {
     protected final Map<AtomicConcept,Role> m_rolesForConcepts;
 
     public QuasiOrderClassificationForRoles(Tableau tableau,ClassificationProgressMonitor progressMonitor,AtomicConcept topElement,AtomicConcept bottomElement,Set<AtomicConcept> elements,boolean hasInverses,Map<Role,AtomicConcept> conceptsForRoles,Map<AtomicConcept,Role> rolesForConcepts) {
-        super(tableau,progressMonitor,topElement,bottomElement,elements);
+        this(tableau,new Tableau[0],progressMonitor,topElement,bottomElement,elements,hasInverses,conceptsForRoles,rolesForConcepts);
+    }
+    public QuasiOrderClassificationForRoles(Tableau tableau,Tableau[] workerTableaux,ClassificationProgressMonitor progressMonitor,AtomicConcept topElement,AtomicConcept bottomElement,Set<AtomicConcept> elements,boolean hasInverses,Map<Role,AtomicConcept> conceptsForRoles,Map<AtomicConcept,Role> rolesForConcepts) {
+        super(tableau,workerTableaux,progressMonitor,topElement,bottomElement,elements);
         m_hasInverses=hasInverses;
         m_conceptsForRoles=conceptsForRoles;
         m_rolesForConcepts=rolesForConcepts;
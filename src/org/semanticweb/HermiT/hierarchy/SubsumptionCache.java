@@ -0,0 +1,105 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.hierarchy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.semanticweb.HermiT.monitor.TableauMonitor;
+
+/**
+ * Stores the results of subsumption tests so that hierarchy searches in different queries do not repeat them. A
+ * subsumee or subsumer is identified by an AtomicConcept if it is a class of the ontology and by an OWLClassExpression
+ * otherwise. The cache holds at most the given number of results and discards the least recently used results first.
+ * The results are valid only for the ontology for which they have been computed, so the cache must be cleared whenever
+ * the ontology changes. All methods are synchronized, so the cache can be used by concurrent tests.
+ */
+public class SubsumptionCache {
+    protected final int m_maximalSize;
+    protected final Map<SubsumptionTest,Boolean> m_results;
+    protected long m_numberOfHits;
+    protected long m_numberOfMisses;
+
+    public SubsumptionCache(int maximalSize) {
+        m_maximalSize=maximalSize;
+        m_results=new LinkedHashMap<SubsumptionTest,Boolean>(16,0.75f,true) {
+            private static final long serialVersionUID=-5108207381693434418L;
+
+            protected boolean removeEldestEntry(Map.Entry<SubsumptionTest,Boolean> eldest) {
+                return size()>m_maximalSize;
+            }
+        };
+    }
+    /**
+     * Returns the cached result of the test whether the subsumer subsumes the subsumee, or null if the result is not
+     * known. The lookup is reported to the given tableau monitor if it is not null.
+     */
+    public synchronized Boolean getResult(Object subsumee,Object subsumer,TableauMonitor tableauMonitor) {
+        Boolean result=m_results.get(new SubsumptionTest(subsumee,subsumer));
+        if (result==null) {
+            m_numberOfMisses++;
+            if (tableauMonitor!=null)
+                tableauMonitor.subsumptionCacheMiss(subsumee,subsumer);
+        }
+        else {
+            m_numberOfHits++;
+            if (tableauMonitor!=null)
+                tableauMonitor.subsumptionCacheHit(subsumee,subsumer,result.booleanValue());
+        }
+        return result;
+    }
+    public synchronized void putResult(Object subsumee,Object subsumer,boolean result) {
+        m_results.put(new SubsumptionTest(subsumee,subsumer),Boolean.valueOf(result));
+    }
+    public synchronized void clear() {
+        m_results.clear();
+    }
+    public synchronized int size() {
+        return m_results.size();
+    }
+    public int getMaximalSize() {
+        return m_maximalSize;
+    }
+    public synchronized long getNumberOfHits() {
+        return m_numberOfHits;
+    }
+    public synchronized long getNumberOfMisses() {
+        return m_numberOfMisses;
+    }
+
+    protected static final class SubsumptionTest {
+        protected final Object m_subsumee;
+        protected final Object m_subsumer;
+
+        public SubsumptionTest(Object subsumee,Object subsumer) {
+            m_subsumee=subsumee;
+            m_subsumer=subsumer;
+        }
+        public int hashCode() {
+            return m_subsumee.hashCode()*31+m_subsumer.hashCode();
+        }
+        public boolean equals(Object that) {
+            if (this==that)
+                return true;
+            if (!(that instanceof SubsumptionTest))
+                return false;
+            SubsumptionTest thatTest=(SubsumptionTest)that;
+            return m_subsumee.equals(thatTest.m_subsumee) && m_subsumer.equals(thatTest.m_subsumer);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.semanticweb.HermiT.hierarchy;
+
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.semanticweb.HermiT.tableau.InterruptFlag;
+import org.semanticweb.HermiT.tableau.Tableau;
+import org.semanticweb.owlapi.reasoner.ReasonerInterruptedException;
+
+/**
+ * Distributes tasks over a fixed number of worker threads. Each worker thread owns one tableau, which is used only
+ * by that thread. Idle workers take the next pending task from a shared queue, so no worker waits while others still
+ * have work, and tasks can schedule further tasks while the queue is being processed. Processing ends once the queue
+ * is empty and no worker is busy.
+ */
+public abstract class TableauWorkQueue<E> {
+    protected static final long INTERRUPT_CHECK_INTERVAL=50;
+    protected static final ThreadFactory WORKER_THREAD_FACTORY=new ThreadFactory() {
+        public Thread newThread(Runnable runnable) {
+            Thread thread=new Thread(runnable,"HermiT Tableau Worker Thread");
+            thread.setDaemon(true);
+            return thread;
+        }
+    };
+
+    protected final LinkedList<E> m_pendingTasks;
+    protected Tableau[] m_workerTableaux;
+    protected int m_numberOfBusyWorkers;
+    protected boolean m_stopped;
+    protected Throwable m_failure;
+
+    public TableauWorkQueue() {
+        m_pendingTasks=new LinkedList<E>();
+    }
+    public synchronized void addTask(E task) {
+        if (!m_stopped) {
+            m_pendingTasks.add(task);
+            notifyAll();
+        }
+    }
+    public synchronized void addTasks(Collection<? extends E> tasks) {
+        if (!m_stopped) {
+            m_pendingTasks.addAll(tasks);
+            notifyAll();
+        }
+    }
+    /**
+     * Processes all tasks using one thread per worker tableau. The calling thread waits until all tasks have been
+     * processed; while doing so, it checks the given interrupt flag and, if reasoning has been interrupted, interrupts
+     * the worker tableaux as well. The first exception thrown by a worker is rethrown in the calling thread.
+     */
+    public void process(InterruptFlag interruptFlag,Tableau[] workerTableaux) {
+        synchronized (this) {
+            m_workerTableaux=workerTableaux;
+        }
+        ExecutorService executorService=Executors.newFixedThreadPool(workerTableaux.length,WORKER_THREAD_FACTORY);
+        try {
+            for (final Tableau workerTableau : workerTableaux)
+                executorService.execute(new Runnable() {
+                    public void run() {
+                        runWorker(workerTableau);
+                    }
+                });
+            executorService.shutdown();
+            while (!executorService.awaitTermination(INTERRUPT_CHECK_INTERVAL,TimeUnit.MILLISECONDS)) {
+                try {
+                    interruptFlag.checkInterrupt();
+                }
+                catch (RuntimeException interrupted) {
+                    stop(interrupted);
+                }
+                // Starting a test resets the interrupt flag of a worker tableau, so an interrupt forwarded while a
+                // worker was starting a test would be lost; hence, the interrupt is forwarded until all workers finish.
+                if (isStopped())
+                    interruptWorkers();
+            }
+        }
+        catch (InterruptedException interrupted) {
+            stop(new ReasonerInterruptedException(interrupted));
+            Thread.currentThread().interrupt();
+        }
+        finally {
+            executorService.shutdownNow();
+        }
+        Throwable failure;
+        synchronized (this) {
+            failure=m_failure;
+        }
+        if (failure instanceof RuntimeException)
+            throw (RuntimeException)failure;
+        else if (failure instanceof Error)
+            throw (Error)failure;
+        else if (failure!=null)
+            throw new IllegalStateException("Internal error: a worker thread failed.",failure);
+    }
+    protected void runWorker(Tableau workerTableau) {
+        try {
+            E task=nextTask();
+            while (task!=null) {
+                try {
+                    processTask(workerTableau,task);
+                }
+                finally {
+                    taskFinished();
+                }
+                task=nextTask();
+            }
+        }
+        catch (Throwable failure) {
+            stop(failure);
+        }
+    }
+    protected synchronized E nextTask() throws InterruptedException {
+        while (!m_stopped && m_pendingTasks.isEmpty() && m_numberOfBusyWorkers>0)
+            wait();
+        if (m_stopped || m_pendingTasks.isEmpty()) {
+            notifyAll();
+            return null;
+        }
+        m_numberOfBusyWorkers++;
+        return m_pendingTasks.removeFirst();
+    }
+    protected synchronized void taskFinished() {
+        m_numberOfBusyWorkers--;
+        notifyAll();
+    }
+    protected void stop(Throwable failure) {
+        synchronized (this) {
+            if (m_failure==null)
+                m_failure=failure;
+            m_stopped=true;
+            m_pendingTasks.clear();
+            notifyAll();
+        }
+        interruptWorkers();
+    }
+    protected synchronized boolean isStopped() {
+        return m_stopped;
+    }
+    protected void interruptWorkers() {
+        Tableau[] workerTableaux;
+        synchronized (this) {
+            workerTableaux=m_workerTableaux;
+        }
+        if (workerTableaux!=null)
+            for (Tableau workerTableau : workerTableaux)
+                workerTableau.getInterruptFlag().interrupt();
+    }
+    /**
+     * Processes one task. This method is called concurrently by all worker threads; the given tableau belongs to the
+     * calling thread, but any other shared state must be synchronized by the implementation.
+     */
+    protected abstract void processTask(Tableau workerTableau,E task);
+}
@@ -21,102 +21,148 @@ import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 
 /**
- * The manager for the internable objects.
+ * The manager for the internable objects. The objects are distributed over a fixed number of segments according to
+ * their hash codes; each segment is a weakly referencing hash table with its own lock and its own reference queue, so
+ * threads interning objects that fall into different segments do not contend, and the entries of collected objects
+ * are removed from a segment while holding only the lock of that segment.
  */
 public abstract class InterningManager<E> {
     protected static final double LOAD_FACTOR=0.75;
+    protected static final int NUMBER_OF_SEGMENTS=32;
+
+    protected final Segment<E>[] m_segments;
 
-    protected final ReferenceQueue<E> m_referenceQueue;
-    protected Entry<E>[] m_entries;
-    protected int m_size;
-    protected int m_resizeThreshold;
-    
     public InterningManager() {
-        m_referenceQueue=new ReferenceQueue<E>();
-        m_entries=createEntries(16);
-        m_size=0;
-        m_resizeThreshold=(int)(m_entries.length*LOAD_FACTOR);
+        m_segments=createSegments(NUMBER_OF_SEGMENTS);
+        for (int segmentIndex=0;segmentIndex<m_segments.length;segmentIndex++)
+            m_segments[segmentIndex]=new Segment<E>(this);
     }
-    public synchronized E intern(E object) {
-        processQueue();
+    public E intern(E object) {
         int hashCode=getHashCode(object);
-        int objectEntryIndex=getIndexFor(hashCode,m_entries.length);
-        Entry<E> previousEntry=null;
-        Entry<E> entry=m_entries[objectEntryIndex];
-        while (entry!=null) {
-            if (hashCode==entry.m_hashCode) {
-                E entryObject=entry.get();
-                if (entryObject==null) {
-                    if (previousEntry==null)
-                        m_entries[objectEntryIndex]=entry.m_next;
-                    else
-                        previousEntry.m_next=entry.m_next;
-                    m_size--;
-                }
-                else if (equal(object,entryObject))
-                    return entryObject;
-            }
-            previousEntry=entry;
-            entry=entry.m_next;
+        return m_segments[getSegmentIndexFor(hashCode)].intern(object,hashCode);
+    }
+    /**
+     * Returns the number of interned objects, including those that have been collected but whose entries have not
+     * been removed yet.
+     */
+    public int size() {
+        int size=0;
+        for (Segment<E> segment : m_segments)
+            size+=segment.size();
+        return size;
+    }
+    protected final int getSegmentIndexFor(int hashCode) {
+        // The bucket index within a segment uses the low bits of the hash code, so the segment is chosen by the high
+        // bits of the scrambled hash code.
+        return ((hashCode*0x9E3779B9) >>> 24) & (m_segments.length-1);
+    }
+    @SuppressWarnings("unchecked")
+    protected final Segment<E>[] createSegments(int size) {
+        return (Segment<E>[])new Segment[size];
+    }
+    protected abstract int getHashCode(E object);
+    protected abstract boolean equal(E object1,E object2);
+
+    /**
+     * A segment of the hash map.
+     */
+    protected static class Segment<E> {
+        protected final InterningManager<E> m_interningManager;
+        protected final ReferenceQueue<E> m_referenceQueue;
+        protected Entry<E>[] m_entries;
+        protected int m_size;
+        protected int m_resizeThreshold;
+
+        public Segment(InterningManager<E> interningManager) {
+            m_interningManager=interningManager;
+            m_referenceQueue=new ReferenceQueue<E>();
+            m_entries=createEntries(16);
+            m_size=0;
+            m_resizeThreshold=(int)(m_entries.length*LOAD_FACTOR);
         }
-        if (m_size>=m_resizeThreshold) {
-            int newEntriesLength=m_entries.length*2;
-            Entry<E>[] newEntries=createEntries(newEntriesLength);
-            for (int entryIndex=0;entryIndex<m_entries.length;entryIndex++) {
-                Entry<E> currentEntry=m_entries[entryIndex];
-                while (currentEntry!=null) {
-                    Entry<E> nextEntry=currentEntry.m_next;
-                    if (currentEntry.get()==null)
+        public synchronized int size() {
+            return m_size;
+        }
+        public synchronized E intern(E object,int hashCode) {
+            processQueue();
+            int objectEntryIndex=getIndexFor(hashCode,m_entries.length);
+            Entry<E> previousEntry=null;
+            Entry<E> entry=m_entries[objectEntryIndex];
+            while (entry!=null) {
+                if (hashCode==entry.m_hashCode) {
+                    E entryObject=entry.get();
+                    if (entryObject==null) {
+                        if (previousEntry==null)
+                            m_entries[objectEntryIndex]=entry.m_next;
+                        else
+                            previousEntry.m_next=entry.m_next;
                         m_size--;
-                    else {
-                        int newIndex=getIndexFor(currentEntry.m_hashCode,newEntriesLength);
-                        currentEntry.m_next=newEntries[newIndex];
-                        newEntries[newIndex]=currentEntry;
+                        entry=entry.m_next;
+                        continue;
                     }
-                    currentEntry=nextEntry;
+                    else if (m_interningManager.equal(object,entryObject))
+                        return entryObject;
                 }
+                previousEntry=entry;
+                entry=entry.m_next;
             }
-            m_entries=newEntries;
-            m_resizeThreshold=(int)(newEntriesLength*LOAD_FACTOR);
-            objectEntryIndex=getIndexFor(hashCode,m_entries.length);
+            if (m_size>=m_resizeThreshold) {
+                int newEntriesLength=m_entries.length*2;
+                Entry<E>[] newEntries=createEntries(newEntriesLength);
+                for (int entryIndex=0;entryIndex<m_entries.length;entryIndex++) {
+                    Entry<E> currentEntry=m_entries[entryIndex];
+                    while (currentEntry!=null) {
+                        Entry<E> nextEntry=currentEntry.m_next;
+                        if (currentEntry.get()==null)
+                            m_size--;
+                        else {
+                            int newIndex=getIndexFor(currentEntry.m_hashCode,newEntriesLength);
+                            currentEntry.m_next=newEntries[newIndex];
+                            newEntries[newIndex]=currentEntry;
+                        }
+                        currentEntry=nextEntry;
+                    }
+                }
+                m_entries=newEntries;
+                m_resizeThreshold=(int)(newEntriesLength*LOAD_FACTOR);
+                objectEntryIndex=getIndexFor(hashCode,m_entries.length);
+            }
+            Entry<E> newEntry=new Entry<E>(object,m_referenceQueue,hashCode,m_entries[objectEntryIndex]);
+            m_entries[objectEntryIndex]=newEntry;
+            m_size++;
+            return object;
         }
-        Entry<E> newEntry=new Entry<E>(object,m_referenceQueue,hashCode,m_entries[objectEntryIndex]);
-        m_entries[objectEntryIndex]=newEntry;
-        m_size++;
-        return object;
-    }
-    protected final int getIndexFor(int hashCode,int entriesLength) {
-        return hashCode & (entriesLength-1);
-    }
-    protected void removeEntry(Entry<E> entry) {
-        int index=getIndexFor(entry.m_hashCode,m_entries.length);
-        Entry<E> previousEntry=null;
-        for (Entry<E> current=m_entries[index];current!=null;current=current.m_next) {
-            if (current==entry) {
-                m_size--;
-                if (previousEntry==null)
-                    m_entries[index]=current.m_next;
-                else
-                    previousEntry.m_next=current.m_next;
-                return;
+        protected void removeEntry(Entry<E> entry) {
+            int index=getIndexFor(entry.m_hashCode,m_entries.length);
+            Entry<E> previousEntry=null;
+            for (Entry<E> current=m_entries[index];current!=null;current=current.m_next) {
+                if (current==entry) {
+                    m_size--;
+                    if (previousEntry==null)
+                        m_entries[index]=current.m_next;
+                    else
+                        previousEntry.m_next=current.m_next;
+                    return;
+                }
+                previousEntry=current;
             }
-            previousEntry=current;
         }
-    }
-    @SuppressWarnings("unchecked")
-    protected void processQueue() {
-        Entry<E> entry=(Entry<E>)m_referenceQueue.poll();
-        while (entry!=null) {
-            removeEntry(entry);
-            entry=(Entry<E>)m_referenceQueue.poll();
+        protected final int getIndexFor(int hashCode,int entriesLength) {
+            return hashCode & (entriesLength-1);
+        }
+        @SuppressWarnings("unchecked")
+        protected final Entry<E>[] createEntries(int size) {
+            return (Entry<E>[])new Entry[size];
+        }
+        @SuppressWarnings("unchecked")
+        protected void processQueue() {
+            Entry<E> entry=(Entry<E>)m_referenceQueue.poll();
+            while (entry!=null) {
+                removeEntry(entry);
+                entry=(Entry<E>)m_referenceQueue.poll();
+            }
         }
     }
-    @SuppressWarnings("unchecked")
-    protected final Entry<E>[] createEntries(int size) {
-        return (Entry<E>[])new Entry[size];
-    }
-    protected abstract int getHashCode(E object);
-    protected abstract boolean equal(E object1,E object2);
 
     /**
      * The entry for the hash map.
@@ -26,6 +26,7 @@ import java.util.Map;
 import java.util.Set;
 
 import org.semanticweb.HermiT.Prefixes;
+import org.semanticweb.HermiT.model.DLPredicate;
 import org.semanticweb.HermiT.tableau.BranchingPoint;
 import org.semanticweb.HermiT.tableau.Node;
 import org.semanticweb.HermiT.tableau.ReasoningTaskDescription;
@@ -43,6 +44,7 @@ public class CountingMonitor extends TableauMonitorAdapter {
     protected int m_numberOfBacktrackings;
     protected int m_numberOfNodes;
     protected int m_numberOfBlockedNodes;
+    protected int m_numberOfReexaminedNodes;
     protected ReasoningTaskDescription m_reasoningTaskDescription;
     protected boolean m_testResult;
     // validated blocking
@@ -61,6 +63,7 @@ public class CountingMonitor extends TableauMonitorAdapter {
     protected int m_overallNumberOfBacktrackings=0;
     protected int m_overallNumberOfNodes=0;
     protected int m_overallNumberOfBlockedNodes=0;
+    protected long m_overallNumberOfReexaminedNodes=0;
     protected int m_overallNumberOfTests=0;
     protected int m_overallNumberOfClashes=0;
     protected int m_possibleInstancesTested=0;
@@ -74,6 +77,13 @@ public class CountingMonitor extends TableauMonitorAdapter {
     // datatye checking
     protected int m_overallDatatypeCheckingTime=0;
     protected int m_overallNumberDatatypesChecked;
+    // batched delta processing
+    protected int m_overallNumberOfDeltaBatches=0;
+    protected long m_overallNumberOfDeltaTuplesInBatches=0;
+    protected int m_maximalDeltaBatchSize=0;
+    // subsumption cache
+    protected int m_overallNumberOfSubsumptionCacheHits=0;
+    protected int m_overallNumberOfSubsumptionCacheMisses=0;
 
 
     public void reset() {
@@ -84,6 +94,7 @@ public class CountingMonitor extends TableauMonitorAdapter {
         m_numberOfBacktrackings=0;
         m_numberOfNodes=0;
         m_numberOfBlockedNodes=0;
+        m_numberOfReexaminedNodes=0;
         m_reasoningTaskDescription=null;
         m_testResult=false;
         m_initialModelSize=0;
@@ -98,6 +109,7 @@ public class CountingMonitor extends TableauMonitorAdapter {
         m_overallNumberOfBacktrackings=0;
         m_overallNumberOfNodes=0;
         m_overallNumberOfBlockedNodes=0;
+        m_overallNumberOfReexaminedNodes=0;
         m_overallNumberOfTests=0;
         m_overallNumberOfClashes=0;
         m_possibleInstancesTested=0;
@@ -109,6 +121,11 @@ public class CountingMonitor extends TableauMonitorAdapter {
         m_overallValidationTime=0;
         m_overallNumberDatatypesChecked=0;
         m_overallDatatypeCheckingTime=0;
+        m_overallNumberOfDeltaBatches=0;
+        m_overallNumberOfDeltaTuplesInBatches=0;
+        m_maximalDeltaBatchSize=0;
+        m_overallNumberOfSubsumptionCacheHits=0;
+        m_overallNumberOfSubsumptionCacheMisses=0;
     }
 
     public void isSatisfiableStarted(ReasoningTaskDescription reasoningTaskDescription) {
@@ -120,6 +137,7 @@ public class CountingMonitor extends TableauMonitorAdapter {
         m_numberOfBacktrackings=0;
         m_numberOfNodes=0;
         m_numberOfBlockedNodes=0;
+        m_numberOfReexaminedNodes=0;
         m_initialModelSize=0;
         m_initiallyBlocked=0;
         m_initiallyInvalid=0;
@@ -193,6 +211,22 @@ public class CountingMonitor extends TableauMonitorAdapter {
     	if (m_noValidations==1)
     	    m_initiallyInvalid=noInvalidlyBlocked;
     }
+    public void blockingComputed(int numberOfReexaminedNodes) {
+        m_numberOfReexaminedNodes+=numberOfReexaminedNodes;
+        m_overallNumberOfReexaminedNodes+=numberOfReexaminedNodes;
+    }
+    public void deltaBatchProcessed(DLPredicate deltaDLPredicate,int batchSize) {
+        m_overallNumberOfDeltaBatches++;
+        m_overallNumberOfDeltaTuplesInBatches+=batchSize;
+        if (batchSize>m_maximalDeltaBatchSize)
+            m_maximalDeltaBatchSize=batchSize;
+    }
+    public void subsumptionCacheHit(Object subsumee,Object subsumer,boolean result) {
+        m_overallNumberOfSubsumptionCacheHits++;
+    }
+    public void subsumptionCacheMiss(Object subsumee,Object subsumer) {
+        m_overallNumberOfSubsumptionCacheMisses++;
+    }
     public void datatypeCheckingStarted() {
         m_numberDatatypesChecked++;
         m_datatypeCheckingStartTime=System.currentTimeMillis();
@@ -237,6 +271,12 @@ public class CountingMonitor extends TableauMonitorAdapter {
 	}
 	public int getNumberOfBlockedNodes() {
         return m_numberOfBlockedNodes;
+    }
+    /**
+     * Returns the number of nodes whose blocking status has been recomputed in the current test.
+     */
+    public int getNumberOfReexaminedNodes() {
+        return m_numberOfReexaminedNodes;
     }
 	public String getTestDescription() {
 	    return m_reasoningTaskDescription.getTaskDescription(Prefixes.STANDARD_PREFIXES);
@@ -279,6 +319,9 @@ public class CountingMonitor extends TableauMonitorAdapter {
 	}
 	public int getOverallNumberOfBlockedNodes() {
         return m_overallNumberOfBlockedNodes;
+    }
+    public long getOverallNumberOfReexaminedNodes() {
+        return m_overallNumberOfReexaminedNodes;
     }
 	public int getOverallNumberOfTests() {
 		return m_overallNumberOfTests;
@@ -317,6 +360,28 @@ public class CountingMonitor extends TableauMonitorAdapter {
     public long getOverallDatatypeCheckingTime() {
         return m_overallDatatypeCheckingTime;
     }
+    // getters for batched delta processing
+    public int getOverallNumberOfDeltaBatches() {
+        return m_overallNumberOfDeltaBatches;
+    }
+    public long getOverallNumberOfDeltaTuplesInBatches() {
+        return m_overallNumberOfDeltaTuplesInBatches;
+    }
+    public int getMaximalDeltaBatchSize() {
+        return m_maximalDeltaBatchSize;
+    }
+    public double getAverageDeltaBatchSize() {
+        if (m_overallNumberOfDeltaBatches==0)
+            return 0;
+        return getRounded(m_overallNumberOfDeltaTuplesInBatches,m_overallNumberOfDeltaBatches);
+    }
+    // getters for the subsumption cache
+    public int getOverallNumberOfSubsumptionCacheHits() {
+        return m_overallNumberOfSubsumptionCacheHits;
+    }
+    public int getOverallNumberOfSubsumptionCacheMisses() {
+        return m_overallNumberOfSubsumptionCacheMisses;
+    }
 
     // getters for average measurements
     public long getAverageTime() {
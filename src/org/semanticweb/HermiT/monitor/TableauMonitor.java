@@ -18,6 +18,7 @@
 package org.semanticweb.HermiT.monitor;
 
 import org.semanticweb.HermiT.model.AnnotatedEquality;
+import org.semanticweb.HermiT.model.DLPredicate;
 import org.semanticweb.HermiT.model.DataRange;
 import org.semanticweb.HermiT.model.ExistentialConcept;
 import org.semanticweb.HermiT.tableau.BranchingPoint;
@@ -39,6 +40,7 @@ public interface TableauMonitor {
     void iterationFinished();
     void dlClauseMatchedStarted(DLClauseEvaluator dlClauseEvaluator,int dlClauseIndex);
     void dlClauseMatchedFinished(DLClauseEvaluator dlClauseEvaluator,int dlClauseIndex);
+    void deltaBatchProcessed(DLPredicate deltaDLPredicate,int batchSize);
     void addFactStarted(Object[] tuple,boolean isCore);
     void addFactFinished(Object[] tuple,boolean isCore,boolean factAdded);
     void mergeStarted(Node mergeFrom,Node mergeInto);
@@ -79,6 +81,9 @@ public interface TableauMonitor {
     void datatypeConjunctionCheckingFinished(DatatypeManager.DConjunction conjunction,boolean result);
     void blockingValidationStarted();
     void blockingValidationFinished(int noInvalidlyBlocked);
+    void blockingComputed(int numberOfReexaminedNodes);
     void possibleInstanceIsInstance();
     void possibleInstanceIsNotInstance();
+    void subsumptionCacheHit(Object subsumee,Object subsumer,boolean result);
+    void subsumptionCacheMiss(Object subsumee,Object subsumer);
 }
@@ -20,6 +20,7 @@ package org.semanticweb.HermiT.monitor;
 import java.io.Serializable;
 
 import org.semanticweb.HermiT.model.AnnotatedEquality;
+import org.semanticweb.HermiT.model.DLPredicate;
 import org.semanticweb.HermiT.model.DataRange;
 import org.semanticweb.HermiT.model.ExistentialConcept;
 import org.semanticweb.HermiT.tableau.BranchingPoint;
@@ -58,6 +59,8 @@ public class TableauMonitorAdapter implements TableauMonitor,Serializable  {
     }
     public void dlClauseMatchedFinished(DLClauseEvaluator dlClauseEvaluator,int dlClauseIndex) {
     }
+    public void deltaBatchProcessed(DLPredicate deltaDLPredicate,int batchSize) {
+    }
     public void addFactStarted(Object[] tuple,boolean isCore) {
     }
     public void addFactFinished(Object[] tuple,boolean isCore,boolean factAdded) {
@@ -138,8 +141,14 @@ public class TableauMonitorAdapter implements TableauMonitor,Serializable  {
     }
     public void blockingValidationFinished(int noInvalidlyBlocked) {
     }
+    public void blockingComputed(int numberOfReexaminedNodes) {
+    }
     public void possibleInstanceIsInstance() {
     }
     public void possibleInstanceIsNotInstance() {
     }
+    public void subsumptionCacheHit(Object subsumee,Object subsumer,boolean result) {
+    }
+    public void subsumptionCacheMiss(Object subsumee,Object subsumer) {
+    }
 }
@@ -20,6 +20,7 @@ package org.semanticweb.HermiT.monitor;
 import java.io.Serializable;
 
 import org.semanticweb.HermiT.model.AnnotatedEquality;
+import org.semanticweb.HermiT.model.DLPredicate;
 import org.semanticweb.HermiT.model.DataRange;
 import org.semanticweb.HermiT.model.ExistentialConcept;
 import org.semanticweb.HermiT.tableau.BranchingPoint;
@@ -80,6 +81,10 @@ public class TableauMonitorFork implements TableauMonitor,Serializable  {
         m_first.dlClauseMatchedFinished(dlClauseEvaluator,dlClauseIndex);
         m_second.dlClauseMatchedFinished(dlClauseEvaluator,dlClauseIndex);
     }
+    public void deltaBatchProcessed(DLPredicate deltaDLPredicate,int batchSize) {
+        m_first.deltaBatchProcessed(deltaDLPredicate,batchSize);
+        m_second.deltaBatchProcessed(deltaDLPredicate,batchSize);
+    }
     public void addFactStarted(Object[] tuple,boolean isCore) {
         m_first.addFactStarted(tuple,isCore);
         m_second.addFactStarted(tuple,isCore);
@@ -240,6 +245,10 @@ public class TableauMonitorFork implements TableauMonitor,Serializable  {
         m_first.blockingValidationFinished(noInvalidlyBlocked);
         m_second.blockingValidationFinished(noInvalidlyBlocked);
     }
+    public void blockingComputed(int numberOfReexaminedNodes) {
+        m_first.blockingComputed(numberOfReexaminedNodes);
+        m_second.blockingComputed(numberOfReexaminedNodes);
+    }
     public void possibleInstanceIsInstance() {
         m_first.possibleInstanceIsInstance();
         m_second.possibleInstanceIsInstance();
@@ -248,4 +257,12 @@ public class TableauMonitorFork implements TableauMonitor,Serializable  {
         m_first.possibleInstanceIsNotInstance();
         m_second.possibleInstanceIsNotInstance();
     }
+    public void subsumptionCacheHit(Object subsumee,Object subsumer,boolean result) {
+        m_first.subsumptionCacheHit(subsumee,subsumer,result);
+        m_second.subsumptionCacheHit(subsumee,subsumer,result);
+    }
+    public void subsumptionCacheMiss(Object subsumee,Object subsumer) {
+        m_first.subsumptionCacheMiss(subsumee,subsumer);
+        m_second.subsumptionCacheMiss(subsumee,subsumer);
+    }
 }
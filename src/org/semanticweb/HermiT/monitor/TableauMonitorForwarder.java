@@ -20,6 +20,7 @@ package org.semanticweb.HermiT.monitor;
 import java.io.Serializable;
 
 import org.semanticweb.HermiT.model.AnnotatedEquality;
+import org.semanticweb.HermiT.model.DLPredicate;
 import org.semanticweb.HermiT.model.DataRange;
 import org.semanticweb.HermiT.model.ExistentialConcept;
 import org.semanticweb.HermiT.tableau.BranchingPoint;
@@ -84,6 +85,10 @@ public class TableauMonitorForwarder implements TableauMonitor,Serializable {
         if (m_forwardingOn)
             m_forwardingTargetMonitor.dlClauseMatchedFinished(dlClauseEvaluator,dlClauseIndex);
     }
+    public void deltaBatchProcessed(DLPredicate deltaDLPredicate,int batchSize) {
+        if (m_forwardingOn)
+            m_forwardingTargetMonitor.deltaBatchProcessed(deltaDLPredicate,batchSize);
+    }
     public void addFactStarted(Object[] tuple,boolean isCore) {
         if (m_forwardingOn)
             m_forwardingTargetMonitor.addFactStarted(tuple,isCore);
@@ -244,6 +249,10 @@ public class TableauMonitorForwarder implements TableauMonitor,Serializable {
         if (m_forwardingOn)
             m_forwardingTargetMonitor.blockingValidationFinished(noInvalidlyBlocked);
     }
+    public void blockingComputed(int numberOfReexaminedNodes) {
+        if (m_forwardingOn)
+            m_forwardingTargetMonitor.blockingComputed(numberOfReexaminedNodes);
+    }
     public void possibleInstanceIsInstance() {
         if (m_forwardingOn)
             m_forwardingTargetMonitor.possibleInstanceIsInstance();
@@ -252,4 +261,12 @@ public class TableauMonitorForwarder implements TableauMonitor,Serializable {
         if (m_forwardingOn)
             m_forwardingTargetMonitor.possibleInstanceIsNotInstance();
     }
+    public void subsumptionCacheHit(Object subsumee,Object subsumer,boolean result) {
+        if (m_forwardingOn)
+            m_forwardingTargetMonitor.subsumptionCacheHit(subsumee,subsumer,result);
+    }
+    public void subsumptionCacheMiss(Object subsumee,Object subsumer) {
+        if (m_forwardingOn)
+            m_forwardingTargetMonitor.subsumptionCacheMiss(subsumee,subsumer);
+    }
 }
@@ -17,6 +17,9 @@
  */
 package org.semanticweb.HermiT.structural;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -53,6 +56,89 @@ public class ObjectPropertyInclusionManager {
         m_automataByProperty=new HashMap<OWLObjectPropertyExpression,Automaton>();
         createAutomata(m_automataByProperty,axioms.m_complexObjectPropertyExpressions,axioms.m_simpleObjectPropertyInclusions,axioms.m_complexObjectPropertyInclusions);
     }
+    protected ObjectPropertyInclusionManager(Map<OWLObjectPropertyExpression,Automaton> automataByProperty) {
+        m_automataByProperty=automataByProperty;
+    }
+    /**
+     * Writes the automata of this object to the given output. Neither the automata nor the OWL API objects that label
+     * their transitions are serializable, so each automaton is written as a list of states followed by a list of
+     * transitions between state numbers, and the object properties are written as IRIs.
+     */
+    public void save(DataOutput output) throws IOException {
+        output.writeInt(m_automataByProperty.size());
+        for (Map.Entry<OWLObjectPropertyExpression,Automaton> entry : m_automataByProperty.entrySet()) {
+            saveObjectPropertyExpression(output,entry.getKey());
+            Automaton automaton=entry.getValue();
+            Map<State,Integer> stateNumbers=new HashMap<State,Integer>();
+            output.writeInt(automaton.states().size());
+            for (Object stateObject : automaton.states()) {
+                State state=(State)stateObject;
+                stateNumbers.put(state,stateNumbers.size());
+                output.writeBoolean(state.isInitial());
+                output.writeBoolean(state.isTerminal());
+            }
+            output.writeInt(automaton.delta().size());
+            for (Object transitionObject : automaton.delta()) {
+                Transition transition=(Transition)transitionObject;
+                output.writeInt(stateNumbers.get(transition.start()).intValue());
+                saveObjectPropertyExpression(output,(OWLObjectPropertyExpression)transition.label());
+                output.writeInt(stateNumbers.get(transition.end()).intValue());
+            }
+        }
+    }
+    /**
+     * Reads the automata written by save() and creates the OWL API objects that label their transitions using the given
+     * data factory.
+     */
+    public static ObjectPropertyInclusionManager load(DataInput input,OWLDataFactory factory) throws IOException {
+        Map<OWLObjectPropertyExpression,Automaton> automataByProperty=new HashMap<OWLObjectPropertyExpression,Automaton>();
+        for (int numberOfAutomata=input.readInt();numberOfAutomata>0;--numberOfAutomata) {
+            OWLObjectPropertyExpression objectPropertyExpression=loadObjectPropertyExpression(input,factory);
+            Automaton automaton=new Automaton();
+            State[] states=new State[input.readInt()];
+            for (int index=0;index<states.length;index++) {
+                boolean isInitial=input.readBoolean();
+                states[index]=automaton.addState(isInitial,input.readBoolean());
+            }
+            for (int numberOfTransitions=input.readInt();numberOfTransitions>0;--numberOfTransitions) {
+                State start=states[input.readInt()];
+                OWLObjectPropertyExpression label=loadObjectPropertyExpression(input,factory);
+                State end=states[input.readInt()];
+                try {
+                    automaton.addTransition(new Transition(start,label,end));
+                }
+                catch (NoSuchStateException e) {
+                    throw new IOException("The automaton for the object property '"+objectPropertyExpression+"' is corrupted.");
+                }
+            }
+            automataByProperty.put(objectPropertyExpression,automaton);
+        }
+        return new ObjectPropertyInclusionManager(automataByProperty);
+    }
+    protected static void saveObjectPropertyExpression(DataOutput output,OWLObjectPropertyExpression objectPropertyExpression) throws IOException {
+        if (objectPropertyExpression==null)
+            output.writeByte(0);
+        else if (objectPropertyExpression instanceof OWLObjectInverseOf) {
+            output.writeByte(2);
+            saveObjectPropertyExpression(output,((OWLObjectInverseOf)objectPropertyExpression).getInverse());
+        }
+        else {
+            output.writeByte(1);
+            output.writeUTF(objectPropertyExpression.asOWLObjectProperty().getIRI().toString());
+        }
+    }
+    protected static OWLObjectPropertyExpression loadObjectPropertyExpression(DataInput input,OWLDataFactory factory) throws IOException {
+        switch (input.readByte()) {
+        case 0:
+            return null;
+        case 1:
+            return factory.getOWLObjectProperty(IRI.create(input.readUTF()));
+        case 2:
+            return factory.getOWLObjectInverseOf(loadObjectPropertyExpression(input,factory));
+        default:
+            throw new IOException("Invalid object property expression in the object property inclusion automata.");
+        }
+    }
     public int rewriteNegativeObjectPropertyAssertions(OWLDataFactory factory,OWLAxioms axioms,int replacementIndex) {
         // now object property inclusion manager added all non-simple properties to axioms.m_complexObjectPropertyExpressions
         // now that we know which roles are non-simple, we can decide which negative object property assertions have to be
@@ -0,0 +1,298 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.AtomicRole;
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.Constant;
+import org.semanticweb.HermiT.model.DLClause;
+import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.HermiT.model.Individual;
+import org.semanticweb.HermiT.model.Term;
+import org.semanticweb.HermiT.model.Variable;
+
+/**
+ * Partitions the facts of a DL-ontology into connected components. Two individuals belong to the same component if
+ * they occur together in a fact, e.g., in a role assertion or in an equality. If the DL-clauses of the ontology cannot
+ * relate individuals that are not connected in this way, which is checked by isModularisable(), then the ABox is
+ * satisfiable if and only if each component is satisfiable, and a test that involves only some individuals needs to
+ * load only the components of these individuals. The satisfiability of each component is computed at most once and
+ * is shared by all tableaux that use the same instance of this class.
+ */
+public class ABoxComponents {
+    protected static final int UNKNOWN=0;
+    protected static final int SATISFIABLE=1;
+    protected static final int UNSATISFIABLE=2;
+
+    protected final Set<AtomicConcept> m_permanentAtomicConcepts;
+    protected final List<ABoxComponent> m_components;
+    protected final Map<Individual,ABoxComponent> m_componentsByIndividual;
+    protected final List<Atom> m_globalPositiveFacts;
+    protected final List<Atom> m_globalNegativeFacts;
+    protected final int[] m_componentStatus;
+
+    public ABoxComponents(DLOntology dlOntology) {
+        m_permanentAtomicConcepts=dlOntology.getAllAtomicConcepts();
+        m_components=new ArrayList<ABoxComponent>();
+        m_componentsByIndividual=new HashMap<Individual,ABoxComponent>();
+        m_globalPositiveFacts=new ArrayList<Atom>();
+        m_globalNegativeFacts=new ArrayList<Atom>();
+        boolean connectsThroughConstants=connectsThroughConstants(dlOntology);
+        Map<Term,Term> parents=new HashMap<Term,Term>();
+        for (Atom atom : dlOntology.getPositiveFacts())
+            unionTerms(parents,atom,connectsThroughConstants);
+        for (Atom atom : dlOntology.getNegativeFacts())
+            unionTerms(parents,atom,connectsThroughConstants);
+        Map<Term,ABoxComponent> componentsByRoot=new HashMap<Term,ABoxComponent>();
+        for (Atom atom : dlOntology.getPositiveFacts()) {
+            ABoxComponent component=getComponentForAtom(parents,componentsByRoot,atom);
+            if (component==null)
+                m_globalPositiveFacts.add(atom);
+            else
+                component.m_positiveFacts.add(atom);
+        }
+        for (Atom atom : dlOntology.getNegativeFacts()) {
+            ABoxComponent component=getComponentForAtom(parents,componentsByRoot,atom);
+            if (component==null)
+                m_globalNegativeFacts.add(atom);
+            else
+                component.m_negativeFacts.add(atom);
+        }
+        for (Map.Entry<Term,Term> entry : parents.entrySet())
+            if (entry.getKey() instanceof Individual)
+                m_componentsByIndividual.put((Individual)entry.getKey(),componentsByRoot.get(find(parents,entry.getKey())));
+        m_componentStatus=new int[m_components.size()];
+    }
+    public int getNumberOfComponents() {
+        return m_components.size();
+    }
+    public ABoxComponent getComponent(int index) {
+        return m_components.get(index);
+    }
+    /**
+     * Returns the component of the given individual or null if the individual does not occur in the ABox.
+     */
+    public ABoxComponent getComponent(Individual individual) {
+        return m_componentsByIndividual.get(individual);
+    }
+    public List<Atom> getGlobalPositiveFacts() {
+        return m_globalPositiveFacts;
+    }
+    public List<Atom> getGlobalNegativeFacts() {
+        return m_globalNegativeFacts;
+    }
+    /**
+     * Collects the components of all individuals that occur in the given facts.
+     */
+    public void getComponentsForFacts(Collection<Atom> facts,Set<ABoxComponent> components) {
+        if (facts!=null) {
+            Set<Individual> individuals=new HashSet<Individual>();
+            for (Atom atom : facts)
+                atom.getIndividuals(individuals);
+            for (Individual individual : individuals) {
+                ABoxComponent component=m_componentsByIndividual.get(individual);
+                if (component!=null)
+                    components.add(component);
+            }
+        }
+    }
+    /**
+     * Determines whether the given additional DL-ontology can be used with this partition. This is the case if each
+     * DL-clause of the additional ontology contains in its body an atomic concept that does not occur in the permanent
+     * ontology: such DL-clauses can fire only on nodes that are derived from the facts of the current test, so the
+     * components that these facts do not mention are unaffected.
+     */
+    public boolean isLocal(DLOntology additionalDLOntology) {
+        if (additionalDLOntology==null)
+            return true;
+        if (additionalDLOntology.hasNominals())
+            return false;
+        Set<Individual> individuals=new HashSet<Individual>();
+        for (DLClause dlClause : additionalDLOntology.getDLClauses()) {
+            boolean hasLocalBodyConcept=false;
+            for (Atom bodyAtom : dlClause.getBodyAtoms()) {
+                bodyAtom.getIndividuals(individuals);
+                if (bodyAtom.getDLPredicate() instanceof AtomicConcept && !m_permanentAtomicConcepts.contains(bodyAtom.getDLPredicate()))
+                    hasLocalBodyConcept=true;
+            }
+            for (Atom headAtom : dlClause.getHeadAtoms())
+                headAtom.getIndividuals(individuals);
+            if (!hasLocalBodyConcept || !individuals.isEmpty())
+                return false;
+        }
+        return true;
+    }
+    public synchronized boolean isSatisfiabilityKnown(int index) {
+        return m_componentStatus[index]!=UNKNOWN;
+    }
+    public synchronized boolean isSatisfiable(int index) {
+        return m_componentStatus[index]==SATISFIABLE;
+    }
+    public synchronized void setSatisfiable(int index,boolean satisfiable) {
+        m_componentStatus[index]=(satisfiable ? SATISFIABLE : UNSATISFIABLE);
+    }
+    /**
+     * Returns true if no component is known to be unsatisfiable and false otherwise.
+     */
+    public synchronized boolean hasNoUnsatisfiableComponent() {
+        for (int status : m_componentStatus)
+            if (status==UNSATISFIABLE)
+                return false;
+        return true;
+    }
+    protected void unionTerms(Map<Term,Term> parents,Atom atom,boolean connectsThroughConstants) {
+        Term firstTerm=null;
+        for (int argumentIndex=0;argumentIndex<atom.getArity();argumentIndex++) {
+            Term term=atom.getArgument(argumentIndex);
+            if (term instanceof Individual || (connectsThroughConstants && term instanceof Constant)) {
+                if (!parents.containsKey(term))
+                    parents.put(term,term);
+                if (firstTerm==null)
+                    firstTerm=term;
+                else {
+                    Term firstRoot=find(parents,firstTerm);
+                    Term root=find(parents,term);
+                    if (firstRoot!=root)
+                        parents.put(root,firstRoot);
+                }
+            }
+        }
+    }
+    protected ABoxComponent getComponentForAtom(Map<Term,Term> parents,Map<Term,ABoxComponent> componentsByRoot,Atom atom) {
+        for (int argumentIndex=0;argumentIndex<atom.getArity();argumentIndex++) {
+            Term term=atom.getArgument(argumentIndex);
+            if (parents.containsKey(term)) {
+                Term root=find(parents,term);
+                ABoxComponent component=componentsByRoot.get(root);
+                if (component==null) {
+                    component=new ABoxComponent(m_components.size());
+                    m_components.add(component);
+                    componentsByRoot.put(root,component);
+                }
+                return component;
+            }
+        }
+        return null;
+    }
+    protected static Term find(Map<Term,Term> parents,Term term) {
+        Term root=term;
+        Term parent=parents.get(root);
+        while (parent!=root) {
+            root=parent;
+            parent=parents.get(root);
+        }
+        while (term!=root) {
+            Term next=parents.get(term);
+            parents.put(term,root);
+            term=next;
+        }
+        return root;
+    }
+    /**
+     * Data values are represented by one node per constant, so two individuals with the same data value are related
+     * if a DL-clause joins two atoms on their second argument, as is the case for keys.
+     */
+    protected static boolean connectsThroughConstants(DLOntology dlOntology) {
+        for (DLClause dlClause : dlOntology.getDLClauses()) {
+            Set<Variable> secondArguments=new HashSet<Variable>();
+            for (Atom bodyAtom : dlClause.getBodyAtoms())
+                if (bodyAtom.getArity()==2 && bodyAtom.getArgument(1) instanceof Variable && !secondArguments.add(bodyAtom.getArgumentVariable(1)))
+                    return true;
+        }
+        return false;
+    }
+    /**
+     * Determines whether the ABox of the given DL-ontology can be partitioned. This is the case if the ontology
+     * contains no nominals, no description graphs, and no universal role, and if the body atoms of each DL-clause are
+     * connected through their variables and contain no individuals.
+     */
+    public static boolean isModularisable(DLOntology dlOntology) {
+        if (dlOntology.hasNominals() || !dlOntology.getAllDescriptionGraphs().isEmpty() || dlOntology.containsObjectRole(AtomicRole.TOP_OBJECT_ROLE))
+            return false;
+        Set<Individual> individuals=new HashSet<Individual>();
+        for (DLClause dlClause : dlOntology.getDLClauses()) {
+            for (Atom atom : dlClause.getBodyAtoms())
+                atom.getIndividuals(individuals);
+            for (Atom atom : dlClause.getHeadAtoms())
+                atom.getIndividuals(individuals);
+            if (!individuals.isEmpty() || !isConnected(dlClause))
+                return false;
+        }
+        return true;
+    }
+    protected static boolean isConnected(DLClause dlClause) {
+        Set<Variable> connectedVariables=new HashSet<Variable>();
+        Set<Variable> atomVariables=new HashSet<Variable>();
+        List<Atom> remainingAtoms=new ArrayList<Atom>();
+        for (Atom atom : dlClause.getBodyAtoms())
+            remainingAtoms.add(atom);
+        boolean changed=true;
+        while (changed) {
+            changed=false;
+            for (int index=remainingAtoms.size()-1;index>=0;--index) {
+                atomVariables.clear();
+                remainingAtoms.get(index).getVariables(atomVariables);
+                if (atomVariables.isEmpty() || connectedVariables.isEmpty() || !disjoint(atomVariables,connectedVariables)) {
+                    connectedVariables.addAll(atomVariables);
+                    remainingAtoms.remove(index);
+                    changed=true;
+                }
+            }
+        }
+        return remainingAtoms.isEmpty();
+    }
+    protected static boolean disjoint(Set<Variable> set1,Set<Variable> set2) {
+        for (Variable variable : set1)
+            if (set2.contains(variable))
+                return false;
+        return true;
+    }
+
+    /**
+     * The facts of one connected component of the ABox.
+     */
+    public static class ABoxComponent {
+        protected final int m_index;
+        protected final List<Atom> m_positiveFacts;
+        protected final List<Atom> m_negativeFacts;
+
+        protected ABoxComponent(int index) {
+            m_index=index;
+            m_positiveFacts=new ArrayList<Atom>();
+            m_negativeFacts=new ArrayList<Atom>();
+        }
+        public int getIndex() {
+            return m_index;
+        }
+        public List<Atom> getPositiveFacts() {
+            return m_positiveFacts;
+        }
+        public List<Atom> getNegativeFacts() {
+            return m_negativeFacts;
+        }
+    }
+}
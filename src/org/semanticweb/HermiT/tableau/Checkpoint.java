@@ -0,0 +1,56 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+   
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+   
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+   
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.HermiT.model.Term;
+
+/**
+ * A state of a tableau to which the tableau can be rolled back. A checkpoint is a branching point without
+ * alternatives, so rolling back uses the same mechanism as backtracking: only the tuples, nodes, merges and ground
+ * disjunctions that have been added since the checkpoint was taken are undone. A checkpoint remains valid until the
+ * tableau is cleared or rolled back to an earlier checkpoint, and as long as the additional DL-ontology of the tableau
+ * does not change.
+ */
+public final class Checkpoint extends BranchingPoint {
+    private static final long serialVersionUID=-2201577617519932046L;
+
+    protected final Map<Term,Node> m_termsToNodes;
+    protected final DLOntology m_additionalDLOntology;
+    protected final boolean m_isCurrentModelDeterministic;
+
+    public Checkpoint(Tableau tableau,Map<Term,Node> termsToNodes) {
+        super(tableau);
+        if (termsToNodes==null || termsToNodes.isEmpty())
+            m_termsToNodes=Collections.emptyMap();
+        else
+            m_termsToNodes=new HashMap<Term,Node>(termsToNodes);
+        m_additionalDLOntology=tableau.m_additionalDLOntology;
+        m_isCurrentModelDeterministic=tableau.m_isCurrentModelDeterministic;
+    }
+    /**
+     * Returns the nodes for the terms of the facts that had been loaded into the tableau when the checkpoint was taken.
+     */
+    public Map<Term,Node> getTermsToNodes() {
+        return Collections.unmodifiableMap(m_termsToNodes);
+    }
+}
@@ -45,6 +45,7 @@ public class DLClauseEvaluator implements Serializable {
     protected final Worker[] m_workers;
     protected final DLClause m_bodyDLClause;
     protected final List<DLClause> m_headDLClauses;
+    protected final JoinLoop m_joinLoop;
 
     public DLClauseEvaluator(Tableau tableau,DLClause bodyDLClause,List<DLClause> headDLClauses,ExtensionTable.Retrieval firstAtomRetrieval,BufferSupply bufferSupply,ValuesBufferManager valuesBufferManager,GroundDisjunctionHeaderManager groundDisjunctionHeaderManager,Map<Integer,UnionDependencySet> unionDependencySetsBySize) {
         m_interruptFlag=tableau.m_interruptFlag;
@@ -56,6 +57,10 @@ public class DLClauseEvaluator implements Serializable {
         compiler.m_workers.toArray(m_workers);
         m_bodyDLClause=bodyDLClause;
         m_headDLClauses=headDLClauses;
+        if (tableau.m_parameters!=null && Boolean.TRUE.equals(tableau.m_parameters.get("DLClauseEvaluator.useJoinLoops")))
+            m_joinLoop=JoinLoop.create(m_workers,0,m_workers.length,m_retrievals[0],m_interruptFlag,m_extensionManager);
+        else
+            m_joinLoop=null;
     }
     public int getBodyLength() {
         return m_bodyDLClause.getBodyLength();
@@ -78,7 +83,18 @@ public class DLClauseEvaluator implements Serializable {
     public Object[] getTupleMatchedToBody(int atomIndex) {
         return m_retrievals[atomIndex].getTupleBuffer();
     }
+    /**
+     * Returns true if the DL-clause is evaluated by nested join loops rather than by interpreting the workers.
+     */
+    public boolean usesJoinLoops() {
+        return m_joinLoop!=null;
+    }
     public void evaluate() {
+        if (m_joinLoop!=null) {
+            if (!m_extensionManager.containsClash())
+                m_joinLoop.evaluateMatch();
+            return;
+        }
         int programCounter=0;
         while (programCounter<m_workers.length && !m_extensionManager.containsClash()) {
             m_interruptFlag.checkInterrupt();
@@ -671,6 +687,274 @@ public class DLClauseEvaluator implements Serializable {
         }
     }
 
+    /**
+     * The DL-clause body as nested loops, one per body atom with an extension. The workers produced by the compiler
+     * form a program that the interpreter in evaluate() executes via a program counter; since each call of
+     * Worker.execute() can dispatch to many classes, the JIT compiler cannot inline the calls in this loop. A join
+     * loop executes the same program directly: the retrievals are called through a field of a single class, the
+     * checks and the bindings are performed on arrays of buffer indexes, and only the head workers are executed as
+     * workers. The join loops are obtained from the compiled workers, so they evaluate the DL-clause exactly as the
+     * interpreter does; if the program does not have the expected structure, create() returns null and the
+     * interpreter is used.
+     */
+    protected static final class JoinLoop implements Serializable {
+        private static final long serialVersionUID=-6227932810462113785L;
+        protected static final int SKIPPED=0;
+        protected static final int NO_MATCH=1;
+        protected static final int MATCH=2;
+        protected static final int CLASH=3;
+
+        protected final InterruptFlag m_interruptFlag;
+        protected final ExtensionManager m_extensionManager;
+        protected final ExtensionTable.Retrieval m_retrieval;
+        protected final Object[] m_tupleBuffer;
+        protected final int[] m_equalityChecks;
+        protected final Object[] m_valuesBuffer;
+        protected final int[] m_copyFromIndexes;
+        protected final int[] m_copyToIndexes;
+        protected final DependencySet[] m_dependencySets;
+        protected final int m_dependencySetIndex;
+        protected final int[] m_nodeIDLessEqualThanChecks;
+        protected final int[][] m_nodeIDsAscendingOrEqualChecks;
+        protected final JoinLoop m_nestedLoop;
+        protected final Worker[] m_headWorkers;
+        protected final Set<Integer> m_headVariableIndexes;
+        protected final Set<Integer> m_boundVariableIndexes;
+        protected final boolean m_evaluateOnce;
+        protected final boolean m_stopAfterFirstMatch;
+
+        protected JoinLoop(InterruptFlag interruptFlag,ExtensionManager extensionManager,ExtensionTable.Retrieval retrieval,Object[] tupleBuffer,int[] equalityChecks,Object[] valuesBuffer,int[] copyFromIndexes,int[] copyToIndexes,DependencySet[] dependencySets,int dependencySetIndex,int[] nodeIDLessEqualThanChecks,int[][] nodeIDsAscendingOrEqualChecks,JoinLoop nestedLoop,Worker[] headWorkers) {
+            m_interruptFlag=interruptFlag;
+            m_extensionManager=extensionManager;
+            m_retrieval=retrieval;
+            m_tupleBuffer=tupleBuffer;
+            m_equalityChecks=equalityChecks;
+            m_valuesBuffer=valuesBuffer;
+            m_copyFromIndexes=copyFromIndexes;
+            m_copyToIndexes=copyToIndexes;
+            m_dependencySets=dependencySets;
+            m_dependencySetIndex=dependencySetIndex;
+            m_nodeIDLessEqualThanChecks=nodeIDLessEqualThanChecks;
+            m_nodeIDsAscendingOrEqualChecks=nodeIDsAscendingOrEqualChecks;
+            m_nestedLoop=nestedLoop;
+            m_headWorkers=headWorkers;
+            m_headVariableIndexes=(m_nestedLoop==null ? getHeadVariableIndexes(m_headWorkers) : m_nestedLoop.m_headVariableIndexes);
+            m_boundVariableIndexes=new HashSet<Integer>();
+            for (int index=0;index<m_copyToIndexes.length;index++)
+                m_boundVariableIndexes.add(m_copyToIndexes[index]);
+            if (m_nestedLoop!=null)
+                m_boundVariableIndexes.addAll(m_nestedLoop.m_boundVariableIndexes);
+            // If the atom binds no variable that is used later, all tuples of the retrieval lead to the same results.
+            // If no variable bound by this atom or by a later one occurs in a head, all matches derive the same facts.
+            m_evaluateOnce=(m_headVariableIndexes!=null && m_copyToIndexes.length==0);
+            m_stopAfterFirstMatch=(m_headVariableIndexes!=null && disjoint(m_boundVariableIndexes,m_headVariableIndexes));
+        }
+        /**
+         * Iterates over the tuples of the retrieval and returns MATCH if the heads have been applied, CLASH if a clash
+         * has been derived, and NO_MATCH otherwise.
+         */
+        public int evaluate() {
+            int result=NO_MATCH;
+            m_retrieval.open();
+            while (!m_retrieval.afterLast()) {
+                m_interruptFlag.checkInterrupt();
+                int matchResult=evaluateMatch();
+                if (matchResult==CLASH)
+                    return CLASH;
+                else if (matchResult==MATCH)
+                    result=MATCH;
+                if ((matchResult==MATCH && m_stopAfterFirstMatch) || (matchResult!=SKIPPED && m_evaluateOnce))
+                    break;
+                m_retrieval.next();
+            }
+            return result;
+        }
+        /**
+         * Processes the current tuple in the tuple buffer. Returns SKIPPED if the tuple does not match the atom, MATCH
+         * if the heads have been applied, CLASH if a clash has been derived, and NO_MATCH otherwise.
+         */
+        public int evaluateMatch() {
+            for (int index=0;index<m_equalityChecks.length;index+=2)
+                if (!m_tupleBuffer[m_equalityChecks[index]].equals(m_tupleBuffer[m_equalityChecks[index+1]]))
+                    return SKIPPED;
+            for (int index=0;index<m_copyFromIndexes.length;index++)
+                m_valuesBuffer[m_copyToIndexes[index]]=m_tupleBuffer[m_copyFromIndexes[index]];
+            if (m_dependencySetIndex!=-1)
+                m_dependencySets[m_dependencySetIndex]=m_retrieval.getDependencySet();
+            for (int index=0;index<m_nodeIDLessEqualThanChecks.length;index+=2)
+                if (((Node)m_valuesBuffer[m_nodeIDLessEqualThanChecks[index]]).getNodeID()>((Node)m_valuesBuffer[m_nodeIDLessEqualThanChecks[index+1]]).getNodeID())
+                    return NO_MATCH;
+            for (int index=0;index<m_nodeIDsAscendingOrEqualChecks.length;index++)
+                if (!nodeIDsAscendingOrEqual(m_nodeIDsAscendingOrEqualChecks[index]))
+                    return NO_MATCH;
+            if (m_nestedLoop!=null)
+                return m_nestedLoop.evaluate();
+            for (int index=0;index<m_headWorkers.length;index++) {
+                if (m_extensionManager.containsClash())
+                    return CLASH;
+                m_interruptFlag.checkInterrupt();
+                m_headWorkers[index].execute(0);
+            }
+            return m_extensionManager.containsClash() ? CLASH : MATCH;
+        }
+        protected boolean nodeIDsAscendingOrEqual(int[] nodeIndexes) {
+            boolean strictlyAscending=true;
+            boolean allEqual=true;
+            int lastNodeID=((Node)m_valuesBuffer[nodeIndexes[0]]).getNodeID();
+            for (int index=1;index<nodeIndexes.length;index++) {
+                int nodeID=((Node)m_valuesBuffer[nodeIndexes[index]]).getNodeID();
+                if (lastNodeID>=nodeID)
+                    strictlyAscending=false;
+                if (nodeID!=lastNodeID)
+                    allEqual=false;
+                lastNodeID=nodeID;
+            }
+            return (!strictlyAscending && allEqual) || (strictlyAscending && !allEqual);
+        }
+        /**
+         * Creates the join loop for the workers between start and end. The workers must check the tuple of the given
+         * retrieval, bind its variables, apply the node ID checks, and then either contain the loop of the next atom
+         * or the workers of the heads; each branch must jump to end, which skips the current tuple. For the first body
+         * atom, the tuple is provided by the hyperresolution manager, so only evaluateMatch() is called.
+         */
+        public static JoinLoop create(Worker[] workers,int start,int end,ExtensionTable.Retrieval retrieval,InterruptFlag interruptFlag,ExtensionManager extensionManager) {
+            int programCounter=start;
+            Object[] tupleBuffer=null;
+            Object[] valuesBuffer=null;
+            List<Integer> equalityChecks=new ArrayList<Integer>();
+            while (programCounter<end && workers[programCounter] instanceof BranchIfNotEqual) {
+                BranchIfNotEqual worker=(BranchIfNotEqual)workers[programCounter];
+                if (worker.m_notEqualProgramCounter!=end || (tupleBuffer!=null && tupleBuffer!=worker.m_buffer))
+                    return null;
+                tupleBuffer=worker.m_buffer;
+                equalityChecks.add(worker.m_index1);
+                equalityChecks.add(worker.m_index2);
+                programCounter++;
+            }
+            List<Integer> copyFromIndexes=new ArrayList<Integer>();
+            List<Integer> copyToIndexes=new ArrayList<Integer>();
+            while (programCounter<end && workers[programCounter] instanceof CopyValues) {
+                CopyValues worker=(CopyValues)workers[programCounter];
+                if ((tupleBuffer!=null && tupleBuffer!=worker.m_fromBuffer) || (valuesBuffer!=null && valuesBuffer!=worker.m_toBuffer))
+                    return null;
+                tupleBuffer=worker.m_fromBuffer;
+                valuesBuffer=worker.m_toBuffer;
+                copyFromIndexes.add(worker.m_fromIndex);
+                copyToIndexes.add(worker.m_toIndex);
+                programCounter++;
+            }
+            DependencySet[] dependencySets=null;
+            int dependencySetIndex=-1;
+            if (programCounter<end && workers[programCounter] instanceof CopyDependencySet) {
+                CopyDependencySet worker=(CopyDependencySet)workers[programCounter];
+                if (retrieval!=worker.m_retrieval)
+                    return null;
+                dependencySets=worker.m_targetDependencySets;
+                dependencySetIndex=worker.m_targetIndex;
+                programCounter++;
+            }
+            if (tupleBuffer!=null && tupleBuffer!=retrieval.getTupleBuffer())
+                return null;
+            List<Integer> nodeIDLessEqualThanChecks=new ArrayList<Integer>();
+            List<int[]> nodeIDsAscendingOrEqualChecks=new ArrayList<int[]>();
+            while (programCounter<end) {
+                Worker worker=workers[programCounter];
+                Object[] buffer;
+                if (worker instanceof BranchIfNotNodeIDLessEqualThan) {
+                    BranchIfNotNodeIDLessEqualThan check=(BranchIfNotNodeIDLessEqualThan)worker;
+                    if (check.m_notLessProgramCounter!=end)
+                        return null;
+                    buffer=check.m_buffer;
+                    nodeIDLessEqualThanChecks.add(check.m_index1);
+                    nodeIDLessEqualThanChecks.add(check.m_index2);
+                }
+                else if (worker instanceof BranchIfNotNodeIDsAscendingOrEqual) {
+                    BranchIfNotNodeIDsAscendingOrEqual check=(BranchIfNotNodeIDsAscendingOrEqual)worker;
+                    if (check.m_branchProgramCounter!=end)
+                        return null;
+                    buffer=check.m_buffer;
+                    nodeIDsAscendingOrEqualChecks.add(check.m_nodeIndexes);
+                }
+                else
+                    break;
+                if (valuesBuffer!=null && valuesBuffer!=buffer)
+                    return null;
+                valuesBuffer=buffer;
+                programCounter++;
+            }
+            JoinLoop nestedLoop=null;
+            Worker[] headWorkers=new Worker[0];
+            if (programCounter<end && workers[programCounter] instanceof OpenRetrieval) {
+                // The loop of the next atom: open, loopStart: hasMore, <body>, next, jump to loopStart; it must end at end.
+                ExtensionTable.Retrieval nestedRetrieval=((OpenRetrieval)workers[programCounter]).m_retrieval;
+                int loopStart=programCounter+1;
+                if (loopStart>=end || !(workers[loopStart] instanceof HasMoreRetrieval))
+                    return null;
+                HasMoreRetrieval hasMore=(HasMoreRetrieval)workers[loopStart];
+                int afterLoop=hasMore.m_eofProgramCounter;
+                if (hasMore.m_retrieval!=nestedRetrieval || afterLoop!=end || afterLoop-2<=loopStart)
+                    return null;
+                if (!(workers[afterLoop-2] instanceof NextRetrieval) || ((NextRetrieval)workers[afterLoop-2]).m_retrieval!=nestedRetrieval)
+                    return null;
+                if (!(workers[afterLoop-1] instanceof JumpTo) || ((JumpTo)workers[afterLoop-1]).m_jumpTo!=loopStart)
+                    return null;
+                nestedLoop=create(workers,loopStart+1,afterLoop-2,nestedRetrieval,interruptFlag,extensionManager);
+                if (nestedLoop==null)
+                    return null;
+            }
+            else {
+                headWorkers=new Worker[end-programCounter];
+                for (int index=0;index<headWorkers.length;index++) {
+                    Worker worker=workers[programCounter+index];
+                    if (worker instanceof BranchingWorker || worker instanceof OpenRetrieval || worker instanceof NextRetrieval)
+                        return null;
+                    headWorkers[index]=worker;
+                }
+            }
+            return new JoinLoop(interruptFlag,extensionManager,retrieval,retrieval.getTupleBuffer(),toIntArray(equalityChecks),valuesBuffer,toIntArray(copyFromIndexes),toIntArray(copyToIndexes),dependencySets,dependencySetIndex,toIntArray(nodeIDLessEqualThanChecks),nodeIDsAscendingOrEqualChecks.toArray(new int[nodeIDsAscendingOrEqualChecks.size()][]),nestedLoop,headWorkers);
+        }
+        /**
+         * Returns the indexes of the variables that the head workers read, or null if a worker is not known to read
+         * only the variables of the heads; the workers added by the blocking strategy and the monitor may read any
+         * variable, so skipping matches is not possible for them.
+         */
+        protected static Set<Integer> getHeadVariableIndexes(Worker[] headWorkers) {
+            Set<Integer> result=new HashSet<Integer>();
+            for (Worker worker : headWorkers) {
+                if (worker instanceof DeriveUnaryFact)
+                    result.add(((DeriveUnaryFact)worker).m_argumentIndex);
+                else if (worker instanceof DeriveBinaryFact) {
+                    result.add(((DeriveBinaryFact)worker).m_argumentIndex1);
+                    result.add(((DeriveBinaryFact)worker).m_argumentIndex2);
+                }
+                else if (worker instanceof DeriveTernaryFact) {
+                    result.add(((DeriveTernaryFact)worker).m_argumentIndex1);
+                    result.add(((DeriveTernaryFact)worker).m_argumentIndex2);
+                    result.add(((DeriveTernaryFact)worker).m_argumentIndex3);
+                }
+                else if (worker instanceof DeriveDisjunction) {
+                    for (int index : ((DeriveDisjunction)worker).m_copyValuesToArguments)
+                        result.add(index);
+                }
+                else if (!(worker instanceof SetClash))
+                    return null;
+            }
+            return result;
+        }
+        protected static boolean disjoint(Set<Integer> set1,Set<Integer> set2) {
+            for (Integer index : set1)
+                if (set2.contains(index))
+                    return false;
+            return true;
+        }
+        protected static int[] toIntArray(List<Integer> list) {
+            int[] result=new int[list.size()];
+            for (int index=0;index<result.length;index++)
+                result[index]=list.get(index).intValue();
+            return result;
+        }
+    }
+
     protected static final class DLClauseCompiler extends ConjunctionCompiler {
         protected final DLClauseEvaluator m_dlClauseEvalautor;
         protected final GroundDisjunctionHeaderManager m_groundDisjunctionHeaderManager;
@@ -0,0 +1,145 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * A tuple table that stores tuples as object IDs in direct buffers outside the
+ * Java heap; the IDs are assigned by a TupleObjectRegistry. Only the first page
+ * is kept when the table is cleared, so that the (comparatively expensive)
+ * allocation of direct buffers is not repeated for each satisfiability test;
+ * the remaining pages are released when the buffers are garbage collected.
+ */
+public final class DirectTupleTable extends TupleTable {
+    private static final long serialVersionUID=-2904337468702245093L;
+
+    protected final TupleObjectRegistry m_tupleObjectRegistry;
+    protected transient IntBuffer[] m_pages;
+    protected int m_numberOfPages;
+
+    public DirectTupleTable(int arity,TupleObjectRegistry tupleObjectRegistry) {
+        super(arity);
+        m_tupleObjectRegistry=tupleObjectRegistry;
+        clear();
+    }
+    public int sizeInMemory() {
+        return m_pages.length*4+m_numberOfPages*m_arity*PAGE_SIZE*4;
+    }
+    public int addTuple(Object[] tupleBuffer) {
+        int newTupleIndex=m_firstFreeTupleIndex;
+        if (newTupleIndex==m_tupleCapacity) {
+            if (m_numberOfPages==m_pages.length) {
+                IntBuffer[] newPages=new IntBuffer[m_numberOfPages*3/2];
+                System.arraycopy(m_pages,0,newPages,0,m_numberOfPages);
+                m_pages=newPages;
+            }
+            m_pages[m_numberOfPages++]=createPage();
+            m_tupleCapacity+=PAGE_SIZE;
+        }
+        IntBuffer page=m_pages[newTupleIndex / PAGE_SIZE];
+        int targetIndex=(newTupleIndex % PAGE_SIZE)*m_arity;
+        for (int index=0;index<tupleBuffer.length;index++)
+            page.put(targetIndex++,m_tupleObjectRegistry.getObjectID(tupleBuffer[index]));
+        m_firstFreeTupleIndex++;
+        return newTupleIndex;
+    }
+    public boolean tupleEquals(Object[] tupleBuffer,int tupleIndex,int compareLength) {
+        IntBuffer page=m_pages[tupleIndex / PAGE_SIZE];
+        int sourceIndex=compareLength-1;
+        int targetIndex=(tupleIndex % PAGE_SIZE)*m_arity+sourceIndex;
+        while (sourceIndex>=0) {
+            if (!tupleBuffer[sourceIndex].equals(m_tupleObjectRegistry.getObject(page.get(targetIndex))))
+                return false;
+            sourceIndex--;
+            targetIndex--;
+        }
+        return true;
+    }
+    public boolean tupleEquals(Object[] tupleBuffer,int[] positionIndexes,int tupleIndex,int compareLength) {
+        IntBuffer page=m_pages[tupleIndex / PAGE_SIZE];
+        int sourceIndex=compareLength-1;
+        int targetIndex=(tupleIndex % PAGE_SIZE)*m_arity+sourceIndex;
+        while (sourceIndex>=0) {
+            if (!tupleBuffer[positionIndexes[sourceIndex]].equals(m_tupleObjectRegistry.getObject(page.get(targetIndex))))
+                return false;
+            sourceIndex--;
+            targetIndex--;
+        }
+        return true;
+    }
+    public void retrieveTuple(Object[] tupleBuffer,int tupleIndex) {
+        IntBuffer page=m_pages[tupleIndex / PAGE_SIZE];
+        int sourceIndex=(tupleIndex % PAGE_SIZE)*m_arity;
+        for (int index=0;index<tupleBuffer.length;index++)
+            tupleBuffer[index]=m_tupleObjectRegistry.getObject(page.get(sourceIndex++));
+    }
+    public Object getTupleObject(int tupleIndex,int objectIndex) {
+        assert objectIndex < m_arity;
+        return m_tupleObjectRegistry.getObject(m_pages[tupleIndex / PAGE_SIZE].get((tupleIndex % PAGE_SIZE)*m_arity+objectIndex));
+    }
+    public void setTupleObject(int tupleIndex,int objectIndex,Object object) {
+        m_pages[tupleIndex / PAGE_SIZE].put((tupleIndex % PAGE_SIZE)*m_arity+objectIndex,m_tupleObjectRegistry.getObjectID(object));
+    }
+    public void nullifyTuple(int tupleIndex) {
+        IntBuffer page=m_pages[tupleIndex / PAGE_SIZE];
+        int tupleStartIndex=(tupleIndex % PAGE_SIZE)*m_arity;
+        for (int index=0;index<m_arity;index++)
+            page.put(tupleStartIndex+index,-1);
+    }
+    public void clear() {
+        IntBuffer firstPage=(m_pages==null ? createPage() : m_pages[0]);
+        for (int index=firstPage.capacity()-1;index>=0;--index)
+            firstPage.put(index,-1);
+        m_pages=new IntBuffer[10];
+        m_pages[0]=firstPage;
+        m_numberOfPages=1;
+        m_tupleCapacity=m_numberOfPages*PAGE_SIZE;
+        m_firstFreeTupleIndex=0;
+    }
+    protected IntBuffer createPage() {
+        IntBuffer page=ByteBuffer.allocateDirect(m_arity*PAGE_SIZE*4).order(ByteOrder.nativeOrder()).asIntBuffer();
+        for (int index=page.capacity()-1;index>=0;--index)
+            page.put(index,-1);
+        return page;
+    }
+    private void writeObject(ObjectOutputStream outputStream) throws IOException {
+        outputStream.defaultWriteObject();
+        outputStream.writeInt(m_pages.length);
+        for (int pageIndex=0;pageIndex<m_numberOfPages;pageIndex++) {
+            IntBuffer page=m_pages[pageIndex];
+            for (int index=0;index<page.capacity();index++)
+                outputStream.writeInt(page.get(index));
+        }
+    }
+    private void readObject(ObjectInputStream inputStream) throws IOException,ClassNotFoundException {
+        inputStream.defaultReadObject();
+        m_pages=new IntBuffer[inputStream.readInt()];
+        for (int pageIndex=0;pageIndex<m_numberOfPages;pageIndex++) {
+            IntBuffer page=createPage();
+            for (int index=0;index<page.capacity();index++)
+                page.put(index,inputStream.readInt());
+            m_pages[pageIndex]=page;
+        }
+    }
+}
@@ -56,7 +56,7 @@ public final class ExistentialExpansionManager implements Serializable {
     public ExistentialExpansionManager(Tableau tableau) {
         m_tableau=tableau;
         m_extensionManager=m_tableau.m_extensionManager;
-        m_expandedExistentials=new TupleTable(2);
+        m_expandedExistentials=new ObjectTupleTable(2);
         m_auxiliaryTuple=new Object[2];
         m_auxiliaryNodes=new ArrayList<Node>();
         m_ternaryExtensionTableSearch01Bound=m_extensionManager.getTernaryExtensionTable().createRetrieval(new boolean[] { true,true,false },ExtensionTable.View.TOTAL);
@@ -38,9 +38,34 @@ import org.semanticweb.HermiT.monitor.TableauMonitor;
 public final class ExtensionManager implements Serializable {
     private static final long serialVersionUID=5900300914631070591L;
 
+    /**
+     * Determines how the extension tables store their tuples. The type is taken from the tableau parameter
+     * "ExtensionManager.tupleStorageType", which the reasoner sets from Configuration.tupleStorageType; if the parameter
+     * is not set, OBJECT_ARRAYS is used.
+     */
+    public static enum TupleStorageType {
+        /**
+         * Tuples are stored in Object[] pages.
+         */
+        OBJECT_ARRAYS,
+        /**
+         * Tuples are stored in int[] pages that hold the IDs of nodes, predicates and dependency sets; the IDs are
+         * shared by all extension tables and are mapped back to objects by a TupleObjectRegistry.
+         */
+        INT_ARRAYS,
+        /**
+         * Tuples and the trie nodes of the tuple indexes are stored as object IDs in direct buffers outside the Java heap;
+         * only the TupleObjectRegistry and the hash buckets of the indexes remain on the heap. Backtracking still just
+         * truncates the tables.
+         */
+        DIRECT_BUFFERS
+    }
+
     protected final Tableau m_tableau;
     protected final TableauMonitor m_tableauMonitor;
     protected final DependencySetFactory m_dependencySetFactory;
+    protected final TupleStorageType m_tupleStorageType;
+    protected final TupleObjectRegistry m_tupleObjectRegistry;
     protected final Map<Integer,ExtensionTable> m_extensionTablesByArity;
     protected final ExtensionTable[] m_allExtensionTablesArray;
     protected final ExtensionTable m_binaryExtensionTable;
@@ -58,12 +83,18 @@ public final class ExtensionManager implements Serializable {
         m_tableau=tableau;
         m_tableauMonitor=m_tableau.m_tableauMonitor;
         m_dependencySetFactory=m_tableau.m_dependencySetFactory;
+        Object tupleStorageType=m_tableau.getParameters().get("ExtensionManager.tupleStorageType");
+        m_tupleStorageType=(tupleStorageType instanceof TupleStorageType ? (TupleStorageType)tupleStorageType : TupleStorageType.OBJECT_ARRAYS);
+        if (m_tupleStorageType==TupleStorageType.OBJECT_ARRAYS)
+            m_tupleObjectRegistry=null;
+        else
+            m_tupleObjectRegistry=new TupleObjectRegistry();
         m_extensionTablesByArity=new HashMap<Integer,ExtensionTable>();
         m_binaryExtensionTable=
-            new ExtensionTableWithTupleIndexes(m_tableau,2,!m_tableau.isDeterministic(),
+            new ExtensionTableWithTupleIndexes(m_tableau,2,!m_tableau.isDeterministic(),m_tupleStorageType,m_tupleObjectRegistry,
                 new TupleIndex[] {
-                    new TupleIndex(new int[] { 1,0 }),
-                    new TupleIndex(new int[] { 0,1 })
+                    new TupleIndex(new int[] { 1,0 },m_tupleStorageType,m_tupleObjectRegistry),
+                    new TupleIndex(new int[] { 0,1 },m_tupleStorageType,m_tupleObjectRegistry)
                 }
             ) {
                 private static final long serialVersionUID=1462821385000191875L;
@@ -77,11 +108,11 @@ public final class ExtensionManager implements Serializable {
             };
         m_extensionTablesByArity.put(new Integer(2),m_binaryExtensionTable);
         m_ternaryExtensionTable=
-            new ExtensionTableWithTupleIndexes(m_tableau,3,!m_tableau.isDeterministic(),
+            new ExtensionTableWithTupleIndexes(m_tableau,3,!m_tableau.isDeterministic(),m_tupleStorageType,m_tupleObjectRegistry,
                 new TupleIndex[] {
-                    new TupleIndex(new int[] { 0,1,2 }),
-                    new TupleIndex(new int[] { 1,2,0 }),
-                    new TupleIndex(new int[] { 2,0,1 })
+                    new TupleIndex(new int[] { 0,1,2 },m_tupleStorageType,m_tupleObjectRegistry),
+                    new TupleIndex(new int[] { 1,2,0 },m_tupleStorageType,m_tupleObjectRegistry),
+                    new TupleIndex(new int[] { 2,0,1 },m_tupleStorageType,m_tupleObjectRegistry)
                 }
             ) {
                 private static final long serialVersionUID=-731201626401421877L;
@@ -98,7 +129,7 @@ public final class ExtensionManager implements Serializable {
         for (DescriptionGraph descriptionGraph : m_tableau.m_permanentDLOntology.getAllDescriptionGraphs()) {
             Integer arityInteger=Integer.valueOf(descriptionGraph.getNumberOfVertices()+1);
             if (!m_extensionTablesByArity.containsKey(arityInteger))
-                m_extensionTablesByArity.put(arityInteger,new ExtensionTableWithFullIndex(m_tableau,descriptionGraph.getNumberOfVertices()+1,!m_tableau.isDeterministic()));
+                m_extensionTablesByArity.put(arityInteger,new ExtensionTableWithFullIndex(m_tableau,descriptionGraph.getNumberOfVertices()+1,!m_tableau.isDeterministic(),m_tupleStorageType,m_tupleObjectRegistry));
         }
         m_allExtensionTablesArray=new ExtensionTable[m_extensionTablesByArity.size()];
         m_extensionTablesByArity.values().toArray(m_allExtensionTablesArray);
@@ -112,6 +143,8 @@ public final class ExtensionManager implements Serializable {
     public void clear() {
         for (int index=m_allExtensionTablesArray.length-1;index>=0;--index)
             m_allExtensionTablesArray[index].clear();
+        if (m_tupleObjectRegistry!=null)
+            m_tupleObjectRegistry.clear();
         m_clashDependencySet=null;
         m_binaryAuxiliaryTupleContains[0]=null;
         m_binaryAuxiliaryTupleContains[1]=null;
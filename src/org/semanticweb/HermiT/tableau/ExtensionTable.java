@@ -58,10 +58,27 @@ public abstract class ExtensionTable implements Serializable {
     protected int[] m_indicesByBranchingPoint;
 
     public ExtensionTable(Tableau tableau,int tupleArity,boolean needsDependencySets) {
+        this(tableau,tupleArity,needsDependencySets,ExtensionManager.TupleStorageType.OBJECT_ARRAYS,null);
+    }
+    /**
+     * For the storage types other than OBJECT_ARRAYS, the tuples are stored as the IDs from the given registry.
+     */
+    public ExtensionTable(Tableau tableau,int tupleArity,boolean needsDependencySets,ExtensionManager.TupleStorageType tupleStorageType,TupleObjectRegistry tupleObjectRegistry) {
         m_tableau=tableau;
         m_tableauMonitor=m_tableau.m_tableauMonitor;
         m_tupleArity=tupleArity;
-        m_tupleTable=new TupleTable(m_tupleArity+(needsDependencySets ? 1 : 0));
+        int tupleTableArity=m_tupleArity+(needsDependencySets ? 1 : 0);
+        switch (tupleStorageType) {
+        case INT_ARRAYS:
+            m_tupleTable=new IntTupleTable(tupleTableArity,tupleObjectRegistry);
+            break;
+        case DIRECT_BUFFERS:
+            m_tupleTable=new DirectTupleTable(tupleTableArity,tupleObjectRegistry);
+            break;
+        default:
+            m_tupleTable=new ObjectTupleTable(tupleTableArity);
+            break;
+        }
         m_dependencySetManager=needsDependencySets ? new LastObjectDependencySetManager(this) : new DeterministicDependencySetManager(this);
         if (m_tupleArity==2)
             m_coreManager=new RealCoreManager();
@@ -311,6 +328,15 @@ public abstract class ExtensionTable implements Serializable {
                 }
             }
         }
+        /**
+         * Positions the retrieval on the tuple with the given index, which must have been obtained from getCurrentTupleIndex()
+         * since the last open(). Returns true if the tuple is still active.
+         */
+        public boolean moveTo(int tupleIndex) {
+            m_currentTupleIndex=tupleIndex;
+            m_tupleTable.retrieveTuple(m_tupleBuffer,m_currentTupleIndex);
+            return isTupleActive();
+        }
         protected boolean isTupleActive() {
             if (!ExtensionTable.this.isTupleActive(m_tupleBuffer))
                 return false;
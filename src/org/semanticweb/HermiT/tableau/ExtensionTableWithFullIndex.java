@@ -36,7 +36,10 @@ public class ExtensionTableWithFullIndex extends ExtensionTable {
     protected final Object[] m_auxiliaryTuple;
 
     public ExtensionTableWithFullIndex(Tableau tableau,int tupleArity,boolean needsDependencySets) {
-        super(tableau,tupleArity,needsDependencySets);
+        this(tableau,tupleArity,needsDependencySets,ExtensionManager.TupleStorageType.OBJECT_ARRAYS,null);
+    }
+    public ExtensionTableWithFullIndex(Tableau tableau,int tupleArity,boolean needsDependencySets,ExtensionManager.TupleStorageType tupleStorageType,TupleObjectRegistry tupleObjectRegistry) {
+        super(tableau,tupleArity,needsDependencySets,tupleStorageType,tupleObjectRegistry);
         m_tupleTableFullIndex=new TupleTableFullIndex(m_tupleTable,m_tupleArity);
         m_auxiliaryTuple=new Object[m_tupleArity];
     }
@@ -36,7 +36,10 @@ public class ExtensionTableWithTupleIndexes extends ExtensionTable {
     protected final Object[] m_auxiliaryTuple;
 
     public ExtensionTableWithTupleIndexes(Tableau tableau,int tupleArity,boolean needsDependencySets,TupleIndex[] tupleIndexes) {
-        super(tableau,tupleArity,needsDependencySets);
+        this(tableau,tupleArity,needsDependencySets,ExtensionManager.TupleStorageType.OBJECT_ARRAYS,null,tupleIndexes);
+    }
+    public ExtensionTableWithTupleIndexes(Tableau tableau,int tupleArity,boolean needsDependencySets,ExtensionManager.TupleStorageType tupleStorageType,TupleObjectRegistry tupleObjectRegistry,TupleIndex[] tupleIndexes) {
+        super(tableau,tupleArity,needsDependencySets,tupleStorageType,tupleObjectRegistry);
         m_tupleIndexes=tupleIndexes;
         m_auxiliaryTuple=new Object[m_tupleArity];
     }
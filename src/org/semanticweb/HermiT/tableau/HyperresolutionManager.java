@@ -35,6 +35,7 @@ import org.semanticweb.HermiT.model.NodeIDLessEqualThan;
 import org.semanticweb.HermiT.model.NodeIDsAscendingOrEqual;
 import org.semanticweb.HermiT.model.Term;
 import org.semanticweb.HermiT.model.Variable;
+import org.semanticweb.HermiT.monitor.TableauMonitor;
 
 /**
  * Applies the rules during the expansion of a tableau.
@@ -53,6 +54,10 @@ public final class HyperresolutionManager implements Serializable {
     protected final UnionDependencySet[] m_unionDependencySetsToClear;
     protected final Object[] m_valuesBuffer;
     protected final int m_maxNumberOfVariables;
+    protected final Map<DLPredicate,DeltaBatch> m_deltaBatchesByPredicate;
+    protected final List<DeltaBatch> m_nonemptyDeltaBatches;
+    protected final TableauMonitor m_tableauMonitor;
+    protected final boolean m_batchDeltaTuples;
 
     public HyperresolutionManager(Tableau tableau,Set<DLClause> dlClauses) {
         InterruptFlag interruptFlag=tableau.m_interruptFlag;
@@ -84,7 +89,7 @@ public final class HyperresolutionManager implements Serializable {
         ArrayList<Atom> guardingAtomicConceptAtoms2=new ArrayList<Atom>();
         for (Map.Entry<DLClauseBodyKey,List<DLClause>> entry : dlClausesByBody.entrySet()) {
             DLClause bodyDLClause=entry.getKey().m_dlClause;
-            BodyAtomsSwapper bodyAtomsSwapper=new BodyAtomsSwapper(bodyDLClause);
+            BodyAtomsSwapper bodyAtomsSwapper=new BodyAtomsSwapper(bodyDLClause,tableau.m_joinStatistics);
             for (int bodyAtomIndex=0;bodyAtomIndex<bodyDLClause.getBodyLength();++bodyAtomIndex)
                 if (isPredicateWithExtension(bodyDLClause.getBodyAtom(bodyAtomIndex).getDLPredicate())) {
                     DLClause swappedDLClause=bodyAtomsSwapper.getSwappedDLClause(bodyAtomIndex);
@@ -144,6 +149,18 @@ public final class HyperresolutionManager implements Serializable {
         unionDependencySetsBySize.values().toArray(m_unionDependencySetsToClear);
         m_valuesBuffer=valuesBufferManager.m_valuesBuffer;
         m_maxNumberOfVariables=valuesBufferManager.m_maxNumberOfVariables;
+        m_deltaBatchesByPredicate=new HashMap<DLPredicate,DeltaBatch>();
+        for (Map.Entry<DLPredicate,CompiledDLClauseInfo> entry : m_tupleConsumersByDeltaPredicate.entrySet()) {
+            DLPredicate deltaDLPredicate=entry.getKey();
+            m_deltaBatchesByPredicate.put(deltaDLPredicate,new DeltaBatch(deltaDLPredicate,entry.getValue(),m_atomicRoleTupleConsumersUnguarded.get(deltaDLPredicate),m_atomicRoleTupleConsumersByGuardConcept1.get(deltaDLPredicate),m_atomicRoleTupleConsumersByGuardConcept2.get(deltaDLPredicate)));
+        }
+        m_nonemptyDeltaBatches=new ArrayList<DeltaBatch>();
+        m_tableauMonitor=tableau.m_tableauMonitor;
+        boolean batchDeltaTuples=(tableau.m_parameters!=null && Boolean.TRUE.equals(tableau.m_parameters.get("HyperresolutionManager.batchDeltaTuples")));
+        for (ExtensionTable.Retrieval deltaOldRetrieval : m_deltaOldRetrievals)
+            if (!(deltaOldRetrieval instanceof ExtensionTable.UnindexedRetrieval))
+                batchDeltaTuples=false;
+        m_batchDeltaTuples=batchDeltaTuples;
     }
     protected void getAtomicRoleClauseGuards(DLClause swappedDLClause,List<Atom> guardingAtomicConceptAtoms1,List<Atom> guardingAtomicConceptAtoms2) {
         guardingAtomicConceptAtoms1.clear();
@@ -186,70 +203,99 @@ public final class HyperresolutionManager implements Serializable {
             m_valuesBuffer[variableIndex]=null;
     }
     public void applyDLClauses() {
+        if (m_batchDeltaTuples) {
+            applyDLClausesInBatches();
+            return;
+        }
         for (int index=0;index<m_deltaOldRetrievals.length;index++) {
             ExtensionTable.Retrieval deltaOldRetrieval=m_deltaOldRetrievals[index];
             deltaOldRetrieval.open();
             Object[] deltaOldTupleBuffer=deltaOldRetrieval.getTupleBuffer();
             while (!deltaOldRetrieval.afterLast() && !m_extensionManager.containsClash()) {
+                DeltaBatch deltaBatch=m_deltaBatchesByPredicate.get(deltaOldTupleBuffer[0]);
+                if (deltaBatch!=null)
+                    applyDLClauses(deltaOldTupleBuffer,deltaBatch);
+                deltaOldRetrieval.next();
+            }
+        }
+    }
+    /**
+     * Groups the tuples in the delta-old views by predicate and then dispatches each group to the DL-clauses of its
+     * predicate. Thus, the consumers of a predicate are looked up once per group rather than once per tuple, and the
+     * evaluators of one predicate are run consecutively.
+     */
+    protected void applyDLClausesInBatches() {
+        for (int index=0;index<m_deltaOldRetrievals.length && !m_extensionManager.containsClash();index++) {
+            ExtensionTable.UnindexedRetrieval deltaOldRetrieval=(ExtensionTable.UnindexedRetrieval)m_deltaOldRetrievals[index];
+            deltaOldRetrieval.open();
+            Object[] deltaOldTupleBuffer=deltaOldRetrieval.getTupleBuffer();
+            Object lastDeltaOldPredicate=null;
+            DeltaBatch lastDeltaBatch=null;
+            while (!deltaOldRetrieval.afterLast()) {
                 Object deltaOldPredicate=deltaOldTupleBuffer[0];
-                CompiledDLClauseInfo unoptimizedCompiledDLClauseInfo=m_tupleConsumersByDeltaPredicate.get(deltaOldPredicate);
-                boolean applyUnoptimized=true;
-                if (unoptimizedCompiledDLClauseInfo!=null && deltaOldTupleBuffer[0] instanceof AtomicRole) {
-                    CompiledDLClauseInfo unguardedCompiledDLClauseInfo=m_atomicRoleTupleConsumersUnguarded.get(deltaOldPredicate);
-                    if (unoptimizedCompiledDLClauseInfo.m_indexInList>((Node)deltaOldTupleBuffer[1]).getNumberOfPositiveAtomicConcepts()+((Node)deltaOldTupleBuffer[2]).getNumberOfPositiveAtomicConcepts()+(unguardedCompiledDLClauseInfo==null ? 0 : unguardedCompiledDLClauseInfo.m_indexInList)) {
-                        applyUnoptimized=false;
-                        while (unguardedCompiledDLClauseInfo!=null && !m_extensionManager.containsClash()) {
-                            unguardedCompiledDLClauseInfo.m_evaluator.evaluate();
-                            unguardedCompiledDLClauseInfo=unguardedCompiledDLClauseInfo.m_next;
-                        }
-                        if (!m_extensionManager.containsClash()) {
-                            Map<AtomicConcept,CompiledDLClauseInfo> compiledDLClauseInfos=m_atomicRoleTupleConsumersByGuardConcept1.get(deltaOldPredicate);
-                            if (compiledDLClauseInfos!=null) {
-                                m_binaryTableRetrieval.getBindingsBuffer()[1]=deltaOldTupleBuffer[1];
-                                m_binaryTableRetrieval.open();
-                                Object[] binaryTableTupleBuffer=m_binaryTableRetrieval.getTupleBuffer();
-                                while (!m_binaryTableRetrieval.afterLast() && !m_extensionManager.containsClash()) {
-                                    Object atomicConceptObject=binaryTableTupleBuffer[0];
-                                    if (atomicConceptObject instanceof AtomicConcept) {
-                                        CompiledDLClauseInfo optimizedCompiledDLClauseInfo=compiledDLClauseInfos.get(atomicConceptObject);
-                                        while (optimizedCompiledDLClauseInfo!=null && !m_extensionManager.containsClash()) {
-                                            optimizedCompiledDLClauseInfo.m_evaluator.evaluate();
-                                            optimizedCompiledDLClauseInfo=optimizedCompiledDLClauseInfo.m_next;
-                                        }
-                                    }
-                                    m_binaryTableRetrieval.next();
-                                }
-                            }
-                        }
-                        if (!m_extensionManager.containsClash()) {
-                            Map<AtomicConcept,CompiledDLClauseInfo> compiledDLClauseInfos=m_atomicRoleTupleConsumersByGuardConcept2.get(deltaOldPredicate);
-                            if (compiledDLClauseInfos!=null) {
-                                m_binaryTableRetrieval.getBindingsBuffer()[1]=deltaOldTupleBuffer[2];
-                                m_binaryTableRetrieval.open();
-                                Object[] binaryTableTupleBuffer=m_binaryTableRetrieval.getTupleBuffer();
-                                while (!m_binaryTableRetrieval.afterLast() && !m_extensionManager.containsClash()) {
-                                    Object atomicConceptObject=binaryTableTupleBuffer[0];
-                                    if (atomicConceptObject instanceof AtomicConcept) {
-                                        CompiledDLClauseInfo optimizedCompiledDLClauseInfo=compiledDLClauseInfos.get(atomicConceptObject);
-                                        while (optimizedCompiledDLClauseInfo!=null && !m_extensionManager.containsClash()) {
-                                            optimizedCompiledDLClauseInfo.m_evaluator.evaluate();
-                                            optimizedCompiledDLClauseInfo=optimizedCompiledDLClauseInfo.m_next;
-                                        }
-                                    }
-                                    m_binaryTableRetrieval.next();
-                                }
-                            }
-                        }
-                    }
+                if (deltaOldPredicate!=lastDeltaOldPredicate) {
+                    lastDeltaOldPredicate=deltaOldPredicate;
+                    lastDeltaBatch=m_deltaBatchesByPredicate.get(deltaOldPredicate);
                 }
-                if (applyUnoptimized) {
-                    while (unoptimizedCompiledDLClauseInfo!=null && !m_extensionManager.containsClash()) {
-                        unoptimizedCompiledDLClauseInfo.m_evaluator.evaluate();
-                        unoptimizedCompiledDLClauseInfo=unoptimizedCompiledDLClauseInfo.m_next;
-                    }
+                if (lastDeltaBatch!=null) {
+                    if (lastDeltaBatch.m_size==0)
+                        m_nonemptyDeltaBatches.add(lastDeltaBatch);
+                    lastDeltaBatch.add(deltaOldRetrieval.getCurrentTupleIndex());
                 }
                 deltaOldRetrieval.next();
             }
+            for (int batchIndex=0;batchIndex<m_nonemptyDeltaBatches.size();batchIndex++) {
+                DeltaBatch deltaBatch=m_nonemptyDeltaBatches.get(batchIndex);
+                if (!m_extensionManager.containsClash()) {
+                    if (m_tableauMonitor!=null)
+                        m_tableauMonitor.deltaBatchProcessed(deltaBatch.m_deltaDLPredicate,deltaBatch.m_size);
+                    for (int tupleIndex=0;tupleIndex<deltaBatch.m_size && !m_extensionManager.containsClash();tupleIndex++)
+                        if (deltaOldRetrieval.moveTo(deltaBatch.m_tupleIndexes[tupleIndex]))
+                            applyDLClauses(deltaOldTupleBuffer,deltaBatch);
+                }
+                deltaBatch.m_size=0;
+            }
+            m_nonemptyDeltaBatches.clear();
+        }
+    }
+    protected void applyDLClauses(Object[] deltaOldTupleBuffer,DeltaBatch deltaBatch) {
+        CompiledDLClauseInfo unoptimizedCompiledDLClauseInfo=deltaBatch.m_unoptimized;
+        boolean applyUnoptimized=true;
+        if (deltaBatch.m_isAtomicRole) {
+            CompiledDLClauseInfo unguardedCompiledDLClauseInfo=deltaBatch.m_unguarded;
+            if (unoptimizedCompiledDLClauseInfo.m_indexInList>((Node)deltaOldTupleBuffer[1]).getNumberOfPositiveAtomicConcepts()+((Node)deltaOldTupleBuffer[2]).getNumberOfPositiveAtomicConcepts()+(unguardedCompiledDLClauseInfo==null ? 0 : unguardedCompiledDLClauseInfo.m_indexInList)) {
+                applyUnoptimized=false;
+                while (unguardedCompiledDLClauseInfo!=null && !m_extensionManager.containsClash()) {
+                    unguardedCompiledDLClauseInfo.m_evaluator.evaluate();
+                    unguardedCompiledDLClauseInfo=unguardedCompiledDLClauseInfo.m_next;
+                }
+                if (!m_extensionManager.containsClash() && deltaBatch.m_byGuardConcept1!=null)
+                    applyGuardedDLClauses(deltaOldTupleBuffer[1],deltaBatch.m_byGuardConcept1);
+                if (!m_extensionManager.containsClash() && deltaBatch.m_byGuardConcept2!=null)
+                    applyGuardedDLClauses(deltaOldTupleBuffer[2],deltaBatch.m_byGuardConcept2);
+            }
+        }
+        if (applyUnoptimized) {
+            while (unoptimizedCompiledDLClauseInfo!=null && !m_extensionManager.containsClash()) {
+                unoptimizedCompiledDLClauseInfo.m_evaluator.evaluate();
+                unoptimizedCompiledDLClauseInfo=unoptimizedCompiledDLClauseInfo.m_next;
+            }
+        }
+    }
+    protected void applyGuardedDLClauses(Object node,Map<AtomicConcept,CompiledDLClauseInfo> compiledDLClauseInfos) {
+        m_binaryTableRetrieval.getBindingsBuffer()[1]=node;
+        m_binaryTableRetrieval.open();
+        Object[] binaryTableTupleBuffer=m_binaryTableRetrieval.getTupleBuffer();
+        while (!m_binaryTableRetrieval.afterLast() && !m_extensionManager.containsClash()) {
+            Object atomicConceptObject=binaryTableTupleBuffer[0];
+            if (atomicConceptObject instanceof AtomicConcept) {
+                CompiledDLClauseInfo optimizedCompiledDLClauseInfo=compiledDLClauseInfos.get(atomicConceptObject);
+                while (optimizedCompiledDLClauseInfo!=null && !m_extensionManager.containsClash()) {
+                    optimizedCompiledDLClauseInfo.m_evaluator.evaluate();
+                    optimizedCompiledDLClauseInfo=optimizedCompiledDLClauseInfo.m_next;
+                }
+            }
+            m_binaryTableRetrieval.next();
         }
     }
 
@@ -268,15 +314,57 @@ public final class HyperresolutionManager implements Serializable {
         }
     }
 
+    /**
+     * All consumers of the delta tuples of one predicate, together with the indexes of the delta tuples of that
+     * predicate that are waiting to be dispatched.
+     */
+    protected static final class DeltaBatch {
+        protected final DLPredicate m_deltaDLPredicate;
+        protected final boolean m_isAtomicRole;
+        protected final CompiledDLClauseInfo m_unoptimized;
+        protected final CompiledDLClauseInfo m_unguarded;
+        protected final Map<AtomicConcept,CompiledDLClauseInfo> m_byGuardConcept1;
+        protected final Map<AtomicConcept,CompiledDLClauseInfo> m_byGuardConcept2;
+        protected int[] m_tupleIndexes;
+        protected int m_size;
+
+        public DeltaBatch(DLPredicate deltaDLPredicate,CompiledDLClauseInfo unoptimized,CompiledDLClauseInfo unguarded,Map<AtomicConcept,CompiledDLClauseInfo> byGuardConcept1,Map<AtomicConcept,CompiledDLClauseInfo> byGuardConcept2) {
+            m_deltaDLPredicate=deltaDLPredicate;
+            m_isAtomicRole=(deltaDLPredicate instanceof AtomicRole);
+            m_unoptimized=unoptimized;
+            m_unguarded=unguarded;
+            m_byGuardConcept1=byGuardConcept1;
+            m_byGuardConcept2=byGuardConcept2;
+            m_tupleIndexes=new int[16];
+        }
+        public void add(int tupleIndex) {
+            if (m_size==m_tupleIndexes.length) {
+                int[] newTupleIndexes=new int[m_tupleIndexes.length*2];
+                System.arraycopy(m_tupleIndexes,0,newTupleIndexes,0,m_size);
+                m_tupleIndexes=newTupleIndexes;
+            }
+            m_tupleIndexes[m_size++]=tupleIndex;
+        }
+    }
+
     public static final class BodyAtomsSwapper {
         protected final DLClause m_dlClause;
         protected final List<Atom> m_nodeIDComparisonAtoms;
         protected final boolean[] m_usedAtoms;
         protected final List<Atom> m_reorderedAtoms;
         protected final Set<Variable> m_boundVariables;
+        protected final JoinStatistics m_joinStatistics;
 
         public BodyAtomsSwapper(DLClause dlClause) {
+            this(dlClause,null);
+        }
+        /**
+         * If join statistics are given, the atoms with an extension are ordered such that the atom with the smallest
+         * estimated number of matches comes next; otherwise, the atoms are ordered by a fixed heuristic.
+         */
+        public BodyAtomsSwapper(DLClause dlClause,JoinStatistics joinStatistics) {
             m_dlClause=dlClause;
+            m_joinStatistics=(joinStatistics==null || joinStatistics.isEmpty() ? null : joinStatistics);
             m_nodeIDComparisonAtoms=new ArrayList<Atom>(m_dlClause.getBodyLength());
             m_usedAtoms=new boolean[m_dlClause.getBodyLength()];
             m_reorderedAtoms=new ArrayList<Atom>(m_dlClause.getBodyLength());
@@ -300,14 +388,28 @@ public final class HyperresolutionManager implements Serializable {
                 Atom bestAtom=null;
                 int bestAtomIndex=-1;
                 int bestAtomGoodness=-1000;
+                double bestAtomCost=Double.MAX_VALUE;
                 for (int index=m_usedAtoms.length-1;index>=0;--index)
                     if (!m_usedAtoms[index]) {
                         atom=m_dlClause.getBodyAtom(index);
                         int atomGoodness=getAtomGoodness(atom);
-                        if (atomGoodness>bestAtomGoodness) {
-                            bestAtom=atom;
-                            bestAtomGoodness=atomGoodness;
-                            bestAtomIndex=index;
+                        if (m_joinStatistics==null) {
+                            if (atomGoodness>bestAtomGoodness) {
+                                bestAtom=atom;
+                                bestAtomGoodness=atomGoodness;
+                                bestAtomIndex=index;
+                            }
+                        }
+                        else if (atomGoodness>-1000) {
+                            // Node ID comparisons are checked as soon as their variables are bound; among the
+                            // atoms with an extension, the one with the fewest estimated matches is taken.
+                            double atomCost=(isNodeIDComparison(atom) ? -1.0 : m_joinStatistics.getEstimatedNumberOfMatches(atom,m_boundVariables));
+                            if (atomCost<bestAtomCost || (atomCost==bestAtomCost && atomGoodness>bestAtomGoodness)) {
+                                bestAtom=atom;
+                                bestAtomGoodness=atomGoodness;
+                                bestAtomCost=atomCost;
+                                bestAtomIndex=index;
+                            }
                         }
                     }
                 m_reorderedAtoms.add(bestAtom);
@@ -318,6 +420,9 @@ public final class HyperresolutionManager implements Serializable {
             Atom[] bodyAtoms=new Atom[m_reorderedAtoms.size()];
             m_reorderedAtoms.toArray(bodyAtoms);
             return m_dlClause.getChangedDLClause(null,bodyAtoms);
+        }
+        protected boolean isNodeIDComparison(Atom atom) {
+            return NodeIDLessEqualThan.INSTANCE.equals(atom.getDLPredicate()) || atom.getDLPredicate() instanceof NodeIDsAscendingOrEqual;
         }
         protected int getAtomGoodness(Atom atom) {
             if (NodeIDLessEqualThan.INSTANCE.equals(atom.getDLPredicate())) {
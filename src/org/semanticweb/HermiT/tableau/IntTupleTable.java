@@ -0,0 +1,131 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A tuple table that stores tuples as int[] pages of object IDs. The IDs are
+ * assigned by a TupleObjectRegistry, which is usually shared by all tables of
+ * an ExtensionManager. Compared to ObjectTupleTable, the pages contain no
+ * references, so adding tuples does not incur GC write barriers and the garbage
+ * collector does not need to scan the pages.
+ */
+public final class IntTupleTable extends TupleTable {
+    private static final long serialVersionUID=3087286283735380527L;
+
+    protected final TupleObjectRegistry m_tupleObjectRegistry;
+    protected Page[] m_pages;
+    protected int m_numberOfPages;
+
+    public IntTupleTable(int arity,TupleObjectRegistry tupleObjectRegistry) {
+        super(arity);
+        m_tupleObjectRegistry=tupleObjectRegistry;
+        clear();
+    }
+    public int sizeInMemory() {
+        int size=m_pages.length*4;
+        for (int i=m_pages.length-1;i>=0;--i)
+            if (m_pages[i]!=null)
+                size+=m_pages[i].sizeInMemory();
+        return size;
+    }
+    public int addTuple(Object[] tupleBuffer) {
+        int newTupleIndex=m_firstFreeTupleIndex;
+        if (newTupleIndex==m_tupleCapacity) {
+            if (m_numberOfPages==m_pages.length) {
+                Page[] newPages=new Page[m_numberOfPages*3/2];
+                System.arraycopy(m_pages,0,newPages,0,m_numberOfPages);
+                m_pages=newPages;
+            }
+            m_pages[m_numberOfPages++]=new Page(m_arity);
+            m_tupleCapacity+=PAGE_SIZE;
+        }
+        int[] objectIDs=m_pages[newTupleIndex / PAGE_SIZE].m_objectIDs;
+        int targetIndex=(newTupleIndex % PAGE_SIZE)*m_arity;
+        for (int index=0;index<tupleBuffer.length;index++)
+            objectIDs[targetIndex++]=m_tupleObjectRegistry.getObjectID(tupleBuffer[index]);
+        m_firstFreeTupleIndex++;
+        return newTupleIndex;
+    }
+    public boolean tupleEquals(Object[] tupleBuffer,int tupleIndex,int compareLength) {
+        int[] objectIDs=m_pages[tupleIndex / PAGE_SIZE].m_objectIDs;
+        int sourceIndex=compareLength-1;
+        int targetIndex=(tupleIndex % PAGE_SIZE)*m_arity+sourceIndex;
+        while (sourceIndex>=0) {
+            if (!tupleBuffer[sourceIndex].equals(m_tupleObjectRegistry.getObject(objectIDs[targetIndex])))
+                return false;
+            sourceIndex--;
+            targetIndex--;
+        }
+        return true;
+    }
+    public boolean tupleEquals(Object[] tupleBuffer,int[] positionIndexes,int tupleIndex,int compareLength) {
+        int[] objectIDs=m_pages[tupleIndex / PAGE_SIZE].m_objectIDs;
+        int sourceIndex=compareLength-1;
+        int targetIndex=(tupleIndex % PAGE_SIZE)*m_arity+sourceIndex;
+        while (sourceIndex>=0) {
+            if (!tupleBuffer[positionIndexes[sourceIndex]].equals(m_tupleObjectRegistry.getObject(objectIDs[targetIndex])))
+                return false;
+            sourceIndex--;
+            targetIndex--;
+        }
+        return true;
+    }
+    public void retrieveTuple(Object[] tupleBuffer,int tupleIndex) {
+        int[] objectIDs=m_pages[tupleIndex / PAGE_SIZE].m_objectIDs;
+        int sourceIndex=(tupleIndex % PAGE_SIZE)*m_arity;
+        for (int index=0;index<tupleBuffer.length;index++)
+            tupleBuffer[index]=m_tupleObjectRegistry.getObject(objectIDs[sourceIndex++]);
+    }
+    public Object getTupleObject(int tupleIndex,int objectIndex) {
+        assert objectIndex < m_arity;
+        return m_tupleObjectRegistry.getObject(m_pages[tupleIndex / PAGE_SIZE].m_objectIDs[(tupleIndex % PAGE_SIZE)*m_arity+objectIndex]);
+    }
+    public void setTupleObject(int tupleIndex,int objectIndex,Object object) {
+        m_pages[tupleIndex / PAGE_SIZE].m_objectIDs[(tupleIndex % PAGE_SIZE)*m_arity+objectIndex]=m_tupleObjectRegistry.getObjectID(object);
+    }
+    public void nullifyTuple(int tupleIndex) {
+        int[] objectIDs=m_pages[tupleIndex / PAGE_SIZE].m_objectIDs;
+        int tupleStartIndex=(tupleIndex % PAGE_SIZE)*m_arity;
+        for (int index=0;index<m_arity;index++)
+            objectIDs[tupleStartIndex+index]=-1;
+    }
+    public void clear() {
+        m_pages=new Page[10];
+        m_numberOfPages=1;
+        m_pages[0]=new Page(m_arity);
+        m_tupleCapacity=m_numberOfPages*PAGE_SIZE;
+        m_firstFreeTupleIndex=0;
+    }
+
+    protected final static class Page implements Serializable {
+        private static final long serialVersionUID=-6417553398215207312L;
+
+        public final int[] m_objectIDs;
+
+        public Page(int arity) {
+            m_objectIDs=new int[arity*PAGE_SIZE];
+            Arrays.fill(m_objectIDs,-1);
+        }
+        public int sizeInMemory() {
+            return m_objectIDs.length*4;
+        }
+    }
+}
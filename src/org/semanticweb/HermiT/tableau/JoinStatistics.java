@@ -0,0 +1,135 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.DLPredicate;
+import org.semanticweb.HermiT.model.Term;
+import org.semanticweb.HermiT.model.Variable;
+
+/**
+ * Cardinality statistics of the extension tables that are used to order the body atoms of DL-clauses. For each
+ * predicate, the statistics record the number of tuples and the number of distinct nodes at each argument position.
+ * The statistics are collected from the model of the last test whenever the number of tuples in the extension tables
+ * has at least doubled since the last collection, so they are collected only a logarithmic number of times.
+ */
+public class JoinStatistics implements Serializable {
+    private static final long serialVersionUID=-3128454632404651094L;
+
+    /** Models with fewer tuples are not used for collecting statistics since the join order hardly matters for them. */
+    public static final int MINIMAL_NUMBER_OF_TUPLES=1000;
+
+    protected final Map<DLPredicate,PredicateStatistics> m_statisticsByPredicate;
+    protected int m_numberOfTuples;
+    protected int m_numberOfCollections;
+
+    public JoinStatistics() {
+        m_statisticsByPredicate=new HashMap<DLPredicate,PredicateStatistics>();
+    }
+    public int getNumberOfCollections() {
+        return m_numberOfCollections;
+    }
+    public boolean isEmpty() {
+        return m_numberOfCollections==0;
+    }
+    /**
+     * Collects the statistics from the given extension manager if its tables contain enough tuples. Returns true if the
+     * statistics have been collected.
+     */
+    public boolean collectIfGrown(ExtensionManager extensionManager) {
+        int numberOfTuples=0;
+        for (ExtensionTable extensionTable : extensionManager.m_allExtensionTablesArray)
+            numberOfTuples+=extensionTable.m_afterDeltaNewTupleIndex;
+        if (numberOfTuples<MINIMAL_NUMBER_OF_TUPLES || numberOfTuples<2*m_numberOfTuples)
+            return false;
+        m_statisticsByPredicate.clear();
+        Map<DLPredicate,Set<Object>[]> distinctNodes=new HashMap<DLPredicate,Set<Object>[]>();
+        for (ExtensionTable extensionTable : extensionManager.m_allExtensionTablesArray) {
+            ExtensionTable.Retrieval retrieval=extensionTable.createRetrieval(new boolean[extensionTable.getArity()],ExtensionTable.View.TOTAL);
+            Object[] tupleBuffer=retrieval.getTupleBuffer();
+            retrieval.open();
+            while (!retrieval.afterLast()) {
+                if (tupleBuffer[0] instanceof DLPredicate) {
+                    DLPredicate dlPredicate=(DLPredicate)tupleBuffer[0];
+                    PredicateStatistics statistics=m_statisticsByPredicate.get(dlPredicate);
+                    Set<Object>[] nodes=distinctNodes.get(dlPredicate);
+                    if (statistics==null) {
+                        statistics=new PredicateStatistics(tupleBuffer.length-1);
+                        m_statisticsByPredicate.put(dlPredicate,statistics);
+                        nodes=createSets(tupleBuffer.length-1);
+                        distinctNodes.put(dlPredicate,nodes);
+                    }
+                    statistics.m_numberOfTuples++;
+                    for (int argumentIndex=0;argumentIndex<nodes.length;argumentIndex++)
+                        nodes[argumentIndex].add(tupleBuffer[argumentIndex+1]);
+                }
+                retrieval.next();
+            }
+            retrieval.clear();
+        }
+        for (Map.Entry<DLPredicate,Set<Object>[]> entry : distinctNodes.entrySet()) {
+            PredicateStatistics statistics=m_statisticsByPredicate.get(entry.getKey());
+            for (int argumentIndex=0;argumentIndex<entry.getValue().length;argumentIndex++)
+                statistics.m_numberOfDistinctNodes[argumentIndex]=entry.getValue()[argumentIndex].size();
+        }
+        m_numberOfTuples=numberOfTuples;
+        m_numberOfCollections++;
+        return true;
+    }
+    /**
+     * Estimates the number of tuples that match the given atom if the given variables are bound. The estimate assumes
+     * that the argument positions are independent; predicates that have not been observed are assumed to have one
+     * tuple, since they may occur in later tests.
+     */
+    public double getEstimatedNumberOfMatches(Atom atom,Set<Variable> boundVariables) {
+        PredicateStatistics statistics=m_statisticsByPredicate.get(atom.getDLPredicate());
+        if (statistics==null)
+            return 1.0;
+        double estimate=statistics.m_numberOfTuples;
+        for (int argumentIndex=0;argumentIndex<atom.getArity();argumentIndex++) {
+            Term argument=atom.getArgument(argumentIndex);
+            if (!(argument instanceof Variable) || boundVariables.contains(argument))
+                estimate/=Math.max(1,statistics.m_numberOfDistinctNodes[argumentIndex]);
+        }
+        return estimate;
+    }
+    @SuppressWarnings("unchecked")
+    protected static Set<Object>[] createSets(int number) {
+        Set<Object>[] sets=new Set[number];
+        for (int index=0;index<number;index++)
+            sets[index]=new HashSet<Object>();
+        return sets;
+    }
+
+    protected static class PredicateStatistics implements Serializable {
+        private static final long serialVersionUID=5830284640815123450L;
+
+        protected int m_numberOfTuples;
+        protected final int[] m_numberOfDistinctNodes;
+
+        public PredicateStatistics(int arity) {
+            m_numberOfDistinctNodes=new int[arity];
+        }
+    }
+}
@@ -56,10 +56,12 @@ public final class Node implements Serializable {
     protected Object m_blockingObject;
     protected Object m_blockingCargo;
     protected int m_firstGraphOccurrenceNode;
+    protected int m_tupleObjectID;
 
     public Node(Tableau tableau) {
         m_tableau=tableau;
         m_nodeID=-1;
+        m_tupleObjectID=-1;
     }
     public Tableau getTableau() {
         return m_tableau;
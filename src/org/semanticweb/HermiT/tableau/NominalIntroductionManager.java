@@ -44,9 +44,9 @@ public final class NominalIntroductionManager implements Serializable {
         m_dependencySetFactory=m_tableau.m_dependencySetFactory;
         m_interruptFlag=m_tableau.m_interruptFlag;
         m_mergingManager=m_tableau.m_mergingManager;
-        m_annotatedEqualities=new TupleTable(5);
+        m_annotatedEqualities=new ObjectTupleTable(5);
         m_bufferForAnnotatedEquality=new Object[5];
-        m_newRootNodesTable=new TupleTable(4);
+        m_newRootNodesTable=new ObjectTupleTable(4);
         m_newRootNodesIndex=new TupleTableFullIndex(m_newRootNodesTable,3);
         m_bufferForRootNodes=new Object[4];
         m_indicesByBranchingPoint=new int[10*2];
@@ -28,6 +28,7 @@ public final class PermanentDependencySet implements DependencySet,Serializable
     protected int m_usageCounter;
     protected PermanentDependencySet m_previousUnusedSet;
     protected PermanentDependencySet m_nextUnusedSet;
+    protected int m_tupleObjectID;
     
     protected PermanentDependencySet() {
         m_rest=null;
@@ -36,6 +37,7 @@ public final class PermanentDependencySet implements DependencySet,Serializable
         m_usageCounter=0;
         m_previousUnusedSet=null;
         m_nextUnusedSet=null;
+        m_tupleObjectID=-1;
     }
     public boolean containsBranchingPoint(int branchingPoint) {
         PermanentDependencySet set=this;
@@ -19,7 +19,9 @@ package org.semanticweb.HermiT.tableau;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -43,6 +45,7 @@ import org.semanticweb.HermiT.model.LiteralConcept;
 import org.semanticweb.HermiT.model.NegatedAtomicRole;
 import org.semanticweb.HermiT.model.Term;
 import org.semanticweb.HermiT.monitor.TableauMonitor;
+import org.semanticweb.HermiT.tableau.ABoxComponents.ABoxComponent;
 import org.semanticweb.HermiT.tableau.Node.NodeState;
 
 /**
@@ -65,7 +68,8 @@ public final class Tableau implements Serializable {
     protected final DependencySetFactory m_dependencySetFactory;
     protected final ExtensionManager m_extensionManager;
     protected final ClashManager m_clashManager;
-    protected final HyperresolutionManager m_permanentHyperresolutionManager;
+    protected final JoinStatistics m_joinStatistics;
+    protected HyperresolutionManager m_permanentHyperresolutionManager;
     protected HyperresolutionManager m_additionalHyperresolutionManager;
     protected final MergingManager m_mergingManager;
     protected final ExistentialExpansionManager m_existentialExpasionManager;
@@ -94,6 +98,12 @@ public final class Tableau implements Serializable {
     protected Node m_lastMergedOrPrunedNode;
     protected GroundDisjunction m_firstGroundDisjunction;
     protected GroundDisjunction m_firstUnprocessedGroundDisjunction;
+    protected transient ABoxComponents m_permanentABoxComponents;
+    protected transient boolean m_permanentABoxComponentsInitialised;
+    protected final boolean m_cacheSaturatedPermanentABox;
+    protected Checkpoint m_saturatedPermanentABoxCheckpoint;
+    protected Set<ABoxComponent> m_saturatedPermanentABoxComponents;
+    protected boolean m_permanentABoxNotSaturatedDeterministically;
 
     public Tableau(InterruptFlag interruptFlag,TableauMonitor tableauMonitor,ExistentialExpansionStrategy existentialsExpansionStrategy,boolean useDisjunctionLearning,DLOntology permanentDLOntology,DLOntology additionalDLOntology,Map<String,Object> parameters) {
         if (additionalDLOntology!=null && !additionalDLOntology.getAllDescriptionGraphs().isEmpty())
@@ -109,6 +119,10 @@ public final class Tableau implements Serializable {
             m_dependencySetFactory=new DependencySetFactory();
             m_extensionManager=new ExtensionManager(this);
             m_clashManager=new ClashManager(this);
+            if (m_parameters!=null && Boolean.TRUE.equals(m_parameters.get("HyperresolutionManager.useCostBasedJoinOrdering")))
+                m_joinStatistics=new JoinStatistics();
+            else
+                m_joinStatistics=null;
             m_permanentHyperresolutionManager=new HyperresolutionManager(this,m_permanentDLOntology.getDLClauses());
             if (m_additionalDLOntology!=null)
                 m_additionalHyperresolutionManager=new HyperresolutionManager(this,m_additionalDLOntology.getDLClauses());
@@ -123,6 +137,7 @@ public final class Tableau implements Serializable {
             m_existentialConceptsBuffers=new ArrayList<List<ExistentialConcept>>();
             m_useDisjunctionLearning=useDisjunctionLearning;
             m_hasDescriptionGraphs=!m_permanentDLOntology.getAllDescriptionGraphs().isEmpty();
+            m_cacheSaturatedPermanentABox=(m_parameters!=null && Boolean.TRUE.equals(m_parameters.get("Tableau.cacheSaturatedPermanentABox")) && !m_hasDescriptionGraphs);
             m_branchingPoints=new BranchingPoint[2];
             m_currentBranchingPoint=-1;
             m_nonbacktrackableBranchingPoint=-1;
@@ -161,6 +176,12 @@ public final class Tableau implements Serializable {
     public ExtensionManager getExtensionManager() {
         return m_extensionManager;
     }
+    /**
+     * Returns the statistics used for ordering the body atoms of DL-clauses, or null if they are not used.
+     */
+    public JoinStatistics getJoinStatistics() {
+        return m_joinStatistics;
+    }
     public HyperresolutionManager getPermanentHyperresolutionManager() {
         return m_permanentHyperresolutionManager;
     }
@@ -239,6 +260,17 @@ public final class Tableau implements Serializable {
         m_datatypeManager.additionalDLOntologyCleared();
         updateFlagsDependentOnAdditionalOntology();
     }
+    /**
+     * Compiles the DL-clauses again if the join statistics have been collected from the model of the previous test,
+     * which is still in the extension tables at this point.
+     */
+    protected void updateJoinOrder() {
+        if (m_joinStatistics!=null && m_joinStatistics.collectIfGrown(m_extensionManager)) {
+            m_permanentHyperresolutionManager=new HyperresolutionManager(this,m_permanentDLOntology.getDLClauses());
+            if (m_additionalDLOntology!=null)
+                m_additionalHyperresolutionManager=new HyperresolutionManager(this,m_additionalDLOntology.getDLClauses());
+        }
+    }
     protected void updateFlagsDependentOnAdditionalOntology() {
         m_needsThingExtension=m_permanentHyperresolutionManager.m_tupleConsumersByDeltaPredicate.containsKey(AtomicConcept.THING);
         m_needsNamedExtension=m_permanentHyperresolutionManager.m_tupleConsumersByDeltaPredicate.containsKey(AtomicConcept.INTERNAL_NAMED);
@@ -255,23 +287,131 @@ public final class Tableau implements Serializable {
             m_checkUnknownDatatypeRestrictions|=m_additionalDLOntology.hasUnknownDatatypeRestrictions();
         }
     }
+    /**
+     * Returns the partition of the permanent ABox into connected components, or null if ABox modularisation has not
+     * been enabled using the Tableau.useABoxModularisation parameter or if the permanent DL-ontology does not allow
+     * for it.
+     */
+    public ABoxComponents getPermanentABoxComponents() {
+        if (!m_permanentABoxComponentsInitialised) {
+            if (m_parameters!=null && Boolean.TRUE.equals(m_parameters.get("Tableau.useABoxModularisation")) && ABoxComponents.isModularisable(m_permanentDLOntology))
+                m_permanentABoxComponents=new ABoxComponents(m_permanentDLOntology);
+            m_permanentABoxComponentsInitialised=true;
+        }
+        return m_permanentABoxComponents;
+    }
+    /**
+     * Makes this tableau use the given partition of the permanent ABox, which allows tableaux for the same permanent
+     * DL-ontology to share the satisfiability of the components.
+     */
+    public void setPermanentABoxComponents(ABoxComponents permanentABoxComponents) {
+        m_permanentABoxComponents=permanentABoxComponents;
+        m_permanentABoxComponentsInitialised=true;
+    }
+    /**
+     * Checks whether the component with the given index of the permanent ABox is satisfiable. The result is cached in
+     * the partition, so each component is checked at most once.
+     */
+    public boolean isABoxComponentSatisfiable(int componentIndex) {
+        ABoxComponents permanentABoxComponents=getPermanentABoxComponents();
+        if (!permanentABoxComponents.isSatisfiabilityKnown(componentIndex)) {
+            ReasoningTaskDescription reasoningTaskDescription=new ReasoningTaskDescription(false,"satisfiability of ABox component {0}",componentIndex);
+            if (m_tableauMonitor!=null)
+                m_tableauMonitor.isSatisfiableStarted(reasoningTaskDescription);
+            updateJoinOrder();
+            clear();
+            Map<Term,Node> termsToNodes=new HashMap<Term,Node>();
+            loadPermanentABoxComponents(termsToNodes,Collections.singleton(permanentABoxComponents.getComponent(componentIndex)));
+            if (m_firstTableauNode==null)
+                createNewNINode(m_dependencySetFactory.emptySet());
+            boolean result=runCalculus();
+            if (m_tableauMonitor!=null)
+                m_tableauMonitor.isSatisfiableFinished(reasoningTaskDescription,result);
+            permanentABoxComponents.setSatisfiable(componentIndex,result);
+        }
+        return permanentABoxComponents.isSatisfiable(componentIndex);
+    }
     public boolean isSatisfiable(boolean loadAdditionalABox,Set<Atom> perTestPositiveFactsNoDependency,Set<Atom> perTestNegativeFactsNoDependency,Set<Atom> perTestPositiveFactsDummyDependency,Set<Atom> perTestNegativeFactsDummyDependency,Map<Individual,Node> nodesForIndividuals,ReasoningTaskDescription reasoningTaskDescription) {
         boolean loadPermanentABox=m_permanentDLOntology.hasNominals() || (m_additionalDLOntology!=null && m_additionalDLOntology.hasNominals());
-        return isSatisfiable(loadPermanentABox,loadAdditionalABox,perTestPositiveFactsNoDependency,perTestNegativeFactsNoDependency,perTestPositiveFactsDummyDependency,perTestNegativeFactsDummyDependency,new HashMap<Term,Node>(),nodesForIndividuals,reasoningTaskDescription);
+        return isSatisfiable(loadPermanentABox,loadAdditionalABox,perTestPositiveFactsNoDependency,perTestNegativeFactsNoDependency,perTestPositiveFactsDummyDependency,perTestNegativeFactsDummyDependency,nodesForIndividuals,reasoningTaskDescription);
     }
     public boolean isSatisfiable(boolean loadPermanentABox,boolean loadAdditionalABox,Set<Atom> perTestPositiveFactsNoDependency,Set<Atom> perTestNegativeFactsNoDependency,Set<Atom> perTestPositiveFactsDummyDependency,Set<Atom> perTestNegativeFactsDummyDependency,Map<Individual,Node> nodesForIndividuals,ReasoningTaskDescription reasoningTaskDescription) {
-        return isSatisfiable(loadPermanentABox,loadAdditionalABox,perTestPositiveFactsNoDependency,perTestNegativeFactsNoDependency,perTestPositiveFactsDummyDependency,perTestNegativeFactsDummyDependency,new HashMap<Term,Node>(),nodesForIndividuals,reasoningTaskDescription);
+        Set<ABoxComponent> permanentABoxComponents=null;
+        if (loadPermanentABox && nodesForIndividuals==null)
+            permanentABoxComponents=getRelevantPermanentABoxComponents(loadAdditionalABox,perTestPositiveFactsNoDependency,perTestNegativeFactsNoDependency,perTestPositiveFactsDummyDependency,perTestNegativeFactsDummyDependency);
+        return isSatisfiable(loadPermanentABox,loadAdditionalABox,perTestPositiveFactsNoDependency,perTestNegativeFactsNoDependency,perTestPositiveFactsDummyDependency,perTestNegativeFactsDummyDependency,new HashMap<Term,Node>(),nodesForIndividuals,permanentABoxComponents,reasoningTaskDescription);
     }
     public boolean isSatisfiable(boolean loadPermanentABox,boolean loadAdditionalABox,Set<Atom> perTestPositiveFactsNoDependency,Set<Atom> perTestNegativeFactsNoDependency,Set<Atom> perTestPositiveFactsDummyDependency,Set<Atom> perTestNegativeFactsDummyDependency,Map<Term,Node> termsToNodes,Map<Individual,Node> nodesForIndividuals,ReasoningTaskDescription reasoningTaskDescription) {
+        return isSatisfiable(loadPermanentABox,loadAdditionalABox,perTestPositiveFactsNoDependency,perTestNegativeFactsNoDependency,perTestPositiveFactsDummyDependency,perTestNegativeFactsDummyDependency,termsToNodes,nodesForIndividuals,null,reasoningTaskDescription);
+    }
+    /**
+     * Determines the components of the permanent ABox that must be loaded for a test, or returns null if the whole
+     * permanent ABox must be loaded. Only the components of the individuals in the facts of the test are needed,
+     * provided that all components are satisfiable and that the additional DL-ontology cannot affect other components.
+     */
+    protected Set<ABoxComponent> getRelevantPermanentABoxComponents(boolean loadAdditionalABox,Set<Atom> perTestPositiveFactsNoDependency,Set<Atom> perTestNegativeFactsNoDependency,Set<Atom> perTestPositiveFactsDummyDependency,Set<Atom> perTestNegativeFactsDummyDependency) {
+        ABoxComponents permanentABoxComponents=getPermanentABoxComponents();
+        if (permanentABoxComponents==null || !permanentABoxComponents.isLocal(m_additionalDLOntology))
+            return null;
+        // If some component is unsatisfiable, the whole ABox is loaded so that the test fails in the usual way.
+        for (int componentIndex=0;componentIndex<permanentABoxComponents.getNumberOfComponents();componentIndex++)
+            if (!isABoxComponentSatisfiable(componentIndex))
+                return null;
+        Set<ABoxComponent> result=new HashSet<ABoxComponent>();
+        if (loadAdditionalABox && m_additionalDLOntology!=null) {
+            permanentABoxComponents.getComponentsForFacts(m_additionalDLOntology.getPositiveFacts(),result);
+            permanentABoxComponents.getComponentsForFacts(m_additionalDLOntology.getNegativeFacts(),result);
+        }
+        permanentABoxComponents.getComponentsForFacts(perTestPositiveFactsNoDependency,result);
+        permanentABoxComponents.getComponentsForFacts(perTestNegativeFactsNoDependency,result);
+        permanentABoxComponents.getComponentsForFacts(perTestPositiveFactsDummyDependency,result);
+        permanentABoxComponents.getComponentsForFacts(perTestNegativeFactsDummyDependency,result);
+        return result;
+    }
+    protected void loadPermanentABoxComponents(Map<Term,Node> termsToNodes,Set<ABoxComponent> components) {
+        for (Atom atom : m_permanentABoxComponents.getGlobalPositiveFacts())
+            loadPositiveFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
+        for (Atom atom : m_permanentABoxComponents.getGlobalNegativeFacts())
+            loadNegativeFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
+        for (ABoxComponent component : components) {
+            for (Atom atom : component.getPositiveFacts())
+                loadPositiveFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
+            for (Atom atom : component.getNegativeFacts())
+                loadNegativeFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
+        }
+    }
+    protected boolean isSatisfiable(boolean loadPermanentABox,boolean loadAdditionalABox,Set<Atom> perTestPositiveFactsNoDependency,Set<Atom> perTestNegativeFactsNoDependency,Set<Atom> perTestPositiveFactsDummyDependency,Set<Atom> perTestNegativeFactsDummyDependency,Map<Term,Node> termsToNodes,Map<Individual,Node> nodesForIndividuals,Set<ABoxComponent> permanentABoxComponents,ReasoningTaskDescription reasoningTaskDescription) {
         if (m_tableauMonitor!=null)
             m_tableauMonitor.isSatisfiableStarted(reasoningTaskDescription);
-        clear();
-        if (loadPermanentABox) {
-            for (Atom atom : m_permanentDLOntology.getPositiveFacts())
-                loadPositiveFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
-            for (Atom atom : m_permanentDLOntology.getNegativeFacts())
-                loadNegativeFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
+        updateJoinOrder();
+        if (!loadPermanentABox || !restoreSaturatedPermanentABox(termsToNodes,permanentABoxComponents)) {
+            clear();
+            if (loadPermanentABox) {
+                if (permanentABoxComponents!=null)
+                    loadPermanentABoxComponents(termsToNodes,permanentABoxComponents);
+                else {
+                    for (Atom atom : m_permanentDLOntology.getPositiveFacts())
+                        loadPositiveFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
+                    for (Atom atom : m_permanentDLOntology.getNegativeFacts())
+                        loadNegativeFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
+                }
+            }
         }
+        return loadPerTestFactsAndRunCalculus(loadAdditionalABox,perTestPositiveFactsNoDependency,perTestNegativeFactsNoDependency,perTestPositiveFactsDummyDependency,perTestNegativeFactsDummyDependency,termsToNodes,nodesForIndividuals,reasoningTaskDescription);
+    }
+    /**
+     * Checks the satisfiability of the state recorded by the given checkpoint extended with the given facts. The tableau
+     * is rolled back to the checkpoint first, so the facts loaded and derived before the checkpoint are not loaded and
+     * derived again. The nodes for the terms of the checkpoint are added to the given map.
+     */
+    public boolean isSatisfiable(Checkpoint checkpoint,Set<Atom> perTestPositiveFactsNoDependency,Set<Atom> perTestNegativeFactsNoDependency,Set<Atom> perTestPositiveFactsDummyDependency,Set<Atom> perTestNegativeFactsDummyDependency,Map<Term,Node> termsToNodes,Map<Individual,Node> nodesForIndividuals,ReasoningTaskDescription reasoningTaskDescription) {
+        if (m_tableauMonitor!=null)
+            m_tableauMonitor.isSatisfiableStarted(reasoningTaskDescription);
+        rollback(checkpoint);
+        termsToNodes.putAll(checkpoint.m_termsToNodes);
+        return loadPerTestFactsAndRunCalculus(false,perTestPositiveFactsNoDependency,perTestNegativeFactsNoDependency,perTestPositiveFactsDummyDependency,perTestNegativeFactsDummyDependency,termsToNodes,nodesForIndividuals,reasoningTaskDescription);
+    }
+    protected boolean loadPerTestFactsAndRunCalculus(boolean loadAdditionalABox,Set<Atom> perTestPositiveFactsNoDependency,Set<Atom> perTestNegativeFactsNoDependency,Set<Atom> perTestPositiveFactsDummyDependency,Set<Atom> perTestNegativeFactsDummyDependency,Map<Term,Node> termsToNodes,Map<Individual,Node> nodesForIndividuals,ReasoningTaskDescription reasoningTaskDescription) {
         if (loadAdditionalABox && m_additionalDLOntology!=null) {
             for (Atom atom : m_additionalDLOntology.getPositiveFacts())
                 loadPositiveFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
@@ -285,7 +425,8 @@ public final class Tableau implements Serializable {
             for (Atom atom : perTestNegativeFactsNoDependency)
                 loadNegativeFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
         if ((perTestPositiveFactsDummyDependency!=null && !perTestPositiveFactsDummyDependency.isEmpty()) || (perTestNegativeFactsDummyDependency!=null && !perTestNegativeFactsDummyDependency.isEmpty())) {
-            m_branchingPoints[0]=new BranchingPoint(this);
+            ensureBranchingPointsCapacity(m_currentBranchingPoint+1);
+            m_branchingPoints[m_currentBranchingPoint+1]=new BranchingPoint(this);
             m_currentBranchingPoint++;
             m_nonbacktrackableBranchingPoint=m_currentBranchingPoint;
             DependencySet dependencySet=m_dependencySetFactory.addBranchingPoint(m_dependencySetFactory.emptySet(),m_currentBranchingPoint);
@@ -311,6 +452,118 @@ public final class Tableau implements Serializable {
         if (m_tableauMonitor!=null)
             m_tableauMonitor.isSatisfiableFinished(reasoningTaskDescription,result);
         return result;
+    }
+    /**
+     * Brings the tableau into the state in which the permanent ABox, or the given components of it if they are not null,
+     * has been loaded and saturated up to the first nondeterministic choice, and adds the nodes for the individuals of
+     * the loaded facts to the given map. The saturated state is computed by the first test that loads these facts and is
+     * recorded by a checkpoint; subsequent tests that load the same facts just roll back to that checkpoint, so only the
+     * changes made by the previous test are undone. The tableau can hold only one saturated state, so a test that loads
+     * other components replaces the recorded state; consecutive tests about the same individuals, such as the instance
+     * checks for one individual, thus still share it. Returns false if the saturated state cannot be used, in which case
+     * the caller must clear the tableau and load the permanent ABox or its components as usual.
+     */
+    protected boolean restoreSaturatedPermanentABox(Map<Term,Node> termsToNodes,Set<ABoxComponent> permanentABoxComponents) {
+        if (!m_cacheSaturatedPermanentABox || m_additionalDLOntology!=null || (permanentABoxComponents==null && m_permanentABoxNotSaturatedDeterministically))
+            return false;
+        if (isSaturatedPermanentABoxCached(permanentABoxComponents)) {
+            rollback(m_saturatedPermanentABoxCheckpoint);
+            termsToNodes.putAll(m_saturatedPermanentABoxCheckpoint.m_termsToNodes);
+        }
+        else {
+            clear();
+            if (permanentABoxComponents!=null)
+                loadPermanentABoxComponents(termsToNodes,permanentABoxComponents);
+            else {
+                for (Atom atom : m_permanentDLOntology.getPositiveFacts())
+                    loadPositiveFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
+                for (Atom atom : m_permanentDLOntology.getNegativeFacts())
+                    loadNegativeFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
+            }
+            if (!saturateDeterministically()) {
+                // The permanent ABox does not depend on the tests, so saturating it will not succeed later either.
+                if (permanentABoxComponents==null)
+                    m_permanentABoxNotSaturatedDeterministically=true;
+                termsToNodes.clear();
+                return false;
+            }
+            m_saturatedPermanentABoxCheckpoint=checkpoint(termsToNodes);
+            m_saturatedPermanentABoxComponents=permanentABoxComponents;
+        }
+        return true;
+    }
+    /**
+     * Applies the deterministic rules until no more facts can be derived by them. Ground disjunctions, existentials and
+     * annotated equalities are left unprocessed. Returns false if a clash occurs.
+     */
+    protected boolean saturateDeterministically() {
+        m_interruptFlag.startTask();
+        try {
+            while (m_extensionManager.propagateDeltaNew() && !m_extensionManager.containsClash()) {
+                m_permanentHyperresolutionManager.applyDLClauses();
+                if (m_checkUnknownDatatypeRestrictions && !m_extensionManager.containsClash())
+                    m_datatypeManager.applyUnknownDatatypeRestrictionSemantics();
+                if (m_checkDatatypes && !m_extensionManager.containsClash())
+                    m_datatypeManager.checkDatatypeConstraints();
+            }
+            return !m_extensionManager.containsClash() && m_currentBranchingPoint==-1;
+        }
+        finally {
+            m_interruptFlag.endTask();
+        }
+    }
+    /**
+     * Returns true if the state of the tableau after loading and saturating the permanent ABox, or the components of it
+     * loaded by the last test if ABox modularisation is used, is currently recorded, so that the next test that loads
+     * the same facts can start from it.
+     */
+    public boolean isSaturatedPermanentABoxCached() {
+        return m_saturatedPermanentABoxCheckpoint!=null && isValid(m_saturatedPermanentABoxCheckpoint);
+    }
+    protected boolean isSaturatedPermanentABoxCached(Set<ABoxComponent> permanentABoxComponents) {
+        if (permanentABoxComponents==null ? m_saturatedPermanentABoxComponents!=null : !permanentABoxComponents.equals(m_saturatedPermanentABoxComponents))
+            return false;
+        return isSaturatedPermanentABoxCached();
+    }
+    /**
+     * Records the current state of the tableau so that it can be restored by rollback(). The given map records the
+     * nodes for the terms of the facts loaded so far; it is copied into the checkpoint. The current state must not
+     * contain a clash and must not depend on nondeterministic choices, since these choices cannot be revised once the
+     * checkpoint has been taken.
+     */
+    public Checkpoint checkpoint(Map<Term,Node> termsToNodes) {
+        if (m_extensionManager.containsClash())
+            throw new IllegalStateException("A checkpoint cannot be taken if the tableau contains a clash.");
+        if (m_currentBranchingPoint!=m_nonbacktrackableBranchingPoint)
+            throw new IllegalStateException("A checkpoint cannot be taken if the tableau depends on nondeterministic choices.");
+        Checkpoint checkpoint=new Checkpoint(this,termsToNodes);
+        pushBranchingPoint(checkpoint);
+        m_nonbacktrackableBranchingPoint=m_currentBranchingPoint;
+        m_isCurrentModelDeterministic=checkpoint.m_isCurrentModelDeterministic;
+        return checkpoint;
+    }
+    /**
+     * Restores the state of the tableau recorded by the given checkpoint.
+     */
+    public void rollback(Checkpoint checkpoint) {
+        if (!isValid(checkpoint))
+            throw new IllegalArgumentException("The checkpoint is no longer valid for this tableau.");
+        backtrackTo(checkpoint.m_level);
+        m_nonbacktrackableBranchingPoint=m_currentBranchingPoint;
+        m_isCurrentModelDeterministic=checkpoint.m_isCurrentModelDeterministic;
+        m_dependencySetFactory.removeUnusedSets();
+        m_clashManager.clear();
+        m_permanentHyperresolutionManager.clear();
+        if (m_additionalHyperresolutionManager!=null)
+            m_additionalHyperresolutionManager.clear();
+        m_mergingManager.clear();
+        m_datatypeManager.clear();
+    }
+    /**
+     * Returns true if the tableau can be rolled back to the given checkpoint.
+     */
+    public boolean isValid(Checkpoint checkpoint) {
+        return checkpoint.m_level<=m_currentBranchingPoint && m_branchingPoints[checkpoint.m_level]==checkpoint && checkpoint.m_additionalDLOntology==m_additionalDLOntology;
     }
     protected void loadPositiveFact(Map<Term,Node> termsToNodes,Atom atom,DependencySet dependencySet) {
         DLPredicate dlPredicate=atom.getDLPredicate();
@@ -512,11 +765,7 @@ public final class Tableau implements Serializable {
         if (m_tableauMonitor!=null)
             m_tableauMonitor.pushBranchingPointStarted(branchingPoint);
         m_currentBranchingPoint++;
-        if (m_currentBranchingPoint>=m_branchingPoints.length) {
-            BranchingPoint[] newBranchingPoints=new BranchingPoint[m_currentBranchingPoint*3/2];
-            System.arraycopy(m_branchingPoints,0,newBranchingPoints,0,m_branchingPoints.length);
-            m_branchingPoints=newBranchingPoints;
-        }
+        ensureBranchingPointsCapacity(m_currentBranchingPoint);
         m_branchingPoints[m_currentBranchingPoint]=branchingPoint;
         m_extensionManager.branchingPointPushed();
         m_existentialExpasionManager.branchingPointPushed();
@@ -526,6 +775,13 @@ public final class Tableau implements Serializable {
         if (m_tableauMonitor!=null)
             m_tableauMonitor.pushBranchingPointFinished(branchingPoint);
     }
+    protected void ensureBranchingPointsCapacity(int level) {
+        if (level>=m_branchingPoints.length) {
+            BranchingPoint[] newBranchingPoints=new BranchingPoint[level*3/2];
+            System.arraycopy(m_branchingPoints,0,newBranchingPoints,0,m_branchingPoints.length);
+            m_branchingPoints=newBranchingPoints;
+        }
+    }
     /**
      * Backtrack to a certain branching point in the list of branching points that have been set during the run.
      *
@@ -0,0 +1,190 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Set;
+
+import org.semanticweb.owlapi.reasoner.ReasonerInterruptedException;
+
+/**
+ * A bounded pool of tableaux for the same DL-ontology that are handed out to concurrent tests. A tableau is taken from
+ * the pool by acquire() and must be returned by release(); if all tableaux are in use and the pool has reached its
+ * maximal size, acquire() waits until a tableau is returned. Tableaux are created on demand by createTableau(), apart
+ * from the warm-up tableaux, which are created by warmUp(). Tableaux that have been idle for longer than the idle
+ * timeout are discarded when another tableau is returned, but the pool always keeps the warm-up tableaux.
+ */
+public abstract class TableauPool {
+    protected final int m_maximalNumberOfTableaux;
+    protected final int m_numberOfWarmUpTableaux;
+    protected final long m_idleTimeout;
+    protected final LinkedList<Tableau> m_idleTableaux;
+    protected final LinkedList<Long> m_releaseTimes;
+    protected final Set<Tableau> m_usedTableaux;
+    protected int m_numberOfTableaux;
+    protected boolean m_isDisposed;
+
+    /**
+     * @param maximalNumberOfTableaux
+     *            - the maximal number of tableaux that are in use at the same time
+     * @param numberOfWarmUpTableaux
+     *            - the number of tableaux that warmUp() creates and that are never discarded
+     * @param idleTimeout
+     *            - the time in milliseconds after which an idle tableau is discarded; a nonpositive value means that
+     *            idle tableaux are never discarded
+     */
+    public TableauPool(int maximalNumberOfTableaux,int numberOfWarmUpTableaux,long idleTimeout) {
+        if (maximalNumberOfTableaux<1)
+            throw new IllegalArgumentException("A tableau pool must contain at least one tableau.");
+        m_maximalNumberOfTableaux=maximalNumberOfTableaux;
+        m_numberOfWarmUpTableaux=Math.min(Math.max(numberOfWarmUpTableaux,0),maximalNumberOfTableaux);
+        m_idleTimeout=idleTimeout;
+        m_idleTableaux=new LinkedList<Tableau>();
+        m_releaseTimes=new LinkedList<Long>();
+        m_usedTableaux=new HashSet<Tableau>();
+    }
+    /**
+     * Creates a new tableau for the pool. The method is called without holding the pool's lock, so it can be called
+     * concurrently by several threads.
+     */
+    protected abstract Tableau createTableau();
+    /**
+     * Creates tableaux until the pool contains the warm-up tableaux.
+     */
+    public void warmUp() {
+        while (reserveTableau(m_numberOfWarmUpTableaux)) {
+            Tableau tableau=createTableau();
+            synchronized (this) {
+                m_usedTableaux.add(tableau);
+            }
+            release(tableau);
+        }
+    }
+    /**
+     * Takes an idle tableau from the pool, creates a new tableau if the pool has not reached its maximal size, or waits
+     * until another thread releases a tableau.
+     */
+    public Tableau acquire() {
+        synchronized (this) {
+            while (true) {
+                if (m_isDisposed)
+                    throw new IllegalStateException("The tableau pool has been disposed.");
+                if (!m_idleTableaux.isEmpty()) {
+                    Tableau tableau=m_idleTableaux.removeFirst();
+                    m_releaseTimes.removeFirst();
+                    m_usedTableaux.add(tableau);
+                    return tableau;
+                }
+                if (m_numberOfTableaux<m_maximalNumberOfTableaux) {
+                    m_numberOfTableaux++;
+                    break;
+                }
+                try {
+                    wait();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ReasonerInterruptedException(e);
+                }
+            }
+        }
+        Tableau tableau=null;
+        try {
+            tableau=createTableau();
+            return tableau;
+        }
+        finally {
+            synchronized (this) {
+                if (tableau==null) {
+                    m_numberOfTableaux--;
+                    notify();
+                }
+                else
+                    m_usedTableaux.add(tableau);
+            }
+        }
+    }
+    /**
+     * Returns a tableau obtained from acquire() to the pool. The additional DL-ontology of the tableau is cleared, and
+     * tableaux that have been idle for too long are discarded.
+     */
+    public synchronized void release(Tableau tableau) {
+        if (!m_usedTableaux.remove(tableau))
+            throw new IllegalArgumentException("The tableau does not belong to this pool or has already been released.");
+        tableau.clearAdditionalDLOntology();
+        if (m_isDisposed) {
+            m_numberOfTableaux--;
+            tableau.getInterruptFlag().dispose();
+        }
+        else {
+            long currentTime=System.currentTimeMillis();
+            m_idleTableaux.addFirst(tableau);
+            m_releaseTimes.addFirst(currentTime);
+            discardIdleTableaux(currentTime);
+            notify();
+        }
+    }
+    /**
+     * Discards the tableaux that have been idle for longer than the idle timeout at the given time, apart from the
+     * warm-up tableaux. This is done whenever a tableau is released; the time is a parameter so that the eviction of
+     * idle tableaux does not depend on the system clock when it is tested.
+     */
+    public synchronized void discardIdleTableaux(long currentTime) {
+        if (m_idleTimeout>0)
+            while (m_numberOfTableaux>m_numberOfWarmUpTableaux && !m_idleTableaux.isEmpty() && currentTime-m_releaseTimes.getLast().longValue()>m_idleTimeout) {
+                m_releaseTimes.removeLast();
+                m_idleTableaux.removeLast().getInterruptFlag().dispose();
+                m_numberOfTableaux--;
+            }
+    }
+    /**
+     * Interrupts the tests that are currently running in the tableaux of the pool.
+     */
+    public synchronized void interrupt() {
+        for (Tableau tableau : m_usedTableaux)
+            tableau.getInterruptFlag().interrupt();
+    }
+    /**
+     * Discards all idle tableaux; the tableaux that are in use are discarded when they are released.
+     */
+    public synchronized void dispose() {
+        m_isDisposed=true;
+        for (Tableau tableau : m_idleTableaux)
+            tableau.getInterruptFlag().dispose();
+        m_numberOfTableaux-=m_idleTableaux.size();
+        m_idleTableaux.clear();
+        m_releaseTimes.clear();
+        notifyAll();
+    }
+    public synchronized int getNumberOfTableaux() {
+        return m_numberOfTableaux;
+    }
+    public synchronized int getNumberOfIdleTableaux() {
+        return m_idleTableaux.size();
+    }
+    public int getMaximalNumberOfTableaux() {
+        return m_maximalNumberOfTableaux;
+    }
+    protected synchronized boolean reserveTableau(int maximalNumberOfTableaux) {
+        if (m_isDisposed || m_numberOfTableaux>=maximalNumberOfTableaux)
+            return false;
+        m_numberOfTableaux++;
+        return true;
+    }
+}
@@ -17,7 +17,13 @@
 */
 package org.semanticweb.HermiT.tableau;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
 
 public final class TupleIndex implements Serializable {
     private static final long serialVersionUID=-4284072092430590904L;
@@ -34,8 +40,18 @@ public final class TupleIndex implements Serializable {
     protected int m_numberOfNodes;
 
     public TupleIndex(int[] indexingSequence) {
+        this(indexingSequence,ExtensionManager.TupleStorageType.OBJECT_ARRAYS,null);
+    }
+    /**
+     * For DIRECT_BUFFERS, the trie nodes are stored outside the Java heap and refer to their objects by the IDs from the
+     * given registry; for all other storage types the trie nodes are kept in int[] and Object[] pages.
+     */
+    public TupleIndex(int[] indexingSequence,ExtensionManager.TupleStorageType tupleStorageType,TupleObjectRegistry tupleObjectRegistry) {
         m_indexingSequence=indexingSequence;
-        m_trieNodeManager=new TrieNodeManager();
+        if (tupleStorageType==ExtensionManager.TupleStorageType.DIRECT_BUFFERS)
+            m_trieNodeManager=new DirectTrieNodeManager(tupleObjectRegistry);
+        else
+            m_trieNodeManager=new HeapTrieNodeManager();
         clear();
     }
     public int sizeInMemoy() {
@@ -196,15 +212,52 @@ public final class TupleIndex implements Serializable {
     protected static final int TRIE_NODE_SIZE=5;
     protected static final int TRIE_NODE_PAGE_SIZE=1024;
 
-    protected static final class TrieNodeManager implements Serializable {
+    protected abstract static class TrieNodeManager implements Serializable {
         private static final long serialVersionUID=-1978070096232682717L;
 
-        protected int[][] m_indexPages;
-        protected Object[][] m_objectPages;
         protected int m_firstFreeTrieNode;
         protected int m_numberOfPages;
 
-        public TrieNodeManager() {
+        public abstract int size();
+        public abstract void clear();
+        public abstract int getTrieNodeComponent(int trieNode,int component);
+        public abstract void setTrieNodeComponent(int trieNode,int component,int value);
+        public abstract Object getTrieNodeObject(int trieNode);
+        public abstract void setTrieNodeObject(int trieNode,Object object);
+        public abstract void initializeTrieNode(int trieNode,int parent,int firstChild,int previousSibling,int nextSibling,int nextEntry,Object object);
+        protected abstract void addPage(int pageIndex);
+        public int newTrieNode() {
+            int newTrieNode=m_firstFreeTrieNode;
+            int nextFreeTrieNode=getTrieNodeComponent(m_firstFreeTrieNode,TRIE_NODE_NEXT_SIBLING);
+            if (nextFreeTrieNode!=-1)
+                m_firstFreeTrieNode=nextFreeTrieNode;
+            else {
+                m_firstFreeTrieNode++;
+                if (m_firstFreeTrieNode<0)
+                    throw new OutOfMemoryError("The space of nodes in TupleIndex was exhausted: the ontology is just too large.");
+                int pageIndex=m_firstFreeTrieNode / TRIE_NODE_PAGE_SIZE;
+                if (pageIndex>=m_numberOfPages) {
+                    addPage(pageIndex);
+                    m_numberOfPages++;
+                }
+                setTrieNodeComponent(m_firstFreeTrieNode,TRIE_NODE_NEXT_SIBLING,-1);
+            }
+            return newTrieNode;
+        }
+        public void deleteTrieNode(int trieNode) {
+            setTrieNodeComponent(trieNode,TRIE_NODE_NEXT_SIBLING,m_firstFreeTrieNode);
+            setTrieNodeObject(trieNode,null);
+            m_firstFreeTrieNode=trieNode;
+        }
+    }
+
+    protected static final class HeapTrieNodeManager extends TrieNodeManager {
+        private static final long serialVersionUID=-3316046432478926213L;
+
+        protected int[][] m_indexPages;
+        protected Object[][] m_objectPages;
+
+        public HeapTrieNodeManager() {
            clear();
         }
         public int size() {
@@ -250,37 +303,98 @@ public final class TupleIndex implements Serializable {
             indexPage[start+TRIE_NODE_NEXT_ENTRY]=nextEntry;
             m_objectPages[pageIndex][indexInPage]=object;
         }
-        public int newTrieNode() {
-            int newTrieNode=m_firstFreeTrieNode;
-            int nextFreeTrieNode=getTrieNodeComponent(m_firstFreeTrieNode,TRIE_NODE_NEXT_SIBLING);
-            if (nextFreeTrieNode!=-1)
-                m_firstFreeTrieNode=nextFreeTrieNode;
-            else {
-                m_firstFreeTrieNode++;
-                if (m_firstFreeTrieNode<0)
-                    throw new OutOfMemoryError("The space of nodes in TupleIndex was exhausted: the ontology is just too large.");
-                int pageIndex=m_firstFreeTrieNode / TRIE_NODE_PAGE_SIZE;
-                if (pageIndex>=m_numberOfPages) {
-                    if (pageIndex>=m_indexPages.length) {
-                        int[][] newIndexPages=new int[m_indexPages.length*3/2][];
-                        System.arraycopy(m_indexPages,0,newIndexPages,0,m_indexPages.length);
-                        m_indexPages=newIndexPages;
-                        Object[][] newObjectPages=new Object[m_objectPages.length*3/2][];
-                        System.arraycopy(m_objectPages,0,newObjectPages,0,m_objectPages.length);
-                        m_objectPages=newObjectPages;
-                    }
-                    m_indexPages[pageIndex]=new int[TRIE_NODE_SIZE*TRIE_NODE_PAGE_SIZE];
-                    m_objectPages[pageIndex]=new Object[TRIE_NODE_PAGE_SIZE];
-                    m_numberOfPages++;
-                }
-                setTrieNodeComponent(m_firstFreeTrieNode,TRIE_NODE_NEXT_SIBLING,-1);
+        protected void addPage(int pageIndex) {
+            if (pageIndex>=m_indexPages.length) {
+                int[][] newIndexPages=new int[m_indexPages.length*3/2][];
+                System.arraycopy(m_indexPages,0,newIndexPages,0,m_indexPages.length);
+                m_indexPages=newIndexPages;
+                Object[][] newObjectPages=new Object[m_objectPages.length*3/2][];
+                System.arraycopy(m_objectPages,0,newObjectPages,0,m_objectPages.length);
+                m_objectPages=newObjectPages;
             }
-            return newTrieNode;
+            m_indexPages[pageIndex]=new int[TRIE_NODE_SIZE*TRIE_NODE_PAGE_SIZE];
+            m_objectPages[pageIndex]=new Object[TRIE_NODE_PAGE_SIZE];
         }
-        public void deleteTrieNode(int trieNode) {
-            setTrieNodeComponent(trieNode,TRIE_NODE_NEXT_SIBLING,m_firstFreeTrieNode);
-            setTrieNodeObject(trieNode,null);
-            m_firstFreeTrieNode=trieNode;
+    }
+
+    /**
+     * Stores the trie nodes in direct buffers outside the Java heap. Each trie node occupies TRIE_NODE_SIZE+1 ints, the last
+     * of which is the ID of the node's object in the TupleObjectRegistry.
+     */
+    protected static final class DirectTrieNodeManager extends TrieNodeManager {
+        private static final long serialVersionUID=5914326425733212470L;
+        protected static final int TRIE_NODE_OBJECT=TRIE_NODE_SIZE;
+        protected static final int DIRECT_TRIE_NODE_SIZE=TRIE_NODE_SIZE+1;
+
+        protected final TupleObjectRegistry m_tupleObjectRegistry;
+        protected transient IntBuffer[] m_pages;
+
+        public DirectTrieNodeManager(TupleObjectRegistry tupleObjectRegistry) {
+            m_tupleObjectRegistry=tupleObjectRegistry;
+            clear();
+        }
+        public int size() {
+            return m_pages.length*4+m_numberOfPages*DIRECT_TRIE_NODE_SIZE*TRIE_NODE_PAGE_SIZE*4;
+        }
+        public void clear() {
+            IntBuffer firstPage=(m_pages==null ? createPage() : m_pages[0]);
+            m_pages=new IntBuffer[10];
+            m_pages[0]=firstPage;
+            m_numberOfPages=1;
+            m_firstFreeTrieNode=0;
+            setTrieNodeComponent(m_firstFreeTrieNode,TRIE_NODE_NEXT_SIBLING,-1);
+        }
+        public int getTrieNodeComponent(int trieNode,int component) {
+            return m_pages[trieNode / TRIE_NODE_PAGE_SIZE].get((trieNode % TRIE_NODE_PAGE_SIZE)*DIRECT_TRIE_NODE_SIZE+component);
+        }
+        public void setTrieNodeComponent(int trieNode,int component,int value) {
+            m_pages[trieNode / TRIE_NODE_PAGE_SIZE].put((trieNode % TRIE_NODE_PAGE_SIZE)*DIRECT_TRIE_NODE_SIZE+component,value);
+        }
+        public Object getTrieNodeObject(int trieNode) {
+            return m_tupleObjectRegistry.getObject(getTrieNodeComponent(trieNode,TRIE_NODE_OBJECT));
+        }
+        public void setTrieNodeObject(int trieNode,Object object) {
+            setTrieNodeComponent(trieNode,TRIE_NODE_OBJECT,m_tupleObjectRegistry.getObjectID(object));
+        }
+        public void initializeTrieNode(int trieNode,int parent,int firstChild,int previousSibling,int nextSibling,int nextEntry,Object object) {
+            IntBuffer page=m_pages[trieNode / TRIE_NODE_PAGE_SIZE];
+            int start=(trieNode % TRIE_NODE_PAGE_SIZE)*DIRECT_TRIE_NODE_SIZE;
+            page.put(start+TRIE_NODE_PARENT,parent);
+            page.put(start+TRIE_NODE_FIRST_CHILD,firstChild);
+            page.put(start+TRIE_NODE_PREVIOUS_SIBLING,previousSibling);
+            page.put(start+TRIE_NODE_NEXT_SIBLING,nextSibling);
+            page.put(start+TRIE_NODE_NEXT_ENTRY,nextEntry);
+            page.put(start+TRIE_NODE_OBJECT,m_tupleObjectRegistry.getObjectID(object));
+        }
+        protected void addPage(int pageIndex) {
+            if (pageIndex>=m_pages.length) {
+                IntBuffer[] newPages=new IntBuffer[m_pages.length*3/2];
+                System.arraycopy(m_pages,0,newPages,0,m_pages.length);
+                m_pages=newPages;
+            }
+            m_pages[pageIndex]=createPage();
+        }
+        protected static IntBuffer createPage() {
+            return ByteBuffer.allocateDirect(DIRECT_TRIE_NODE_SIZE*TRIE_NODE_PAGE_SIZE*4).order(ByteOrder.nativeOrder()).asIntBuffer();
+        }
+        private void writeObject(ObjectOutputStream outputStream) throws IOException {
+            outputStream.defaultWriteObject();
+            outputStream.writeInt(m_pages.length);
+            for (int pageIndex=0;pageIndex<m_numberOfPages;pageIndex++) {
+                IntBuffer page=m_pages[pageIndex];
+                for (int index=0;index<page.capacity();index++)
+                    outputStream.writeInt(page.get(index));
+            }
+        }
+        private void readObject(ObjectInputStream inputStream) throws IOException,ClassNotFoundException {
+            inputStream.defaultReadObject();
+            m_pages=new IntBuffer[inputStream.readInt()];
+            for (int pageIndex=0;pageIndex<m_numberOfPages;pageIndex++) {
+                IntBuffer page=createPage();
+                for (int index=0;index<page.capacity();index++)
+                    page.put(index,inputStream.readInt());
+                m_pages[pageIndex]=page;
+            }
         }
     }
 
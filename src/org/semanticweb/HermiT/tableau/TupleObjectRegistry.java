@@ -0,0 +1,129 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.io.Serializable;
+
+/**
+ * Assigns consecutive integer IDs to the objects stored in IntTupleTable
+ * instances and maps the IDs back to the objects. Nodes and permanent
+ * dependency sets cache their ID, so the hot path of adding a tuple needs no
+ * hash lookup for them; since the tableau recycles these objects after
+ * backtracking, a recycled object keeps its ID and the registry grows only with
+ * the number of allocated objects. All other objects (predicates and description
+ * graphs) are shared between tableaux, so they are looked up by identity in an
+ * open-addressing table that stores the IDs without boxing. The ID -1 represents
+ * null. All tables sharing a registry must be cleared together with the registry.
+ */
+public final class TupleObjectRegistry implements Serializable {
+    private static final long serialVersionUID=-1849520734391862045L;
+    protected static final int INITIAL_CAPACITY=128;
+
+    protected Object[] m_objectsByID;
+    protected int m_numberOfObjects;
+    protected Object[] m_sharedObjects;
+    protected int[] m_sharedObjectIDs;
+    protected int m_numberOfSharedObjects;
+
+    public TupleObjectRegistry() {
+        clear();
+    }
+    public int sizeInMemory() {
+        return m_objectsByID.length*4+m_sharedObjects.length*8;
+    }
+    public int getObjectID(Object object) {
+        if (object==null)
+            return -1;
+        else if (object instanceof Node) {
+            Node node=(Node)object;
+            int objectID=node.m_tupleObjectID;
+            if (objectID<0 || objectID>=m_numberOfObjects || m_objectsByID[objectID]!=node) {
+                objectID=addObject(node);
+                node.m_tupleObjectID=objectID;
+            }
+            return objectID;
+        }
+        else if (object instanceof PermanentDependencySet) {
+            PermanentDependencySet dependencySet=(PermanentDependencySet)object;
+            int objectID=dependencySet.m_tupleObjectID;
+            if (objectID<0 || objectID>=m_numberOfObjects || m_objectsByID[objectID]!=dependencySet) {
+                objectID=addObject(dependencySet);
+                dependencySet.m_tupleObjectID=objectID;
+            }
+            return objectID;
+        }
+        else
+            return getSharedObjectID(object);
+    }
+    public Object getObject(int objectID) {
+        return objectID<0 ? null : m_objectsByID[objectID];
+    }
+    /**
+     * Removes all objects. The tables are reallocated with their initial capacity, so that a registry that has grown
+     * during one test does not keep its memory in later tests.
+     */
+    public void clear() {
+        m_objectsByID=new Object[INITIAL_CAPACITY];
+        m_numberOfObjects=0;
+        m_sharedObjects=new Object[INITIAL_CAPACITY];
+        m_sharedObjectIDs=new int[INITIAL_CAPACITY];
+        m_numberOfSharedObjects=0;
+    }
+    protected int getSharedObjectID(Object object) {
+        int mask=m_sharedObjects.length-1;
+        int index=System.identityHashCode(object) & mask;
+        while (m_sharedObjects[index]!=null) {
+            if (m_sharedObjects[index]==object)
+                return m_sharedObjectIDs[index];
+            index=(index+1) & mask;
+        }
+        int objectID=addObject(object);
+        m_sharedObjects[index]=object;
+        m_sharedObjectIDs[index]=objectID;
+        m_numberOfSharedObjects++;
+        if (m_numberOfSharedObjects*4>m_sharedObjects.length*3)
+            resizeSharedObjects();
+        return objectID;
+    }
+    protected void resizeSharedObjects() {
+        Object[] oldSharedObjects=m_sharedObjects;
+        int[] oldSharedObjectIDs=m_sharedObjectIDs;
+        m_sharedObjects=new Object[oldSharedObjects.length*2];
+        m_sharedObjectIDs=new int[oldSharedObjects.length*2];
+        int mask=m_sharedObjects.length-1;
+        for (int oldIndex=0;oldIndex<oldSharedObjects.length;oldIndex++) {
+            Object object=oldSharedObjects[oldIndex];
+            if (object!=null) {
+                int index=System.identityHashCode(object) & mask;
+                while (m_sharedObjects[index]!=null)
+                    index=(index+1) & mask;
+                m_sharedObjects[index]=object;
+                m_sharedObjectIDs[index]=oldSharedObjectIDs[oldIndex];
+            }
+        }
+    }
+    protected int addObject(Object object) {
+        if (m_numberOfObjects==m_objectsByID.length) {
+            Object[] newObjectsByID=new Object[m_objectsByID.length*3/2];
+            System.arraycopy(m_objectsByID,0,newObjectsByID,0,m_numberOfObjects);
+            m_objectsByID=newObjectsByID;
+        }
+        m_objectsByID[m_numberOfObjects]=object;
+        return m_numberOfObjects++;
+    }
+}
@@ -0,0 +1,118 @@
+package org.semanticweb.HermiT.graph;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class BitSetGraphTest extends TestCase {
+
+    public BitSetGraphTest(String name) {
+        super(name);
+    }
+    public void testSparseBitSetAgreesWithBitSet() {
+        Random random=new Random(17);
+        for (int iteration=0;iteration<200;iteration++) {
+            SparseBitSet sparse1=new SparseBitSet();
+            SparseBitSet sparse2=new SparseBitSet();
+            BitSet dense1=new BitSet();
+            BitSet dense2=new BitSet();
+            int range=1+random.nextInt(iteration%2==0 ? 100 : 5000);
+            for (int index=random.nextInt(60);index>0;--index) {
+                int bit=random.nextInt(range);
+                assertEquals(!dense1.get(bit),sparse1.set(bit));
+                dense1.set(bit);
+                bit=random.nextInt(range);
+                sparse2.set(bit);
+                dense2.set(bit);
+            }
+            for (int index=random.nextInt(10);index>0;--index) {
+                int bit=random.nextInt(range);
+                assertEquals(dense1.get(bit),sparse1.clear(bit));
+                dense1.clear(bit);
+            }
+            assertEqualBits(dense1,sparse1);
+            assertEquals(dense1.cardinality(),sparse1.cardinality());
+            SparseBitSet sparseUnion=new SparseBitSet(sparse1);
+            BitSet denseUnion=(BitSet)dense1.clone();
+            denseUnion.or(dense2);
+            assertEquals(!denseUnion.equals(dense1),sparseUnion.or(sparse2));
+            assertEqualBits(denseUnion,sparseUnion);
+            SparseBitSet sparseDifference=new SparseBitSet(sparse1);
+            BitSet denseDifference=(BitSet)dense1.clone();
+            denseDifference.andNot(dense2);
+            sparseDifference.andNot(sparse2);
+            assertEqualBits(denseDifference,sparseDifference);
+            assertEquals(denseDifference.isEmpty(),sparseDifference.isEmpty());
+            SparseBitSet sparseIntersection=new SparseBitSet(sparse1);
+            BitSet denseIntersection=(BitSet)dense1.clone();
+            denseIntersection.and(dense2);
+            assertEquals(!denseIntersection.equals(dense1),sparseIntersection.and(sparse2));
+            assertEqualBits(denseIntersection,sparseIntersection);
+            BitSet denseRemainder=(BitSet)dense2.clone();
+            denseRemainder.andNot(dense1);
+            assertEquals(denseRemainder.isEmpty(),sparse1.containsAll(sparse2));
+            assertTrue(sparseUnion.containsAll(sparse1));
+            assertTrue(sparse1.containsAll(sparseDifference));
+        }
+    }
+    public void testReachability() {
+        BitSetGraph<String> graph=new BitSetGraph<String>();
+        graph.addEdge("a","b");
+        graph.addEdge("b","c");
+        graph.addEdge("c","b");
+        graph.addEdge("d","a");
+        assertTrue(graph.isReachableSuccessor("a","c"));
+        assertTrue(graph.isReachableSuccessor("d","c"));
+        assertTrue(graph.isReachableSuccessor("a","a"));
+        assertFalse(graph.isReachableSuccessor("c","a"));
+        assertEquals(3,graph.getReachableSuccessors("a").size());
+        BitSetGraph<String> other=new BitSetGraph<String>(graph);
+        other.addEdges("d",graph.getElements());
+        other.removeEdges("d",graph.getReachableSuccessorIndexes("b"));
+        assertEquals(2,other.getSuccessors("d").size());
+        assertTrue(other.containsEdge("d","a"));
+        assertTrue(other.containsEdge("d","d"));
+        assertFalse(graph.hasSuccessors("e"));
+        other.addEdges("d",graph.getElements());
+        other.retainEdges("d",graph.getReachableSuccessorIndexes("b"));
+        assertEquals(2,other.getSuccessors("d").size());
+        assertTrue(other.containsEdge("d","c"));
+        assertFalse(other.containsEdge("d","a"));
+        other.addEdge("d","d");
+        assertTrue(other.removeEdge("d","d"));
+        other.clearSuccessors("d");
+        assertFalse(other.hasSuccessors("d"));
+    }
+    public void testTransitiveClosureAgreesWithGraph() {
+        Random random=new Random(5);
+        for (int iteration=0;iteration<100;iteration++) {
+            Graph<Integer> graph=new Graph<Integer>();
+            BitSetGraph<Integer> bitSetGraph=new BitSetGraph<Integer>();
+            int numberOfElements=1+random.nextInt(150);
+            int numberOfEdges=random.nextInt(numberOfElements*2);
+            for (int index=0;index<numberOfEdges;index++) {
+                Integer from=Integer.valueOf(random.nextInt(numberOfElements));
+                Integer to=Integer.valueOf(random.nextInt(numberOfElements));
+                graph.addEdge(from,to);
+                bitSetGraph.addEdge(from,to);
+            }
+            graph.transitivelyClose();
+            bitSetGraph.transitivelyClose();
+            for (Integer element : graph.getElements())
+                assertEquals(graph.getSuccessors(element),bitSetGraph.getSuccessors(element));
+            assertEquals(graph.getElements(),bitSetGraph.getElements());
+        }
+    }
+    protected static void assertEqualBits(BitSet expected,SparseBitSet actual) {
+        int expectedBit=expected.nextSetBit(0);
+        int actualBit=actual.nextSetBit(0);
+        while (expectedBit>=0) {
+            assertEquals(expectedBit,actualBit);
+            assertTrue(actual.get(expectedBit));
+            expectedBit=expected.nextSetBit(expectedBit+1);
+            actualBit=actual.nextSetBit(actualBit+1);
+        }
+        assertEquals(-1,actualBit);
+    }
+}
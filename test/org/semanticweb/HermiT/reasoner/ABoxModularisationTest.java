@@ -0,0 +1,119 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.HermiT.model.Individual;
+import org.semanticweb.HermiT.tableau.ABoxComponents;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+public class ABoxModularisationTest extends AbstractReasonerTest {
+
+    public ABoxModularisationTest(String name) {
+        super(name);
+    }
+    public void testComponents() throws Exception {
+        loadOntologyWithAxioms(
+            "SubClassOf(:A ObjectSomeValuesFrom(:r :B)) "+
+            "ClassAssertion(:A :a1) "+
+            "ObjectPropertyAssertion(:r :a1 :a2) "+
+            "SameIndividual(:a2 :a3) "+
+            "ClassAssertion(:B :b1) "+
+            "NegativeObjectPropertyAssertion(:r :b1 :b2) "+
+            "ClassAssertion(:A :c1)"
+        );
+        m_reasoner=new Reasoner(getModularisationConfiguration(1),m_ontology);
+        ABoxComponents components=m_reasoner.getTableau().getPermanentABoxComponents();
+        assertNotNull(components);
+        assertEquals(3,components.getNumberOfComponents());
+        assertSame(components.getComponent(Individual.create(NS+"a1")),components.getComponent(Individual.create(NS+"a3")));
+        assertSame(components.getComponent(Individual.create(NS+"b1")),components.getComponent(Individual.create(NS+"b2")));
+        assertNotSame(components.getComponent(Individual.create(NS+"a1")),components.getComponent(Individual.create(NS+"c1")));
+    }
+    public void testNominalsPreventModularisation() throws Exception {
+        loadOntologyWithAxioms(
+            "SubClassOf(:A ObjectHasValue(:r :b)) "+
+            "ClassAssertion(:A :a) "+
+            "ClassAssertion(:B :c)"
+        );
+        m_reasoner=new Reasoner(getModularisationConfiguration(1),m_ontology);
+        assertNull(m_reasoner.getTableau().getPermanentABoxComponents());
+    }
+    public void testInconsistentComponent() throws Exception {
+        loadOntologyWithAxioms(getIslands(20)+
+            "SubClassOf(ObjectIntersectionOf(:C :D) owl:Nothing) "+
+            "ClassAssertion(:A :a7) "+
+            "ClassAssertion(ObjectAllValuesFrom(:r :D) :a7)"
+        );
+        m_reasoner=new Reasoner(getModularisationConfiguration(1),m_ontology);
+        assertFalse(m_reasoner.isConsistent());
+        m_reasoner.dispose();
+        m_reasoner=new Reasoner(getModularisationConfiguration(4),m_ontology);
+        assertFalse(m_reasoner.isConsistent());
+    }
+    public void testIslands() throws Exception {
+        loadOntologyWithAxioms(getIslands(30));
+        assertModularisationPreservesResults();
+        assertEquals(30,m_reasoner.getTableau().getPermanentABoxComponents().getNumberOfComponents());
+    }
+    public void testFamilies() throws Exception {
+        loadOntologyFromResource("res/families.owl");
+        assertModularisationPreservesResults();
+    }
+    protected String getIslands(int numberOfIslands) {
+        StringBuffer buffer=new StringBuffer();
+        buffer.append("SubClassOf(:A ObjectSomeValuesFrom(:r :C)) ");
+        buffer.append("SubClassOf(:C ObjectUnionOf(:D :E)) ");
+        buffer.append("SubClassOf(ObjectIntersectionOf(:E :F) owl:Nothing) ");
+        buffer.append("SubClassOf(ObjectSomeValuesFrom(:s :D) :G) ");
+        buffer.append("SubObjectPropertyOf(:r :s) ");
+        buffer.append("FunctionalObjectProperty(:s) ");
+        for (int index=0;index<numberOfIslands;index++) {
+            buffer.append("ObjectPropertyAssertion(:r :a"+index+" :b"+index+") ");
+            if (index%2==0)
+                buffer.append("ClassAssertion(:F :b"+index+") ");
+            if (index%3==0)
+                buffer.append("ClassAssertion(:A :a"+index+") ");
+            else
+                buffer.append("ClassAssertion(ObjectUnionOf(:D :A) :b"+index+") ");
+        }
+        return buffer.toString();
+    }
+    protected void assertModularisationPreservesResults() {
+        m_reasoner=new Reasoner(getConfiguration(),m_ontology);
+        Map<Object,Object> expectedResults=getResults();
+        m_reasoner.dispose();
+        m_reasoner=new Reasoner(getModularisationConfiguration(1),m_ontology);
+        assertEquals(expectedResults,getResults());
+        m_reasoner.dispose();
+        m_reasoner=new Reasoner(getModularisationConfiguration(4),m_ontology);
+        assertEquals(expectedResults,getResults());
+    }
+    protected Configuration getModularisationConfiguration(int numberOfThreads) {
+        Configuration configuration=getConfiguration();
+        configuration.useABoxModularisation=true;
+        configuration.numberOfRealisationThreads=numberOfThreads;
+        return configuration;
+    }
+    protected Map<Object,Object> getResults() {
+        Map<Object,Object> results=new HashMap<Object,Object>();
+        results.put("consistent",m_reasoner.isConsistent());
+        m_reasoner.precomputeInferences(InferenceType.CLASS_ASSERTIONS,InferenceType.OBJECT_PROPERTY_ASSERTIONS);
+        for (OWLClass owlClass : m_ontology.getClassesInSignature(true))
+            results.put("instances of "+owlClass,m_reasoner.getInstances(owlClass,false).getFlattened());
+        Set<OWLNamedIndividual> individuals=m_ontology.getIndividualsInSignature(true);
+        for (OWLObjectProperty objectProperty : m_ontology.getObjectPropertiesInSignature(true))
+            for (OWLNamedIndividual individual : individuals)
+                results.put(objectProperty+" values of "+individual,m_reasoner.getObjectPropertyValues(individual,objectProperty).getFlattened());
+        for (OWLNamedIndividual individual : individuals)
+            for (OWLClass owlClass : m_ontology.getClassesInSignature(true))
+                results.put(individual+" is instance of "+owlClass,m_reasoner.isEntailed(m_dataFactory.getOWLClassAssertionAxiom(owlClass,individual)));
+        return results;
+    }
+}
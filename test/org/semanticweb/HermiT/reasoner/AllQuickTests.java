@@ -20,6 +20,12 @@ public class AllQuickTests extends TestCase {
         suite.addTestSuite(ReasonerTest.class);
         suite.addTestSuite(ReasonerIndividualReuseTest.class);
         suite.addTestSuite(ReasonerCoreBlockingTest.class);
+        suite.addTestSuite(ReasonerIntTupleStorageTest.class);
+        suite.addTestSuite(ReasonerDirectTupleStorageTest.class);
+        suite.addTestSuite(ReasonerJoinLoopsTest.class);
+        suite.addTestSuite(ReasonerBatchedDeltaTest.class);
+        suite.addTestSuite(ReasonerSaturatedABoxCacheTest.class);
+        suite.addTestSuite(ReasonerTableauPoolTest.class);
         suite.addTestSuite(ComplexConceptTest.class);
         suite.addTestSuite(EntailmentTest.class);
         suite.addTestSuite(RIATest.class);
@@ -27,6 +33,20 @@ public class AllQuickTests extends TestCase {
         suite.addTestSuite(RulesTest.class);
         suite.addTestSuite(OWLReasonerTest.class);
         suite.addTestSuite(DatalogEngineTest.class);
+        suite.addTestSuite(HierarchyCacheTest.class);
+        suite.addTestSuite(ReasonerSnapshotTest.class);
+        suite.addTestSuite(QuerySnapshotTest.class);
+        suite.addTestSuite(SubsumptionCacheTest.class);
+        suite.addTestSuite(StreamingInstancesTest.class);
+        suite.addTestSuite(BlockingSignatureCacheTest.class);
+        suite.addTestSuite(SubsetBlockingTest.class);
+        suite.addTestSuite(IncrementalBlockingTest.class);
+        suite.addTestSuite(BitSetBlockingTest.class);
+        suite.addTestSuite(TableauWorkQueueTest.class);
+        suite.addTestSuite(RealisationParallelTest.class);
+        suite.addTestSuite(ABoxModularisationTest.class);
+        suite.addTestSuite(IncrementalClassificationTest.class);
+        suite.addTestSuite(JoinOrderingTest.class);
         // $JUnit-END$
         return suite;
     }
@@ -0,0 +1,89 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.io.File;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.blocking.BitSetDirectBlockingChecker;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.monitor.CountingMonitor;
+
+public class BitSetBlockingTest extends AbstractReasonerTest {
+    protected CountingMonitor m_countingMonitor;
+
+    public BitSetBlockingTest(String name) {
+        super(name);
+    }
+    protected Configuration getConfiguration() {
+        Configuration configuration=super.getConfiguration();
+        configuration.directBlockingType=Configuration.DirectBlockingType.BITSET;
+        m_countingMonitor=new CountingMonitor();
+        configuration.monitor=m_countingMonitor;
+        return configuration;
+    }
+    protected Configuration getSingleBlockingConfiguration() {
+        Configuration configuration=getConfiguration();
+        configuration.directBlockingType=Configuration.DirectBlockingType.SINGLE;
+        return configuration;
+    }
+    public void testBitSetBlockingAgreesWithSingleBlocking() throws Exception {
+        loadReasonerWithAxioms(
+            "SubClassOf(:A ObjectSomeValuesFrom(:r ObjectIntersectionOf(:B :C))) "+
+            "SubClassOf(:B ObjectSomeValuesFrom(:r ObjectUnionOf(:B :D))) "+
+            "SubClassOf(:C ObjectAllValuesFrom(:r :F)) "+
+            "SubClassOf(ObjectIntersectionOf(:B :F) ObjectSomeValuesFrom(:s :G)) "+
+            "SubClassOf(ObjectIntersectionOf(:G :H) owl:Nothing) "+
+            "SubClassOf(:K ObjectIntersectionOf(:A ObjectAllValuesFrom(:r :F) ObjectAllValuesFrom(:r ObjectAllValuesFrom(:s :H))))"
+        );
+        String bitSetBlockingHierarchies=getHierarchiesAsText();
+        assertSatisfiable("K",false);
+        assertSatisfiable("A",true);
+        int bitSetBlockingNodes=m_countingMonitor.getNumberOfNodes();
+        createReasoner(getSingleBlockingConfiguration(),null);
+        assertEquals(getHierarchiesAsText(),bitSetBlockingHierarchies);
+        assertSatisfiable("K",false);
+        assertSatisfiable("A",true);
+        assertEquals(bitSetBlockingNodes,m_countingMonitor.getNumberOfNodes());
+    }
+    public void testSignaturesAreReloaded() throws Exception {
+        File cacheDirectory=File.createTempFile("hermit-bitset-blocking",null);
+        cacheDirectory.delete();
+        cacheDirectory.mkdir();
+        try {
+            Configuration configuration=getConfiguration();
+            configuration.blockingSignatureCacheDirectory=cacheDirectory;
+            loadOntologyWithAxioms(
+                "SubClassOf(:A ObjectSomeValuesFrom(:r :B)) "+
+                "SubClassOf(:B ObjectSomeValuesFrom(:r :C)) "+
+                "SubClassOf(:C ObjectSomeValuesFrom(:r :B)) "+
+                "SubClassOf(:C ObjectUnionOf(:D :E)) "+
+                "SubClassOf(ObjectSomeValuesFrom(:r :D) :F)"
+            );
+            createReasoner(configuration,null);
+            String hierarchies=getHierarchiesAsText();
+            int numberOfSignatures=m_reasoner.getBlockingSignatureCache().size();
+            assertTrue(numberOfSignatures>0);
+            m_reasoner.dispose();
+            createReasoner(configuration,null);
+            assertEquals(numberOfSignatures,m_reasoner.getBlockingSignatureCache().size());
+            assertEquals(hierarchies,getHierarchiesAsText());
+        }
+        finally {
+            if (m_reasoner!=null)
+                m_reasoner.dispose();
+            File[] files=cacheDirectory.listFiles();
+            if (files!=null)
+                for (File file : files)
+                    file.delete();
+            cacheDirectory.delete();
+        }
+    }
+    public void testAtomicConceptsAreNumberedDensely() {
+        BitSetDirectBlockingChecker checker=new BitSetDirectBlockingChecker();
+        AtomicConcept a=AtomicConcept.create("http://example.org/A");
+        AtomicConcept b=AtomicConcept.create("http://example.org/B");
+        assertEquals(0,checker.getAtomicConceptIndex(a));
+        assertEquals(1,checker.getAtomicConceptIndex(b));
+        assertEquals(0,checker.getAtomicConceptIndex(a));
+        assertSame(b,checker.getAtomicConcept(1));
+    }
+}
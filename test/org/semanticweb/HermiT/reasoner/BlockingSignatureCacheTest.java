@@ -0,0 +1,111 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.blocking.BlockingSignatureCache;
+import org.semanticweb.HermiT.blocking.ValidatedSingleDirectBlockingChecker;
+import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.HermiT.tableau.Tableau;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.reasoner.Node;
+import org.semanticweb.owlapi.reasoner.NodeSet;
+
+public class BlockingSignatureCacheTest extends AbstractReasonerTest {
+    protected File m_cacheDirectory;
+
+    public BlockingSignatureCacheTest(String name) {
+        super(name);
+    }
+    protected void setUp() throws Exception {
+        super.setUp();
+        m_cacheDirectory=File.createTempFile("hermit-blocking-signature-cache",null);
+        m_cacheDirectory.delete();
+        m_cacheDirectory.mkdir();
+    }
+    protected void tearDown() {
+        if (m_reasoner!=null)
+            m_reasoner.dispose();
+        File[] files=m_cacheDirectory.listFiles();
+        if (files!=null)
+            for (File file : files)
+                file.delete();
+        m_cacheDirectory.delete();
+        super.tearDown();
+    }
+    protected Configuration getConfiguration() {
+        Configuration configuration=super.getConfiguration();
+        configuration.blockingSignatureCacheDirectory=m_cacheDirectory;
+        return configuration;
+    }
+    public void testSingleBlockingSignaturesAreReloaded() throws Exception {
+        assertSignaturesAreReloaded(
+            "SubClassOf(:A ObjectSomeValuesFrom(:r :B)) "+
+            "SubClassOf(:B ObjectSomeValuesFrom(:r :C)) "+
+            "SubClassOf(:C ObjectSomeValuesFrom(:r :B)) "+
+            "SubClassOf(:C ObjectUnionOf(:D :E)) "+
+            "SubClassOf(ObjectSomeValuesFrom(:r :D) :F)"
+        );
+    }
+    public void testPairWiseBlockingSignaturesAreReloaded() throws Exception {
+        assertSignaturesAreReloaded(
+            "InverseObjectProperties(:r :s) "+
+            "SubClassOf(:A ObjectSomeValuesFrom(:r :B)) "+
+            "SubClassOf(:B ObjectSomeValuesFrom(:r :C)) "+
+            "SubClassOf(:C ObjectSomeValuesFrom(:r :B)) "+
+            "SubClassOf(:C ObjectAllValuesFrom(:s :D)) "+
+            "SubClassOf(ObjectSomeValuesFrom(:r :D) :F)"
+        );
+    }
+    public void testUsableWithFreshQueryConcepts() throws Exception {
+        loadReasonerWithAxioms(
+            "SubClassOf(:A ObjectSomeValuesFrom(:r :B)) "+
+            "SubClassOf(:B ObjectSomeValuesFrom(:r :B)) "+
+            "SubClassOf(ObjectSomeValuesFrom(:r :C) :C)"
+        );
+        m_reasoner.classifyClasses();
+        assertFalse(m_reasoner.getBlockingSignatureCache().isEmpty());
+        OWLClassExpression someRB=SVF(NS_OP("r"),NS_C("B"));
+        Tableau tableau=m_reasoner.getTableau(m_dataFactory.getOWLSubClassOfAxiom(NS_C("Q"),m_dataFactory.getOWLObjectIntersectionOf(someRB,NS_C("A"))));
+        DLOntology additionalDLOntology=tableau.getAdditionalDLOntology();
+        assertTrue(BlockingSignatureCache.isUsableWith(tableau.getPermanentDLOntology(),additionalDLOntology));
+        tableau=m_reasoner.getTableau(m_dataFactory.getOWLSubClassOfAxiom(NS_C("B"),NS_C("C")));
+        assertFalse(BlockingSignatureCache.isUsableWith(tableau.getPermanentDLOntology(),tableau.getAdditionalDLOntology()));
+        // a test with an additional DL-ontology that is affected by the cached signatures
+        assertTrue(m_reasoner.isSatisfiable(m_dataFactory.getOWLObjectIntersectionOf(someRB,m_dataFactory.getOWLObjectComplementOf(NS_C("C")))));
+        assertFalse(m_reasoner.isSatisfiable(m_dataFactory.getOWLObjectIntersectionOf(SVF(NS_OP("r"),m_dataFactory.getOWLObjectIntersectionOf(NS_C("B"),NS_C("C"))),m_dataFactory.getOWLObjectComplementOf(NS_C("C")))));
+    }
+    public void testNonPersistentSignaturesAreNotSaved() throws Exception {
+        BlockingSignatureCache blockingSignatureCache=new BlockingSignatureCache(new ValidatedSingleDirectBlockingChecker(false));
+        assertFalse(blockingSignatureCache.isPersistent());
+        File file=new File(m_cacheDirectory,"validated.signatures");
+        try {
+            blockingSignatureCache.save(file,"validated");
+            fail();
+        }
+        catch (IOException expected) {
+        }
+        assertFalse(file.exists());
+        assertFalse(blockingSignatureCache.load(file,"validated"));
+    }
+    protected void assertSignaturesAreReloaded(String axioms) throws Exception {
+        loadReasonerWithAxioms(axioms);
+        NodeSet<OWLClass> subClasses=m_reasoner.getSubClasses(m_dataFactory.getOWLThing(),false);
+        Node<OWLClass> unsatisfiableClasses=m_reasoner.getUnsatisfiableClasses();
+        BlockingSignatureCache blockingSignatureCache=m_reasoner.getBlockingSignatureCache();
+        assertFalse(blockingSignatureCache.isEmpty());
+        int numberOfSignatures=blockingSignatureCache.size();
+        m_reasoner.dispose();
+        createReasoner();
+        assertEquals(numberOfSignatures,m_reasoner.getBlockingSignatureCache().size());
+        assertEquals(subClasses,m_reasoner.getSubClasses(m_dataFactory.getOWLThing(),false));
+        assertEquals(unsatisfiableClasses,m_reasoner.getUnsatisfiableClasses());
+        m_reasoner.dispose();
+        // a reasoner without a cache directory starts with an empty cache
+        Configuration configuration=super.getConfiguration();
+        createReasoner(configuration,null);
+        assertTrue(m_reasoner.getBlockingSignatureCache().isEmpty());
+    }
+}
@@ -0,0 +1,42 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.owlapi.reasoner.ReasonerProgressMonitor;
+
+public class ClassificationParallelTest extends ClassificationTest {
+
+    public ClassificationParallelTest(String name) {
+        super(name);
+    }
+    protected Configuration getConfiguration() {
+        Configuration configuration=super.getConfiguration();
+        configuration.numberOfClassificationThreads=4;
+        return configuration;
+    }
+    public void testProgressIsNotOverReported() throws Exception {
+        String axioms="";
+        for (int index=0;index<20;index++)
+            axioms+="SubClassOf(:A"+index+" ObjectUnionOf(:B"+index+" :C"+index+" :A"+(index+1)+")) SubClassOf(:B"+index+" :D"+index+") SubClassOf(:C"+index+" :D"+index+") ";
+        loadOntologyWithAxioms(axioms);
+        Configuration configuration=getConfiguration();
+        configuration.forceQuasiOrderClassification=true;
+        final int[] progress=new int[] { 0,0,-1 };
+        configuration.reasonerProgressMonitor=new ReasonerProgressMonitor() {
+            public void reasonerTaskStarted(String taskName) {
+            }
+            public void reasonerTaskStopped() {
+            }
+            public void reasonerTaskProgressChanged(int value,int max) {
+                progress[0]=Math.max(progress[0],value);
+                progress[1]++;
+                progress[2]=max;
+            }
+            public void reasonerTaskBusy() {
+            }
+        };
+        createReasoner(configuration,null);
+        m_reasoner.classifyClasses();
+        assertEquals(progress[2],progress[0]);
+        assertEquals(progress[2],progress[1]);
+    }
+}
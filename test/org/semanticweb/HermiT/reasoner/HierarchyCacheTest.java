@@ -0,0 +1,117 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.io.CharArrayWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.hierarchy.Hierarchy;
+import org.semanticweb.HermiT.hierarchy.HierarchyCache;
+import org.semanticweb.HermiT.hierarchy.HierarchyDumperFSS;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.Role;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+
+public class HierarchyCacheTest extends AbstractReasonerTest {
+    protected File m_cacheDirectory;
+
+    public HierarchyCacheTest(String name) {
+        super(name);
+    }
+    protected void setUp() throws Exception {
+        super.setUp();
+        m_cacheDirectory=File.createTempFile("hermit-hierarchy-cache",null);
+        m_cacheDirectory.delete();
+        m_cacheDirectory.mkdir();
+    }
+    protected void tearDown() {
+        File[] files=m_cacheDirectory.listFiles();
+        if (files!=null)
+            for (File file : files)
+                file.delete();
+        m_cacheDirectory.delete();
+        super.tearDown();
+    }
+    protected Configuration getConfiguration() {
+        Configuration configuration=super.getConfiguration();
+        configuration.hierarchyCacheDirectory=m_cacheDirectory;
+        return configuration;
+    }
+    public void testWine() throws Exception {
+        loadReasonerFromResource("res/wine.xml");
+        assertHierarchies("res/wine.xml.txt");
+        HierarchyCache hierarchyCache=new HierarchyCache(m_cacheDirectory,m_reasoner.getDLOntology(),getConfiguration());
+        Hierarchy<AtomicConcept> atomicConceptHierarchy=hierarchyCache.loadAtomicConceptHierarchy();
+        Hierarchy<Role> objectRoleHierarchy=hierarchyCache.loadObjectRoleHierarchy();
+        assertNotNull(atomicConceptHierarchy);
+        assertNotNull(objectRoleHierarchy);
+        CharArrayWriter buffer=new CharArrayWriter();
+        PrintWriter output=new PrintWriter(buffer);
+        HierarchyDumperFSS dumper=new HierarchyDumperFSS(output);
+        dumper.printAtomicConceptHierarchy(atomicConceptHierarchy);
+        dumper.printObjectPropertyHierarchy(objectRoleHierarchy);
+        output.flush();
+        assertEquals(getDumpedHierarchyLines(),new HashSet<String>(Arrays.asList(buffer.toString().split("\\n"))));
+        // a new reasoner for the same ontology takes the hierarchies from the cache
+        createReasoner();
+        assertHierarchies("res/wine.xml.txt");
+    }
+    public void testCachedHierarchyIsUsed() throws Exception {
+        // store the hierarchy of a different ontology under the fingerprint of the ontology
+        loadReasonerWithAxioms("SubClassOf(:A :B) SubClassOf(:C :B)");
+        m_reasoner.classifyClasses();
+        HierarchyCache otherHierarchyCache=new HierarchyCache(m_cacheDirectory,m_reasoner.getDLOntology(),getConfiguration());
+        Hierarchy<AtomicConcept> otherAtomicConceptHierarchy=otherHierarchyCache.loadAtomicConceptHierarchy();
+        assertNotNull(otherAtomicConceptHierarchy);
+        m_ontologyManager.removeOntology(m_ontology);
+        loadReasonerWithAxioms("SubClassOf(:A :B) Declaration(Class(:C))");
+        HierarchyCache hierarchyCache=new HierarchyCache(m_cacheDirectory,m_reasoner.getDLOntology(),getConfiguration());
+        assertFalse(hierarchyCache.getFingerprint().equals(otherHierarchyCache.getFingerprint()));
+        hierarchyCache.saveAtomicConceptHierarchy(otherAtomicConceptHierarchy);
+        OWLClass c=m_dataFactory.getOWLClass(IRI.create(NS+"C"));
+        OWLClass b=m_dataFactory.getOWLClass(IRI.create(NS+"B"));
+        assertTrue(m_reasoner.getSuperClasses(c,true).containsEntity(b));
+    }
+    public void testDamagedCacheFile() throws Exception {
+        loadReasonerFromResource("res/pizza.xml");
+        HierarchyCache hierarchyCache=new HierarchyCache(m_cacheDirectory,m_reasoner.getDLOntology(),getConfiguration());
+        writeGarbage(new File(m_cacheDirectory,hierarchyCache.getFingerprint()+".classes"));
+        assertNull(hierarchyCache.loadAtomicConceptHierarchy());
+        assertHierarchies("res/pizza.xml.txt");
+        assertNotNull(hierarchyCache.loadAtomicConceptHierarchy());
+    }
+    public void testFingerprint() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:A :B) SubClassOf(:B ObjectSomeValuesFrom(:r :C))");
+        String fingerprint1=HierarchyCache.computeFingerprint(m_reasoner.getDLOntology(),getConfiguration());
+        m_ontologyManager.removeOntology(m_ontology);
+        loadReasonerWithAxioms("SubClassOf(:B ObjectSomeValuesFrom(:r :C)) SubClassOf(:A :B)");
+        String fingerprint2=HierarchyCache.computeFingerprint(m_reasoner.getDLOntology(),getConfiguration());
+        m_ontologyManager.removeOntology(m_ontology);
+        loadReasonerWithAxioms("SubClassOf(:A :B) SubClassOf(:B ObjectSomeValuesFrom(:r :D))");
+        String fingerprint3=HierarchyCache.computeFingerprint(m_reasoner.getDLOntology(),getConfiguration());
+        assertEquals(fingerprint1,fingerprint2);
+        assertFalse(fingerprint1.equals(fingerprint3));
+    }
+    protected Set<String> getDumpedHierarchyLines() {
+        CharArrayWriter buffer=new CharArrayWriter();
+        PrintWriter output=new PrintWriter(buffer);
+        m_reasoner.dumpHierarchies(output,true,true,false);
+        output.flush();
+        return new HashSet<String>(Arrays.asList(buffer.toString().split("\\n")));
+    }
+    protected static void writeGarbage(File file) throws IOException {
+        FileOutputStream output=new FileOutputStream(file);
+        try {
+            output.write(new byte[] { 1,2,3,4,5,6,7,8,9 });
+        }
+        finally {
+            output.close();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.monitor.CountingMonitor;
+import org.semanticweb.HermiT.tableau.Node;
+
+public class IncrementalBlockingTest extends AbstractReasonerTest {
+    protected ReexaminationMonitor m_countingMonitor;
+
+    public IncrementalBlockingTest(String name) {
+        super(name);
+    }
+    protected Configuration getConfiguration() {
+        Configuration configuration=super.getConfiguration();
+        configuration.blockingSignatureCacheType=Configuration.BlockingSignatureCacheType.NOT_CACHED;
+        m_countingMonitor=new ReexaminationMonitor();
+        configuration.monitor=m_countingMonitor;
+        return configuration;
+    }
+    public void testReexaminedNodesAreCounted() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:A ObjectSomeValuesFrom(:r :B)) SubClassOf(:B ObjectSomeValuesFrom(:r :C)) SubClassOf(:C ObjectSomeValuesFrom(:r :B))");
+        assertSatisfiable("A",true);
+        int numberOfNodes=m_countingMonitor.getNumberOfNodes();
+        int numberOfReexaminedNodes=m_countingMonitor.getNumberOfReexaminedNodes();
+        assertTrue(numberOfReexaminedNodes>=numberOfNodes);
+        assertTrue(m_countingMonitor.getOverallNumberOfReexaminedNodes()>=numberOfReexaminedNodes);
+    }
+    public void testBlocksAreRecomputedAfterBacktracking() throws Exception {
+        loadReasonerWithAxioms(
+            "SubClassOf(:A ObjectSomeValuesFrom(:r :B)) "+
+            "SubClassOf(:B ObjectSomeValuesFrom(:r ObjectIntersectionOf(:B ObjectUnionOf(:C :D)))) "+
+            "SubClassOf(:C ObjectSomeValuesFrom(:s :E)) "+
+            "SubClassOf(ObjectIntersectionOf(:D :F) owl:Nothing) "+
+            "SubClassOf(:A ObjectAllValuesFrom(:r ObjectAllValuesFrom(:r :F))) "+
+            "SubClassOf(:G ObjectIntersectionOf(:A ObjectAllValuesFrom(:r ObjectAllValuesFrom(:r ObjectAllValuesFrom(:s owl:Nothing)))))"
+        );
+        assertSatisfiable("A",true);
+        assertSatisfiable("G",false);
+        assertSubsumedBy("G","A",true);
+        assertSubsumedBy("A","G",false);
+    }
+    public void testLateChangeReexaminesOnlyAffectedNodes() throws Exception {
+        // All nodes are created before the disjunction on the B-node is processed, so adding D to that node changes
+        // only the B-node; its successors keep their labels and need not be reexamined.
+        loadReasonerWithAxioms(
+            "SubClassOf(:A ObjectSomeValuesFrom(:r :B)) "+
+            "SubClassOf(:B ObjectUnionOf(:D :E)) "+
+            "SubClassOf(:B ObjectSomeValuesFrom(:r :C1)) "+
+            "SubClassOf(:C1 ObjectSomeValuesFrom(:r :C2)) "+
+            "SubClassOf(:C2 ObjectSomeValuesFrom(:r :C3)) "+
+            "SubClassOf(:C3 ObjectSomeValuesFrom(:r :C4)) "+
+            "SubClassOf(:C4 ObjectSomeValuesFrom(:r :C5)) "+
+            "SubClassOf(:C5 ObjectSomeValuesFrom(:r :C6))"
+        );
+        assertSatisfiable("A",true);
+        assertTrue(m_countingMonitor.m_reexaminedFewerThanNodesAfterFirstChange);
+    }
+
+    protected static class ReexaminationMonitor extends CountingMonitor {
+        private static final long serialVersionUID=-3521394760519265271L;
+
+        protected int m_firstChangedNodeID=Integer.MAX_VALUE;
+        protected boolean m_reexaminedFewerThanNodesAfterFirstChange;
+
+        public void addFactFinished(Object[] tuple,boolean isCore,boolean factAdded) {
+            super.addFactFinished(tuple,isCore,factAdded);
+            if (factAdded)
+                conceptAssertionChanged(tuple);
+        }
+        public void tupleRemoved(Object[] tuple) {
+            super.tupleRemoved(tuple);
+            conceptAssertionChanged(tuple);
+        }
+        protected void conceptAssertionChanged(Object[] tuple) {
+            if (tuple.length==2 && tuple[0] instanceof AtomicConcept)
+                m_firstChangedNodeID=Math.min(m_firstChangedNodeID,((Node)tuple[1]).getNodeID());
+        }
+        public void blockingComputed(int numberOfReexaminedNodes) {
+            super.blockingComputed(numberOfReexaminedNodes);
+            int numberOfNodesAfterFirstChange=0;
+            Node node=m_tableau.getFirstTableauNode();
+            while (node!=null) {
+                if (node.isActive() && node.getNodeID()>=m_firstChangedNodeID)
+                    numberOfNodesAfterFirstChange++;
+                node=node.getNextTableauNode();
+            }
+            if (numberOfReexaminedNodes<numberOfNodesAfterFirstChange)
+                m_reexaminedFewerThanNodesAfterFirstChange=true;
+            m_firstChangedNodeID=Integer.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.HermiT.monitor.TableauMonitorAdapter;
+import org.semanticweb.HermiT.tableau.ReasoningTaskDescription;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AddAxiom;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.RemoveAxiom;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+public class IncrementalClassificationTest extends AbstractReasonerTest {
+    protected static final String ONTOLOGY=
+        "SubClassOf(:A :B) "+
+        "SubClassOf(:B :C) "+
+        "SubClassOf(:D ObjectSomeValuesFrom(:r :A)) "+
+        "SubClassOf(ObjectSomeValuesFrom(:r :C) :E) "+
+        "SubClassOf(:F ObjectUnionOf(:G :H)) "+
+        "SubClassOf(:G :I) "+
+        "SubClassOf(:H :I) "+
+        "SubClassOf(:J :K) "+
+        "SubClassOf(:K :L) "+
+        "SubClassOf(:M ObjectIntersectionOf(:K ObjectAllValuesFrom(:s :N))) "+
+        "DisjointClasses(:N :O) "+
+        "SubClassOf(:P ObjectSomeValuesFrom(:s :O)) "+
+        "SubObjectPropertyOf(:t :s) "+
+        "SubClassOf(:Q ObjectSomeValuesFrom(:t owl:Thing))";
+
+    protected CountingMonitor m_countingMonitor;
+
+    public IncrementalClassificationTest(String name) {
+        super(name);
+    }
+    public void testAddSubsumption() throws Exception {
+        loadOntologyWithAxioms(ONTOLOGY);
+        assertIncrementalClassificationIsCorrect(true,"SubClassOf(:C :K)");
+    }
+    public void testRemoveSubsumption() throws Exception {
+        loadOntologyWithAxioms(ONTOLOGY);
+        assertIncrementalClassificationIsCorrect(false,"SubClassOf(:B :C)");
+    }
+    public void testMakeClassUnsatisfiable() throws Exception {
+        loadOntologyWithAxioms(ONTOLOGY);
+        assertIncrementalClassificationIsCorrect(true,"SubClassOf(:P :M)");
+    }
+    public void testAddEquivalence() throws Exception {
+        loadOntologyWithAxioms(ONTOLOGY);
+        assertIncrementalClassificationIsCorrect(true,"EquivalentClasses(:I :L)");
+    }
+    public void testAddNewClass() throws Exception {
+        loadOntologyWithAxioms(ONTOLOGY);
+        assertIncrementalClassificationIsCorrect(true,"SubClassOf(:R ObjectIntersectionOf(:E :K))");
+    }
+    public void testAddGlobalAxiom() throws Exception {
+        loadOntologyWithAxioms(ONTOLOGY);
+        assertIncrementalClassificationIsCorrect(true,"SubClassOf(owl:Thing ObjectAllValuesFrom(:r :J))");
+    }
+    public void testRemovePropertyAxiom() throws Exception {
+        loadOntologyWithAxioms(ONTOLOGY);
+        assertIncrementalClassificationIsCorrect(false,"SubObjectPropertyOf(:t :s)");
+    }
+    public void testSeveralFlushesBeforeClassification() throws Exception {
+        loadOntologyWithAxioms(ONTOLOGY);
+        createIncrementalReasoner();
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        applyChange(true,"SubClassOf(:C :K)");
+        m_reasoner.flush();
+        applyChange(false,"SubClassOf(:G :I)");
+        m_reasoner.flush();
+        assertEqualsHierarchyOfNewReasoner();
+    }
+    public void testFewerTestsThanFullClassification() throws Exception {
+        StringBuffer buffer=new StringBuffer();
+        for (int index=0;index<40;index++) {
+            buffer.append("SubClassOf(:A"+index+" ObjectUnionOf(:B"+index+" :C"+index+")) ");
+            buffer.append("SubClassOf(:B"+index+" :D"+index+") ");
+            buffer.append("SubClassOf(:C"+index+" :D"+index+") ");
+        }
+        loadOntologyWithAxioms(buffer.toString());
+        createIncrementalReasoner();
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        int fullClassificationTests=m_countingMonitor.m_numberOfTests;
+        m_countingMonitor.m_numberOfTests=0;
+        applyChange(true,"SubClassOf(:D0 :A1)");
+        m_reasoner.flush();
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        assertTrue(m_countingMonitor.m_numberOfTests<fullClassificationTests/4);
+        assertEqualsHierarchyOfNewReasoner();
+    }
+    protected void assertIncrementalClassificationIsCorrect(boolean add,String axioms) throws Exception {
+        createIncrementalReasoner();
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        applyChange(add,axioms);
+        m_reasoner.flush();
+        assertEqualsHierarchyOfNewReasoner();
+    }
+    protected void createIncrementalReasoner() {
+        Configuration configuration=getConfiguration();
+        configuration.useIncrementalClassification=true;
+        m_countingMonitor=new CountingMonitor();
+        configuration.monitor=m_countingMonitor;
+        m_reasoner=new Reasoner(configuration,m_ontology);
+    }
+    protected void applyChange(boolean add,String axioms) throws Exception {
+        for (OWLAxiom axiom : getAxioms(axioms))
+            if (add)
+                m_ontologyManager.applyChange(new AddAxiom(m_ontology,axiom));
+            else
+                m_ontologyManager.applyChange(new RemoveAxiom(m_ontology,axiom));
+    }
+    protected Set<OWLAxiom> getAxioms(String axioms) throws Exception {
+        OWLOntologyManager ontologyManager=m_ontologyManager;
+        OWLOntology ontology=m_ontology;
+        try {
+            m_ontologyManager=OWLManager.createOWLOntologyManager();
+            loadOntologyWithAxioms(axioms);
+            return new HashSet<OWLAxiom>(m_ontology.getLogicalAxioms());
+        }
+        finally {
+            m_ontologyManager=ontologyManager;
+            m_ontology=ontology;
+        }
+    }
+    protected void assertEqualsHierarchyOfNewReasoner() {
+        Map<OWLClass,Object> incrementalHierarchy=getHierarchy();
+        m_reasoner.dispose();
+        m_reasoner=new Reasoner(getConfiguration(),m_ontology);
+        assertEquals(getHierarchy(),incrementalHierarchy);
+    }
+    protected Map<OWLClass,Object> getHierarchy() {
+        Map<OWLClass,Object> result=new HashMap<OWLClass,Object>();
+        Set<OWLClass> classes=m_ontology.getClassesInSignature(true);
+        classes.add(m_dataFactory.getOWLThing());
+        classes.add(m_dataFactory.getOWLNothing());
+        for (OWLClass owlClass : classes) {
+            Map<String,Object> classInformation=new HashMap<String,Object>();
+            classInformation.put("equivalents",m_reasoner.getEquivalentClasses(owlClass).getEntities());
+            classInformation.put("superclasses",m_reasoner.getSuperClasses(owlClass,false).getFlattened());
+            classInformation.put("direct subclasses",m_reasoner.getSubClasses(owlClass,true).getFlattened());
+            result.put(owlClass,classInformation);
+        }
+        return result;
+    }
+
+    protected static class CountingMonitor extends TableauMonitorAdapter {
+        private static final long serialVersionUID=-1504466045432935542L;
+
+        protected int m_numberOfTests;
+
+        public void isSatisfiableStarted(ReasoningTaskDescription reasoningTaskDescription) {
+            m_numberOfTests++;
+        }
+    }
+}
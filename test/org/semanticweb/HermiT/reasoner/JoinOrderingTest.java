@@ -0,0 +1,82 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+public class JoinOrderingTest extends AbstractReasonerTest {
+
+    public JoinOrderingTest(String name) {
+        super(name);
+    }
+    public void testStatisticsAreCollected() throws Exception {
+        loadOntologyWithAxioms(getChain(600));
+        m_reasoner=new Reasoner(getJoinOrderingConfiguration(false),m_ontology);
+        assertTrue(m_reasoner.isConsistent());
+        assertEquals(0,m_reasoner.getTableau().getJoinStatistics().getNumberOfCollections());
+        m_reasoner.isSatisfiable(m_dataFactory.getOWLClass(IRI.create(NS+"A")));
+        assertEquals(1,m_reasoner.getTableau().getJoinStatistics().getNumberOfCollections());
+    }
+    public void testChain() throws Exception {
+        loadOntologyWithAxioms(getChain(600));
+        assertJoinOrderingPreservesResults();
+    }
+    public void testFamilies() throws Exception {
+        loadOntologyFromResource("res/families.owl");
+        assertJoinOrderingPreservesResults();
+    }
+    protected String getChain(int numberOfIndividuals) {
+        StringBuffer buffer=new StringBuffer();
+        buffer.append("SubClassOf(ObjectSomeValuesFrom(:r :B) :A) ");
+        buffer.append("SubClassOf(:A ObjectSomeValuesFrom(:s :C)) ");
+        buffer.append("SubClassOf(ObjectIntersectionOf(:C ObjectSomeValuesFrom(:t :D)) :E) ");
+        buffer.append("SubClassOf(ObjectSomeValuesFrom(:s :E) :G) ");
+        buffer.append("SubClassOf(:D ObjectUnionOf(:B :F)) ");
+        buffer.append("SubClassOf(ObjectIntersectionOf(:F :G) :B) ");
+        buffer.append("InverseObjectProperties(:s :s-) ");
+        buffer.append("SubObjectPropertyOf(:t :r) ");
+        for (int index=0;index<numberOfIndividuals;index++) {
+            buffer.append("ObjectPropertyAssertion(:r :a"+index+" :a"+(index+1)+") ");
+            if (index%3==0)
+                buffer.append("ObjectPropertyAssertion(:t :a"+index+" :a"+(index+3)+") ");
+            if (index%5==0)
+                buffer.append("ClassAssertion(:B :a"+index+") ");
+            if (index%7==0)
+                buffer.append("ClassAssertion(:D :a"+index+") ");
+            if (index%11==0)
+                buffer.append("ClassAssertion(:C :a"+index+") ");
+        }
+        return buffer.toString();
+    }
+    protected void assertJoinOrderingPreservesResults() {
+        m_reasoner=new Reasoner(getConfiguration(),m_ontology);
+        Map<Object,Object> expectedResults=getResults();
+        m_reasoner.dispose();
+        m_reasoner=new Reasoner(getJoinOrderingConfiguration(false),m_ontology);
+        assertEquals(expectedResults,getResults());
+        m_reasoner.dispose();
+        m_reasoner=new Reasoner(getJoinOrderingConfiguration(true),m_ontology);
+        assertEquals(expectedResults,getResults());
+    }
+    protected Configuration getJoinOrderingConfiguration(boolean useJoinLoops) {
+        Configuration configuration=getConfiguration();
+        configuration.useCostBasedJoinOrdering=true;
+        configuration.useJoinLoops=useJoinLoops;
+        return configuration;
+    }
+    protected Map<Object,Object> getResults() {
+        Map<Object,Object> results=new HashMap<Object,Object>();
+        results.put("consistent",m_reasoner.isConsistent());
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY,InferenceType.CLASS_ASSERTIONS);
+        for (OWLClass owlClass : m_ontology.getClassesInSignature(true)) {
+            results.put("instances of "+owlClass,m_reasoner.getInstances(owlClass,false).getFlattened());
+            results.put("subclasses of "+owlClass,m_reasoner.getSubClasses(owlClass,false).getFlattened());
+        }
+        return results;
+    }
+}
@@ -0,0 +1,119 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.semanticweb.HermiT.QuerySnapshot;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataProperty;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
+import org.semanticweb.owlapi.reasoner.InconsistentOntologyException;
+
+public class QuerySnapshotTest extends AbstractReasonerTest {
+    protected static final String AXIOMS="SubClassOf(:A :B) SubClassOf(:B :C) EquivalentClasses(:C :D) SubClassOf(:E :C) SubClassOf(:F ObjectIntersectionOf(:A :E)) "
+        +"SubClassOf(:G ObjectSomeValuesFrom(:r :A)) SubClassOf(ObjectSomeValuesFrom(:s :B) :H) SubClassOf(:U owl:Nothing) "
+        +"SubObjectPropertyOf(:r :s) SubObjectPropertyOf(:s :t) InverseObjectProperties(:t :ti) SubDataPropertyOf(:dp :dq) "
+        +"ClassAssertion(:A :a) ClassAssertion(:E :b) ClassAssertion(:G :c) ObjectPropertyAssertion(:s :d :a) ClassAssertion(:F :e) SameIndividual(:f :a) "
+        +"ClassAssertion(ObjectUnionOf(:A :E) :g) DataPropertyAssertion(:dp :g \"1\"^^xsd:integer)";
+
+    public QuerySnapshotTest(String name) {
+        super(name);
+    }
+    public void testSnapshotAgreesWithReasoner() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        QuerySnapshot snapshot=m_reasoner.createQuerySnapshot();
+        for (OWLClass owlClass : m_ontology.getClassesInSignature(true)) {
+            assertEquals(m_reasoner.getEquivalentClasses(owlClass),snapshot.getEquivalentClasses(owlClass));
+            assertEquals(m_reasoner.isSatisfiable(owlClass),snapshot.isSatisfiable(owlClass));
+            for (boolean direct : new boolean[] { true,false }) {
+                assertEquals(m_reasoner.getSuperClasses(owlClass,direct),snapshot.getSuperClasses(owlClass,direct));
+                assertEquals(m_reasoner.getSubClasses(owlClass,direct),snapshot.getSubClasses(owlClass,direct));
+                assertEquals(m_reasoner.getInstances(owlClass,direct),snapshot.getInstances(owlClass,direct));
+            }
+            for (OWLClass superClass : m_ontology.getClassesInSignature(true))
+                assertEquals(m_reasoner.isEntailed(m_dataFactory.getOWLSubClassOfAxiom(owlClass,superClass)),snapshot.isSubClassOf(owlClass,superClass));
+        }
+        assertEquals(m_reasoner.getUnsatisfiableClasses(),snapshot.getUnsatisfiableClasses());
+        for (OWLObjectProperty objectProperty : m_ontology.getObjectPropertiesInSignature(true))
+            for (OWLObjectPropertyExpression propertyExpression : new OWLObjectPropertyExpression[] { objectProperty,objectProperty.getInverseProperty() }) {
+                assertEquals(m_reasoner.getEquivalentObjectProperties(propertyExpression),snapshot.getEquivalentObjectProperties(propertyExpression));
+                for (boolean direct : new boolean[] { true,false }) {
+                    assertEquals(m_reasoner.getSuperObjectProperties(propertyExpression,direct),snapshot.getSuperObjectProperties(propertyExpression,direct));
+                    assertEquals(m_reasoner.getSubObjectProperties(propertyExpression,direct),snapshot.getSubObjectProperties(propertyExpression,direct));
+                }
+            }
+        for (OWLDataProperty dataProperty : m_ontology.getDataPropertiesInSignature(true)) {
+            assertEquals(m_reasoner.getEquivalentDataProperties(dataProperty),snapshot.getEquivalentDataProperties(dataProperty));
+            for (boolean direct : new boolean[] { true,false }) {
+                assertEquals(m_reasoner.getSuperDataProperties(dataProperty,direct),snapshot.getSuperDataProperties(dataProperty,direct));
+                assertEquals(m_reasoner.getSubDataProperties(dataProperty,direct),snapshot.getSubDataProperties(dataProperty,direct));
+            }
+        }
+        for (OWLNamedIndividual individual : m_ontology.getIndividualsInSignature(true)) {
+            assertEquals(m_reasoner.getSameIndividuals(individual),snapshot.getSameIndividuals(individual));
+            for (boolean direct : new boolean[] { true,false }) {
+                assertEquals(m_reasoner.getTypes(individual,direct),snapshot.getTypes(individual,direct));
+                for (OWLClass owlClass : m_ontology.getClassesInSignature(true))
+                    assertEquals(m_reasoner.hasType(individual,owlClass,direct),snapshot.hasType(individual,owlClass,direct));
+            }
+            for (OWLNamedIndividual otherIndividual : m_ontology.getIndividualsInSignature(true))
+                assertEquals(m_reasoner.isSameIndividual(individual,otherIndividual),snapshot.isSameIndividual(individual,otherIndividual));
+        }
+        assertTrue(snapshot.isSameIndividual(NS_NI("a"),NS_NI("f")));
+        assertTrue(snapshot.getInstances(NS_C("C"),false).containsEntity(NS_NI("g")));
+        assertFalse(snapshot.getInstances(NS_C("A"),false).containsEntity(NS_NI("g")));
+    }
+    public void testComplexClassExpressionsAreDelegated() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        QuerySnapshot snapshot=m_reasoner.createQuerySnapshot();
+        OWLClassExpression someSA=SVF(NS_OP("s"),NS_C("A"));
+        assertTrue(snapshot.getSuperClasses(someSA,false).containsEntity(NS_C("H")));
+        assertTrue(snapshot.isSubClassOf(NS_C("G"),someSA));
+        assertTrue(snapshot.getInstances(someSA,false).containsEntity(NS_NI("d")));
+        assertTrue(snapshot.getInstances(someSA,false).containsEntity(NS_NI("c")));
+        assertFalse(snapshot.getInstances(someSA,false).containsEntity(NS_NI("a")));
+    }
+    public void testConcurrentQueries() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        final QuerySnapshot snapshot=m_reasoner.createQuerySnapshot();
+        final List<Throwable> errors=new ArrayList<Throwable>();
+        Thread[] threads=new Thread[4];
+        for (int threadIndex=0;threadIndex<threads.length;threadIndex++) {
+            threads[threadIndex]=new Thread() {
+                public void run() {
+                    try {
+                        for (int iteration=0;iteration<200;iteration++) {
+                            assertTrue(snapshot.getSuperClasses(NS_C("F"),false).containsEntity(NS_C("D")));
+                            assertTrue(snapshot.getInstances(NS_C("C"),false).containsEntity(NS_NI("e")));
+                            assertTrue(snapshot.getTypes(NS_NI("f"),true).containsEntity(NS_C("A")));
+                            assertTrue(snapshot.getSuperObjectProperties(NS_OP("r"),false).containsEntity(NS_OP("t")));
+                            if (iteration%50==0)
+                                assertTrue(snapshot.getInstances(SVF(NS_OP("s"),NS_C("A")),false).containsEntity(NS_NI("d")));
+                        }
+                    }
+                    catch (Throwable error) {
+                        synchronized (errors) {
+                            errors.add(error);
+                        }
+                    }
+                }
+            };
+            threads[threadIndex].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+        assertTrue(errors.toString(),errors.isEmpty());
+    }
+    public void testInconsistentOntology() throws Exception {
+        loadReasonerWithAxioms("ClassAssertion(:U :a) SubClassOf(:U owl:Nothing)");
+        try {
+            m_reasoner.createQuerySnapshot();
+            fail();
+        }
+        catch (InconsistentOntologyException expected) {
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+import org.semanticweb.owlapi.reasoner.NodeSet;
+
+public class RealisationParallelTest extends AbstractReasonerTest {
+
+    public RealisationParallelTest(String name) {
+        super(name);
+    }
+    public void testPizza() throws Exception {
+        loadOntologyFromResource("res/pizza.xml");
+        assertParallelRealisationIsSequentialRealisation();
+    }
+    public void testFamilies() throws Exception {
+        loadOntologyFromResource("res/families.owl");
+        assertParallelRealisationIsSequentialRealisation();
+    }
+    public void testNondeterministicInstances() throws Exception {
+        loadOntologyWithAxioms(
+            "SubClassOf(:A ObjectUnionOf(:B :C)) "+
+            "SubClassOf(:B :D) "+
+            "SubClassOf(:C :D) "+
+            "SubClassOf(:D ObjectUnionOf(:E :F)) "+
+            "SubClassOf(ObjectIntersectionOf(:E :G) owl:Nothing) "+
+            "SubClassOf(ObjectIntersectionOf(:F :G) :H) "+
+            "SubObjectPropertyOf(:r :s) "+
+            "SubObjectPropertyOf(:t :s) "+
+            "SubClassOf(:D ObjectUnionOf(ObjectAllValuesFrom(:s :K) :L)) "+
+            "ClassAssertion(:A :a1) "+
+            "ClassAssertion(ObjectIntersectionOf(:A :G) :a2) "+
+            "ClassAssertion(ObjectUnionOf(:B :C) :a3) "+
+            "ClassAssertion(ObjectUnionOf(:A :E) :a4) "+
+            "ObjectPropertyAssertion(:r :a1 :a2) "+
+            "ObjectPropertyAssertion(:t :a2 :a3) "+
+            "ObjectPropertyAssertion(:r :a3 :a4) "+
+            "ClassAssertion(ObjectSomeValuesFrom(:s ObjectOneOf(:a1 :a4)) :a2)"
+        );
+        assertParallelRealisationIsSequentialRealisation();
+    }
+    protected void assertParallelRealisationIsSequentialRealisation() {
+        Configuration configuration=getConfiguration();
+        m_reasoner=new Reasoner(configuration,m_ontology);
+        m_reasoner.precomputeInferences(InferenceType.CLASS_ASSERTIONS,InferenceType.OBJECT_PROPERTY_ASSERTIONS);
+        Map<Object,Object> sequentialResults=getRealisationResults();
+        m_reasoner.dispose();
+        configuration=getConfiguration();
+        configuration.numberOfRealisationThreads=4;
+        m_reasoner=new Reasoner(configuration,m_ontology);
+        m_reasoner.precomputeInferences(InferenceType.CLASS_ASSERTIONS,InferenceType.OBJECT_PROPERTY_ASSERTIONS);
+        assertEquals(sequentialResults,getRealisationResults());
+    }
+    protected Map<Object,Object> getRealisationResults() {
+        Map<Object,Object> results=new HashMap<Object,Object>();
+        for (OWLClass owlClass : m_ontology.getClassesInSignature(true)) {
+            results.put("direct instances of "+owlClass,m_reasoner.getInstances(owlClass,true).getFlattened());
+            results.put("instances of "+owlClass,m_reasoner.getInstances(owlClass,false).getFlattened());
+        }
+        Set<OWLNamedIndividual> individuals=m_ontology.getIndividualsInSignature(true);
+        for (OWLObjectProperty objectProperty : m_ontology.getObjectPropertiesInSignature(true))
+            for (OWLNamedIndividual individual : individuals) {
+                NodeSet<OWLNamedIndividual> values=m_reasoner.getObjectPropertyValues(individual,objectProperty);
+                results.put(objectProperty+" values of "+individual,values.getFlattened());
+            }
+        return results;
+    }
+}
@@ -0,0 +1,29 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.monitor.CountingMonitor;
+
+public class ReasonerBatchedDeltaTest extends ReasonerTest {
+
+    public ReasonerBatchedDeltaTest(String name) {
+        super(name);
+    }
+    public void testBatchSizesAreCounted() throws Exception {
+        String axioms="SubClassOf(:A ObjectSomeValuesFrom(:r :B)) SubClassOf(:B ObjectSomeValuesFrom(:r :C)) SubClassOf(ObjectSomeValuesFrom(:r :C) :D) "
+            +"ClassAssertion(:A :a) ClassAssertion(:A :b) ClassAssertion(:A :c) ObjectPropertyAssertion(:r :a :b) ObjectPropertyAssertion(:r :b :c)";
+        loadOntologyWithAxioms(axioms);
+        Configuration configuration=getConfiguration();
+        CountingMonitor countingMonitor=new CountingMonitor();
+        configuration.monitor=countingMonitor;
+        createReasoner(configuration,null);
+        assertTrue(m_reasoner.isConsistent());
+        assertTrue(countingMonitor.getOverallNumberOfDeltaBatches()>0);
+        assertTrue(countingMonitor.getOverallNumberOfDeltaTuplesInBatches()>=countingMonitor.getOverallNumberOfDeltaBatches());
+        assertTrue(countingMonitor.getMaximalDeltaBatchSize()>1);
+    }
+    protected Configuration getConfiguration() {
+        Configuration configuration=super.getConfiguration();
+        configuration.batchDeltaTuples=true;
+        return configuration;
+    }
+}
@@ -0,0 +1,16 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.tableau.ExtensionManager;
+
+public class ReasonerDirectTupleStorageTest extends ReasonerTest {
+
+    public ReasonerDirectTupleStorageTest(String name) {
+        super(name);
+    }
+    protected Configuration getConfiguration() {
+        Configuration configuration=super.getConfiguration();
+        configuration.tupleStorageType=ExtensionManager.TupleStorageType.DIRECT_BUFFERS;
+        return configuration;
+    }
+}
@@ -0,0 +1,15 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+
+public class ReasonerJoinLoopsTest extends ReasonerTest {
+
+    public ReasonerJoinLoopsTest(String name) {
+        super(name);
+    }
+    protected Configuration getConfiguration() {
+        Configuration configuration=super.getConfiguration();
+        configuration.useJoinLoops=true;
+        return configuration;
+    }
+}
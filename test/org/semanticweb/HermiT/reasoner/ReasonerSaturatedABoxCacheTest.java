@@ -0,0 +1,67 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+public class ReasonerSaturatedABoxCacheTest extends ReasonerTest {
+    protected boolean m_useABoxModularisation;
+
+    public ReasonerSaturatedABoxCacheTest(String name) {
+        super(name);
+    }
+    public void testSaturatedABoxIsReused() throws Exception {
+        String axioms="SubClassOf(:A ObjectSomeValuesFrom(:r :B)) SubClassOf(ObjectSomeValuesFrom(:r :B) :C) SubClassOf(:C ObjectUnionOf(:D :E)) SubClassOf(:D :F) SubClassOf(:E :F) "
+            +"ClassAssertion(:A :a) ObjectPropertyAssertion(:r :b :c) ClassAssertion(:B :c) ClassAssertion(ObjectComplementOf(:D) :d) ObjectPropertyAssertion(:r :d :c)";
+        loadReasonerWithAxioms(axioms);
+        assertTrue(m_reasoner.isConsistent());
+        assertTrue(m_reasoner.getTableau().isSaturatedPermanentABoxCached());
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY,InferenceType.CLASS_ASSERTIONS);
+        assertEquals(m_reasoner.getInstances(getOWLClass("F"),false).getFlattened(),getIndividuals("a","b","d"));
+        assertEquals(m_reasoner.getInstances(getOWLClass("E"),false).getFlattened(),getIndividuals("d"));
+        assertEquals(m_reasoner.getInstances(getOWLClass("D"),false).getFlattened(),getIndividuals());
+        assertTrue(m_reasoner.getTableau().isSaturatedPermanentABoxCached());
+    }
+    public void testSaturatedABoxComponentsAreReused() throws Exception {
+        m_useABoxModularisation=true;
+        String axioms="SubClassOf(:A ObjectSomeValuesFrom(:r :B)) SubClassOf(ObjectSomeValuesFrom(:r :B) :C) SubClassOf(:C ObjectUnionOf(:D :E)) SubClassOf(:D :F) SubClassOf(:E :F) "
+            +"ClassAssertion(:A :a) ObjectPropertyAssertion(:r :b :c) ClassAssertion(:B :c) ClassAssertion(ObjectComplementOf(:D) :d) ObjectPropertyAssertion(:r :d :c) ClassAssertion(:A :e)";
+        loadReasonerWithAxioms(axioms);
+        assertTrue(m_reasoner.isConsistent());
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        // The checks for a load the component of a only, and the saturated component is recorded for the next check.
+        assertTrue(m_reasoner.hasType(getOWLIndividual("a"),getOWLClass("F"),false));
+        assertTrue(m_reasoner.getTableau().isSaturatedPermanentABoxCached());
+        assertFalse(m_reasoner.hasType(getOWLIndividual("a"),getOWLClass("D"),false));
+        assertTrue(m_reasoner.getTableau().isSaturatedPermanentABoxCached());
+        assertTrue(m_reasoner.hasType(getOWLIndividual("d"),getOWLClass("E"),false));
+        assertFalse(m_reasoner.hasType(getOWLIndividual("e"),getOWLClass("E"),false));
+        assertTrue(m_reasoner.getTableau().isSaturatedPermanentABoxCached());
+        m_reasoner.precomputeInferences(InferenceType.CLASS_ASSERTIONS);
+        assertEquals(m_reasoner.getInstances(getOWLClass("F"),false).getFlattened(),getIndividuals("a","b","d","e"));
+        assertEquals(m_reasoner.getInstances(getOWLClass("E"),false).getFlattened(),getIndividuals("d"));
+    }
+    protected OWLNamedIndividual getOWLIndividual(String name) {
+        return m_dataFactory.getOWLNamedIndividual(IRI.create(NS+name));
+    }
+    protected OWLClass getOWLClass(String name) {
+        return m_dataFactory.getOWLClass(IRI.create(NS+name));
+    }
+    protected Set<OWLNamedIndividual> getIndividuals(String... names) {
+        Set<OWLNamedIndividual> individuals=new HashSet<OWLNamedIndividual>();
+        for (String name : names)
+            individuals.add(m_dataFactory.getOWLNamedIndividual(IRI.create(NS+name)));
+        return individuals;
+    }
+    protected Configuration getConfiguration() {
+        Configuration configuration=super.getConfiguration();
+        configuration.cacheSaturatedPermanentABox=true;
+        configuration.useABoxModularisation=m_useABoxModularisation;
+        return configuration;
+    }
+}
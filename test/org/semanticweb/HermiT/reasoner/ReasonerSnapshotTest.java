@@ -0,0 +1,102 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.owlapi.model.AddAxiom;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+
+public class ReasonerSnapshotTest extends AbstractReasonerTest {
+
+    public ReasonerSnapshotTest(String name) {
+        super(name);
+    }
+    public void testWine() throws Exception {
+        loadReasonerFromResource("res/wine.xml");
+        restoreReasonerFromSnapshot();
+        assertHierarchies("res/wine.xml.txt");
+    }
+    public void testComplexQueriesAndChanges() throws Exception {
+        loadReasonerWithAxioms(
+            "TransitiveObjectProperty(:r) "+
+            "SubObjectPropertyOf(ObjectPropertyChain(:s :r) :r) "+
+            "SubClassOf(:A ObjectSomeValuesFrom(:r ObjectSomeValuesFrom(:r :B))) "+
+            "ClassAssertion(:A :a)"
+        );
+        restoreReasonerFromSnapshot();
+        OWLClassExpression someRB=m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"),NS_C("B"));
+        assertTrue(m_reasoner.isEntailed(m_dataFactory.getOWLSubClassOfAxiom(NS_C("A"),someRB)));
+        assertTrue(m_reasoner.isEntailed(m_dataFactory.getOWLClassAssertionAxiom(someRB,NS_NI("a"))));
+        m_ontologyManager.applyChange(new AddAxiom(m_ontology,m_dataFactory.getOWLSubClassOfAxiom(NS_C("B"),NS_C("C"))));
+        m_reasoner.flush();
+        assertSubsumedBy("B","C",true);
+        assertTrue(m_reasoner.isEntailed(m_dataFactory.getOWLSubClassOfAxiom(NS_C("A"),m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"),NS_C("C")))));
+    }
+    public void testWrongOntology() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:A :B)");
+        byte[] snapshot=getSnapshot();
+        m_ontologyManager.removeOntology(m_ontology);
+        m_ontology=m_ontologyManager.createOntology();
+        try {
+            Reasoner.loadSnapshot(getConfiguration(),m_ontology,new ByteArrayInputStream(snapshot));
+            fail();
+        }
+        catch (IllegalArgumentException expected) {
+        }
+    }
+    public void testChangedOntology() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:A :B)");
+        byte[] snapshot=getSnapshot();
+        m_ontologyManager.applyChange(new AddAxiom(m_ontology,m_dataFactory.getOWLSubClassOfAxiom(NS_C("B"),NS_C("C"))));
+        try {
+            Reasoner.loadSnapshot(getConfiguration(),m_ontology,new ByteArrayInputStream(snapshot));
+            fail();
+        }
+        catch (IllegalArgumentException expected) {
+        }
+    }
+    public void testCorruptedSnapshot() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:A :B)");
+        byte[] snapshot=getSnapshot();
+        snapshot[2]^=0x5A; // inside the magic number of the snapshot
+        try {
+            Reasoner.loadSnapshot(getConfiguration(),m_ontology,new ByteArrayInputStream(snapshot));
+            fail();
+        }
+        catch (IOException expected) {
+        }
+    }
+    public void testDifferentFormatVersion() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:A :B)");
+        byte[] snapshot=getSnapshot();
+        snapshot[7]++; // the last byte of the format version
+        try {
+            Reasoner.loadSnapshot(getConfiguration(),m_ontology,new ByteArrayInputStream(snapshot));
+            fail();
+        }
+        catch (IOException expected) {
+            assertTrue(expected.getMessage().indexOf("format version")!=-1);
+        }
+    }
+    public void testHeader() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:A :B)");
+        DataInputStream input=new DataInputStream(new ByteArrayInputStream(getSnapshot()));
+        input.readInt();
+        assertEquals(2,input.readInt());
+        String implementationVersion=Reasoner.class.getPackage().getImplementationVersion();
+        assertEquals(implementationVersion==null ? "development" : implementationVersion,input.readUTF());
+    }
+    protected byte[] getSnapshot() throws IOException {
+        ByteArrayOutputStream buffer=new ByteArrayOutputStream();
+        m_reasoner.saveSnapshot(buffer);
+        return buffer.toByteArray();
+    }
+    protected void restoreReasonerFromSnapshot() throws IOException {
+        byte[] snapshot=getSnapshot();
+        m_reasoner.dispose();
+        m_reasoner=Reasoner.loadSnapshot(getConfiguration(),m_ontology,new ByteArrayInputStream(snapshot));
+    }
+}
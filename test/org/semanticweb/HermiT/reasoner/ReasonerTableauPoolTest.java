@@ -0,0 +1,79 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.tableau.Tableau;
+import org.semanticweb.HermiT.tableau.TableauPool;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+
+public class ReasonerTableauPoolTest extends ReasonerTest {
+    protected static final long IDLE_TIMEOUT=600000;
+
+    public ReasonerTableauPoolTest(String name) {
+        super(name);
+    }
+    public void testConcurrentSatisfiabilityTests() throws Exception {
+        String axioms="SubClassOf(:A ObjectSomeValuesFrom(:r :B)) SubClassOf(:B ObjectAllValuesFrom(ObjectInverseOf(:r) :C)) DisjointClasses(:C :D) "
+            +"SubClassOf(:E ObjectUnionOf(:C :D)) ClassAssertion(:A :a) ObjectPropertyAssertion(:r :a :b)";
+        loadReasonerWithAxioms(axioms);
+        assertTrue(m_reasoner.isConsistent());
+        final OWLClassExpression satisfiable=m_dataFactory.getOWLObjectIntersectionOf(NS_C("A"),NS_C("E"));
+        final OWLClassExpression unsatisfiable=m_dataFactory.getOWLObjectIntersectionOf(NS_C("A"),NS_C("D"));
+        final OWLClassExpression someRB=SVF(NS_OP("r"),NS_C("B"));
+        final List<Throwable> errors=new ArrayList<Throwable>();
+        Thread[] threads=new Thread[4];
+        for (int threadIndex=0;threadIndex<threads.length;threadIndex++) {
+            threads[threadIndex]=new Thread() {
+                public void run() {
+                    try {
+                        for (int iteration=0;iteration<20;iteration++) {
+                            assertTrue(m_reasoner.isSatisfiable(satisfiable));
+                            assertFalse(m_reasoner.isSatisfiable(unsatisfiable));
+                            assertTrue(m_reasoner.isEntailed(m_dataFactory.getOWLSubClassOfAxiom(someRB,NS_C("C"))));
+                            assertTrue(m_reasoner.hasType(NS_NI("a"),someRB,false));
+                            assertFalse(m_reasoner.hasType(NS_NI("b"),someRB,false));
+                        }
+                    }
+                    catch (Throwable error) {
+                        synchronized (errors) {
+                            errors.add(error);
+                        }
+                    }
+                }
+            };
+            threads[threadIndex].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+        assertTrue(errors.toString(),errors.isEmpty());
+        TableauPool tableauPool=m_reasoner.getTableauPool();
+        assertTrue(tableauPool.getNumberOfTableaux()>=1);
+        assertTrue(tableauPool.getNumberOfTableaux()<=tableauPool.getMaximalNumberOfTableaux());
+        assertEquals(tableauPool.getNumberOfTableaux(),tableauPool.getNumberOfIdleTableaux());
+    }
+    public void testWarmUpAndEviction() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:A :B)");
+        TableauPool tableauPool=m_reasoner.getTableauPool();
+        assertEquals(1,tableauPool.getNumberOfTableaux());
+        List<Tableau> tableaux=new ArrayList<Tableau>();
+        for (int index=0;index<3;index++)
+            tableaux.add(tableauPool.acquire());
+        assertEquals(3,tableauPool.getNumberOfTableaux());
+        for (Tableau tableau : tableaux)
+            tableauPool.release(tableau);
+        // The idle timeout is far longer than the test, so no tableau is discarded on release.
+        assertEquals(3,tableauPool.getNumberOfTableaux());
+        tableauPool.discardIdleTableaux(System.currentTimeMillis()+IDLE_TIMEOUT+1);
+        assertEquals(1,tableauPool.getNumberOfTableaux());
+        assertEquals(1,tableauPool.getNumberOfIdleTableaux());
+    }
+    protected Configuration getConfiguration() {
+        Configuration configuration=super.getConfiguration();
+        configuration.tableauPoolSize=3;
+        configuration.tableauPoolWarmUpSize=1;
+        configuration.tableauPoolIdleTimeout=IDLE_TIMEOUT;
+        return configuration;
+    }
+}
@@ -0,0 +1,78 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.HermiT.hierarchy.InstanceVisitor;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+
+public class StreamingInstancesTest extends AbstractReasonerTest {
+
+    public StreamingInstancesTest(String name) {
+        super(name);
+    }
+    public void testStreamedInstancesAreGetInstances() throws Exception {
+        loadReasonerWithAxioms(
+            "SubClassOf(:A ObjectUnionOf(:B :C)) "+
+            "SubClassOf(:B :D) "+
+            "SubClassOf(:C :D) "+
+            "SubClassOf(:E :D) "+
+            "SubClassOf(:F :B) "+
+            "SubClassOf(:F :E) "+
+            "ClassAssertion(:A :a1) "+
+            "ClassAssertion(:F :a2) "+
+            "ClassAssertion(ObjectUnionOf(:B :E) :a3) "+
+            "ClassAssertion(:D :a4) "+
+            "ClassAssertion(:G :a5)"
+        );
+        for (String className : new String[] { "A","B","C","D","E","F","G" })
+            for (boolean direct : new boolean[] { false,true }) {
+                OWLClass owlClass=NS_C(className);
+                List<OWLNamedIndividual> streamed=streamInstances(m_reasoner,owlClass,direct,Integer.MAX_VALUE);
+                Set<OWLNamedIndividual> streamedSet=new HashSet<OWLNamedIndividual>(streamed);
+                assertEquals(streamed.size(),streamedSet.size());
+                assertEquals(m_reasoner.getInstances(owlClass,direct).getFlattened(),streamedSet);
+            }
+        List<OWLNamedIndividual> streamed=streamInstances(m_reasoner,m_dataFactory.getOWLThing(),false,Integer.MAX_VALUE);
+        assertEquals(5,streamed.size());
+        assertEquals(5,new HashSet<OWLNamedIndividual>(streamed).size());
+    }
+    public void testStopping() throws Exception {
+        loadReasonerWithAxioms(
+            "SubClassOf(:B :A) "+
+            "SubClassOf(:C :A) "+
+            "ClassAssertion(:B :a1) "+
+            "ClassAssertion(:C :a2) "+
+            "ClassAssertion(ObjectUnionOf(:B :C) :a3) "+
+            "ClassAssertion(:A :a4)"
+        );
+        List<OWLNamedIndividual> firstTwo=streamInstances(m_reasoner,NS_C("A"),false,2);
+        assertEquals(2,firstTwo.size());
+        assertEquals(4,streamInstances(m_reasoner,NS_C("A"),false,Integer.MAX_VALUE).size());
+        assertEquals(m_reasoner.getInstances(NS_C("B"),false).getFlattened(),new HashSet<OWLNamedIndividual>(streamInstances(m_reasoner,NS_C("B"),false,Integer.MAX_VALUE)));
+    }
+    public void testPossibleInstanceOfVisitedSuperclass() throws Exception {
+        loadReasonerWithAxioms(
+            "SubClassOf(:B :A) "+
+            "SubClassOf(:C :A) "+
+            "ClassAssertion(ObjectUnionOf(:B :C) :a1) "+
+            "ClassAssertion(:A :a2)"
+        );
+        assertEquals(2,m_reasoner.getInstances(NS_C("A"),false).getFlattened().size());
+    }
+    protected static List<OWLNamedIndividual> streamInstances(Reasoner reasoner,OWLClass owlClass,boolean direct,final int maximalNumberOfInstances) {
+        final List<OWLNamedIndividual> result=new ArrayList<OWLNamedIndividual>();
+        boolean completed=reasoner.forEachInstance(owlClass,direct,new InstanceVisitor<OWLNamedIndividual>() {
+            public boolean visitInstance(OWLNamedIndividual individual) {
+                result.add(individual);
+                return result.size()<maximalNumberOfInstances;
+            }
+        });
+        assertEquals(result.size()<maximalNumberOfInstances,completed);
+        return result;
+    }
+}
@@ -0,0 +1,66 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.blocking.SubsetDirectBlockingChecker;
+import org.semanticweb.HermiT.monitor.CountingMonitor;
+
+public class SubsetBlockingTest extends AbstractReasonerTest {
+    protected CountingMonitor m_countingMonitor;
+
+    public SubsetBlockingTest(String name) {
+        super(name);
+    }
+    protected Configuration getConfiguration() {
+        Configuration configuration=super.getConfiguration();
+        configuration.directBlockingType=Configuration.DirectBlockingType.SUBSET;
+        configuration.blockingSignatureCacheType=Configuration.BlockingSignatureCacheType.NOT_CACHED;
+        m_countingMonitor=new CountingMonitor();
+        configuration.monitor=m_countingMonitor;
+        return configuration;
+    }
+    protected Configuration getSingleBlockingConfiguration() {
+        Configuration configuration=getConfiguration();
+        configuration.directBlockingType=Configuration.DirectBlockingType.SINGLE;
+        return configuration;
+    }
+    public void testSubsetBlockingCreatesFewerNodes() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:A ObjectSomeValuesFrom(:r :P)) SubClassOf(:P ObjectIntersectionOf(:B :D ObjectSomeValuesFrom(:r :B))) SubClassOf(:B ObjectSomeValuesFrom(:r ObjectIntersectionOf(:C :E)))");
+        assertTrue(SubsetDirectBlockingChecker.isSubsetBlockingSound(m_reasoner.getDLOntology()));
+        assertSatisfiable("A",true);
+        int subsetBlockingNodes=m_countingMonitor.getNumberOfNodes();
+        createReasoner(getSingleBlockingConfiguration(),null);
+        assertSatisfiable("A",true);
+        int singleBlockingNodes=m_countingMonitor.getNumberOfNodes();
+        assertTrue(subsetBlockingNodes<singleBlockingNodes);
+    }
+    public void testSubsetBlockingAgreesWithSingleBlocking() throws Exception {
+        loadReasonerWithAxioms(
+            "SubClassOf(:A ObjectSomeValuesFrom(:r ObjectIntersectionOf(:B :C))) "+
+            "SubClassOf(:B ObjectSomeValuesFrom(:r ObjectUnionOf(:B :D))) "+
+            "SubClassOf(:C ObjectAllValuesFrom(:r :F)) "+
+            "SubClassOf(ObjectIntersectionOf(:B :F) ObjectSomeValuesFrom(:s :G)) "+
+            "SubClassOf(ObjectIntersectionOf(:G :H) owl:Nothing) "+
+            "SubClassOf(:K ObjectIntersectionOf(:A ObjectAllValuesFrom(:r :F) ObjectAllValuesFrom(:r ObjectAllValuesFrom(:s :H))))"
+        );
+        assertTrue(SubsetDirectBlockingChecker.isSubsetBlockingSound(m_reasoner.getDLOntology()));
+        String subsetBlockingHierarchies=getHierarchiesAsText();
+        assertSatisfiable("K",false);
+        createReasoner(getSingleBlockingConfiguration(),null);
+        assertEquals(getHierarchiesAsText(),subsetBlockingHierarchies);
+        assertSatisfiable("K",false);
+        assertSatisfiable("A",true);
+    }
+    public void testSubsetBlockingIsUnsoundWithConceptsOnSuccessors() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:A ObjectSomeValuesFrom(:r :B)) SubClassOf(ObjectSomeValuesFrom(:r :C) :D)");
+        assertFalse(SubsetDirectBlockingChecker.isSubsetBlockingSound(m_reasoner.getDLOntology()));
+    }
+    public void testSubsetBlockingIsUnsoundWithAtMostRestrictions() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:A ObjectMaxCardinality(1 :r :B))");
+        assertFalse(SubsetDirectBlockingChecker.isSubsetBlockingSound(m_reasoner.getDLOntology()));
+    }
+    public void testSubsetBlockingIsUnsoundWithInverseRoles() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:A ObjectSomeValuesFrom(ObjectInverseOf(:r) :B)) SubClassOf(:B ObjectSomeValuesFrom(:r :A))");
+        assertFalse(SubsetDirectBlockingChecker.isSubsetBlockingSound(m_reasoner.getDLOntology()));
+        assertSatisfiable("A",true);
+    }
+}
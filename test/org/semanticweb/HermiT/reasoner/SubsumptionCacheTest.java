@@ -0,0 +1,87 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.hierarchy.SubsumptionCache;
+import org.semanticweb.HermiT.monitor.CountingMonitor;
+import org.semanticweb.HermiT.tableau.ReasoningTaskDescription.StandardTestType;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+
+public class SubsumptionCacheTest extends AbstractReasonerTest {
+    protected CountingMonitor m_countingMonitor;
+
+    public SubsumptionCacheTest(String name) {
+        super(name);
+    }
+    protected Configuration getConfiguration() {
+        Configuration configuration=super.getConfiguration();
+        m_countingMonitor=new CountingMonitor();
+        configuration.monitor=m_countingMonitor;
+        configuration.subsumptionCacheSize=100;
+        return configuration;
+    }
+    public void testRepeatedQueriesUseCachedResults() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:A :B) SubClassOf(:B :C) SubClassOf(:D ObjectSomeValuesFrom(:r :A)) SubClassOf(ObjectSomeValuesFrom(:r :C) :E)");
+        OWLClassExpression someRB=SVF(NS_OP("r"),NS_C("B"));
+        assertTrue(m_reasoner.getSuperClasses(someRB,false).containsEntity(NS_C("E")));
+        SubsumptionCache subsumptionCache=m_reasoner.getSubsumptionCache();
+        long misses=subsumptionCache.getNumberOfMisses();
+        int tests=m_countingMonitor.getOverallNumberOfTests();
+        long hits=subsumptionCache.getNumberOfHits();
+        assertTrue(misses>0);
+        assertTrue(m_reasoner.getSuperClasses(someRB,true).containsEntity(NS_C("E")));
+        assertTrue(m_reasoner.getSubClasses(someRB,false).containsEntity(NS_C("D")));
+        assertEquals(misses,subsumptionCache.getNumberOfMisses());
+        assertEquals(tests,m_countingMonitor.getOverallNumberOfTests());
+        assertTrue(subsumptionCache.getNumberOfHits()>hits);
+        assertEquals(subsumptionCache.getNumberOfHits(),m_countingMonitor.getOverallNumberOfSubsumptionCacheHits());
+        assertEquals(misses,m_countingMonitor.getOverallNumberOfSubsumptionCacheMisses());
+        assertTrue(m_reasoner.isEntailed(m_dataFactory.getOWLSubClassOfAxiom(NS_C("D"),someRB)));
+        hits=subsumptionCache.getNumberOfHits();
+        assertTrue(m_reasoner.isEntailed(m_dataFactory.getOWLSubClassOfAxiom(NS_C("D"),someRB)));
+        assertEquals(hits+1,subsumptionCache.getNumberOfHits());
+    }
+    public void testCacheIsClearedOnFlush() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:A :B) SubClassOf(:D ObjectSomeValuesFrom(:r :A))");
+        OWLClassExpression someRB=SVF(NS_OP("r"),NS_C("B"));
+        assertFalse(m_reasoner.getSuperClasses(someRB,false).containsEntity(NS_C("E")));
+        assertTrue(m_reasoner.getSubsumptionCache().size()>0);
+        m_ontologyManager.addAxiom(m_ontology,m_dataFactory.getOWLSubClassOfAxiom(someRB,NS_C("E")));
+        m_reasoner.flush();
+        assertEquals(0,m_reasoner.getSubsumptionCache().size());
+        assertTrue(m_reasoner.getSuperClasses(someRB,false).containsEntity(NS_C("E")));
+    }
+    public void testCacheIsBounded() throws Exception {
+        SubsumptionCache subsumptionCache=new SubsumptionCache(2);
+        subsumptionCache.putResult("a","b",true);
+        subsumptionCache.putResult("a","c",false);
+        assertEquals(Boolean.TRUE,subsumptionCache.getResult("a","b",null));
+        subsumptionCache.putResult("b","c",true);
+        assertEquals(2,subsumptionCache.size());
+        assertNull(subsumptionCache.getResult("a","c",null));
+        assertEquals(Boolean.TRUE,subsumptionCache.getResult("a","b",null));
+        assertEquals(Boolean.TRUE,subsumptionCache.getResult("b","c",null));
+        assertEquals(3,subsumptionCache.getNumberOfHits());
+        assertEquals(1,subsumptionCache.getNumberOfMisses());
+    }
+    public void testPrunedPossibleSubsumersNeedNoSubsumptionTests() throws Exception {
+        // The model of each class contains none of the other classes in its root label, so classification prunes all
+        // possible subsumers from the models of the satisfiability tests and needs no subsumption test.
+        loadReasonerWithAxioms(
+            "SubClassOf(:A ObjectSomeValuesFrom(:r :X)) "+
+            "SubClassOf(:B ObjectAllValuesFrom(:r :Y)) "+
+            "SubClassOf(:C ObjectMaxCardinality(1 :s)) "+
+            "SubClassOf(:D ObjectSomeValuesFrom(:t :Z)) "+
+            "SubClassOf(:E ObjectComplementOf(:F)) "+
+            "SubClassOf(:F ObjectSomeValuesFrom(:s :X))"
+        );
+        m_reasoner.classifyClasses();
+        assertEquals(0,m_countingMonitor.getOverallNumberOfTests(StandardTestType.CONCEPT_SUBSUMPTION));
+        assertEquals(0,m_countingMonitor.getOverallNumberOfSubsumptionCacheMisses());
+        // one test for each class and for owl:Thing and owl:Nothing
+        int numberOfClasses=m_ontology.getClassesInSignature().size();
+        assertTrue(m_countingMonitor.getOverallNumberOfTests(StandardTestType.CONCEPT_SATISFIABILITY)<=numberOfClasses+3);
+        assertFalse(m_reasoner.getSuperClasses(NS_C("A"),false).containsEntity(NS_C("B")));
+        assertFalse(m_reasoner.getSuperClasses(NS_C("C"),false).containsEntity(NS_C("D")));
+        assertFalse(m_reasoner.getSuperClasses(NS_C("F"),false).containsEntity(NS_C("E")));
+    }
+}
@@ -0,0 +1,66 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+import org.semanticweb.HermiT.hierarchy.TableauWorkQueue;
+import org.semanticweb.HermiT.tableau.InterruptFlag;
+import org.semanticweb.HermiT.tableau.Tableau;
+import org.semanticweb.owlapi.reasoner.ReasonerInterruptedException;
+
+public class TableauWorkQueueTest extends AbstractReasonerTest {
+
+    public TableauWorkQueueTest(String name) {
+        super(name);
+    }
+    public void testInterruptIsNotLostWhenWorkerStartsTask() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:A :B)");
+        final CountDownLatch waitingTaskStarted=new CountDownLatch(1);
+        final boolean[] interruptedAfterRestart=new boolean[1];
+        TableauWorkQueue<String> workQueue=new TableauWorkQueue<String>() {
+            protected void processTask(Tableau workerTableau,String task) {
+                if ("fail".equals(task)) {
+                    try {
+                        waitingTaskStarted.await();
+                    }
+                    catch (InterruptedException interrupted) {
+                    }
+                    throw new IllegalStateException("fail");
+                }
+                InterruptFlag workerInterruptFlag=workerTableau.getInterruptFlag();
+                waitingTaskStarted.countDown();
+                waitForInterrupt(workerInterruptFlag);
+                // Starting the next test resets the flag, as Tableau.isSatisfiable() does.
+                workerInterruptFlag.startTask();
+                interruptedAfterRestart[0]=waitForInterrupt(workerInterruptFlag);
+                workerInterruptFlag.endTask();
+            }
+        };
+        workQueue.addTasks(Arrays.asList("wait","fail"));
+        // The failure of one worker, rather than an interrupt of the caller, stops the queue.
+        Tableau[] workerTableaux=new Tableau[] { m_reasoner.getTableau(),m_reasoner.getTableau() };
+        try {
+            workQueue.process(new InterruptFlag(0),workerTableaux);
+            fail();
+        }
+        catch (IllegalStateException expected) {
+        }
+        assertTrue(interruptedAfterRestart[0]);
+    }
+    protected static boolean waitForInterrupt(InterruptFlag interruptFlag) {
+        long deadline=System.currentTimeMillis()+10000;
+        while (System.currentTimeMillis()<deadline) {
+            try {
+                interruptFlag.checkInterrupt();
+                Thread.sleep(5);
+            }
+            catch (ReasonerInterruptedException interrupted) {
+                return true;
+            }
+            catch (InterruptedException interrupted) {
+                return false;
+            }
+        }
+        return false;
+    }
+}
@@ -9,12 +9,16 @@ public class AllTests {
         TestSuite suite = new TestSuite("Test for the HermiT internals (tableau)");
         //$JUnit-BEGIN$
         suite.addTestSuite(TupleIndexTest.class);
+        suite.addTestSuite(DirectTupleIndexTest.class);
         suite.addTestSuite(TupleTableFullIndexTest.class);
+        suite.addTestSuite(IntTupleTableFullIndexTest.class);
+        suite.addTestSuite(DirectTupleTableFullIndexTest.class);
         suite.addTestSuite(DLClauseEvaluationTest.class);
         suite.addTestSuite(DependencySetTest.class);
         suite.addTestSuite(NIRuleTest.class);
         suite.addTestSuite(MergeTest.class);
         suite.addTestSuite(GraphTest.class);
+        suite.addTestSuite(CheckpointTest.class);
         //$JUnit-END$
         return suite;
     }
@@ -0,0 +1,58 @@
+package org.semanticweb.HermiT.tableau;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.Individual;
+import org.semanticweb.HermiT.model.Term;
+
+public class CheckpointTest extends AbstractReasonerInternalsTest {
+
+    public CheckpointTest(String name) {
+        super(name);
+    }
+    public void testRollback() throws Exception {
+        loadOntologyWithAxioms("SubClassOf(:A ObjectSomeValuesFrom(:r :B)) SubClassOf(:B :C) DisjointClasses(:C :D) SubClassOf(:E ObjectAllValuesFrom(:r :D)) SubClassOf(:F ObjectUnionOf(:E :G)) ClassAssertion(:A :a)");
+        Tableau tableau=getTableau();
+        Map<Term,Node> termsToNodes=new HashMap<Term,Node>();
+        assertTrue(tableau.isSatisfiable(true,false,null,null,null,null,termsToNodes,null,ReasoningTaskDescription.isABoxSatisfiable()));
+        int numberOfNodes=tableau.getNumberOfNodesInTableau();
+        int numberOfTuples=tableau.getExtensionManager().getBinaryExtensionTable().m_afterDeltaNewTupleIndex;
+        Checkpoint checkpoint=tableau.checkpoint(termsToNodes);
+        Node a=termsToNodes.get(Individual.create(NS+"a"));
+        assertSame(a,checkpoint.getTermsToNodes().get(Individual.create(NS+"a")));
+
+        assertFalse(isSatisfiable(tableau,checkpoint,"E","a"));
+        assertState(tableau,checkpoint,numberOfNodes,numberOfTuples);
+        assertTrue(isSatisfiable(tableau,checkpoint,"F","a"));
+        assertFalse(tableau.isCurrentModelDeterministic());
+        assertState(tableau,checkpoint,numberOfNodes,numberOfTuples);
+        assertTrue(tableau.isCurrentModelDeterministic());
+        assertTrue(isSatisfiable(tableau,checkpoint,"E","b"));
+        assertState(tableau,checkpoint,numberOfNodes,numberOfTuples);
+        assertFalse(isSatisfiable(tableau,checkpoint,"E","a"));
+
+        tableau.clear();
+        assertFalse(tableau.isValid(checkpoint));
+        try {
+            tableau.rollback(checkpoint);
+            fail();
+        }
+        catch (IllegalArgumentException expected) {
+        }
+    }
+    protected boolean isSatisfiable(Tableau tableau,Checkpoint checkpoint,String atomicConcept,String individual) {
+        Set<Atom> facts=Collections.singleton(Atom.create(AtomicConcept.create(NS+atomicConcept),Individual.create(NS+individual)));
+        return tableau.isSatisfiable(checkpoint,facts,null,null,null,new HashMap<Term,Node>(),null,ReasoningTaskDescription.isABoxSatisfiable());
+    }
+    protected void assertState(Tableau tableau,Checkpoint checkpoint,int numberOfNodes,int numberOfTuples) {
+        tableau.rollback(checkpoint);
+        assertEquals(numberOfNodes,tableau.getNumberOfNodesInTableau());
+        assertEquals(numberOfTuples,tableau.getExtensionManager().getBinaryExtensionTable().m_afterDeltaNewTupleIndex);
+        assertFalse(tableau.getExtensionManager().containsClash());
+    }
+}
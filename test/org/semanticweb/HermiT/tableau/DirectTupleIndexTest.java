@@ -0,0 +1,11 @@
+package org.semanticweb.HermiT.tableau;
+
+public class DirectTupleIndexTest extends TupleIndexTest {
+
+    public DirectTupleIndexTest(String name) {
+        super(name);
+    }
+    protected void setUp() {
+        m_tupleIndex=new TupleIndex(new int[] { 0,1,2 },ExtensionManager.TupleStorageType.DIRECT_BUFFERS,new TupleObjectRegistry());
+    }
+}
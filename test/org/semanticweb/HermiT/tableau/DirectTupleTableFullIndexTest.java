@@ -0,0 +1,24 @@
+package org.semanticweb.HermiT.tableau;
+
+public class DirectTupleTableFullIndexTest extends IntTupleTableFullIndexTest {
+
+    public DirectTupleTableFullIndexTest(String name) {
+        super(name);
+    }
+    protected void setUp() {
+        m_tupleTable=new DirectTupleTable(2,new TupleObjectRegistry());
+        m_index=new TupleTableFullIndex(m_tupleTable,2);
+    }
+    public void testTruncate() {
+        for (int tupleIndex=0;tupleIndex<2000;tupleIndex++)
+            m_tupleTable.addTuple(T("a"+tupleIndex,"b"));
+        m_tupleTable.truncate(700);
+        assertEquals(700,m_tupleTable.getFirstFreeTupleIndex());
+        m_tupleTable.addTuple(T("c","d"));
+        assertEquals("c",m_tupleTable.getTupleObject(700,0));
+        assertEquals("a699",m_tupleTable.getTupleObject(699,0));
+        m_tupleTable.clear();
+        assertEquals(0,m_tupleTable.getFirstFreeTupleIndex());
+        assertNull(m_tupleTable.getTupleObject(0,0));
+    }
+}
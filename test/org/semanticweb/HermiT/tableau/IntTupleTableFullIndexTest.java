@@ -0,0 +1,43 @@
+package org.semanticweb.HermiT.tableau;
+
+public class IntTupleTableFullIndexTest extends TupleTableFullIndexTest {
+
+    public IntTupleTableFullIndexTest(String name) {
+        super(name);
+    }
+    protected void setUp() {
+        m_tupleTable=new IntTupleTable(2,new TupleObjectRegistry());
+        m_index=new TupleTableFullIndex(m_tupleTable,2);
+    }
+    public void testRetrieveAndNullify() {
+        assertAdd(0,"a","b");
+        assertAdd(1,"b","c");
+        Object[] tupleBuffer=new Object[2];
+        m_tupleTable.retrieveTuple(tupleBuffer,1);
+        assertEquals("b",tupleBuffer[0]);
+        assertEquals("c",tupleBuffer[1]);
+        m_tupleTable.setTupleObject(0,1,"d");
+        assertEquals("d",m_tupleTable.getTupleObject(0,1));
+        m_tupleTable.nullifyTuple(1);
+        assertNull(m_tupleTable.getTupleObject(1,0));
+        assertNull(m_tupleTable.getTupleObject(1,1));
+    }
+    public void testRegistryReusesIDsOfRecycledObjects() {
+        TupleObjectRegistry registry=new TupleObjectRegistry();
+        DependencySetFactory dependencySetFactory=new DependencySetFactory();
+        PermanentDependencySet dependencySet=dependencySetFactory.addBranchingPoint(dependencySetFactory.emptySet(),0);
+        int objectID=registry.getObjectID(dependencySet);
+        assertEquals(objectID,registry.getObjectID(dependencySet));
+        assertEquals(objectID,registry.getObjectID(dependencySetFactory.addBranchingPoint(dependencySetFactory.emptySet(),0)));
+        dependencySetFactory.removeUnusedSets();
+        PermanentDependencySet recycledDependencySet=dependencySetFactory.addBranchingPoint(dependencySetFactory.emptySet(),1);
+        assertSame(dependencySet,recycledDependencySet);
+        assertEquals(objectID,registry.getObjectID(recycledDependencySet));
+        String predicate="p";
+        int predicateID=registry.getObjectID(predicate);
+        assertEquals(predicateID,registry.getObjectID(predicate));
+        assertSame(predicate,registry.getObject(predicateID));
+        registry.clear();
+        assertEquals(0,registry.getObjectID(predicate));
+    }
+}
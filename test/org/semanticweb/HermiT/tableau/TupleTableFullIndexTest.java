@@ -8,7 +8,7 @@ public class TupleTableFullIndexTest extends AbstractReasonerInternalsTest {
         super(name);
     }
     protected void setUp() {
-        m_tupleTable=new TupleTable(2);
+        m_tupleTable=new ObjectTupleTable(2);
         m_index=new TupleTableFullIndex(m_tupleTable,2);
     }
     public void testIndex() {